@@ -0,0 +1,84 @@
+package com.jdkmanager.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * 常驻进程的客户端
+ * 连接保持打开，可以在同一个连接上连续发送请求
+ */
+public class DaemonClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final OutputStream output;
+
+    /**
+     * 连接到本机端口
+     * @param port 端口
+     * @param timeoutMillis 连接和读取超时
+     * @throws IOException 如果无法连接
+     */
+    public DaemonClient(int port, int timeoutMillis) throws IOException {
+        socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            socket.setTcpNoDelay(true);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            output = socket.getOutputStream();
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 按端口文件连接正在运行的常驻进程
+     * @param portFile 常驻进程写入的端口文件
+     * @param timeoutMillis 连接和读取超时
+     * @return 客户端，没有运行中的常驻进程时返回Optional.empty()
+     */
+    public static Optional<DaemonClient> connect(Path portFile, int timeoutMillis) {
+        try {
+            int port = Integer.parseInt(Files.readString(portFile).trim());
+            return Optional.of(new DaemonClient(port, timeoutMillis));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("无法连接常驻进程: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 发送一条请求并等待响应
+     * @param request 请求行，不含换行符
+     * @return 响应行
+     * @throws IOException 如果通信失败
+     */
+    public String request(String request) throws IOException {
+        output.write((request + "\n").getBytes(StandardCharsets.UTF_8));
+        output.flush();
+        String response = reader.readLine();
+        if (response == null) {
+            throw new IOException("常驻进程已关闭连接");
+        }
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
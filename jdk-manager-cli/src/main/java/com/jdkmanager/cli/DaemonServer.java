@@ -0,0 +1,266 @@
+package com.jdkmanager.cli;
+
+import com.jdkmanager.scanner.InventorySnapshot;
+import com.jdkmanager.scanner.InventoryStore;
+import com.jdkmanager.scanner.JdkInfo;
+import com.jdkmanager.scanner.ProjectJdkResolver;
+import com.jdkmanager.scanner.VersionSpec;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 常驻进程的本地查询服务
+ * 只监听回环地址，协议为UTF-8文本行，一个连接上可以连续发送多个请求：
+ * <pre>
+ * PING              -&gt; OK jdk-manager/1
+ * LIST              -&gt; OK [JSON数组]
+ * CURRENT           -&gt; OK 路径 | NONE
+ * WHICH 版本        -&gt; OK 路径 | NONE
+ * RESOLVE 目录      -&gt; OK 路径 | NONE   (按项目版本文件解析)
+ * REFRESH           -&gt; OK               (后台重新扫描)
+ * </pre>
+ * 出错时返回 {@code ERR 原因}。查询只读取{@link InventoryStore}中已发布的快照，不加锁。
+ * 每个连接占用一个工作线程，空闲超过{@link #IDLE_TIMEOUT_MILLIS}的连接由服务端关闭
+ */
+public class DaemonServer implements AutoCloseable {
+
+    static final String PROTOCOL = "jdk-manager/1";
+    // 最多同时服务的连接数，超出时直接关闭新连接
+    static final int MAX_CONNECTIONS = 64;
+    // 连接上这段时间没有请求时关闭，避免空闲连接占满工作线程
+    static final int IDLE_TIMEOUT_MILLIS = 60_000;
+
+    private final InventoryStore store;
+    private final ProjectJdkResolver resolver;
+    private final Runnable refresh;
+    private final ThreadPoolExecutor workers;
+    private final int idleTimeoutMillis;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    private ServerSocket serverSocket;
+    // LIST的响应按快照缓存，清单不变时不重复生成JSON
+    private volatile Rendered rendered;
+
+    /**
+     * 构造函数
+     * @param store 清单存储
+     * @param refresh 收到REFRESH请求时调用，应只提交后台任务并立即返回
+     */
+    public DaemonServer(InventoryStore store, Runnable refresh) {
+        this(store, refresh, IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * 构造函数
+     * @param store 清单存储
+     * @param refresh 收到REFRESH请求时调用，应只提交后台任务并立即返回
+     * @param idleTimeoutMillis 连接空闲超时
+     */
+    DaemonServer(InventoryStore store, Runnable refresh, int idleTimeoutMillis) {
+        this.store = store;
+        this.resolver = new ProjectJdkResolver(() -> store.get().getInstallations());
+        this.refresh = refresh;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.workers = new ThreadPoolExecutor(0, MAX_CONNECTIONS, 30, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "jdk-manager-daemon-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * 获取默认端口文件位置，常驻进程启动后写入实际端口
+     * @return 用户目录下的端口文件路径
+     */
+    public static Path defaultPortFile() {
+        return Path.of(System.getProperty("user.home"), ".jdk-manager", "daemon.port");
+    }
+
+    /**
+     * 在回环地址上开始监听
+     * @param port 端口，0表示由系统分配
+     * @throws IOException 如果无法绑定端口
+     */
+    public synchronized void start(int port) throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("服务已启动");
+        }
+        serverSocket = new ServerSocket(port, MAX_CONNECTIONS, InetAddress.getLoopbackAddress());
+        Thread acceptThread = new Thread(this::acceptLoop, "jdk-manager-daemon-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * 获取实际监听的端口
+     * @return 端口
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("接受连接失败: " + e.getMessage());
+                }
+                continue;
+            }
+            try {
+                workers.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                System.err.println("连接数已达上限，拒绝新连接");
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        connections.add(socket);
+        try (Socket client = socket;
+             BufferedReader reader = new BufferedReader(
+                 new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(
+                 new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            client.setTcpNoDelay(true);
+            client.setSoTimeout(idleTimeoutMillis);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(handle(line));
+                writer.write('\n');
+                // 客户端已经把后续请求一起发来时合并成一次写出
+                if (!reader.ready()) {
+                    writer.flush();
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            // 空闲超时，关闭连接释放工作线程，客户端需要时重新连接
+        } catch (SocketException e) {
+            // 客户端断开
+        } catch (IOException e) {
+            System.err.println("处理连接失败: " + e.getMessage());
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * 处理一条请求
+     * @param request 请求行
+     * @return 响应行，不含换行符
+     */
+    String handle(String request) {
+        int space = request.indexOf(' ');
+        String command = space < 0 ? request.trim() : request.substring(0, space);
+        String argument = space < 0 ? "" : request.substring(space + 1).trim();
+
+        switch (command) {
+            case "PING":
+                return "OK " + PROTOCOL;
+            case "LIST":
+                return "OK " + listJson(store.get());
+            case "CURRENT":
+                return path(store.get().getCurrent());
+            case "WHICH": {
+                Optional<VersionSpec> spec = VersionSpec.parse(argument);
+                if (spec.isEmpty()) {
+                    return "ERR 无效的版本: " + argument;
+                }
+                return path(spec.get().selectBest(store.get().getInstallations()));
+            }
+            case "RESOLVE":
+                if (argument.isEmpty()) {
+                    return "ERR 缺少目录";
+                }
+                try {
+                    return path(resolver.resolve(Path.of(argument))
+                        .flatMap(ProjectJdkResolver.Resolution::getJdk));
+                } catch (InvalidPathException e) {
+                    return "ERR 无效的目录: " + argument;
+                }
+            case "REFRESH":
+                refresh.run();
+                return "OK";
+            default:
+                return "ERR 未知请求: " + command;
+        }
+    }
+
+    private String listJson(InventorySnapshot snapshot) {
+        Rendered current = rendered;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Rendered(snapshot, Json.jdks(snapshot.getInstallations()));
+            rendered = current;
+        }
+        return current.json;
+    }
+
+    private static String path(Optional<JdkInfo> jdk) {
+        return jdk.map(value -> "OK " + value.getPath()).orElse("NONE");
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // 忽略
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                System.err.println("关闭服务失败: " + e.getMessage());
+            }
+        }
+        // 阻塞中的读取不响应中断，关闭套接字让工作线程退出
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        workers.shutdownNow();
+    }
+
+    /**
+     * 快照及其LIST响应
+     */
+    private static final class Rendered {
+        private final InventorySnapshot snapshot;
+        private final String json;
+
+        Rendered(InventorySnapshot snapshot, String json) {
+            this.snapshot = snapshot;
+            this.json = json;
+        }
+    }
+}
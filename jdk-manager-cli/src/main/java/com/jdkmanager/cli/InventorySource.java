@@ -0,0 +1,132 @@
+package com.jdkmanager.cli;
+
+import com.jdkmanager.scanner.InventoryCache;
+import com.jdkmanager.scanner.InventorySnapshot;
+import com.jdkmanager.scanner.JdkInfo;
+import com.jdkmanager.scanner.JdkScanner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 命令行使用的JDK清单来源
+ * 磁盘缓存足够新时直接使用，不创建扫描器也不遍历目录；否则重新扫描并写回缓存
+ */
+class InventorySource {
+
+    // 缓存在这段时间内视为最新
+    static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+
+    private final Supplier<JdkScanner> scannerFactory;
+    private final InventoryCache cache;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    private JdkScanner scanner;
+    private InventorySnapshot snapshot;
+    private boolean fromCache;
+
+    /**
+     * 构造函数
+     * @param scannerFactory 扫描器工厂，只在需要扫描时调用
+     * @param cache 清单缓存
+     * @param maxAge 缓存的最长有效时间
+     * @param clock 时钟
+     */
+    InventorySource(Supplier<JdkScanner> scannerFactory, InventoryCache cache, Duration maxAge, Clock clock) {
+        this.scannerFactory = scannerFactory;
+        this.cache = cache;
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取清单
+     * @param forceRescan 是否忽略缓存重新扫描
+     * @return 清单快照
+     */
+    InventorySnapshot get(boolean forceRescan) {
+        if (snapshot != null && !forceRescan) {
+            return snapshot;
+        }
+        if (!forceRescan) {
+            Optional<InventorySnapshot> cached = cache.load();
+            if (cached.isPresent() && isFresh(cached.get())) {
+                snapshot = cached.get();
+                fromCache = true;
+                return snapshot;
+            }
+        }
+        return rescan();
+    }
+
+    /**
+     * 重新扫描并写回缓存
+     * @return 扫描得到的快照
+     */
+    InventorySnapshot rescan() {
+        snapshot = scanner().scanInventory();
+        fromCache = false;
+        save(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * 切换成功后更新缓存中的当前JDK，下一次调用无需重新扫描
+     * @param jdkPath 新的当前JDK
+     */
+    void markCurrent(Path jdkPath) {
+        if (snapshot != null) {
+            snapshot = snapshot.withCurrent(jdkPath);
+            save(snapshot);
+        }
+    }
+
+    /**
+     * 获取扫描器，第一次调用时创建
+     * @return 扫描器
+     */
+    JdkScanner scanner() {
+        if (scanner == null) {
+            scanner = scannerFactory.get();
+        }
+        return scanner;
+    }
+
+    boolean isFromCache() {
+        return fromCache;
+    }
+
+    /**
+     * 检查缓存是否仍可直接使用：在有效期内且其中的JDK都仍然存在
+     * @param cached 缓存的快照
+     * @return 是否可用
+     */
+    private boolean isFresh(InventorySnapshot cached) {
+        Instant now = clock.instant();
+        if (cached.getScanTimestamp().isAfter(now)
+                || Duration.between(cached.getScanTimestamp(), now).compareTo(maxAge) > 0) {
+            return false;
+        }
+        for (JdkInfo jdk : cached.getInstallations()) {
+            if (!Files.isDirectory(jdk.getPath())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void save(InventorySnapshot value) {
+        try {
+            cache.save(value);
+        } catch (IOException e) {
+            System.err.println("保存清单缓存失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,803 @@
+package com.jdkmanager.cli;
+
+import com.jdkmanager.config.AppConfig;
+import com.jdkmanager.env.EnvVariableScope;
+import com.jdkmanager.env.EnvironmentManager;
+import com.jdkmanager.env.ShellEnvScript;
+import com.jdkmanager.env.ShimManager;
+import com.jdkmanager.env.SwitchJournal;
+import com.jdkmanager.env.SwitchProfile;
+import com.jdkmanager.exception.EnvironmentVariableException;
+import com.jdkmanager.metrics.SwitchTrace;
+import com.jdkmanager.scanner.DefaultJdkScanner;
+import com.jdkmanager.scanner.InventoryCache;
+import com.jdkmanager.scanner.InventorySnapshot;
+import com.jdkmanager.scanner.InventoryStore;
+import com.jdkmanager.scanner.InventoryWatcher;
+import com.jdkmanager.scanner.JdkInfo;
+import com.jdkmanager.scanner.JdkScanner;
+import com.jdkmanager.scanner.ProjectJdkResolver;
+import com.jdkmanager.scanner.VersionSpec;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 命令行入口
+ * 只使用核心模块，不加载JavaFX，适合在脚本和CI中调用
+ * 清单优先从磁盘缓存读取，缓存过期或缺失时才扫描磁盘
+ */
+public class JdkManagerCli {
+
+    // 退出码
+    static final int EXIT_OK = 0;
+    static final int EXIT_ERROR = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_NOT_FOUND = 3;
+
+    // 常驻进程在目录变化停止这段时间后重新扫描
+    private static final Duration WATCH_DEBOUNCE = Duration.ofSeconds(2);
+    // 通知常驻进程时的连接超时
+    private static final int DAEMON_TIMEOUT_MILLIS = 500;
+
+    private final InventorySource inventory;
+    private final EnvironmentManager environmentManager;
+    private final ShimManager shimManager;
+    private final AppConfig config;
+    private final Path workingDirectory;
+    private final Path daemonPortFile;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    // 全局选项
+    private boolean json;
+    private boolean refresh;
+    private EnvVariableScope scope = EnvVariableScope.USER;
+    private int port;
+    private String profileName;
+    private boolean noPath;
+    private ShellEnvScript.Shell shell;
+
+    /**
+     * 构造函数
+     * @param scannerFactory 扫描器工厂，只在缓存不可用时调用
+     * @param cache 清单缓存
+     * @param environmentManager 环境变量管理器
+     * @param config 应用程序配置，提供切换配置
+     * @param out 标准输出
+     * @param err 错误输出
+     */
+    public JdkManagerCli(Supplier<JdkScanner> scannerFactory, InventoryCache cache,
+                         EnvironmentManager environmentManager, AppConfig config, PrintStream out, PrintStream err) {
+        this(new InventorySource(scannerFactory, cache, InventorySource.DEFAULT_MAX_AGE, Clock.systemUTC()),
+            environmentManager, new ShimManager(), config, Paths.get(System.getProperty("user.dir")),
+            DaemonServer.defaultPortFile(), out, err);
+    }
+
+    JdkManagerCli(InventorySource inventory, EnvironmentManager environmentManager, ShimManager shimManager,
+                  AppConfig config, Path workingDirectory, Path daemonPortFile, PrintStream out, PrintStream err) {
+        this.inventory = inventory;
+        this.environmentManager = environmentManager;
+        this.shimManager = shimManager;
+        this.config = config;
+        this.workingDirectory = workingDirectory;
+        this.daemonPortFile = daemonPortFile;
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        // 核心模块的进度日志写到标准输出，这里改到错误输出，保证标准输出只有命令结果
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+        AppConfig config = new AppConfig();
+        JdkManagerCli cli = new JdkManagerCli(
+            () -> new DefaultJdkScanner(config.loadCustomPaths()),
+            new InventoryCache(), new EnvironmentManager(), config, stdout, System.err);
+        int exitCode = cli.run(args);
+        stdout.flush();
+        System.exit(exitCode);
+    }
+
+    /**
+     * 执行命令
+     * @param args 命令行参数
+     * @return 退出码
+     */
+    public int run(String[] args) {
+        List<String> operands = new ArrayList<>();
+        List<String> command = null;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (command != null) {
+                command.add(arg);
+            } else if ("--".equals(arg)) {
+                command = new ArrayList<>();
+            } else if ("--json".equals(arg)) {
+                json = true;
+            } else if ("--refresh".equals(arg)) {
+                refresh = true;
+            } else if ("--scope".equals(arg)) {
+                if (i + 1 >= args.length || parseScope(args[i + 1]) == null) {
+                    err.println("--scope 需要 user 或 system");
+                    return EXIT_USAGE;
+                }
+                scope = parseScope(args[++i]);
+            } else if ("--port".equals(arg)) {
+                if (i + 1 >= args.length || !args[i + 1].matches("\\d{1,5}")
+                        || Integer.parseInt(args[i + 1]) > 65535) {
+                    err.println("--port 需要0到65535之间的端口");
+                    return EXIT_USAGE;
+                }
+                port = Integer.parseInt(args[++i]);
+            } else if ("--profile".equals(arg)) {
+                if (i + 1 >= args.length) {
+                    err.println("--profile 需要配置名称");
+                    return EXIT_USAGE;
+                }
+                profileName = args[++i];
+            } else if ("--no-path".equals(arg)) {
+                noPath = true;
+            } else if ("--shell".equals(arg)) {
+                if (i + 1 >= args.length || ShellEnvScript.Shell.parse(args[i + 1]).isEmpty()) {
+                    err.println("--shell 需要 cmd、powershell 或 sh");
+                    return EXIT_USAGE;
+                }
+                shell = ShellEnvScript.Shell.parse(args[++i]).get();
+            } else if ("--help".equals(arg) || "-h".equals(arg)) {
+                operands.add(0, "help");
+            } else if (arg.startsWith("--")) {
+                err.println("未知选项: " + arg);
+                printUsage(err);
+                return EXIT_USAGE;
+            } else {
+                operands.add(arg);
+            }
+        }
+
+        if (operands.isEmpty()) {
+            printUsage(err);
+            return EXIT_USAGE;
+        }
+
+        String name = operands.get(0);
+        List<String> rest = operands.subList(1, operands.size());
+        if (command != null && !"exec".equals(name)) {
+            err.println("只有 exec 命令接受 -- 之后的参数");
+            return EXIT_USAGE;
+        }
+
+        switch (name) {
+            case "list":
+                return list();
+            case "current":
+                return current();
+            case "which":
+                return which(optionalSpec(rest));
+            case "switch":
+                if (rest.size() != 1) {
+                    err.println("用法: jdk-manager switch <版本> [--scope user|system] [--profile <配置>]");
+                    return EXIT_USAGE;
+                }
+                return switchTo(rest.get(0));
+            case "exec":
+                if (command == null || command.isEmpty() || rest.size() > 1) {
+                    err.println("用法: jdk-manager exec [版本] -- <命令> [参数...]");
+                    return EXIT_USAGE;
+                }
+                return exec(optionalSpec(rest), command);
+            case "undo":
+                return undo();
+            case "shell-env":
+                if (rest.size() > 1) {
+                    err.println("用法: jdk-manager shell-env [版本] [--shell cmd|powershell|sh] [--profile <配置>]");
+                    return EXIT_USAGE;
+                }
+                return shellEnv(optionalSpec(rest));
+            case "profile":
+                return profile(rest);
+            case "shim":
+                if (rest.size() != 2 || !("install".equals(rest.get(0)) || "switch".equals(rest.get(0)))) {
+                    err.println("用法: jdk-manager shim install|switch <版本> [--scope user|system]");
+                    return EXIT_USAGE;
+                }
+                return shim("install".equals(rest.get(0)), rest.get(1));
+            case "daemon":
+                return daemon();
+            case "help":
+                printUsage(out);
+                return EXIT_OK;
+            default:
+                err.println("未知命令: " + name);
+                printUsage(err);
+                return EXIT_USAGE;
+        }
+    }
+
+    private int list() {
+        List<JdkInfo> jdks = snapshot().getInstallations();
+        if (json) {
+            out.println(Json.jdks(jdks));
+            return EXIT_OK;
+        }
+        for (JdkInfo jdk : jdks) {
+            out.println((jdk.isCurrent() ? "* " : "  ") + jdk.getVersion()
+                + "\t" + (jdk.is64Bit() ? "x64" : "x86") + "\t" + jdk.getPath());
+        }
+        return EXIT_OK;
+    }
+
+    private int current() {
+        Optional<JdkInfo> current = snapshot().getCurrent();
+        if (json) {
+            out.println(Json.jdk(current.orElse(null)));
+        } else {
+            current.ifPresent(jdk -> out.println(jdk.getPath()));
+        }
+        if (current.isEmpty()) {
+            err.println("未检测到当前使用的JDK");
+            return EXIT_NOT_FOUND;
+        }
+        return EXIT_OK;
+    }
+
+    private int which(String spec) {
+        Optional<Selection> selection;
+        try {
+            selection = select(spec);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (selection.isEmpty()) {
+            return EXIT_NOT_FOUND;
+        }
+
+        Selection selected = selection.get();
+        if (json) {
+            out.println("{\"spec\":" + Json.quote(selected.spec.getRaw())
+                + ",\"source\":" + Json.quote(selected.source == null ? null : selected.source.toString())
+                + ",\"jdk\":" + Json.jdk(selected.jdk) + "}");
+        } else {
+            out.println(selected.jdk.getPath());
+        }
+        return EXIT_OK;
+    }
+
+    private int switchTo(String spec) {
+        Optional<Selection> selection;
+        try {
+            selection = select(spec);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (selection.isEmpty()) {
+            return EXIT_NOT_FOUND;
+        }
+
+        Optional<SwitchProfile> profile = switchProfile();
+        if (profile.isEmpty()) {
+            return EXIT_USAGE;
+        }
+
+        JdkInfo jdk = selection.get().jdk;
+        try {
+            environmentManager.applyProfile(jdk.getPath(), profile.get(), Collections.singletonList(scope),
+                SwitchTrace.disabled());
+        } catch (EnvironmentVariableException e) {
+            err.println("切换JDK失败: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+        inventory.markCurrent(jdk.getPath());
+        notifyDaemon();
+
+        if (json) {
+            out.println("{\"scope\":" + Json.quote(scope.name().toLowerCase(Locale.ROOT))
+                + ",\"profile\":" + Json.quote(profile.get().getName())
+                + ",\"jdk\":" + Json.jdk(inventory.get(false).find(jdk.getPath()).orElse(jdk)) + "}");
+        } else {
+            out.println("已切换到 " + jdk.getVersion() + " (" + jdk.getPath() + ")");
+            out.println("新打开的终端中生效");
+        }
+        return EXIT_OK;
+    }
+
+    private int undo() {
+        Optional<SwitchJournal.Entry> undone;
+        try {
+            undone = environmentManager.undoLastSwitch();
+        } catch (EnvironmentVariableException e) {
+            err.println("撤销切换失败: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+        if (undone.isEmpty()) {
+            err.println("没有可以撤销的切换");
+            return EXIT_ERROR;
+        }
+
+        // 恢复后的JAVA_HOME就是切换前的值
+        Optional<String> javaHome = undone.get().getPrevious().values().stream()
+            .map(variables -> variables.get("JAVA_HOME"))
+            .filter(value -> value != null && !value.isEmpty())
+            .findFirst();
+        if (javaHome.isPresent()) {
+            inventory.get(false);
+            inventory.markCurrent(Paths.get(javaHome.get()));
+        }
+        notifyDaemon();
+
+        if (json) {
+            out.println("{\"undone\":" + Json.quote(undone.get().getTarget())
+                + ",\"javaHome\":" + Json.quote(javaHome.orElse(null)) + "}");
+        } else {
+            out.println("已撤销切换到 " + undone.get().getTarget());
+            out.println("JAVA_HOME: " + javaHome.orElse("(未设置)"));
+        }
+        return EXIT_OK;
+    }
+
+    private int exec(String spec, List<String> command) {
+        Optional<Selection> selection;
+        try {
+            selection = select(spec);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (selection.isEmpty()) {
+            return EXIT_NOT_FOUND;
+        }
+
+        Optional<SwitchProfile> profile = switchProfile();
+        if (profile.isEmpty()) {
+            return EXIT_USAGE;
+        }
+
+        Path jdkPath = selection.get().jdk.getPath();
+        Path bin = jdkPath.resolve("bin");
+        ProcessBuilder builder = new ProcessBuilder(resolveCommand(command, bin))
+            .inheritIO().directory(workingDirectory.toFile());
+        Map<String, String> environment = builder.environment();
+        // 与switch写入注册表的变量一致，空值表示删除
+        for (Map.Entry<String, String> variable : profile.get().resolve(jdkPath).entrySet()) {
+            if (variable.getValue().isEmpty()) {
+                environment.remove(variable.getKey());
+            } else {
+                environment.put(variable.getKey(), variable.getValue());
+            }
+        }
+        if (profile.get().isUpdatePath()) {
+            String path = environment.get("PATH");
+            environment.put("PATH", path == null || path.isEmpty() ? bin.toString() : bin + File.pathSeparator + path);
+        }
+
+        try {
+            return builder.start().waitFor();
+        } catch (IOException e) {
+            err.println("无法启动命令 " + command.get(0) + ": " + e.getMessage());
+            return EXIT_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_ERROR;
+        }
+    }
+
+    /**
+     * 启用shim模式或通过shim目录切换JDK
+     * 启用时一次性写入JAVA_HOME和PATH；之后的切换只替换shim目录中的链接，
+     * 无法创建链接时才改写JAVA_HOME
+     * @param install 为true时启用shim模式，否则切换
+     * @param spec 版本
+     * @return 退出码
+     */
+    private int shim(boolean install, String spec) {
+        Optional<Selection> selection;
+        try {
+            selection = select(spec);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (selection.isEmpty()) {
+            return EXIT_NOT_FOUND;
+        }
+
+        JdkInfo jdk = selection.get().jdk;
+        ShimManager.ShimMode mode;
+        try {
+            mode = install
+                ? environmentManager.installShim(shimManager, jdk.getPath(), scope)
+                : environmentManager.switchShim(shimManager, jdk.getPath(), scope);
+        } catch (EnvironmentVariableException e) {
+            err.println((install ? "启用shim模式失败: " : "Shim切换失败: ") + e.getMessage());
+            return EXIT_ERROR;
+        }
+        inventory.markCurrent(jdk.getPath());
+        notifyDaemon();
+
+        if (json) {
+            out.println("{\"mode\":" + Json.quote(mode.name().toLowerCase(Locale.ROOT))
+                + ",\"shim\":" + Json.quote(shimManager.getShimHome().toString())
+                + ",\"jdk\":" + Json.jdk(inventory.get(false).find(jdk.getPath()).orElse(jdk)) + "}");
+        } else {
+            out.println("已切换到 " + jdk.getVersion() + " (" + jdk.getPath() + ")");
+            if (mode == ShimManager.ShimMode.POINTER_FILE) {
+                out.println("无法创建目录链接，JAVA_HOME直接指向JDK，新打开的终端中生效");
+            }
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * 不带路径的命令先在JDK的bin目录中查找
+     * ProcessBuilder按当前进程的PATH查找可执行文件，而不是按为子进程修改后的PATH，
+     * 不解析的话 exec 17 -- java 运行的是调用方PATH中的java
+     * @param command 命令及参数
+     * @param bin JDK的bin目录
+     * @return 命令名替换为JDK中可执行文件路径的命令，bin目录中没有时原样返回
+     */
+    static List<String> resolveCommand(List<String> command, Path bin) {
+        String name = command.get(0);
+        if (name.indexOf('/') >= 0 || name.indexOf('\\') >= 0) {
+            return command;
+        }
+        for (String candidate : new String[] {name, name + ".exe"}) {
+            Path executable = bin.resolve(candidate);
+            if (Files.isRegularFile(executable) && Files.isExecutable(executable)) {
+                List<String> resolved = new ArrayList<>(command);
+                resolved.set(0, executable.toString());
+                return resolved;
+            }
+        }
+        return command;
+    }
+
+    /**
+     * 输出只对当前终端生效的切换脚本，由调用方的shell执行
+     * 不写注册表、不广播更改通知，也不修改缓存中的当前JDK
+     * @param spec 版本，为null时读取项目版本文件
+     * @return 退出码
+     */
+    private int shellEnv(String spec) {
+        Optional<Selection> selection;
+        try {
+            selection = select(spec);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (selection.isEmpty()) {
+            return EXIT_NOT_FOUND;
+        }
+
+        Optional<SwitchProfile> profile = switchProfile();
+        if (profile.isEmpty()) {
+            return EXIT_USAGE;
+        }
+
+        Map<String, String> environment = System.getenv();
+        ShellEnvScript.Shell target = shell == null ? ShellEnvScript.Shell.detect(environment) : shell;
+        out.print(ShellEnvScript.render(target, selection.get().jdk.getPath(), profile.get(), environment));
+        return EXIT_OK;
+    }
+
+    /**
+     * 管理切换配置
+     * @param args 子命令及其参数
+     * @return 退出码
+     */
+    private int profile(List<String> args) {
+        String action = args.isEmpty() ? "list" : args.get(0);
+        switch (action) {
+            case "list":
+                return listProfiles();
+            case "set":
+                if (args.size() < 2) {
+                    err.println("用法: jdk-manager profile set <配置> [变量=值...] [--no-path]");
+                    return EXIT_USAGE;
+                }
+                return setProfile(args.get(1), args.subList(2, args.size()));
+            case "use":
+            case "remove":
+                if (args.size() != 2) {
+                    err.println("用法: jdk-manager profile " + action + " <配置>");
+                    return EXIT_USAGE;
+                }
+                if (config.findSwitchProfile(args.get(1)).isEmpty()) {
+                    err.println("切换配置不存在: " + args.get(1));
+                    return EXIT_USAGE;
+                }
+                if ("remove".equals(action) && SwitchProfile.DEFAULT_NAME.equals(args.get(1))) {
+                    err.println("默认配置不能删除");
+                    return EXIT_USAGE;
+                }
+                if ("use".equals(action)) {
+                    config.saveActiveSwitchProfile(args.get(1));
+                } else if (!config.removeSwitchProfile(args.get(1))) {
+                    err.println("无法删除切换配置: " + args.get(1));
+                    return EXIT_ERROR;
+                }
+                return EXIT_OK;
+            default:
+                err.println("未知的profile子命令: " + action);
+                return EXIT_USAGE;
+        }
+    }
+
+    private int listProfiles() {
+        String active = config.loadActiveSwitchProfile().getName();
+        List<SwitchProfile> profiles = config.loadSwitchProfiles();
+        if (json) {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < profiles.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(Json.profile(profiles.get(i), profiles.get(i).getName().equals(active)));
+            }
+            out.println(sb.append(']'));
+            return EXIT_OK;
+        }
+        for (SwitchProfile profile : profiles) {
+            StringBuilder line = new StringBuilder(profile.getName().equals(active) ? "* " : "  ")
+                .append(profile.getName());
+            for (Map.Entry<String, String> variable : profile.getVariables().entrySet()) {
+                line.append('\t').append(variable.getKey()).append('=').append(variable.getValue());
+            }
+            if (profile.isUpdatePath()) {
+                line.append("\tPATH");
+            }
+            out.println(line);
+        }
+        return EXIT_OK;
+    }
+
+    private int setProfile(String name, List<String> assignments) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (String assignment : assignments) {
+            int separator = assignment.indexOf('=');
+            if (separator <= 0) {
+                err.println("变量需要写成 名称=值: " + assignment);
+                return EXIT_USAGE;
+            }
+            variables.put(assignment.substring(0, separator), assignment.substring(separator + 1));
+        }
+        try {
+            config.saveSwitchProfile(new SwitchProfile(name, variables, !noPath));
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * 获取本次使用的切换配置：--profile 指定的配置，否则为当前配置
+     * @return 切换配置，指定的配置不存在时返回Optional.empty()
+     */
+    private Optional<SwitchProfile> switchProfile() {
+        if (profileName == null) {
+            return Optional.of(config.loadActiveSwitchProfile());
+        }
+        Optional<SwitchProfile> profile = config.findSwitchProfile(profileName);
+        if (profile.isEmpty()) {
+            err.println("切换配置不存在: " + profileName);
+        }
+        return profile;
+    }
+
+    /**
+     * 以常驻进程方式运行，在回环地址上提供查询服务，直到进程被终止
+     * 清单保存在内存中，目录变化或收到REFRESH请求时在后台重新扫描
+     * @return 退出码
+     */
+    private int daemon() {
+        Optional<DaemonClient> running = DaemonClient.connect(daemonPortFile, DAEMON_TIMEOUT_MILLIS);
+        if (running.isPresent()) {
+            try (DaemonClient client = running.get()) {
+                if (client.request("PING").startsWith("OK")) {
+                    err.println("常驻进程已在运行，端口文件: " + daemonPortFile);
+                    return EXIT_ERROR;
+                }
+            } catch (IOException e) {
+                // 端口文件是上次异常退出留下的，继续启动
+            }
+        }
+
+        InventoryStore store = new InventoryStore();
+        store.publish(snapshot());
+
+        // 刷新请求合并：已有刷新在排队时不再重复提交
+        ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jdk-manager-daemon-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicBoolean refreshPending = new AtomicBoolean();
+        Runnable refresh = () -> {
+            if (refreshPending.compareAndSet(false, true)) {
+                refresher.execute(() -> {
+                    refreshPending.set(false);
+                    InventorySnapshot scanned = inventory.rescan();
+                    store.update(previous -> previous.reconcile(scanned));
+                });
+            }
+        };
+
+        try (DaemonServer server = new DaemonServer(store, refresh);
+             InventoryWatcher watcher = new InventoryWatcher(
+                 inventory.scanner().getScanRoots(), WATCH_DEBOUNCE, refresh)) {
+            server.start(port);
+            watcher.start();
+
+            String portText = String.valueOf(server.getPort());
+            Files.createDirectories(daemonPortFile.getParent());
+            Files.writeString(daemonPortFile, portText);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> deletePortFile(portText)));
+
+            err.println("常驻进程已启动，端口 " + portText + "，按Ctrl+C退出");
+            new CountDownLatch(1).await();
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("启动常驻进程失败: " + e.getMessage());
+            return EXIT_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_OK;
+        } finally {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * 删除端口文件，文件已被新启动的常驻进程覆盖时保留
+     * @param portText 本进程写入的端口
+     */
+    private void deletePortFile(String portText) {
+        try {
+            if (Files.exists(daemonPortFile) && portText.equals(Files.readString(daemonPortFile).trim())) {
+                Files.delete(daemonPortFile);
+            }
+        } catch (IOException e) {
+            System.err.println("删除端口文件失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 切换后通知正在运行的常驻进程重新扫描，没有常驻进程时什么也不做
+     */
+    private void notifyDaemon() {
+        DaemonClient.connect(daemonPortFile, DAEMON_TIMEOUT_MILLIS).ifPresent(client -> {
+            try (DaemonClient connected = client) {
+                connected.request("REFRESH");
+            } catch (IOException e) {
+                err.println("通知常驻进程失败: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 按版本规格或项目版本文件选择JDK
+     * 缓存命中但没有匹配时重新扫描一次，以识别缓存之后新安装的JDK
+     * @param spec 版本规格，为null时从工作目录向上查找项目版本文件
+     * @return 选择结果，没有匹配时返回Optional.empty()并已输出原因
+     * @throws IllegalArgumentException 如果版本规格无效
+     */
+    private Optional<Selection> select(String spec) {
+        Optional<Selection> selection = trySelect(spec, snapshot().getInstallations());
+        if (selection.isPresent() && selection.get().jdk != null) {
+            return selection;
+        }
+        // 只有找到了版本规格但缓存中没有匹配的JDK时才值得重新扫描；没有版本文件时扫描也无济于事
+        if (selection.isPresent() && inventory.isFromCache()) {
+            selection = trySelect(spec, inventory.rescan().getInstallations());
+        }
+
+        if (selection.isEmpty()) {
+            err.println("未找到项目版本文件 (" + String.join(", ", ProjectJdkResolver.VERSION_FILES)
+                + ")，请指定版本");
+            return Optional.empty();
+        }
+        if (selection.get().jdk == null) {
+            err.println("没有匹配 " + selection.get().spec.getRaw() + " 的JDK");
+            return Optional.empty();
+        }
+        return selection;
+    }
+
+    private Optional<Selection> trySelect(String spec, List<JdkInfo> jdks) {
+        if (spec != null) {
+            VersionSpec versionSpec = VersionSpec.parse(spec)
+                .orElseThrow(() -> new IllegalArgumentException("无效的版本: " + spec));
+            return Optional.of(new Selection(versionSpec, versionSpec.selectBest(jdks).orElse(null), null));
+        }
+        return new ProjectJdkResolver(() -> jdks).resolve(workingDirectory)
+            .map(resolution -> new Selection(resolution.getSpec(),
+                resolution.getJdk().orElse(null), resolution.getVersionFile()));
+    }
+
+    private InventorySnapshot snapshot() {
+        InventorySnapshot snapshot = inventory.get(refresh);
+        refresh = false;
+        return snapshot;
+    }
+
+    private static String optionalSpec(List<String> operands) {
+        return operands.isEmpty() ? null : operands.get(0);
+    }
+
+    private static EnvVariableScope parseScope(String value) {
+        for (EnvVariableScope candidate : EnvVariableScope.values()) {
+            if (candidate.name().equalsIgnoreCase(value)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static void printUsage(PrintStream stream) {
+        stream.println("用法: jdk-manager [选项] <命令>");
+        stream.println();
+        stream.println("命令:");
+        stream.println("  list                      列出已安装的JDK，当前JDK以*标记");
+        stream.println("  current                   显示当前使用的JDK");
+        stream.println("  which [版本]              显示匹配版本的JDK路径，省略版本时读取项目版本文件");
+        stream.println("  switch <版本>             按切换配置写入JAVA_HOME、PATH等变量");
+        stream.println("  undo                      撤销上次切换，恢复切换前的环境变量");
+        stream.println("  exec [版本] -- <命令>     用匹配的JDK运行命令，不修改环境变量");
+        stream.println("  shell-env [版本]          输出只对当前终端生效的切换脚本，不写注册表");
+        stream.println("  shim install <版本>       启用shim模式：JAVA_HOME和PATH固定指向shim目录");
+        stream.println("  shim switch <版本>        通过shim目录切换JDK，通常不写注册表");
+        stream.println("  profile [list]            列出切换配置，当前配置以*标记");
+        stream.println("  profile set <配置> [变量=值...]");
+        stream.println("                            保存切换配置，值中的${jdk}替换为JDK路径，空值表示删除变量");
+        stream.println("  profile use|remove <配置> 设为当前配置或删除配置");
+        stream.println("  daemon                    常驻内存，通过本机端口快速响应查询");
+        stream.println("  help                      显示帮助");
+        stream.println();
+        stream.println("选项:");
+        stream.println("  --json                    以JSON格式输出");
+        stream.println("  --refresh                 忽略缓存重新扫描");
+        stream.println("  --scope user|system       switch和shim使用的环境变量作用域，默认user");
+        stream.println("  --port <端口>             daemon监听的端口，默认由系统分配");
+        stream.println("  --profile <配置>          switch、exec和shell-env使用的切换配置，默认为当前配置");
+        stream.println("  --shell cmd|powershell|sh shell-env输出的脚本格式，默认设置了SHELL时为sh，否则为cmd");
+        stream.println("  --no-path                 profile set保存的配置不修改PATH");
+        stream.println();
+        stream.println("版本示例: 17, 1.8, 21.0.2, temurin-17");
+    }
+
+    /**
+     * JDK选择结果
+     */
+    private static final class Selection {
+        private final VersionSpec spec;
+        private final JdkInfo jdk;
+        private final Path source;
+
+        Selection(VersionSpec spec, JdkInfo jdk, Path source) {
+            this.spec = spec;
+            this.jdk = jdk;
+            this.source = source;
+        }
+    }
+}
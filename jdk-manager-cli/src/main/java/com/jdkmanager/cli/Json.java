@@ -0,0 +1,108 @@
+package com.jdkmanager.cli;
+
+import com.jdkmanager.env.SwitchProfile;
+import com.jdkmanager.scanner.JdkInfo;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 命令行JSON输出
+ * 输出结构固定且很小，手工拼接即可，不需要引入JSON库
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * 生成JSON字符串字面量
+     * @param value 字符串，为null时输出null
+     * @return 带引号并转义的字符串
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * 生成JDK对象
+     * @param jdk JDK信息，为null时输出null
+     * @return JSON对象
+     */
+    static String jdk(JdkInfo jdk) {
+        if (jdk == null) {
+            return "null";
+        }
+        return "{\"version\":" + quote(jdk.getVersion())
+            + ",\"path\":" + quote(jdk.getPath().toString())
+            + ",\"arch\":" + quote(jdk.is64Bit() ? "x64" : "x86")
+            + ",\"current\":" + jdk.isCurrent() + "}";
+    }
+
+    /**
+     * 生成JDK数组
+     * @param jdks JDK列表
+     * @return JSON数组
+     */
+    static String jdks(List<JdkInfo> jdks) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < jdks.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(jdk(jdks.get(i)));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * 生成切换配置对象
+     * @param profile 切换配置
+     * @param active 是否为当前配置
+     * @return JSON对象
+     */
+    static String profile(SwitchProfile profile, boolean active) {
+        StringBuilder variables = new StringBuilder("{");
+        for (Map.Entry<String, String> variable : profile.getVariables().entrySet()) {
+            if (variables.length() > 1) {
+                variables.append(',');
+            }
+            variables.append(quote(variable.getKey())).append(':').append(quote(variable.getValue()));
+        }
+        return "{\"name\":" + quote(profile.getName())
+            + ",\"active\":" + active
+            + ",\"updatePath\":" + profile.isUpdatePath()
+            + ",\"variables\":" + variables.append('}') + "}";
+    }
+}
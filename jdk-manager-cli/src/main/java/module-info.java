@@ -0,0 +1,6 @@
+module com.jdkmanager.cli {
+    // 只依赖核心模块，不加载JavaFX
+    requires com.jdkmanager.core;
+
+    exports com.jdkmanager.cli;
+}
@@ -0,0 +1,142 @@
+package com.jdkmanager.cli;
+
+import com.jdkmanager.scanner.InventorySnapshot;
+import com.jdkmanager.scanner.InventoryStore;
+import com.jdkmanager.scanner.JdkInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 常驻进程查询服务测试类
+ */
+class DaemonServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final InventoryStore store = new InventoryStore();
+    private final AtomicInteger refreshes = new AtomicInteger();
+    private DaemonServer server;
+    private Path jdk17;
+    private Path jdk11;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdk17 = tempDir.resolve("jdk-17");
+        jdk11 = tempDir.resolve("jdk-11");
+        List<JdkInfo> jdks = List.of(new JdkInfo("17.0.8", jdk17, true), new JdkInfo("11.0.20", jdk11, true));
+        store.publish(InventorySnapshot.of(jdks, jdk11, Instant.now(), Duration.ZERO));
+
+        server = new DaemonServer(store, refreshes::incrementAndGet);
+        server.start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("测试查询请求")
+    void testQueries() throws Exception {
+        Path project = tempDir.resolve("project");
+        Files.createDirectories(project.resolve("module"));
+        Files.writeString(project.resolve(".java-version"), "17\n");
+
+        try (DaemonClient client = new DaemonClient(server.getPort(), 5000)) {
+            assertEquals("OK " + DaemonServer.PROTOCOL, client.request("PING"));
+            assertEquals("OK " + jdk11, client.request("CURRENT"));
+            assertEquals("OK " + jdk17, client.request("WHICH 17"));
+            assertEquals("NONE", client.request("WHICH 21"));
+            assertTrue(client.request("WHICH latest").startsWith("ERR"));
+            assertEquals("OK " + jdk17, client.request("RESOLVE " + project.resolve("module")));
+            assertEquals("NONE", client.request("RESOLVE " + tempDir));
+            assertTrue(client.request("LIST").contains("\"version\":\"11.0.20\""));
+            assertTrue(client.request("FROBNICATE").startsWith("ERR"));
+
+            assertEquals("OK", client.request("REFRESH"));
+            assertEquals(1, refreshes.get());
+
+            // 发布新快照后同一连接上立即看到新清单
+            store.update(snapshot -> snapshot.withCurrent(jdk17));
+            assertEquals("OK " + jdk17, client.request("CURRENT"));
+        }
+    }
+
+    @Test
+    @DisplayName("测试端口文件连接")
+    void testConnectByPortFile() throws Exception {
+        Path portFile = tempDir.resolve("daemon.port");
+        assertTrue(DaemonClient.connect(portFile, 1000).isEmpty());
+
+        Files.writeString(portFile, String.valueOf(server.getPort()));
+        try (DaemonClient client = DaemonClient.connect(portFile, 1000).orElseThrow()) {
+            assertEquals("OK " + DaemonServer.PROTOCOL, client.request("PING"));
+        }
+    }
+
+    @Test
+    @DisplayName("测试服务端关闭空闲连接")
+    void testIdleConnectionClosed() throws Exception {
+        try (DaemonServer idleServer = new DaemonServer(store, refreshes::incrementAndGet, 100);
+             Socket socket = new Socket()) {
+            idleServer.start(0);
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), idleServer.getPort()), 5000);
+            socket.setSoTimeout(5000);
+
+            // 不发送任何请求，服务端超时后关闭连接，客户端读到流结束
+            assertEquals(-1, socket.getInputStream().read());
+        }
+    }
+
+    @Test
+    @DisplayName("测试多个客户端并发查询")
+    void testConcurrentClients() throws Exception {
+        int clients = 8;
+        int requestsPerClient = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                tasks.add(() -> {
+                    try (DaemonClient client = new DaemonClient(server.getPort(), 5000)) {
+                        for (int i = 0; i < requestsPerClient; i++) {
+                            String response = client.request(i % 2 == 0 ? "WHICH 17" : "CURRENT");
+                            if (!response.startsWith("OK")) {
+                                throw new AssertionError(response);
+                            }
+                        }
+                        return requestsPerClient;
+                    }
+                });
+            }
+
+            int answered = 0;
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                answered += result.get();
+            }
+            assertEquals(clients * requestsPerClient, answered);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
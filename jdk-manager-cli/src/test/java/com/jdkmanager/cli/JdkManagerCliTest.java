@@ -0,0 +1,315 @@
+package com.jdkmanager.cli;
+
+import com.jdkmanager.config.AppConfig;
+import com.jdkmanager.env.EnvVariableScope;
+import com.jdkmanager.env.EnvironmentManager;
+import com.jdkmanager.env.ShimManager;
+import com.jdkmanager.env.SwitchProfile;
+import com.jdkmanager.metrics.SwitchTrace;
+import com.jdkmanager.scanner.DefaultJdkScanner;
+import com.jdkmanager.scanner.InventoryCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.prefs.Preferences;
+
+/**
+ * 命令行入口测试类
+ */
+class JdkManagerCliTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private final AtomicInteger scans = new AtomicInteger();
+    private final RecordingEnvironmentManager environmentManager = new RecordingEnvironmentManager();
+    // 每个测试使用独立的偏好设置节点，不影响真实配置
+    private final Preferences preferences = Preferences.userRoot().node("jdk-manager-test-" + UUID.randomUUID());
+    private final AppConfig config = new AppConfig(preferences);
+
+    private Path jdk17;
+    private Path jdk11;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdk17 = createJdk("jdk-17", "17.0.8");
+        jdk11 = createJdk("jdk-11", "11.0.20");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        preferences.removeNode();
+    }
+
+    private Path createJdk(String name, String version) throws Exception {
+        Path jdkHome = tempDir.resolve("jdks").resolve(name);
+        Files.createDirectories(jdkHome.resolve("bin"));
+        Files.createFile(jdkHome.resolve("bin").resolve("java.exe"));
+        Files.createFile(jdkHome.resolve("bin").resolve("javac.exe"));
+        Files.writeString(jdkHome.resolve("release"), "JAVA_VERSION=\"" + version + "\"\n");
+        return jdkHome;
+    }
+
+    private JdkManagerCli createCli(Path workingDirectory) {
+        out.reset();
+        err.reset();
+        InventorySource inventory = new InventorySource(() -> {
+            scans.incrementAndGet();
+            DefaultJdkScanner scanner = new DefaultJdkScanner();
+            scanner.addCustomPath(tempDir.resolve("jdks"));
+            return scanner;
+        }, new InventoryCache(tempDir.resolve("inventory.bin")),
+            InventorySource.DEFAULT_MAX_AGE, Clock.systemUTC());
+        return new JdkManagerCli(inventory, environmentManager, new ShimManager(tempDir.resolve("shim")), config,
+            workingDirectory,
+            tempDir.resolve("daemon.port"),
+            new PrintStream(out, true, StandardCharsets.UTF_8),
+            new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private JdkManagerCli createCli() {
+        return createCli(tempDir);
+    }
+
+    private String output() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("测试列出自定义路径中的JDK")
+    void testList() {
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"list"}));
+        String output = output();
+        assertTrue(output.contains("17.0.8"), output);
+        assertTrue(output.contains(jdk17.toString()), output);
+    }
+
+    @Test
+    @DisplayName("测试缓存有效时不重新扫描")
+    void testInventoryServedFromCache() throws Exception {
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"list"}));
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"which", "11"}));
+        assertEquals(1, scans.get());
+        assertEquals(jdk11.toString(), output().trim());
+
+        // 缓存之后新安装的JDK：缓存中没有匹配时重新扫描一次
+        Path jdk21 = createJdk("jdk-21", "21.0.1");
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"which", "21"}));
+        assertEquals(2, scans.get());
+        assertEquals(jdk21.toString(), output().trim());
+
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"--refresh", "list"}));
+        assertEquals(3, scans.get());
+    }
+
+    @Test
+    @DisplayName("测试JSON输出")
+    void testJsonOutput() {
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"list", "--json"}));
+        String output = output().trim();
+        assertTrue(output.startsWith("[{") && output.endsWith("}]"), output);
+        assertTrue(output.contains("\"version\":\"17.0.8\""), output);
+        assertTrue(output.contains("\"path\":" + Json.quote(jdk11.toString())), output);
+
+        assertEquals("\"C:\\\\Program Files\\\\Java \\\"x\\\"\\n\"",
+            Json.quote("C:\\Program Files\\Java \"x\"\n"));
+    }
+
+    @Test
+    @DisplayName("测试按项目版本文件解析JDK")
+    void testWhichUsesProjectVersionFile() throws Exception {
+        Path project = tempDir.resolve("project");
+        Files.createDirectories(project.resolve("src"));
+        Files.writeString(project.resolve(".java-version"), "11\n");
+
+        assertEquals(JdkManagerCli.EXIT_OK, createCli(project.resolve("src")).run(new String[] {"which", "--json"}));
+        String output = output();
+        assertTrue(output.contains("\"spec\":\"11\""), output);
+        assertTrue(output.contains(Json.quote(project.resolve(".java-version").toString())), output);
+        assertTrue(output.contains(Json.quote(jdk11.toString())), output);
+
+        int scansBefore = scans.get();
+        assertEquals(JdkManagerCli.EXIT_NOT_FOUND, createCli().run(new String[] {"which"}));
+        assertEquals(scansBefore, scans.get(), "没有版本文件时不应重新扫描");
+        assertEquals(JdkManagerCli.EXIT_NOT_FOUND, createCli().run(new String[] {"which", "8"}));
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"which", "latest"}));
+    }
+
+    @Test
+    @DisplayName("测试切换后当前JDK写回缓存")
+    void testSwitchUpdatesCurrent() {
+        assertEquals(JdkManagerCli.EXIT_OK,
+            createCli().run(new String[] {"switch", "17", "--scope", "system"}));
+        assertEquals(List.of(jdk17), environmentManager.switched);
+        assertEquals(EnvVariableScope.SYSTEM, environmentManager.scope);
+        assertEquals(SwitchProfile.defaultProfile(), environmentManager.profile);
+
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"current"}));
+        assertEquals(jdk17.toString(), output().trim());
+        assertEquals(1, scans.get());
+
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"switch"}));
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"switch", "17", "--scope", "machine"}));
+    }
+
+    @Test
+    @DisplayName("测试shim命令启用并切换")
+    void testShim() {
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"shim", "install", "11"}));
+        assertEquals(List.of("install " + jdk11), environmentManager.shimCalls);
+
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"shim", "switch", "17", "--json"}));
+        assertEquals(List.of("install " + jdk11, "switch " + jdk17), environmentManager.shimCalls);
+        assertTrue(output().startsWith("{\"mode\":\"directory_link\""), output());
+        assertTrue(environmentManager.switched.isEmpty(), "shim切换不应按配置写注册表");
+
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"current"}));
+        assertEquals(jdk17.toString(), output().trim());
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"shim", "remove", "17"}));
+        assertEquals(JdkManagerCli.EXIT_NOT_FOUND, createCli().run(new String[] {"shim", "switch", "99"}));
+    }
+
+    @Test
+    @DisplayName("测试保存并使用切换配置")
+    void testSwitchProfiles() {
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {
+            "profile", "set", "graal", "GRAALVM_HOME=${jdk}", "JAVA_TOOL_OPTIONS=", "--no-path"
+        }));
+        SwitchProfile graal = config.findSwitchProfile("graal").orElseThrow();
+        assertEquals(List.of("JAVA_HOME", "GRAALVM_HOME", "JAVA_TOOL_OPTIONS"), List.copyOf(graal.getVariables().keySet()));
+        assertFalse(graal.isUpdatePath());
+
+        // --profile 只影响本次切换
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"switch", "11", "--profile", "graal"}));
+        assertEquals(graal, environmentManager.profile);
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"switch", "11", "--profile", "missing"}));
+
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"profile", "use", "graal"}));
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"profile", "list", "--json"}));
+        assertTrue(output().contains("{\"name\":\"graal\",\"active\":true,\"updatePath\":false"), output());
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"switch", "17"}));
+        assertEquals(graal, environmentManager.profile);
+
+        // 删除当前配置后恢复为默认配置
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"profile", "remove", "graal"}));
+        assertEquals(SwitchProfile.defaultProfile(), config.loadActiveSwitchProfile());
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"profile", "remove", "default"}));
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"profile", "set", "bad", "PATH=x"}));
+        assertEquals(1, config.loadSwitchProfiles().size());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    @DisplayName("测试exec使用所选JDK运行命令并返回其退出码")
+    void testExec() throws Exception {
+        Path marker = tempDir.resolve("java-home.txt");
+        int exitCode = createCli().run(new String[] {
+            "exec", "17", "--", "sh", "-c", "printf %s \"$JAVA_HOME\" > \"$0\"; exit 7", marker.toString()
+        });
+
+        assertEquals(7, exitCode);
+        assertEquals(jdk17.toString(), Files.readString(marker));
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"exec", "17"}));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    @DisplayName("测试exec在所选JDK的bin目录中查找命令，并按配置决定是否修改PATH")
+    void testExecResolvesJdkTools() throws Exception {
+        // 调用方PATH中没有jtool，只有所选JDK的bin目录中有
+        Path tool = jdk17.resolve("bin").resolve("jtool");
+        Files.writeString(tool, "#!/bin/sh\nprintf %s \"$PATH\" > \"$1\"\n");
+        assertTrue(tool.toFile().setExecutable(true));
+        Path marker = tempDir.resolve("path.txt");
+
+        assertEquals(0, createCli().run(new String[] {"exec", "17", "--", "jtool", marker.toString()}));
+        assertTrue(Files.readString(marker).startsWith(jdk17.resolve("bin").toString()));
+
+        assertEquals(JdkManagerCli.EXIT_OK, createCli().run(new String[] {"profile", "set", "nopath", "--no-path"}));
+        assertEquals(0, createCli().run(new String[] {
+            "exec", "17", "--profile", "nopath", "--", "jtool", marker.toString()
+        }));
+        assertFalse(Files.readString(marker).contains(jdk17.toString()), "配置不修改PATH时不应加入bin目录");
+
+        assertEquals(List.of(tool.toString(), "-v"), JdkManagerCli.resolveCommand(List.of("jtool", "-v"), tool.getParent()));
+        assertEquals(List.of("./jtool"), JdkManagerCli.resolveCommand(List.of("./jtool"), tool.getParent()));
+        assertEquals(List.of("sh"), JdkManagerCli.resolveCommand(List.of("sh"), tool.getParent()));
+    }
+
+    @Test
+    @DisplayName("测试shell-env只输出脚本而不切换")
+    void testShellEnv() {
+        assertEquals(JdkManagerCli.EXIT_OK,
+            createCli().run(new String[] {"shell-env", "17", "--shell", "powershell"}));
+        assertTrue(output().contains("$env:JAVA_HOME = '" + jdk17 + "'"), output());
+        assertTrue(output().contains("$env:PATH = '" + jdk17.resolve("bin")), output());
+        assertTrue(environmentManager.switched.isEmpty(), "不能写入环境变量");
+
+        assertEquals(JdkManagerCli.EXIT_USAGE, createCli().run(new String[] {"shell-env", "17", "--shell", "fish"}));
+        assertEquals(JdkManagerCli.EXIT_NOT_FOUND, createCli().run(new String[] {"shell-env", "99"}));
+    }
+
+    @Test
+    @DisplayName("测试缺少命令和未知命令")
+    void testUsage() {
+        JdkManagerCli cli = createCli();
+
+        assertEquals(JdkManagerCli.EXIT_USAGE, cli.run(new String[0]));
+        assertEquals(JdkManagerCli.EXIT_USAGE, cli.run(new String[] {"frobnicate"}));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("未知命令: frobnicate"));
+        assertEquals(JdkManagerCli.EXIT_USAGE, cli.run(new String[] {"list", "--verbose"}));
+
+        assertEquals(JdkManagerCli.EXIT_OK, cli.run(new String[] {"help"}));
+        assertTrue(output().startsWith("用法"));
+        assertEquals(0, scans.get());
+    }
+
+    /**
+     * 只记录切换请求、不修改真实环境变量的环境变量管理器
+     */
+    private static final class RecordingEnvironmentManager extends EnvironmentManager {
+        private final List<Path> switched = new ArrayList<>();
+        private EnvVariableScope scope;
+        private SwitchProfile profile;
+        private final List<String> shimCalls = new ArrayList<>();
+
+        @Override
+        public boolean applyProfile(Path jdkPath, SwitchProfile profile, List<EnvVariableScope> scopes,
+                                    SwitchTrace trace) {
+            switched.add(jdkPath);
+            this.scope = scopes.get(0);
+            this.profile = profile;
+            return true;
+        }
+
+        @Override
+        public ShimManager.ShimMode installShim(ShimManager shimManager, Path jdkPath, EnvVariableScope scope) {
+            shimCalls.add("install " + jdkPath);
+            return ShimManager.ShimMode.DIRECTORY_LINK;
+        }
+
+        @Override
+        public ShimManager.ShimMode switchShim(ShimManager shimManager, Path jdkPath, EnvVariableScope scope) {
+            shimCalls.add("switch " + jdkPath);
+            return ShimManager.ShimMode.DIRECTORY_LINK;
+        }
+    }
+}
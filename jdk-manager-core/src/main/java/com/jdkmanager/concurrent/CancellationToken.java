@@ -0,0 +1,67 @@
+package com.jdkmanager.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 取消令牌
+ * 由任务的发起方持有，任务在执行过程中通过{@link #throwIfCancelled()}协作式地检查取消状态
+ */
+public class CancellationToken {
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    /**
+     * 取消任务，并执行所有已注册的回调
+     */
+    public void cancel() {
+        List<Runnable> toRun;
+        synchronized (callbacks) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        for (Runnable callback : toRun) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                System.err.println("执行取消回调失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 检查是否已取消
+     * @return 如果已取消返回true
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 如果已取消则抛出CancellationException
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("任务已取消");
+        }
+    }
+
+    /**
+     * 注册取消回调，如果已经取消则立即执行
+     * @param callback 取消回调
+     */
+    public void onCancel(Runnable callback) {
+        synchronized (callbacks) {
+            if (!cancelled) {
+                callbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+}
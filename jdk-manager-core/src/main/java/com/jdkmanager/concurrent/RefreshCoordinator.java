@@ -0,0 +1,139 @@
+package com.jdkmanager.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 刷新请求合并器
+ * 在去抖窗口内到达的刷新请求共享同一次扫描；扫描进行期间到达的请求合并为
+ * 最多一次后续扫描，保证每个调用方拿到的结果都不早于其发出请求的时刻，
+ * 同时文件系统不会被并发扫描
+ * @param <T> 扫描结果类型
+ */
+public class RefreshCoordinator<T> {
+    private final Callable<T> scanner;
+    private final Executor executor;
+    private final long debounceMillis;
+
+    private final Object lock = new Object();
+    // 尚未开始的扫描，新到达的调用方加入它
+    private CompletableFuture<T> pending;
+    private boolean inFlight;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong scanCount = new AtomicLong();
+
+    /**
+     * 构造函数
+     * @param scanner 执行扫描的函数
+     * @param executor 运行扫描的执行器
+     * @param debounceMillis 去抖窗口（毫秒）
+     */
+    public RefreshCoordinator(Callable<T> scanner, Executor executor, long debounceMillis) {
+        if (scanner == null || executor == null) {
+            throw new IllegalArgumentException("扫描函数和执行器不能为空");
+        }
+        this.scanner = scanner;
+        this.executor = executor;
+        this.debounceMillis = Math.max(0, debounceMillis);
+    }
+
+    /**
+     * 请求一次刷新
+     * @return 扫描结果，该扫描在本次请求之后开始
+     */
+    public CompletableFuture<T> requestRefresh() {
+        requestCount.incrementAndGet();
+        synchronized (lock) {
+            if (pending != null) {
+                return pending;
+            }
+            CompletableFuture<T> result = new CompletableFuture<>();
+            pending = result;
+            if (!inFlight) {
+                // 当前没有扫描，去抖后开始；否则等待进行中的扫描结束后再开始
+                schedule(debounceMillis);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 检查是否有扫描正在进行或等待开始
+     * @return 如果空闲返回true
+     */
+    public boolean isIdle() {
+        synchronized (lock) {
+            return !inFlight && pending == null;
+        }
+    }
+
+    /**
+     * 获取收到的刷新请求总数
+     * @return 请求数
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * 获取实际执行的扫描次数
+     * @return 扫描次数
+     */
+    public long getScanCount() {
+        return scanCount.get();
+    }
+
+    private void schedule(long delayMillis) {
+        if (delayMillis > 0) {
+            // 延迟到期后在延迟线程上提交，被拒绝时异常不会传回这里，由submitScan自行处理
+            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, Runnable::run)
+                .execute(this::submitScan);
+        } else {
+            submitScan();
+        }
+    }
+
+    private void submitScan() {
+        try {
+            executor.execute(this::runScan);
+        } catch (RuntimeException e) {
+            // 执行器已关闭或队列已满，等待中的调用方以异常结束，之后的请求重新调度
+            CompletableFuture<T> failed;
+            synchronized (lock) {
+                failed = pending;
+                pending = null;
+            }
+            if (failed != null) {
+                failed.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void runScan() {
+        CompletableFuture<T> current;
+        synchronized (lock) {
+            current = pending;
+            pending = null;
+            inFlight = true;
+        }
+
+        scanCount.incrementAndGet();
+        try {
+            current.complete(scanner.call());
+        } catch (Exception e) {
+            current.completeExceptionally(e);
+        } finally {
+            synchronized (lock) {
+                inFlight = false;
+                if (pending != null) {
+                    // 扫描期间有新的请求，立即开始一次后续扫描
+                    schedule(0);
+                }
+            }
+        }
+    }
+}
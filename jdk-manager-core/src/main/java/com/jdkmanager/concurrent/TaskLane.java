@@ -0,0 +1,58 @@
+package com.jdkmanager.concurrent;
+
+/**
+ * 任务通道枚举
+ * 交互任务和后台任务使用各自独立的有界线程池，慢速的后台扫描不会阻塞用户发起的切换
+ */
+public enum TaskLane {
+    /**
+     * 交互任务：JDK切换、切换验证等用户正在等待的操作
+     */
+    INTERACTIVE("interactive", 2, 16, Thread.NORM_PRIORITY + 1),
+
+    /**
+     * 详情加载：需要遍历整个JDK目录，列表快速滚动时会被频繁取消，
+     * 单独使用一个通道，再多的加载也不会占满交互通道的队列而导致切换被拒绝
+     */
+    DETAIL("detail", 1, 4, Thread.NORM_PRIORITY),
+
+    /**
+     * 后台任务：重新扫描、指纹计算等可以延后的操作
+     */
+    BACKGROUND("background", 2, 64, Thread.NORM_PRIORITY - 1);
+
+    private final String laneName;
+    private final int threads;
+    private final int queueCapacity;
+    private final int threadPriority;
+
+    /**
+     * 构造函数
+     * @param laneName 通道名称，用于线程命名和指标输出
+     * @param threads 线程数
+     * @param queueCapacity 等待队列容量
+     * @param threadPriority 线程优先级
+     */
+    TaskLane(String laneName, int threads, int queueCapacity, int threadPriority) {
+        this.laneName = laneName;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.threadPriority = threadPriority;
+    }
+
+    public String getLaneName() {
+        return laneName;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getThreadPriority() {
+        return threadPriority;
+    }
+}
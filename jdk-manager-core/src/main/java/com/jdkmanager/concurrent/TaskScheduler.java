@@ -0,0 +1,263 @@
+package com.jdkmanager.concurrent;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 应用程序统一任务调度器
+ * 为每个{@link TaskLane}维护一个有界线程池，使用命名的守护线程，
+ * 并统计各通道的队列深度和等待时间
+ */
+public class TaskScheduler {
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 2000;
+
+    private static TaskScheduler defaultScheduler;
+
+    private final Map<TaskLane, LaneExecutor> lanes = new EnumMap<>(TaskLane.class);
+
+    /**
+     * 构造函数
+     */
+    public TaskScheduler() {
+        for (TaskLane lane : TaskLane.values()) {
+            lanes.put(lane, new LaneExecutor(lane));
+        }
+    }
+
+    /**
+     * 获取应用程序共享的调度器
+     * 关闭后不会重新创建：退出过程中仍在提交的任务应被拒绝，而不是在新的线程池中悄悄运行
+     * @return 共享调度器，关闭后返回已关闭的调度器，提交任务时抛出RejectedExecutionException
+     */
+    public static synchronized TaskScheduler getDefault() {
+        if (defaultScheduler == null) {
+            defaultScheduler = new TaskScheduler();
+        }
+        return defaultScheduler;
+    }
+
+    /**
+     * 在指定通道中执行任务
+     * @param lane 任务通道
+     * @param task 任务
+     * @throws java.util.concurrent.RejectedExecutionException 如果通道队列已满或调度器已关闭
+     */
+    public void execute(TaskLane lane, Runnable task) {
+        lanes.get(lane).execute(task);
+    }
+
+    /**
+     * 在指定通道中提交可取消的任务
+     * 令牌被取消时，尚未开始的任务移出队列，正在执行的任务会被中断
+     * @param lane 任务通道
+     * @param token 取消令牌
+     * @param task 任务
+     * @return 任务结果
+     */
+    public <T> Future<T> submit(TaskLane lane, CancellationToken token, Callable<T> task) {
+        FutureTask<T> futureTask = new FutureTask<>(() -> {
+            token.throwIfCancelled();
+            return task.call();
+        });
+        token.onCancel(() -> futureTask.cancel(true));
+        LaneExecutor executor = lanes.get(lane);
+        Runnable queued = executor.execute(futureTask);
+        // ThreadPoolExecutor不会清理已取消的任务，不移出的话它们会一直占着有界队列的位置
+        token.onCancel(() -> executor.pool.remove(queued));
+        return futureTask;
+    }
+
+    /**
+     * 获取通道的Executor视图，用于CompletableFuture等API
+     * @param lane 任务通道
+     * @return Executor
+     */
+    public Executor executor(TaskLane lane) {
+        return task -> execute(lane, task);
+    }
+
+    /**
+     * 获取通道的运行指标
+     * @param lane 任务通道
+     * @return 指标快照
+     */
+    public LaneMetrics getMetrics(TaskLane lane) {
+        return lanes.get(lane).snapshot();
+    }
+
+    /**
+     * 生成所有通道的指标日志行
+     * @return key=value格式的指标行
+     */
+    public String formatMetrics() {
+        StringBuilder sb = new StringBuilder("scheduler-metrics");
+        for (TaskLane lane : TaskLane.values()) {
+            LaneMetrics metrics = getMetrics(lane);
+            String prefix = " " + lane.getLaneName() + "_";
+            sb.append(prefix).append("queue_depth=").append(metrics.getQueueDepth());
+            sb.append(prefix).append("active=").append(metrics.getActiveCount());
+            sb.append(prefix).append("completed=").append(metrics.getCompletedCount());
+            sb.append(prefix).append("rejected=").append(metrics.getRejectedCount());
+            sb.append(prefix).append("avg_wait_ms=").append(formatMillis(metrics.getAverageWaitNanos()));
+            sb.append(prefix).append("max_wait_ms=").append(formatMillis(metrics.getMaxWaitNanos()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 关闭调度器：停止接收新任务，等待正在执行的任务结束，超时后中断
+     */
+    public void shutdown() {
+        for (LaneExecutor executor : lanes.values()) {
+            executor.pool.shutdown();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_TIMEOUT_MILLIS);
+        for (LaneExecutor executor : lanes.values()) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (!executor.pool.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                    executor.pool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println(formatMetrics());
+    }
+
+    /**
+     * 检查调度器是否已关闭
+     * @return 如果已关闭返回true
+     */
+    public boolean isShutdown() {
+        return lanes.values().stream().allMatch(executor -> executor.pool.isShutdown());
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 单个通道的线程池及等待时间统计
+     */
+    private static final class LaneExecutor {
+        private final ThreadPoolExecutor pool;
+        private final AtomicLong waitCount = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong rejectedCount = new AtomicLong();
+
+        LaneExecutor(TaskLane lane) {
+            AtomicInteger threadNumber = new AtomicInteger(1);
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "jdk-manager-" + lane.getLaneName() + "-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                thread.setPriority(lane.getThreadPriority());
+                return thread;
+            };
+
+            this.pool = new ThreadPoolExecutor(
+                lane.getThreads(), lane.getThreads(),
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(lane.getQueueCapacity()),
+                threadFactory,
+                (task, executor) -> {
+                    rejectedCount.incrementAndGet();
+                    new ThreadPoolExecutor.AbortPolicy().rejectedExecution(task, executor);
+                });
+            this.pool.allowCoreThreadTimeOut(true);
+        }
+
+        /**
+         * 提交任务
+         * @return 实际放入队列的任务，用于取消时移出队列
+         */
+        Runnable execute(Runnable task) {
+            long enqueuedAt = System.nanoTime();
+            Runnable queued = () -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                waitCount.incrementAndGet();
+                totalWaitNanos.addAndGet(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+                try {
+                    task.run();
+                } catch (CancellationException e) {
+                    // 任务被取消，不视为错误
+                }
+            };
+            pool.execute(queued);
+            return queued;
+        }
+
+        LaneMetrics snapshot() {
+            long count = waitCount.get();
+            return new LaneMetrics(
+                pool.getQueue().size(),
+                pool.getActiveCount(),
+                pool.getCompletedTaskCount(),
+                rejectedCount.get(),
+                count == 0 ? 0 : totalWaitNanos.get() / count,
+                maxWaitNanos.get());
+        }
+    }
+
+    /**
+     * 通道指标快照
+     */
+    public static final class LaneMetrics {
+        private final int queueDepth;
+        private final int activeCount;
+        private final long completedCount;
+        private final long rejectedCount;
+        private final long averageWaitNanos;
+        private final long maxWaitNanos;
+
+        LaneMetrics(int queueDepth, int activeCount, long completedCount, long rejectedCount,
+                    long averageWaitNanos, long maxWaitNanos) {
+            this.queueDepth = queueDepth;
+            this.activeCount = activeCount;
+            this.completedCount = completedCount;
+            this.rejectedCount = rejectedCount;
+            this.averageWaitNanos = averageWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getActiveCount() {
+            return activeCount;
+        }
+
+        public long getCompletedCount() {
+            return completedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        public long getAverageWaitNanos() {
+            return averageWaitNanos;
+        }
+
+        public long getMaxWaitNanos() {
+            return maxWaitNanos;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.jdkmanager.config;
+
+import com.jdkmanager.env.EnvVariableScope;
+import com.jdkmanager.env.SwitchProfile;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import java.util.stream.Collectors;
+
+/**
+ * 应用程序配置管理
+ * 负责保存和加载用户偏好设置
+ */
+public class AppConfig {
+    private static final String CUSTOM_PATHS_KEY = "custom_paths";
+    private static final String LAST_SELECTED_SCOPE_KEY = "last_selected_scope";
+    private static final String WINDOW_WIDTH_KEY = "window_width";
+    private static final String WINDOW_HEIGHT_KEY = "window_height";
+    private static final String WINDOW_X_KEY = "window_x";
+    private static final String WINDOW_Y_KEY = "window_y";
+    private static final String ACTIVE_PROFILE_KEY = "active_switch_profile";
+    // 切换配置保存在子节点中，每个配置一个节点
+    private static final String SWITCH_PROFILES_NODE = "switch_profiles";
+    private static final String PROFILE_VARIABLES_KEY = "variables";
+    private static final String PROFILE_UPDATE_PATH_KEY = "update_path";
+    private static final String PROFILE_VALUE_PREFIX = "var.";
+    
+    private final Preferences preferences;
+    
+    /**
+     * 构造函数
+     */
+    public AppConfig() {
+        this(Preferences.userNodeForPackage(AppConfig.class));
+    }
+    
+    /**
+     * 构造函数
+     * @param preferences 保存配置的偏好设置节点
+     */
+    public AppConfig(Preferences preferences) {
+        this.preferences = preferences;
+    }
+    
+    /**
+     * 保存自定义扫描路径
+     * @param paths 路径列表
+     */
+    public void saveCustomPaths(List<Path> paths) {
+        if (paths == null || paths.isEmpty()) {
+            preferences.remove(CUSTOM_PATHS_KEY);
+            return;
+        }
+        
+        String pathArray = paths.stream()
+            .map(Path::toString)
+            .collect(Collectors.joining(";"));
+        preferences.put(CUSTOM_PATHS_KEY, pathArray);
+    }
+    
+    /**
+     * 加载自定义扫描路径
+     * @return 路径列表
+     */
+    public List<Path> loadCustomPaths() {
+        String pathsString = preferences.get(CUSTOM_PATHS_KEY, "");
+        if (pathsString == null || pathsString.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        return Arrays.stream(pathsString.split(";"))
+            .filter(s -> s != null && !s.trim().isEmpty())
+            .map(String::trim)
+            .map(Paths::get)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * 保存最后选择的环境变量作用域
+     * @param scope 作用域
+     */
+    public void saveLastSelectedScope(EnvVariableScope scope) {
+        if (scope != null) {
+            preferences.put(LAST_SELECTED_SCOPE_KEY, scope.name());
+        }
+    }
+    
+    /**
+     * 加载最后选择的环境变量作用域
+     * @return 作用域，默认为USER
+     */
+    public EnvVariableScope loadLastSelectedScope() {
+        String scopeName = preferences.get(LAST_SELECTED_SCOPE_KEY, EnvVariableScope.USER.name());
+        try {
+            return EnvVariableScope.valueOf(scopeName);
+        } catch (IllegalArgumentException e) {
+            return EnvVariableScope.USER;
+        }
+    }
+    
+    /**
+     * 保存切换配置，同名配置会被覆盖
+     * @param profile 切换配置
+     */
+    public void saveSwitchProfile(SwitchProfile profile) {
+        if (SwitchProfile.DEFAULT_NAME.equals(profile.getName())) {
+            throw new IllegalArgumentException("默认配置不能修改");
+        }
+        try {
+            Preferences node = preferences.node(SWITCH_PROFILES_NODE).node(profile.getName());
+            node.clear();
+            // 偏好设置不保证键的顺序，变量名单独按顺序保存
+            node.put(PROFILE_VARIABLES_KEY, String.join(";", profile.getVariables().keySet()));
+            node.putBoolean(PROFILE_UPDATE_PATH_KEY, profile.isUpdatePath());
+            for (Map.Entry<String, String> variable : profile.getVariables().entrySet()) {
+                node.put(PROFILE_VALUE_PREFIX + variable.getKey(), variable.getValue());
+            }
+            node.flush();
+        } catch (BackingStoreException e) {
+            System.err.println("保存切换配置失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 删除切换配置，删除的是当前配置时恢复为默认配置
+     * @param name 配置名称
+     * @return 如果配置存在并已删除返回true
+     */
+    public boolean removeSwitchProfile(String name) {
+        try {
+            Preferences profiles = preferences.node(SWITCH_PROFILES_NODE);
+            if (SwitchProfile.DEFAULT_NAME.equals(name) || !profiles.nodeExists(name)) {
+                return false;
+            }
+            profiles.node(name).removeNode();
+            profiles.flush();
+            if (name.equals(preferences.get(ACTIVE_PROFILE_KEY, null))) {
+                preferences.remove(ACTIVE_PROFILE_KEY);
+            }
+            return true;
+        } catch (BackingStoreException | IllegalArgumentException e) {
+            System.err.println("删除切换配置失败: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 按名称查找切换配置
+     * @param name 配置名称
+     * @return 切换配置，不存在时返回Optional.empty()
+     */
+    public Optional<SwitchProfile> findSwitchProfile(String name) {
+        if (SwitchProfile.DEFAULT_NAME.equals(name)) {
+            return Optional.of(SwitchProfile.defaultProfile());
+        }
+        try {
+            Preferences profiles = preferences.node(SWITCH_PROFILES_NODE);
+            if (name == null || !profiles.nodeExists(name)) {
+                return Optional.empty();
+            }
+            Preferences node = profiles.node(name);
+            Map<String, String> variables = new LinkedHashMap<>();
+            for (String variable : node.get(PROFILE_VARIABLES_KEY, "").split(";")) {
+                if (!variable.isEmpty()) {
+                    variables.put(variable, node.get(PROFILE_VALUE_PREFIX + variable, ""));
+                }
+            }
+            return Optional.of(new SwitchProfile(name, variables, node.getBoolean(PROFILE_UPDATE_PATH_KEY, true)));
+        } catch (BackingStoreException | IllegalArgumentException e) {
+            System.err.println("读取切换配置失败: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * 加载全部切换配置
+     * @return 切换配置列表，第一个总是默认配置
+     */
+    public List<SwitchProfile> loadSwitchProfiles() {
+        List<SwitchProfile> result = new ArrayList<>();
+        result.add(SwitchProfile.defaultProfile());
+        try {
+            String[] names = preferences.node(SWITCH_PROFILES_NODE).childrenNames();
+            Arrays.sort(names);
+            for (String name : names) {
+                findSwitchProfile(name).ifPresent(result::add);
+            }
+        } catch (BackingStoreException e) {
+            System.err.println("读取切换配置失败: " + e.getMessage());
+        }
+        return result;
+    }
+    
+    /**
+     * 保存当前使用的切换配置
+     * @param name 配置名称
+     */
+    public void saveActiveSwitchProfile(String name) {
+        if (name == null || SwitchProfile.DEFAULT_NAME.equals(name)) {
+            preferences.remove(ACTIVE_PROFILE_KEY);
+        } else {
+            preferences.put(ACTIVE_PROFILE_KEY, name);
+        }
+    }
+    
+    /**
+     * 加载当前使用的切换配置
+     * @return 切换配置，未设置或已被删除时返回默认配置
+     */
+    public SwitchProfile loadActiveSwitchProfile() {
+        return findSwitchProfile(preferences.get(ACTIVE_PROFILE_KEY, SwitchProfile.DEFAULT_NAME))
+            .orElseGet(SwitchProfile::defaultProfile);
+    }
+    
+    /**
+     * 保存窗口尺寸
+     * @param width 窗口宽度
+     * @param height 窗口高度
+     */
+    public void saveWindowSize(double width, double height) {
+        preferences.putDouble(WINDOW_WIDTH_KEY, width);
+        preferences.putDouble(WINDOW_HEIGHT_KEY, height);
+    }
+    
+    /**
+     * 保存窗口位置
+     * @param x 窗口X坐标
+     * @param y 窗口Y坐标
+     */
+    public void saveWindowPosition(double x, double y) {
+        preferences.putDouble(WINDOW_X_KEY, x);
+        preferences.putDouble(WINDOW_Y_KEY, y);
+    }
+    
+    /**
+     * 加载窗口宽度
+     * @return 窗口宽度
+     */
+    public double loadWindowWidth() {
+        return preferences.getDouble(WINDOW_WIDTH_KEY, 800.0);
+    }
+    
+    /**
+     * 加载窗口高度
+     * @return 窗口高度
+     */
+    public double loadWindowHeight() {
+        return preferences.getDouble(WINDOW_HEIGHT_KEY, 600.0);
+    }
+    
+    /**
+     * 加载窗口X坐标
+     * @return 窗口X坐标
+     */
+    public double loadWindowX() {
+        return preferences.getDouble(WINDOW_X_KEY, -1.0); // -1表示居中
+    }
+    
+    /**
+     * 加载窗口Y坐标
+     * @return 窗口Y坐标
+     */
+    public double loadWindowY() {
+        return preferences.getDouble(WINDOW_Y_KEY, -1.0); // -1表示居中
+    }
+    
+    /**
+     * 保存窗口状态
+     * @param width 窗口宽度
+     * @param height 窗口高度
+     * @param x 窗口X坐标
+     * @param y 窗口Y坐标
+     */
+    public void saveWindowState(double width, double height, double x, double y) {
+        saveWindowSize(width, height);
+        saveWindowPosition(x, y);
+    }
+    
+    /**
+     * 清除所有配置
+     */
+    public void clearAll() {
+        try {
+            preferences.clear();
+        } catch (Exception e) {
+            System.err.println("清除配置失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 检查是否有保存的配置
+     * @return 如果有配置返回true
+     */
+    public boolean hasConfiguration() {
+        try {
+            return preferences.keys().length > 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
\ No newline at end of file
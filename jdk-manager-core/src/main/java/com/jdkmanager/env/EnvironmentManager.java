@@ -0,0 +1,676 @@
+package com.jdkmanager.env;
+
+import com.jdkmanager.exception.EnvironmentVariableException;
+import com.jdkmanager.exception.InsufficientPrivilegeException;
+import com.jdkmanager.metrics.SwitchTrace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Windows环境变量管理器
+ * 提供Windows系统环境变量的读取、修改和通知功能
+ */
+public class EnvironmentManager {
+    private static final String JAVA_HOME = "JAVA_HOME";
+    private static final String PATH = "PATH";
+    
+    // Windows环境变量更新通知常量
+    private static final int HWND_BROADCAST = 0xFFFF;
+    private static final int WM_SETTINGCHANGE = 0x1A;
+    
+    // reg query输出中的值行，值可以为空
+    private static final Pattern REG_VALUE_LINE = Pattern.compile("^ {4}(.+?) {4}REG_[A-Z_]+(?: {4}(.*))?$");
+    
+    private final SwitchJournal journal;
+    private final SwitchTransaction transaction;
+    
+    /**
+     * 构造函数，切换日志保存在默认位置
+     */
+    public EnvironmentManager() {
+        this(new SwitchJournal(SwitchJournal.defaultFile()));
+    }
+    
+    /**
+     * 构造函数
+     * @param journal 切换预写日志
+     */
+    public EnvironmentManager(SwitchJournal journal) {
+        if (journal == null) {
+            throw new IllegalArgumentException("切换日志不能为空");
+        }
+        this.journal = journal;
+        this.transaction = new SwitchTransaction(journal, this::importBatches, this::readVariables);
+    }
+    
+    /**
+     * 设置JAVA_HOME环境变量
+     * @param jdkPath JDK安装路径
+     * @param scope 环境变量作用域
+     * @return 如果设置成功返回true
+     * @throws EnvironmentVariableException 如果设置失败
+     */
+    public boolean setJavaHome(Path jdkPath, EnvVariableScope scope) throws EnvironmentVariableException {
+        if (jdkPath == null) {
+            throw new IllegalArgumentException("JDK路径不能为空");
+        }
+        
+        String value = jdkPath.toAbsolutePath().toString();
+        return setEnvironmentVariable(JAVA_HOME, value, scope);
+    }
+    
+    /**
+     * 获取当前JAVA_HOME值
+     * @param scope 环境变量作用域
+     * @return JAVA_HOME值，如果不存在返回Optional.empty()
+     */
+    public Optional<String> getJavaHome(EnvVariableScope scope) {
+        return getEnvironmentVariable(JAVA_HOME, scope);
+    }
+    
+    /**
+     * 更新PATH环境变量，添加JDK的bin目录
+     * @param jdkPath JDK安装路径
+     * @param scope 环境变量作用域
+     * @return 如果更新成功返回true
+     * @throws EnvironmentVariableException 如果更新失败
+     */
+    public boolean updatePath(Path jdkPath, EnvVariableScope scope) throws EnvironmentVariableException {
+        return updatePath(jdkPath, scope, SwitchTrace.disabled());
+    }
+    
+    /**
+     * 更新PATH环境变量，分别记录读取和写入耗时
+     * @param jdkPath JDK安装路径
+     * @param scope 环境变量作用域
+     * @param trace 切换耗时追踪
+     * @return 如果更新成功返回true
+     * @throws EnvironmentVariableException 如果更新失败
+     */
+    private boolean updatePath(Path jdkPath, EnvVariableScope scope, SwitchTrace trace) throws EnvironmentVariableException {
+        if (jdkPath == null) {
+            throw new IllegalArgumentException("JDK路径不能为空");
+        }
+        
+        try {
+            Optional<String> currentPath;
+            try (SwitchTrace.Stage stage = trace.stage(SwitchTrace.STAGE_PATH_READ)) {
+                currentPath = getEnvironmentVariable(PATH, scope);
+            }
+            String newPath = buildPath(jdkPath, currentPath);
+            
+            try (SwitchTrace.Stage stage = trace.stage(SwitchTrace.STAGE_PATH_WRITE)) {
+                return setEnvironmentVariable(PATH, newPath, scope);
+            }
+        } catch (Exception e) {
+            throw new EnvironmentVariableException("更新PATH失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 切换JDK版本
+     * @param jdkPath 新的JDK路径
+     * @param scope 环境变量作用域
+     * @return 如果切换成功返回true
+     * @throws EnvironmentVariableException 如果切换失败
+     */
+    public boolean switchJdk(Path jdkPath, EnvVariableScope scope) throws EnvironmentVariableException {
+        return switchJdk(jdkPath, scope, SwitchTrace.disabled());
+    }
+    
+    /**
+     * 切换JDK版本，并按阶段记录耗时
+     * @param jdkPath 新的JDK路径
+     * @param scope 环境变量作用域
+     * @param trace 切换耗时追踪
+     * @return 如果切换成功返回true
+     * @throws EnvironmentVariableException 如果切换失败
+     */
+    public boolean switchJdk(Path jdkPath, EnvVariableScope scope, SwitchTrace trace) throws EnvironmentVariableException {
+        return applyProfile(jdkPath, SwitchProfile.defaultProfile(), Collections.singletonList(scope), trace);
+    }
+    
+    /**
+     * 按切换配置切换JDK
+     * 所有作用域的全部变量（包括PATH）合并为一次注册表导入，写完后只广播一次更改通知，
+     * 因此多变量配置的耗时与只写JAVA_HOME基本相同。
+     * 写入前旧值先记入切换日志，任何作用域写入失败时所有作用域一起回滚
+     * @param jdkPath 新的JDK路径
+     * @param profile 切换配置
+     * @param scopes 环境变量作用域列表
+     * @param trace 切换耗时追踪
+     * @return 如果切换成功返回true
+     * @throws EnvironmentVariableException 如果切换失败
+     */
+    public boolean applyProfile(Path jdkPath, SwitchProfile profile, List<EnvVariableScope> scopes, SwitchTrace trace)
+            throws EnvironmentVariableException {
+        if (jdkPath == null) {
+            throw new IllegalArgumentException("JDK路径不能为空");
+        }
+        if (profile == null || scopes == null || scopes.isEmpty()) {
+            throw new IllegalArgumentException("切换配置和作用域不能为空");
+        }
+        System.out.println("=== 开始切换JDK ===");
+        System.out.println("目标JDK路径: " + jdkPath);
+        System.out.println("切换配置: " + profile.getName());
+        
+        try {
+            List<RegistryBatch> batches = new ArrayList<>();
+            Map<EnvVariableScope, Map<String, String>> previous = new EnumMap<>(EnvVariableScope.class);
+            for (EnvVariableScope scope : scopes) {
+                // 一次读取该作用域的全部变量，同时用于计算新PATH和记录旧值
+                Map<String, String> current;
+                try (SwitchTrace.Stage stage = trace.stage(SwitchTrace.STAGE_PATH_READ)) {
+                    current = readVariables(scope);
+                }
+                RegistryBatch batch = buildBatch(jdkPath, profile, scope, Optional.ofNullable(current.get(PATH)));
+                Map<String, String> before = new LinkedHashMap<>();
+                for (String name : batch.getChanges().keySet()) {
+                    before.put(name, current.get(name));
+                }
+                previous.put(scope, before);
+                // 系统级放在前面：权限不足时reg import在写入任何用户级变量之前就失败
+                batches.add(scope == EnvVariableScope.SYSTEM ? 0 : batches.size(), batch);
+            }
+            
+            System.out.println("写入环境变量: " + String.join(", ", batches.get(0).getChanges().keySet()));
+            try (SwitchTrace.Stage stage = trace.stage(SwitchTrace.STAGE_BATCH_WRITE)) {
+                transaction.apply(jdkPath.toAbsolutePath().toString(), batches, previous);
+            } catch (EnvironmentVariableException e) {
+                // 回滚可能已经改回了部分变量，同样需要通知
+                notifyEnvironmentChange();
+                throw e;
+            }
+            System.out.println("✓ 环境变量写入成功");
+            
+            // 所有作用域写完后只通知一次
+            System.out.println("通知系统环境变量更改...");
+            try (SwitchTrace.Stage stage = trace.stage(SwitchTrace.STAGE_BROADCAST)) {
+                notifyEnvironmentChange();
+            }
+            System.out.println("✓ 环境变量更改通知已发送");
+            
+            // 验证设置是否生效
+            String expected = jdkPath.toAbsolutePath().toString();
+            for (EnvVariableScope scope : scopes) {
+                Optional<String> newJavaHome;
+                try (SwitchTrace.Stage stage = trace.stage(SwitchTrace.STAGE_VERIFY_READ)) {
+                    newJavaHome = getJavaHome(scope);
+                }
+                if (newJavaHome.isPresent()) {
+                    System.out.println("验证" + scope.getDisplayName() + "JAVA_HOME: " + newJavaHome.get());
+                    if (!newJavaHome.get().equals(expected)) {
+                        System.out.println("⚠️ 警告: 设置的JAVA_HOME与实际读取的不一致");
+                        System.out.println("  设置值: " + expected);
+                        System.out.println("  读取值: " + newJavaHome.get());
+                    } else {
+                        System.out.println("✓ JAVA_HOME验证成功");
+                    }
+                } else {
+                    System.out.println("✗ 无法读取" + scope.getDisplayName() + "JAVA_HOME");
+                }
+            }
+            
+            System.out.println("=== JDK切换完成 ===");
+            return true;
+        } catch (Exception e) {
+            System.err.println("=== JDK切换失败 ===");
+            System.err.println("错误: " + e.getMessage());
+            if (e instanceof InsufficientPrivilegeException) {
+                throw (InsufficientPrivilegeException) e;
+            }
+            throw new EnvironmentVariableException("切换JDK失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 撤销最近一次切换，按切换日志把所有作用域一次性恢复为切换前的值
+     * @return 被撤销的切换，没有可以撤销的切换时返回Optional.empty()
+     * @throws EnvironmentVariableException 如果恢复失败
+     */
+    public Optional<SwitchJournal.Entry> undoLastSwitch() throws EnvironmentVariableException {
+        Optional<SwitchJournal.Entry> undone = transaction.undoLast();
+        if (undone.isPresent()) {
+            notifyEnvironmentChange();
+            System.out.println("✓ 已撤销切换: " + undone.get().getTarget());
+        }
+        return undone;
+    }
+    
+    /**
+     * 检查是否有可以撤销的切换
+     * @return 有可以撤销的切换返回true
+     */
+    public boolean canUndoLastSwitch() {
+        try {
+            return journal.lastUndoable().isPresent();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 回滚上次进程中途退出时未完成的切换，应在启动时调用
+     * @return 被回滚的切换，没有未完成的切换时返回Optional.empty()
+     * @throws EnvironmentVariableException 如果恢复失败
+     */
+    public Optional<SwitchJournal.Entry> recoverIncompleteSwitch() throws EnvironmentVariableException {
+        Optional<SwitchJournal.Entry> recovered = transaction.recover();
+        if (recovered.isPresent()) {
+            notifyEnvironmentChange();
+            System.out.println("✓ 已回滚未完成的切换: " + recovered.get().getTarget());
+        }
+        return recovered;
+    }
+    
+    /**
+     * 生成一个作用域的批量修改
+     * @param jdkPath 新的JDK路径
+     * @param profile 切换配置
+     * @param scope 环境变量作用域
+     * @param currentPath 该作用域当前的PATH，不更新PATH时忽略
+     * @return 批量修改
+     */
+    static RegistryBatch buildBatch(Path jdkPath, SwitchProfile profile, EnvVariableScope scope,
+                                    Optional<String> currentPath) {
+        RegistryBatch batch = new RegistryBatch(scope);
+        for (Map.Entry<String, String> variable : profile.resolve(jdkPath).entrySet()) {
+            if (variable.getValue().isEmpty()) {
+                batch.delete(variable.getKey());
+            } else {
+                batch.set(variable.getKey(), variable.getValue());
+            }
+        }
+        if (profile.isUpdatePath()) {
+            batch.set(PATH, buildPath(jdkPath, currentPath));
+        }
+        return batch;
+    }
+    
+    /**
+     * 启用shim模式并切换到初始JDK
+     * 一次性写入JAVA_HOME和PATH：能创建current链接时JAVA_HOME指向current，PATH加入current\bin和启动脚本目录；
+     * 只能使用指针文件时JAVA_HOME指向实际JDK，PATH只加入启动脚本目录。
+     * 之后通过{@link #switchShim}切换JDK，链接模式下不再需要写注册表和广播
+     * @param shimManager shim目录管理器
+     * @param jdkPath 初始JDK路径
+     * @param scope 环境变量作用域
+     * @return 实际使用的切换方式
+     * @throws EnvironmentVariableException 如果启用失败
+     */
+    public ShimManager.ShimMode installShim(ShimManager shimManager, Path jdkPath, EnvVariableScope scope)
+            throws EnvironmentVariableException {
+        if (shimManager == null || jdkPath == null) {
+            throw new IllegalArgumentException("ShimManager和JDK路径不能为空");
+        }
+
+        ShimManager.ShimMode mode;
+        try {
+            shimManager.prepare();
+            mode = shimManager.switchTo(jdkPath);
+        } catch (IOException e) {
+            throw new EnvironmentVariableException("准备Shim目录失败: " + e.getMessage(), e);
+        }
+
+        Map<String, String> current = readVariables(scope);
+        List<String> entries = new ArrayList<>();
+        for (Path entry : shimManager.getPathEntries(mode)) {
+            entries.add(entry.toAbsolutePath().toString());
+        }
+        String newPath = String.join(";", entries);
+        String currentPath = current.get(PATH);
+        if (currentPath != null && !currentPath.isEmpty()) {
+            // shim目录本身也会被识别为JDK路径，重复启用或改变模式时不会累积
+            newPath = removeOldJdkFromPath(currentPath) + ";" + newPath;
+        }
+
+        RegistryBatch batch = new RegistryBatch(scope);
+        batch.set(JAVA_HOME, shimJavaHome(shimManager, jdkPath, mode));
+        batch.set(PATH, newPath);
+        Map<String, String> before = new LinkedHashMap<>();
+        for (String name : batch.getChanges().keySet()) {
+            before.put(name, current.get(name));
+        }
+        try {
+            transaction.apply(jdkPath.toAbsolutePath().toString(), Collections.singletonList(batch),
+                Collections.singletonMap(scope, before));
+        } finally {
+            // 回滚可能已经改回了部分变量，同样需要通知
+            notifyEnvironmentChange();
+        }
+        System.out.println("✓ Shim模式已启用: " + shimManager.getShimHome() + " (" + mode + ")");
+        return mode;
+    }
+
+    /**
+     * 通过shim目录切换JDK
+     * 链接模式下只替换current链接；只能使用指针文件时current已被移除，
+     * 还需要把JAVA_HOME改为实际JDK路径，这是唯一的一次注册表写入，PATH保持不变
+     * @param shimManager shim目录管理器
+     * @param jdkPath 新的JDK路径
+     * @param scope 环境变量作用域
+     * @return 实际使用的切换方式
+     * @throws EnvironmentVariableException 如果切换失败
+     */
+    public ShimManager.ShimMode switchShim(ShimManager shimManager, Path jdkPath, EnvVariableScope scope)
+            throws EnvironmentVariableException {
+        if (shimManager == null || jdkPath == null) {
+            throw new IllegalArgumentException("ShimManager和JDK路径不能为空");
+        }
+
+        ShimManager.ShimMode mode;
+        try {
+            mode = shimManager.switchTo(jdkPath);
+        } catch (IOException e) {
+            throw new EnvironmentVariableException("Shim切换失败: " + e.getMessage(), e);
+        }
+
+        // 切换方式可能与启用时不同，JAVA_HOME不一致时才写注册表
+        String javaHome = shimJavaHome(shimManager, jdkPath, mode);
+        if (!getJavaHome(scope).map(javaHome::equals).orElse(false)) {
+            setEnvironmentVariable(JAVA_HOME, javaHome, scope);
+            notifyEnvironmentChange();
+            System.out.println("✓ JAVA_HOME已更新: " + javaHome);
+        }
+        return mode;
+    }
+
+    /**
+     * shim模式下JAVA_HOME应有的值，指针文件模式下current不存在，只能指向实际JDK
+     */
+    private static String shimJavaHome(ShimManager shimManager, Path jdkPath, ShimManager.ShimMode mode) {
+        Path javaHome = mode == ShimManager.ShimMode.DIRECTORY_LINK
+            ? shimManager.getCurrentLink() : jdkPath.toAbsolutePath().normalize();
+        return javaHome.toString();
+    }
+
+    /**
+     * 检查是否有管理员权限
+     * @return 如果有管理员权限返回true
+     */
+    public boolean hasAdminRights() {
+        try {
+            // 尝试访问系统级注册表项来检查权限
+            Optional<String> systemPath = getEnvironmentVariable(PATH, EnvVariableScope.SYSTEM);
+            return systemPath.isPresent();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 设置环境变量
+     * @param name 变量名
+     * @param value 变量值
+     * @param scope 作用域
+     * @return 如果设置成功返回true
+     * @throws EnvironmentVariableException 如果设置失败
+     */
+    private boolean setEnvironmentVariable(String name, String value, EnvVariableScope scope) throws EnvironmentVariableException {
+        try {
+            // 使用reg命令设置环境变量
+            String command = String.format("reg add \"%s\" /v \"%s\" /t REG_EXPAND_SZ /d \"%s\" /f", 
+                scope.getRegistryPath(), name, value);
+            
+            ProcessBuilder pb = new ProcessBuilder("cmd", "/c", command);
+            Process process = pb.start();
+            int exitCode = process.waitFor();
+            
+            if (exitCode != 0) {
+                // 读取错误信息
+                String errorOutput = readProcessError(process);
+                if (errorOutput.contains("Access is denied") || errorOutput.contains("拒绝访问")) {
+                    throw new InsufficientPrivilegeException("权限不足，无法修改" + scope.getDisplayName() + "环境变量");
+                }
+                throw new EnvironmentVariableException("设置环境变量失败: " + errorOutput);
+            }
+            
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EnvironmentVariableException("设置环境变量被中断", e);
+        } catch (IOException e) {
+            throw new EnvironmentVariableException("设置环境变量IO错误: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 用一次reg import写入多个作用域的批量修改
+     * @param batches 批量修改，按顺序写入
+     * @throws EnvironmentVariableException 如果写入失败
+     */
+    private void importBatches(List<RegistryBatch> batches) throws EnvironmentVariableException {
+        if (batches.stream().allMatch(RegistryBatch::isEmpty)) {
+            return;
+        }
+        Path regFile = null;
+        try {
+            regFile = Files.createTempFile("jdk-manager-", ".reg");
+            Files.write(regFile, RegistryBatch.encode(batches));
+            
+            ProcessBuilder pb = new ProcessBuilder("reg", "import", regFile.toAbsolutePath().toString());
+            pb.redirectErrorStream(true);
+            Process process = pb.start();
+            String output = readProcessOutput(process);
+            int exitCode = process.waitFor();
+            
+            if (exitCode != 0) {
+                // 没有写HKLM的权限时reg import只报告访问注册表出错
+                boolean system = batches.stream().anyMatch(batch -> batch.getScope() == EnvVariableScope.SYSTEM);
+                if (output.contains("Access is denied") || output.contains("拒绝访问")
+                        || (system && (output.contains("accessing the registry") || output.contains("访问注册表时出错")))) {
+                    throw new InsufficientPrivilegeException("权限不足，无法修改"
+                        + (system ? EnvVariableScope.SYSTEM : EnvVariableScope.USER).getDisplayName() + "环境变量");
+                }
+                throw new EnvironmentVariableException("导入环境变量失败: " + output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EnvironmentVariableException("导入环境变量被中断", e);
+        } catch (IOException e) {
+            throw new EnvironmentVariableException("导入环境变量IO错误: " + e.getMessage(), e);
+        } finally {
+            if (regFile != null) {
+                try {
+                    Files.deleteIfExists(regFile);
+                } catch (IOException e) {
+                    // 临时文件删除失败不影响切换
+                }
+            }
+        }
+    }
+    
+    /**
+     * 计算新的PATH：移除旧的JDK bin路径，追加新的
+     * @param jdkPath 新的JDK路径
+     * @param currentPath 当前PATH
+     * @return 新的PATH
+     */
+    private static String buildPath(Path jdkPath, Optional<String> currentPath) {
+        String jdkBinPath = jdkPath.resolve("bin").toAbsolutePath().toString();
+        if (currentPath.isPresent()) {
+            return removeOldJdkFromPath(currentPath.get()) + ";" + jdkBinPath;
+        }
+        return jdkBinPath;
+    }
+    
+    /**
+     * 用一次reg query读取作用域下的全部环境变量
+     * @param scope 作用域
+     * @return 变量名到原始值的映射，变量名不区分大小写
+     * @throws EnvironmentVariableException 如果读取失败，此时无法记录旧值，不能继续切换
+     */
+    private Map<String, String> readVariables(EnvVariableScope scope) throws EnvironmentVariableException {
+        try {
+            ProcessBuilder pb = new ProcessBuilder("reg", "query", scope.getRegistryPath());
+            pb.redirectErrorStream(true);
+            Process process = pb.start();
+            String output = readProcessOutput(process);
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new EnvironmentVariableException("读取" + scope.getDisplayName() + "环境变量失败: " + output);
+            }
+            return parseRegQuery(output);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EnvironmentVariableException("读取环境变量被中断", e);
+        } catch (IOException e) {
+            throw new EnvironmentVariableException("读取环境变量IO错误: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 解析reg query的输出，值行的格式为：四个空格、名称、四个空格、类型、四个空格、值
+     * @param output reg query输出
+     * @return 变量名到值的映射，变量名不区分大小写
+     */
+    static Map<String, String> parseRegQuery(String output) {
+        Map<String, String> variables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String line : output.split("\r?\n")) {
+            Matcher matcher = REG_VALUE_LINE.matcher(line);
+            if (matcher.matches()) {
+                variables.put(matcher.group(1), matcher.group(2));
+            }
+        }
+        return variables;
+    }
+    
+    /**
+     * 获取环境变量
+     * @param name 变量名
+     * @param scope 作用域
+     * @return 变量值
+     */
+    private Optional<String> getEnvironmentVariable(String name, EnvVariableScope scope) {
+        try {
+            // 使用reg命令查询环境变量
+            String command = String.format("reg query \"%s\" /v \"%s\"", 
+                scope.getRegistryPath(), name);
+            
+            ProcessBuilder pb = new ProcessBuilder("cmd", "/c", command);
+            Process process = pb.start();
+            
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), "gbk"))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append("\n");
+                }
+            }
+            
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                return Optional.empty();
+            }
+            
+            // 解析输出获取变量值
+            String result = output.toString();
+            String[] lines = result.split("\n");
+            for (String line : lines) {
+                if (line.trim().startsWith(name)) {
+                    int index = line.indexOf("REG_");
+                    if (index != -1) {
+                        return Optional.of(line.substring(index + line.substring(index).indexOf(" ") + 1).trim());
+                    }
+                }
+            }
+            
+            return Optional.empty();
+        } catch (Exception e) {
+            System.err.println("获取环境变量失败: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * 从PATH中移除旧的JDK路径
+     * @param currentPath 当前PATH值
+     * @return 清理后的PATH
+     */
+    private static String removeOldJdkFromPath(String currentPath) {
+        List<String> pathEntries = new ArrayList<>(Arrays.asList(currentPath.split(";")));
+        
+        // 移除包含java或jdk的bin路径
+        pathEntries.removeIf(path -> {
+            String lowerPath = path.toLowerCase();
+            return (lowerPath.contains("java") || lowerPath.contains("jdk")) && 
+                   lowerPath.contains("bin");
+        });
+        
+        return String.join(";", pathEntries);
+    }
+    
+    /**
+     * 通知系统环境变量已更改
+     */
+    private void notifyEnvironmentChange() {
+        try {
+            // 使用Windows API发送WM_SETTINGCHANGE消息
+            // 这里使用一个简化的方法，通过调用PowerShell来发送消息
+            String psCommand = "Add-Type -TypeDefinition 'using System; using System.Runtime.InteropServices; public class Win32 { [DllImport(\"user32.dll\")] public static extern IntPtr SendMessageTimeout(IntPtr hWnd, uint Msg, IntPtr wParam, string lParam, uint fuFlags, uint uTimeout, out IntPtr lpdwResult); }'; [Win32]::SendMessageTimeout(0xFFFF, 0x1A, [IntPtr]::Zero, \"Environment\", 0, 1000, [ref]$null)";
+            String command = "powershell -Command \"" + psCommand + "\"";
+            
+            ProcessBuilder pb = new ProcessBuilder("cmd", "/c", command);
+            Process process = pb.start();
+            process.waitFor();
+        } catch (Exception e) {
+            System.err.println("通知环境变量更改失败: " + e.getMessage());
+            // 这个失败不是致命的，不影响主要功能
+        }
+    }
+    
+    /**
+     * 读取进程标准输出
+     * @param process 进程对象
+     * @return 输出字符串
+     */
+    private String readProcessOutput(Process process) {
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), "gbk"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append("\n");
+            }
+        } catch (IOException e) {
+            // 忽略读取错误
+        }
+        return output.toString();
+    }
+    
+    /**
+     * 读取进程错误输出
+     * @param process 进程对象
+     * @return 错误输出字符串
+     */
+    private String readProcessError(Process process) {
+        StringBuilder errorOutput = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                errorOutput.append(line).append("\n");
+            }
+        } catch (IOException e) {
+            // 忽略读取错误
+        }
+        return errorOutput.toString();
+    }
+}
\ No newline at end of file
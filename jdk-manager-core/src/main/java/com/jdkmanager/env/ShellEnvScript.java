@@ -0,0 +1,236 @@
+package com.jdkmanager.env;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 只对当前终端生效的JDK切换脚本
+ * 根据当前进程的环境变量计算新的JAVA_HOME和PATH，生成可以直接在cmd、PowerShell或POSIX shell中执行的脚本，
+ * 不写注册表，也不广播更改通知
+ */
+public final class ShellEnvScript {
+
+    private static final String JAVA_HOME = "JAVA_HOME";
+    private static final String PATH = "PATH";
+    // Windows路径在MSYS/Git Bash中的写法：C:\x 对应 /c/x
+    private static final Pattern WINDOWS_DRIVE = Pattern.compile("^([A-Za-z]):[\\\\/]?(.*)$");
+
+    /**
+     * 目标shell
+     */
+    public enum Shell {
+        CMD("cmd"),
+        POWERSHELL("powershell"),
+        POSIX("sh");
+
+        private final String displayName;
+
+        Shell(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * 按名称查找shell
+         * @param name shell名称，支持cmd、powershell/pwsh/ps、sh/bash/zsh/posix
+         * @return shell，名称无法识别时返回Optional.empty()
+         */
+        public static Optional<Shell> parse(String name) {
+            if (name == null) {
+                return Optional.empty();
+            }
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "cmd":
+                    return Optional.of(CMD);
+                case "powershell":
+                case "pwsh":
+                case "ps":
+                    return Optional.of(POWERSHELL);
+                case "sh":
+                case "bash":
+                case "zsh":
+                case "posix":
+                    return Optional.of(POSIX);
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        /**
+         * 根据环境变量推断调用方的shell
+         * Git Bash、MSYS和Cygwin会设置SHELL；PowerShell无法可靠识别，需要显式指定
+         * @param environment 当前进程的环境变量
+         * @return 设置了SHELL或不是Windows时返回POSIX，否则返回CMD
+         */
+        public static Shell detect(Map<String, String> environment) {
+            if (lookup(environment, "SHELL") != null || File.pathSeparatorChar != ';') {
+                return POSIX;
+            }
+            return CMD;
+        }
+    }
+
+    private ShellEnvScript() {
+    }
+
+    /**
+     * 生成切换脚本
+     * @param shell 目标shell
+     * @param jdkPath 目标JDK路径
+     * @param profile 切换配置，决定设置和删除哪些变量以及是否修改PATH
+     * @param environment 当前进程的环境变量，用于计算新的PATH
+     * @return 脚本内容，每行一条命令
+     */
+    public static String render(Shell shell, Path jdkPath, SwitchProfile profile, Map<String, String> environment) {
+        return render(shell, jdkPath, profile, environment, File.pathSeparatorChar);
+    }
+
+    /**
+     * 生成切换脚本
+     * @param pathSeparator 当前进程PATH的分隔符，Windows上为';'
+     */
+    static String render(Shell shell, Path jdkPath, SwitchProfile profile, Map<String, String> environment,
+                         char pathSeparator) {
+        if (shell == null || jdkPath == null || profile == null || environment == null) {
+            throw new IllegalArgumentException("shell、JDK路径、切换配置和环境变量不能为空");
+        }
+        StringBuilder script = new StringBuilder();
+        comment(shell, script, "jdk-manager shell-env: " + jdkPath);
+        // 与switch写入注册表的变量一致，空值表示删除
+        for (Map.Entry<String, String> variable : profile.resolve(jdkPath).entrySet()) {
+            if (variable.getValue().isEmpty()) {
+                unset(shell, script, variable.getKey());
+            } else {
+                set(shell, script, variable.getKey(), variable.getValue());
+            }
+        }
+        if (profile.isUpdatePath()) {
+            List<String> entries = buildPath(jdkPath, lookup(environment, JAVA_HOME), lookup(environment, PATH),
+                pathSeparator);
+            if (shell == Shell.POSIX && pathSeparator == ';') {
+                // 在Git Bash中PATH以冒号分隔，盘符需要改写
+                entries.replaceAll(ShellEnvScript::toPosixPath);
+                set(shell, script, PATH, String.join(":", entries));
+            } else {
+                set(shell, script, PATH, String.join(shell == Shell.POSIX ? ":" : ";", entries));
+            }
+        }
+        return script.toString();
+    }
+
+    /**
+     * 计算新的PATH：目标JDK的bin目录放在最前，移除原JAVA_HOME的bin目录和重复项
+     * @param jdkPath 目标JDK路径
+     * @param oldJavaHome 当前JAVA_HOME，可以为null
+     * @param currentPath 当前PATH，可以为null
+     * @param separator PATH分隔符
+     * @return 新的PATH条目
+     */
+    static List<String> buildPath(Path jdkPath, String oldJavaHome, String currentPath, char separator) {
+        String jdkBin = jdkPath.resolve("bin").toString();
+        String oldBin = oldJavaHome == null || oldJavaHome.isEmpty()
+            ? null : normalize(oldJavaHome) + "\\bin";
+        List<String> entries = new ArrayList<>();
+        entries.add(jdkBin);
+        if (currentPath == null) {
+            return entries;
+        }
+        for (String entry : currentPath.split(Pattern.quote(String.valueOf(separator)))) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            String normalized = normalize(entry);
+            if (normalized.equals(normalize(jdkBin)) || normalized.equals(oldBin)) {
+                continue;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * 统一分隔符、大小写和结尾的斜杠，用于比较PATH条目
+     */
+    private static String normalize(String path) {
+        String normalized = path.trim().replace('/', '\\').toLowerCase(Locale.ROOT);
+        while (normalized.length() > 1 && normalized.endsWith("\\")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    static String toPosixPath(String path) {
+        Matcher matcher = WINDOWS_DRIVE.matcher(path);
+        if (!matcher.matches()) {
+            return path.replace('\\', '/');
+        }
+        return "/" + matcher.group(1).toLowerCase(Locale.ROOT) + "/" + matcher.group(2).replace('\\', '/');
+    }
+
+    private static void comment(Shell shell, StringBuilder script, String text) {
+        script.append(shell == Shell.CMD ? "rem " : "# ").append(text).append(lineSeparator(shell));
+    }
+
+    private static void set(Shell shell, StringBuilder script, String name, String value) {
+        switch (shell) {
+            case CMD:
+                // 整个赋值放在引号中，值里的 & | < > ^ 不会被解释
+                script.append("set \"").append(name).append('=').append(value).append('"');
+                break;
+            case POWERSHELL:
+                script.append("$env:").append(name).append(" = '").append(value.replace("'", "''")).append('\'');
+                break;
+            default:
+                script.append("export ").append(name).append("='").append(value.replace("'", "'\\''"))
+                    .append('\'');
+                break;
+        }
+        script.append(lineSeparator(shell));
+    }
+
+    private static void unset(Shell shell, StringBuilder script, String name) {
+        switch (shell) {
+            case CMD:
+                script.append("set \"").append(name).append("=\"");
+                break;
+            case POWERSHELL:
+                script.append("Remove-Item Env:").append(name).append(" -ErrorAction SilentlyContinue");
+                break;
+            default:
+                script.append("unset ").append(name);
+                break;
+        }
+        script.append(lineSeparator(shell));
+    }
+
+    private static String lineSeparator(Shell shell) {
+        // bash的eval不接受行尾的\r
+        return shell == Shell.POSIX ? "\n" : "\r\n";
+    }
+
+    /**
+     * Windows上环境变量名不区分大小写，PATH通常写作Path
+     */
+    private static String lookup(Map<String, String> environment, String name) {
+        String value = environment.get(name);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> entry : environment.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,332 @@
+package com.jdkmanager.env;
+
+import com.jdkmanager.scanner.JdkInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shim目录管理器
+ * PATH和JAVA_HOME永久指向受管理的shim目录，切换JDK时只替换目录中的链接
+ * 或指针文件，不再写注册表，也不需要广播环境变量更改。
+ * 无法创建链接时只有指针文件生效，此时JAVA_HOME必须指向实际JDK，见{@link EnvironmentManager#switchShim}
+ *
+ * 目录结构:
+ * <pre>
+ * shimHome/
+ *   current      -> 指向当前JDK的目录联接（Windows）或符号链接，链接模式下JAVA_HOME指向此处
+ *   current.txt  指针文件，保存当前JDK路径，始终先于链接写入
+ *   bin/         轻量启动脚本，通过指针文件转发到实际JDK
+ * </pre>
+ */
+public class ShimManager {
+    private static final String CURRENT_LINK = "current";
+    private static final String POINTER_FILE = "current.txt";
+    private static final String LAUNCHER_DIR = "bin";
+
+    // 需要生成启动脚本的JDK工具
+    private static final List<String> LAUNCHER_TOOLS = Arrays.asList(
+        "java", "javaw", "javac", "jar", "jshell", "javadoc", "keytool", "jps", "jcmd"
+    );
+
+    /**
+     * Shim切换方式
+     */
+    public enum ShimMode {
+        /** 替换current目录链接，JAVA_HOME和PATH可以指向current */
+        DIRECTORY_LINK,
+        /** 仅更新指针文件，由启动脚本解析；current不存在，JAVA_HOME需要指向实际JDK */
+        POINTER_FILE
+    }
+
+    private final Path shimHome;
+
+    /**
+     * 构造函数，使用默认shim目录
+     */
+    public ShimManager() {
+        this(defaultShimHome());
+    }
+
+    /**
+     * 构造函数
+     * @param shimHome shim根目录
+     */
+    public ShimManager(Path shimHome) {
+        if (shimHome == null) {
+            throw new IllegalArgumentException("Shim目录不能为空");
+        }
+        this.shimHome = shimHome.toAbsolutePath().normalize();
+    }
+
+    /**
+     * 获取默认shim目录
+     * @return 用户目录下的.jdk-manager/shim
+     */
+    public static Path defaultShimHome() {
+        return Path.of(System.getProperty("user.home"), ".jdk-manager", "shim");
+    }
+
+    /**
+     * 获取shim根目录
+     * @return shim根目录
+     */
+    public Path getShimHome() {
+        return shimHome;
+    }
+
+    /**
+     * 获取当前JDK链接路径，JAVA_HOME永久指向此路径
+     * @return 当前JDK链接路径
+     */
+    public Path getCurrentLink() {
+        return shimHome.resolve(CURRENT_LINK);
+    }
+
+    /**
+     * 获取启动脚本目录
+     * @return 启动脚本目录
+     */
+    public Path getLauncherDirectory() {
+        return shimHome.resolve(LAUNCHER_DIR);
+    }
+
+    /**
+     * 获取需要永久加入PATH的目录
+     * 链接模式下current\bin优先，启动脚本目录作为后备；指针文件模式下只有启动脚本目录
+     * @param mode 切换方式
+     * @return PATH目录列表
+     */
+    public List<Path> getPathEntries(ShimMode mode) {
+        if (mode == ShimMode.DIRECTORY_LINK) {
+            return Arrays.asList(getCurrentLink().resolve("bin"), getLauncherDirectory());
+        }
+        return Collections.singletonList(getLauncherDirectory());
+    }
+
+    /**
+     * 准备shim目录结构并生成启动脚本
+     * 只需要在首次启用shim模式时调用一次
+     * @throws IOException 如果创建目录或写入脚本失败
+     */
+    public void prepare() throws IOException {
+        Files.createDirectories(getLauncherDirectory());
+        for (String tool : LAUNCHER_TOOLS) {
+            Path launcher = getLauncherDirectory().resolve(tool + ".cmd");
+            writeAtomically(launcher, createLauncherScript(tool));
+        }
+    }
+
+    /**
+     * 切换当前JDK
+     * 先原子写入指针文件，再替换current链接；
+     * 如果无法创建链接，则移除指向旧JDK的current，只使用指针文件
+     * @param jdkPath 目标JDK路径
+     * @return 实际使用的切换方式
+     * @throws IOException 如果切换失败
+     */
+    public ShimMode switchTo(Path jdkPath) throws IOException {
+        if (jdkPath == null) {
+            throw new IllegalArgumentException("JDK路径不能为空");
+        }
+        if (!JdkInfo.isValidJdk(jdkPath)) {
+            throw new IOException("不是有效的JDK目录: " + jdkPath);
+        }
+
+        long startTime = System.nanoTime();
+        Path target = jdkPath.toAbsolutePath().normalize();
+        Files.createDirectories(shimHome);
+
+        writeAtomically(shimHome.resolve(POINTER_FILE), target.toString());
+
+        ShimMode mode = replaceCurrentLink(target) ? ShimMode.DIRECTORY_LINK : ShimMode.POINTER_FILE;
+
+        long elapsedMicros = (System.nanoTime() - startTime) / 1_000;
+        System.out.println("✓ Shim切换完成: " + target + " (" + mode + ", " + elapsedMicros + " μs)");
+        return mode;
+    }
+
+    /**
+     * 获取shim当前指向的JDK
+     * @return 当前JDK路径，如果尚未切换过返回Optional.empty()
+     */
+    public Optional<Path> getCurrentTarget() {
+        Path link = getCurrentLink();
+        try {
+            if (Files.isSymbolicLink(link)) {
+                Path target = Files.readSymbolicLink(link);
+                return Optional.of(link.getParent().resolve(target).normalize());
+            }
+            if (isLink(link)) {
+                // 目录联接不能用readSymbolicLink读取
+                return Optional.of(link.toRealPath());
+            }
+
+            Path pointer = shimHome.resolve(POINTER_FILE);
+            if (Files.exists(pointer)) {
+                String value = Files.readString(pointer, StandardCharsets.UTF_8).trim();
+                if (!value.isEmpty()) {
+                    return Optional.of(Path.of(value));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("读取Shim当前JDK失败: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 用新的目录链接替换current
+     * 任何一步失败时都会移除指向旧JDK的current，避免PATH上的current\bin与指针文件不一致
+     * @param target 链接目标
+     * @return 如果链接替换成功返回true，返回false时只能使用指针文件
+     * @throws IOException 如果无法移除指向旧JDK的current链接
+     */
+    private boolean replaceCurrentLink(Path target) throws IOException {
+        Path link = getCurrentLink();
+        if (Files.exists(link, LinkOption.NOFOLLOW_LINKS) && !isLink(link)) {
+            // current是真实目录，不能替换，只能使用指针文件
+            System.out.println("current不是链接，使用指针文件: " + link);
+            return false;
+        }
+
+        Path tempLink = uniqueSibling(link, ".tmp-");
+        try {
+            try {
+                createLink(tempLink, target);
+            } catch (UnsupportedOperationException | SecurityException | IOException e) {
+                System.out.println("无法创建目录链接，使用指针文件: " + e.getMessage());
+                removeStaleLink(link);
+                return false;
+            }
+
+            try {
+                Files.move(tempLink, link, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                // Windows不能用重命名覆盖目录联接：先把旧链接原子改名移开，再把新链接改名到位。
+                // 两次改名之间current短暂不存在，PATH会跳过current\bin，由启动脚本按已写好的指针文件找到新JDK
+                Path retired = uniqueSibling(link, ".old-");
+                try {
+                    if (isLink(link)) {
+                        Files.move(link, retired, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    Files.move(tempLink, link, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException moveFailed) {
+                    System.out.println("无法替换current链接，使用指针文件: " + moveFailed.getMessage());
+                    removeStaleLink(link);
+                    return false;
+                } finally {
+                    Files.deleteIfExists(retired);
+                }
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(tempLink);
+        }
+    }
+
+    /**
+     * 创建指向目录的链接
+     * Windows上使用目录联接（mklink /J），不需要管理员权限或开发者模式；其他系统使用符号链接
+     * @param link 链接路径，必须不存在
+     * @param target 链接目标，绝对路径
+     * @throws IOException 如果创建失败
+     */
+    protected void createLink(Path link, Path target) throws IOException {
+        if (File.separatorChar != '\\') {
+            Files.createSymbolicLink(link, target);
+            return;
+        }
+        Process process = new ProcessBuilder("cmd", "/c", "mklink", "/J", link.toString(), target.toString())
+            .redirectErrorStream(true)
+            .start();
+        String output = new String(process.getInputStream().readAllBytes(), Charset.defaultCharset()).trim();
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("创建目录联接失败: " + output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+            throw new InterruptedIOException("创建目录联接被中断");
+        }
+    }
+
+    /**
+     * 移除指向旧JDK的current链接，PATH随后落到启动脚本目录，由指针文件解析新JDK
+     * @param link current链接
+     * @throws IOException 如果链接存在但无法删除
+     */
+    private void removeStaleLink(Path link) throws IOException {
+        if (!isLink(link)) {
+            return;
+        }
+        try {
+            // 删除符号链接或目录联接本身，不影响链接目标
+            Files.delete(link);
+            System.out.println("已移除指向旧JDK的current链接");
+        } catch (IOException e) {
+            throw new IOException("无法移除指向旧JDK的current链接: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 判断路径是否为符号链接或目录联接
+     * NIO不把Windows目录联接报告为符号链接，而是报告为同时是目录和其他类型的文件
+     */
+    private static boolean isLink(Path path) {
+        if (Files.isSymbolicLink(path)) {
+            return true;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS);
+            return attributes.isDirectory() && attributes.isOther();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path uniqueSibling(Path path, String infix) {
+        return path.resolveSibling(path.getFileName() + infix + Thread.currentThread().getId() + "-" + System.nanoTime());
+    }
+
+    /**
+     * 通过临时文件加原子重命名写入文件，读者不会看到写了一半的内容
+     * @param file 目标文件
+     * @param content 文件内容
+     */
+    private void writeAtomically(Path file, String content) throws IOException {
+        Path tempFile = uniqueSibling(file, ".tmp-");
+        try {
+            Files.writeString(tempFile, content, StandardCharsets.UTF_8);
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 生成启动脚本，脚本在每次执行时从指针文件解析当前JDK
+     * @param tool 工具名称
+     * @return 脚本内容
+     */
+    private String createLauncherScript(String tool) {
+        return "@echo off\r\n"
+            + "setlocal\r\n"
+            + "set /p JDK_MANAGER_TARGET=<\"%~dp0..\\" + POINTER_FILE + "\"\r\n"
+            + "\"%JDK_MANAGER_TARGET%\\bin\\" + tool + ".exe\" %*\r\n";
+    }
+}
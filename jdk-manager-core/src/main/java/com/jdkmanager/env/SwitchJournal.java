@@ -0,0 +1,445 @@
+package com.jdkmanager.env;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDK切换预写日志
+ * 写注册表之前先把各作用域被覆盖变量的旧值追加到日志并刷盘，写入失败或进程中途退出时可以据此回滚，
+ * 也用于一键撤销上次切换。
+ * 日志是UTF-8文本，每行一条记录，字段以制表符分隔：
+ * B 开始（编号、时间、目标、进程号、进程启动时间），P 旧值（编号、作用域、变量名、值），N 新值（同P），
+ * C 提交，R 已回滚，U 已撤销。
+ * 图形界面和命令行可能同时写日志，所有读写都先对同目录下的锁文件加文件锁
+ */
+public class SwitchJournal {
+
+    // 日志超过这个大小时只保留最近的记录
+    private static final long COMPACT_THRESHOLD_BYTES = 64 * 1024;
+    private static final int KEEP_ENTRIES = 20;
+
+    private static final String BEGIN = "B";
+    private static final String PREVIOUS = "P";
+    private static final String APPLIED = "N";
+    private static final String COMMITTED = "C";
+    private static final String ROLLED_BACK = "R";
+    private static final String UNDONE = "U";
+    // 旧值前缀：存在的变量以=开头，不存在的变量记为-，撤销时删除
+    private static final String PRESENT = "=";
+    private static final String ABSENT = "-";
+
+    // 文件锁由整个进程共享，同一进程内的多个实例先在这里排队，否则lock()会抛出OverlappingFileLockException
+    private static final Object PROCESS_LOCK = new Object();
+
+    private final Path file;
+
+    /**
+     * 构造函数
+     * @param file 日志文件路径，第一次写入时创建
+     */
+    public SwitchJournal(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("日志文件路径不能为空");
+        }
+        this.file = file;
+    }
+
+    /**
+     * 获取默认日志文件路径
+     * @return ~/.jdk-manager/switch-journal.log
+     */
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("user.home"), ".jdk-manager", "switch-journal.log");
+    }
+
+    /**
+     * 记录一次切换的开始和各作用域的旧值，返回前已刷盘
+     * @param target 切换目标，用于显示
+     * @param previous 各作用域将被覆盖的变量旧值，值为null表示变量原本不存在
+     * @return 本次切换的编号
+     * @throws IOException 如果写入失败
+     */
+    public long begin(String target, Map<EnvVariableScope, Map<String, String>> previous) throws IOException {
+        return begin(target, previous, Collections.emptyMap());
+    }
+
+    /**
+     * 记录一次切换的开始、各作用域的旧值和将要写入的新值，返回前已刷盘
+     * 新值用于恢复时判断切换是否其实已经完整写入
+     * @param target 切换目标，用于显示
+     * @param previous 各作用域将被覆盖的变量旧值，值为null表示变量原本不存在
+     * @param applied 各作用域将要写入的新值，值为null表示删除变量
+     * @return 本次切换的编号
+     * @throws IOException 如果写入失败
+     */
+    public long begin(String target, Map<EnvVariableScope, Map<String, String>> previous,
+                      Map<EnvVariableScope, Map<String, String>> applied) throws IOException {
+        return locked(() -> {
+            List<Entry> entries = readUnlocked();
+            if (Files.exists(file) && Files.size(file) > COMPACT_THRESHOLD_BYTES) {
+                compact(entries);
+            }
+            long id = entries.isEmpty() ? 1 : entries.get(entries.size() - 1).id + 1;
+
+            StringBuilder sb = new StringBuilder();
+            ProcessHandle self = ProcessHandle.current();
+            appendRecord(sb, BEGIN, String.valueOf(id), String.valueOf(System.currentTimeMillis()), target,
+                String.valueOf(self.pid()), String.valueOf(startMillis(self)));
+            appendValues(sb, PREVIOUS, id, previous);
+            appendValues(sb, APPLIED, id, applied);
+            append(sb.toString());
+            return id;
+        });
+    }
+
+    /**
+     * 标记切换已提交
+     * @param id 切换编号
+     * @throws IOException 如果写入失败
+     */
+    public void committed(long id) throws IOException {
+        mark(COMMITTED, id);
+    }
+
+    /**
+     * 标记切换已回滚
+     * @param id 切换编号
+     * @throws IOException 如果写入失败
+     */
+    public void rolledBack(long id) throws IOException {
+        mark(ROLLED_BACK, id);
+    }
+
+    /**
+     * 标记切换已撤销
+     * @param id 切换编号
+     * @throws IOException 如果写入失败
+     */
+    public void undone(long id) throws IOException {
+        mark(UNDONE, id);
+    }
+
+    /**
+     * 查找可以撤销的切换：最近一次已提交且未撤销的切换
+     * 撤销之后再次调用返回更早的一次，因为撤销后的状态正是那次切换完成时的状态
+     * @return 切换记录
+     * @throws IOException 如果读取失败
+     */
+    public Optional<Entry> lastUndoable() throws IOException {
+        List<Entry> entries = read();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+            if (entry.state == State.COMMITTED) {
+                return Optional.of(entry);
+            }
+            if (entry.state == State.PENDING) {
+                // 未完成的切换需要先恢复，之前的记录已经不能代表当前状态
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 查找未完成的切换，即开始后进程退出、没有提交也没有回滚的切换
+     * 写日志的进程仍在运行时切换还在进行中，例如命令行正在执行switch，不算未完成
+     * @return 切换记录
+     * @throws IOException 如果读取失败
+     */
+    public Optional<Entry> incomplete() throws IOException {
+        return locked(() -> {
+            List<Entry> entries = readUnlocked();
+            if (entries.isEmpty()) {
+                return Optional.empty();
+            }
+            Entry last = entries.get(entries.size() - 1);
+            if (last.state != State.PENDING || isOwnerAlive(last)) {
+                return Optional.empty();
+            }
+            return Optional.of(last);
+        });
+    }
+
+    /**
+     * 读取全部切换记录
+     * @return 按时间排序的记录
+     * @throws IOException 如果读取失败
+     */
+    public List<Entry> read() throws IOException {
+        return locked(this::readUnlocked);
+    }
+
+    private List<Entry> readUnlocked() throws IOException {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        Map<Long, Entry> entries = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 2) {
+                continue;
+            }
+            try {
+                long id = Long.parseLong(fields[1]);
+                if (BEGIN.equals(fields[0]) && fields.length >= 4 && fields.length <= 6) {
+                    // 旧版本的记录没有进程号，按进程已退出处理
+                    long pid = fields.length >= 5 ? Long.parseLong(fields[4]) : 0;
+                    long started = fields.length == 6 ? Long.parseLong(fields[5]) : 0;
+                    entries.put(id, new Entry(id, Long.parseLong(fields[2]), unescape(fields[3]), pid, started));
+                    continue;
+                }
+                Entry entry = entries.get(id);
+                if (entry == null) {
+                    continue;
+                }
+                if (PREVIOUS.equals(fields[0]) && fields.length == 5) {
+                    String value = unescape(fields[4]);
+                    entry.previous.computeIfAbsent(EnvVariableScope.valueOf(fields[2]), scope -> new LinkedHashMap<>())
+                        .put(unescape(fields[3]), value.startsWith(PRESENT) ? value.substring(1) : null);
+                } else if (APPLIED.equals(fields[0]) && fields.length == 5) {
+                    String value = unescape(fields[4]);
+                    entry.applied.computeIfAbsent(EnvVariableScope.valueOf(fields[2]), scope -> new LinkedHashMap<>())
+                        .put(unescape(fields[3]), value.startsWith(PRESENT) ? value.substring(1) : null);
+                } else if (COMMITTED.equals(fields[0])) {
+                    entry.state = State.COMMITTED;
+                } else if (ROLLED_BACK.equals(fields[0])) {
+                    entry.state = State.ROLLED_BACK;
+                } else if (UNDONE.equals(fields[0])) {
+                    entry.state = State.UNDONE;
+                }
+            } catch (IllegalArgumentException e) {
+                // 忽略损坏的行，例如写到一半时断电留下的记录
+            }
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    private void mark(String record, long id) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        appendRecord(sb, record, String.valueOf(id));
+        locked(() -> {
+            append(sb.toString());
+            return null;
+        });
+    }
+
+    /**
+     * 检查写日志的进程是否仍在运行
+     * Windows会复用进程号，同一进程号的进程启动时间不同时说明是另一个进程
+     */
+    private static boolean isOwnerAlive(Entry entry) {
+        if (entry.ownerPid <= 0) {
+            return false;
+        }
+        Optional<ProcessHandle> owner = ProcessHandle.of(entry.ownerPid).filter(ProcessHandle::isAlive);
+        if (owner.isEmpty()) {
+            return false;
+        }
+        // 记录或系统没有提供启动时间时只能按进程号判断
+        long started = startMillis(owner.get());
+        return entry.ownerStartMillis <= 0 || started <= 0 || started == entry.ownerStartMillis;
+    }
+
+    /**
+     * 获取进程启动时间
+     * @return 毫秒时间戳，无法获取时返回0
+     */
+    private static long startMillis(ProcessHandle process) {
+        return process.info().startInstant().map(Instant::toEpochMilli).orElse(0L);
+    }
+
+    /**
+     * 持有锁文件的文件锁执行操作
+     * 锁加在单独的文件上：压缩时日志文件会被替换，锁在日志文件上会随旧文件失效
+     */
+    private <T> T locked(JournalAction<T> action) throws IOException {
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        Path parent = lockFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        synchronized (PROCESS_LOCK) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.run();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface JournalAction<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * 追加记录并刷盘
+     */
+    private void append(String text) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * 只保留最近的记录，先写临时文件再替换
+     */
+    private void compact(List<Entry> entries) throws IOException {
+        List<Entry> kept = entries.subList(Math.max(0, entries.size() - KEEP_ENTRIES), entries.size());
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : kept) {
+            appendRecord(sb, BEGIN, String.valueOf(entry.id), String.valueOf(entry.timestamp), entry.target,
+                String.valueOf(entry.ownerPid), String.valueOf(entry.ownerStartMillis));
+            appendValues(sb, PREVIOUS, entry.id, entry.previous);
+            appendValues(sb, APPLIED, entry.id, entry.applied);
+            if (entry.state != State.PENDING) {
+                String record = entry.state == State.COMMITTED ? COMMITTED
+                    : entry.state == State.ROLLED_BACK ? ROLLED_BACK : UNDONE;
+                appendRecord(sb, record, String.valueOf(entry.id));
+            }
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void appendValues(StringBuilder sb, String record, long id,
+                                     Map<EnvVariableScope, Map<String, String>> values) {
+        for (Map.Entry<EnvVariableScope, Map<String, String>> scope : values.entrySet()) {
+            for (Map.Entry<String, String> variable : scope.getValue().entrySet()) {
+                String value = variable.getValue() == null ? ABSENT : PRESENT + variable.getValue();
+                appendRecord(sb, record, String.valueOf(id), scope.getKey().name(), variable.getKey(), value);
+            }
+        }
+    }
+
+    private static void appendRecord(StringBuilder sb, String record, String... fields) {
+        sb.append(record);
+        for (String field : fields) {
+            sb.append('\t').append(escape(field));
+        }
+        sb.append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 切换状态
+     */
+    public enum State {
+        PENDING, COMMITTED, ROLLED_BACK, UNDONE
+    }
+
+    /**
+     * 一次切换的日志记录
+     */
+    public static final class Entry {
+        private final long id;
+        private final long timestamp;
+        private final String target;
+        private final long ownerPid;
+        private final long ownerStartMillis;
+        private final Map<EnvVariableScope, Map<String, String>> previous = new EnumMap<>(EnvVariableScope.class);
+        private final Map<EnvVariableScope, Map<String, String>> applied = new EnumMap<>(EnvVariableScope.class);
+        private State state = State.PENDING;
+
+        private Entry(long id, long timestamp, String target, long ownerPid, long ownerStartMillis) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.target = target;
+            this.ownerPid = ownerPid;
+            this.ownerStartMillis = ownerStartMillis;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        /**
+         * 获取各作用域的旧值
+         * @return 作用域到变量旧值的映射，值为null表示变量原本不存在
+         */
+        public Map<EnvVariableScope, Map<String, String>> getPrevious() {
+            return Collections.unmodifiableMap(previous);
+        }
+
+        /**
+         * 获取各作用域将要写入的新值
+         * @return 作用域到变量新值的映射，值为null表示删除变量；旧版本的记录为空
+         */
+        public Map<EnvVariableScope, Map<String, String>> getApplied() {
+            return Collections.unmodifiableMap(applied);
+        }
+
+        /**
+         * 获取写入这条记录的进程号
+         * @return 进程号，旧版本的记录返回0
+         */
+        public long getOwnerPid() {
+            return ownerPid;
+        }
+
+        /**
+         * 获取写入这条记录的进程的启动时间，用于识别被复用的进程号
+         * @return 毫秒时间戳，旧版本的记录或无法获取时返回0
+         */
+        public long getOwnerStartMillis() {
+            return ownerStartMillis;
+        }
+
+        public State getState() {
+            return state;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.jdkmanager.env;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * JDK切换配置
+ * 把切换时需要写入的多个环境变量组合在一起，例如JAVA_HOME、JDK_HOME、JRE_HOME、GRAALVM_HOME和JAVA_TOOL_OPTIONS。
+ * 变量值中的{@value #JDK_PLACEHOLDER}在切换时替换为目标JDK的路径，因此同一个配置可以用于任意JDK；
+ * 值为空字符串表示删除该变量
+ */
+public final class SwitchProfile {
+
+    // 变量值中代表目标JDK路径的占位符
+    public static final String JDK_PLACEHOLDER = "${jdk}";
+    // 默认配置名称，只写JAVA_HOME并更新PATH，与原有的切换方式一致
+    public static final String DEFAULT_NAME = "default";
+
+    private static final String JAVA_HOME = "JAVA_HOME";
+    private static final Pattern VARIABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    // 配置名称同时用作偏好设置的节点名，不能包含斜杠
+    private static final Pattern PROFILE_NAME = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+
+    private final String name;
+    private final Map<String, String> variables;
+    private final boolean updatePath;
+
+    /**
+     * 构造函数
+     * 没有配置JAVA_HOME时自动加入 JAVA_HOME=${jdk}，切换验证和当前JDK检测都依赖它
+     * @param name 配置名称
+     * @param variables 变量名到值模板的映射，按顺序写入
+     * @param updatePath 是否把JDK的bin目录写入PATH
+     */
+    public SwitchProfile(String name, Map<String, String> variables, boolean updatePath) {
+        if (name == null || !PROFILE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("配置名称只能包含字母、数字、下划线、点和短横线: " + name);
+        }
+        Map<String, String> copy = new LinkedHashMap<>();
+        if (variables == null || variables.keySet().stream().noneMatch(JAVA_HOME::equalsIgnoreCase)) {
+            copy.put(JAVA_HOME, JDK_PLACEHOLDER);
+        }
+        if (variables != null) {
+            for (Map.Entry<String, String> entry : variables.entrySet()) {
+                String variable = entry.getKey();
+                if (variable == null || !VARIABLE_NAME.matcher(variable).matches()) {
+                    throw new IllegalArgumentException("无效的环境变量名: " + variable);
+                }
+                if ("PATH".equalsIgnoreCase(variable)) {
+                    throw new IllegalArgumentException("PATH由updatePath控制，不能直接配置");
+                }
+                copy.put(variable, entry.getValue() == null ? "" : entry.getValue());
+            }
+        }
+        this.name = name;
+        this.variables = Collections.unmodifiableMap(copy);
+        this.updatePath = updatePath;
+    }
+
+    /**
+     * 获取默认配置
+     * @return 只包含JAVA_HOME并更新PATH的配置
+     */
+    public static SwitchProfile defaultProfile() {
+        return new SwitchProfile(DEFAULT_NAME, Collections.emptyMap(), true);
+    }
+
+    /**
+     * 计算切换到指定JDK时要写入的变量
+     * @param jdkPath 目标JDK路径
+     * @return 变量名到实际值的映射，空字符串表示删除
+     */
+    public Map<String, String> resolve(Path jdkPath) {
+        if (jdkPath == null) {
+            throw new IllegalArgumentException("JDK路径不能为空");
+        }
+        String home = jdkPath.toAbsolutePath().toString();
+        Map<String, String> resolved = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : variables.entrySet()) {
+            resolved.put(entry.getKey(), entry.getValue().replace(JDK_PLACEHOLDER, home));
+        }
+        return resolved;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    public boolean isUpdatePath() {
+        return updatePath;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SwitchProfile)) {
+            return false;
+        }
+        SwitchProfile other = (SwitchProfile) o;
+        return updatePath == other.updatePath && name.equals(other.name) && variables.equals(other.variables);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, variables, updatePath);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,333 @@
+package com.jdkmanager.env;
+
+import com.jdkmanager.metrics.SwitchTrace;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDK切换请求队列
+ * 所有切换按提交顺序逐个执行，不会有两次注册表写入同时进行。
+ * 尚未开始的请求按作用域合并：新请求覆盖的作用域从更早的等待请求中移除，
+ * 所有作用域都被覆盖的请求不再执行，以"被取代"结束，最终每个作用域都是最后一次请求的JDK
+ */
+public class SwitchQueue {
+
+    /**
+     * 切换动作
+     */
+    @FunctionalInterface
+    public interface SwitchAction {
+        /**
+         * 执行一次切换
+         * @param jdkPath JDK路径
+         * @param profile 切换配置
+         * @param scopes 作用域列表
+         * @param trace 切换耗时追踪
+         * @return 如果切换成功返回true
+         * @throws Exception 如果切换失败
+         */
+        boolean apply(Path jdkPath, SwitchProfile profile, List<EnvVariableScope> scopes, SwitchTrace trace)
+            throws Exception;
+    }
+
+    private final SwitchAction action;
+    private final Executor executor;
+
+    private final Object lock = new Object();
+    private final Deque<Job> pending = new ArrayDeque<>();
+    private boolean inFlight;
+
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong supersededCount = new AtomicLong();
+
+    /**
+     * 构造函数
+     * @param environmentManager 环境变量管理器
+     * @param executor 运行切换的执行器，队列保证同一时间只占用其中一个线程
+     */
+    public SwitchQueue(EnvironmentManager environmentManager, Executor executor) {
+        this(environmentManager::applyProfile, executor);
+    }
+
+    /**
+     * 构造函数
+     * @param action 切换动作
+     * @param executor 运行切换的执行器，队列保证同一时间只占用其中一个线程
+     */
+    public SwitchQueue(SwitchAction action, Executor executor) {
+        if (action == null || executor == null) {
+            throw new IllegalArgumentException("切换动作和执行器不能为空");
+        }
+        this.action = action;
+        this.executor = executor;
+    }
+
+    /**
+     * 提交一次切换
+     * @param jdkPath JDK路径
+     * @param profile 切换配置
+     * @param scopes 作用域列表
+     * @param trace 切换耗时追踪
+     * @return 切换结果；切换失败时以异常结束
+     */
+    public CompletableFuture<Outcome> submit(Path jdkPath, SwitchProfile profile, List<EnvVariableScope> scopes,
+                                             SwitchTrace trace) {
+        if (jdkPath == null || profile == null || scopes == null || scopes.isEmpty()) {
+            throw new IllegalArgumentException("JDK路径、切换配置和作用域不能为空");
+        }
+        requestCount.incrementAndGet();
+        SwitchJob job = new SwitchJob(nextId.getAndIncrement(), jdkPath, profile, scopes, trace);
+        List<SwitchJob> superseded = new ArrayList<>();
+        synchronized (lock) {
+            // 从新到旧合并，遇到其他任务为止：不能越过它改变执行顺序
+            Iterator<Job> iterator = pending.descendingIterator();
+            while (iterator.hasNext()) {
+                Job queued = iterator.next();
+                if (!(queued instanceof SwitchJob)) {
+                    break;
+                }
+                SwitchJob older = (SwitchJob) queued;
+                older.scopes.removeAll(job.scopes);
+                if (older.scopes.isEmpty()) {
+                    iterator.remove();
+                    superseded.add(older);
+                }
+            }
+            pending.addLast(job);
+            scheduleIfIdle();
+        }
+        for (SwitchJob older : superseded) {
+            supersededCount.incrementAndGet();
+            System.out.println("切换请求#" + older.id + "(" + older.jdkPath + ")已被请求#" + job.id + "取代");
+            older.result.complete(new Outcome(older.id, job.id, Collections.emptyList()));
+        }
+        return job.result;
+    }
+
+    /**
+     * 提交一个需要与切换串行执行的任务，例如撤销上次切换，它不会被合并
+     * @param task 任务
+     * @param <T> 结果类型
+     * @return 任务结果
+     */
+    public <T> CompletableFuture<T> submitTask(Callable<T> task) {
+        if (task == null) {
+            throw new IllegalArgumentException("任务不能为空");
+        }
+        TaskJob<T> job = new TaskJob<>(task);
+        synchronized (lock) {
+            pending.addLast(job);
+            scheduleIfIdle();
+        }
+        return job.result;
+    }
+
+    /**
+     * 检查是否有切换正在执行或等待执行
+     * @return 如果空闲返回true
+     */
+    public boolean isIdle() {
+        synchronized (lock) {
+            return !inFlight && pending.isEmpty();
+        }
+    }
+
+    /**
+     * 获取收到的切换请求总数
+     * @return 请求数
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * 获取实际执行的切换次数
+     * @return 执行次数
+     */
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    /**
+     * 获取被更新的请求取代、没有执行的切换次数
+     * @return 被取代次数
+     */
+    public long getSupersededCount() {
+        return supersededCount.get();
+    }
+
+    /**
+     * 调用方持有lock
+     */
+    private void scheduleIfIdle() {
+        if (inFlight) {
+            return;
+        }
+        inFlight = true;
+        try {
+            executor.execute(this::runNext);
+        } catch (RuntimeException e) {
+            inFlight = false;
+            // 执行器已关闭或队列已满，等待中的请求全部以异常结束
+            List<Job> rejected = new ArrayList<>(pending);
+            pending.clear();
+            for (Job job : rejected) {
+                job.fail(e);
+            }
+        }
+    }
+
+    private void runNext() {
+        Job job;
+        synchronized (lock) {
+            job = pending.pollFirst();
+            if (job == null) {
+                inFlight = false;
+                return;
+            }
+        }
+        try {
+            job.run();
+        } finally {
+            synchronized (lock) {
+                inFlight = false;
+                if (!pending.isEmpty()) {
+                    scheduleIfIdle();
+                }
+            }
+        }
+    }
+
+    /**
+     * 队列中的任务
+     */
+    private abstract static class Job {
+        abstract void run();
+
+        abstract void fail(Throwable e);
+    }
+
+    private final class SwitchJob extends Job {
+        private final long id;
+        private final Path jdkPath;
+        private final SwitchProfile profile;
+        // 合并时会被更新的请求缩减
+        private final Set<EnvVariableScope> scopes;
+        private final SwitchTrace trace;
+        private final long submittedNanos = System.nanoTime();
+        private final CompletableFuture<Outcome> result = new CompletableFuture<>();
+
+        SwitchJob(long id, Path jdkPath, SwitchProfile profile, List<EnvVariableScope> scopes, SwitchTrace trace) {
+            this.id = id;
+            this.jdkPath = jdkPath;
+            this.profile = profile;
+            this.scopes = EnumSet.copyOf(scopes);
+            this.trace = trace == null ? SwitchTrace.disabled() : trace;
+        }
+
+        @Override
+        void run() {
+            List<EnvVariableScope> applied;
+            synchronized (lock) {
+                applied = new ArrayList<>(scopes);
+            }
+            executedCount.incrementAndGet();
+            // 分派阶段包含在队列中等待前面切换的时间
+            trace.record(SwitchTrace.STAGE_DISPATCH, submittedNanos);
+            try {
+                if (action.apply(jdkPath, profile, applied, trace)) {
+                    result.complete(new Outcome(id, 0, applied));
+                } else {
+                    result.completeExceptionally(new IllegalStateException("切换到 " + jdkPath + " 失败"));
+                }
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        void fail(Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static final class TaskJob<T> extends Job {
+        private final Callable<T> task;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        TaskJob(Callable<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        void run() {
+            try {
+                result.complete(task.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        void fail(Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 切换请求的结果
+     */
+    public static final class Outcome {
+        private final long requestId;
+        private final long supersededBy;
+        private final List<EnvVariableScope> appliedScopes;
+
+        Outcome(long requestId, long supersededBy, List<EnvVariableScope> appliedScopes) {
+            this.requestId = requestId;
+            this.supersededBy = supersededBy;
+            this.appliedScopes = Collections.unmodifiableList(appliedScopes);
+        }
+
+        public long getRequestId() {
+            return requestId;
+        }
+
+        /**
+         * 检查请求是否被更新的请求取代而没有执行
+         * @return 被取代时返回true
+         */
+        public boolean isSuperseded() {
+            return supersededBy != 0;
+        }
+
+        /**
+         * 获取取代本请求的请求编号
+         * @return 请求编号，未被取代时返回0
+         */
+        public long getSupersededBy() {
+            return supersededBy;
+        }
+
+        /**
+         * 获取实际写入的作用域，部分作用域被更新的请求覆盖时少于提交的作用域
+         * @return 作用域列表
+         */
+        public List<EnvVariableScope> getAppliedScopes() {
+            return appliedScopes;
+        }
+    }
+}
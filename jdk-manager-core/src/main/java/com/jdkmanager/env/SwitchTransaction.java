@@ -0,0 +1,258 @@
+package com.jdkmanager.env;
+
+import com.jdkmanager.exception.EnvironmentVariableException;
+import com.jdkmanager.exception.InsufficientPrivilegeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 多作用域JDK切换事务
+ * 先把旧值写入预写日志，再把所有作用域的修改合并为一次写入；写入失败时按日志一次性回滚，
+ * 不会留下用户级已切换、系统级未切换的半完成状态
+ */
+class SwitchTransaction {
+
+    /**
+     * 注册表批量写入
+     */
+    @FunctionalInterface
+    interface RegistryWriter {
+        /**
+         * 写入多个作用域的批量修改
+         * @param batches 批量修改
+         * @throws EnvironmentVariableException 如果写入失败
+         */
+        void write(List<RegistryBatch> batches) throws EnvironmentVariableException;
+    }
+
+    /**
+     * 注册表读取
+     */
+    @FunctionalInterface
+    interface RegistryReader {
+        /**
+         * 读取作用域下的全部变量
+         * @param scope 作用域
+         * @return 变量名到值的映射
+         * @throws EnvironmentVariableException 如果读取失败
+         */
+        Map<String, String> read(EnvVariableScope scope) throws EnvironmentVariableException;
+    }
+
+    private final SwitchJournal journal;
+    private final RegistryWriter writer;
+    private final RegistryReader reader;
+
+    /**
+     * 构造函数
+     * @param journal 预写日志
+     * @param writer 注册表批量写入
+     * @param reader 注册表读取，恢复时用来判断切换是否已经完整写入
+     */
+    SwitchTransaction(SwitchJournal journal, RegistryWriter writer, RegistryReader reader) {
+        this.journal = journal;
+        this.writer = writer;
+        this.reader = reader;
+    }
+
+    /**
+     * 执行切换
+     * @param target 切换目标，用于日志显示
+     * @param batches 各作用域的批量修改
+     * @param previous 各作用域将被覆盖的变量旧值，值为null表示变量原本不存在
+     * @throws EnvironmentVariableException 如果写入失败，抛出前已经回滚
+     */
+    void apply(String target, List<RegistryBatch> batches, Map<EnvVariableScope, Map<String, String>> previous)
+            throws EnvironmentVariableException {
+        long id;
+        try {
+            id = journal.begin(target, previous, appliedValues(batches));
+        } catch (IOException e) {
+            // 没有日志就无法回滚，不写注册表
+            throw new EnvironmentVariableException("写入切换日志失败: " + e.getMessage(), e);
+        }
+
+        try {
+            writer.write(batches);
+        } catch (EnvironmentVariableException e) {
+            System.err.println("写入环境变量失败，开始回滚: " + e.getMessage());
+            if (restore(previous)) {
+                markQuietly(() -> journal.rolledBack(id));
+                System.out.println("✓ 已回滚到切换前的环境变量");
+            } else {
+                // 日志保持未完成状态，下次启动时再恢复
+                System.err.println("✗ 回滚未完成，将在下次启动时重试");
+            }
+            throw e;
+        }
+        markQuietly(() -> journal.committed(id));
+    }
+
+    /**
+     * 撤销最近一次切换
+     * 只有注册表中仍然是那次切换写入的值时才撤销：切换之后安装程序或用户改过的变量
+     * 如果被旧值覆盖，期间新增的PATH条目等修改会悄悄丢失
+     * @return 被撤销的切换，没有可以撤销的切换时返回Optional.empty()
+     * @throws EnvironmentVariableException 如果变量在切换后已被修改，或恢复失败
+     */
+    Optional<SwitchJournal.Entry> undoLast() throws EnvironmentVariableException {
+        Optional<SwitchJournal.Entry> entry = readJournal(journal::lastUndoable);
+        if (entry.isPresent()) {
+            if (entry.get().getApplied().isEmpty()) {
+                throw new EnvironmentVariableException("切换记录中没有写入的值，无法确认环境变量未被修改，不能撤销");
+            }
+            List<String> modified = modifiedSinceApplied(entry.get());
+            if (!modified.isEmpty()) {
+                throw new EnvironmentVariableException("以下环境变量在切换后已被修改，撤销会覆盖这些修改: "
+                    + String.join(", ", modified));
+            }
+            writer.write(restoreBatches(entry.get().getPrevious()));
+            markQuietly(() -> journal.undone(entry.get().getId()));
+        }
+        return entry;
+    }
+
+    /**
+     * 回滚进程中途退出时未完成的切换
+     * 如果注册表中已经是切换的目标值，说明进程是在写入成功之后、提交之前退出的，
+     * 这时补记提交而不回滚
+     * @return 被回滚的切换，没有未完成的切换或切换其实已经完成时返回Optional.empty()
+     * @throws EnvironmentVariableException 如果恢复失败
+     */
+    Optional<SwitchJournal.Entry> recover() throws EnvironmentVariableException {
+        Optional<SwitchJournal.Entry> entry = readJournal(journal::incomplete);
+        if (entry.isPresent()) {
+            if (isFullyApplied(entry.get())) {
+                markQuietly(() -> journal.committed(entry.get().getId()));
+                System.out.println("✓ 上次切换到 " + entry.get().getTarget() + " 已完整写入，无需回滚");
+                return Optional.empty();
+            }
+            if (!restore(entry.get().getPrevious())) {
+                throw new EnvironmentVariableException("恢复未完成的切换失败: " + entry.get().getTarget());
+            }
+            markQuietly(() -> journal.rolledBack(entry.get().getId()));
+        }
+        return entry;
+    }
+
+    /**
+     * 恢复旧值：先合并为一次写入，失败时逐个作用域重试，
+     * 这样系统级因权限失败时用户级仍然能恢复
+     * @return 所有作用域都恢复成功返回true
+     */
+    private boolean restore(Map<EnvVariableScope, Map<String, String>> previous) {
+        List<RegistryBatch> batches = restoreBatches(previous);
+        try {
+            writer.write(batches);
+            return true;
+        } catch (EnvironmentVariableException e) {
+            if (batches.size() == 1) {
+                System.err.println("回滚失败: " + e.getMessage());
+                return false;
+            }
+        }
+        boolean restored = true;
+        for (RegistryBatch batch : batches) {
+            try {
+                writer.write(List.of(batch));
+            } catch (InsufficientPrivilegeException e) {
+                // 没有权限写入的作用域在切换时同样写不进去，保持原值
+                System.err.println("跳过回滚" + batch.getScope().getDisplayName() + "环境变量: " + e.getMessage());
+            } catch (EnvironmentVariableException e) {
+                System.err.println("回滚" + batch.getScope().getDisplayName() + "环境变量失败: " + e.getMessage());
+                restored = false;
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * 检查注册表中的值是否都已经是切换的目标值
+     */
+    private boolean isFullyApplied(SwitchJournal.Entry entry) throws EnvironmentVariableException {
+        if (entry.getApplied().isEmpty()) {
+            // 旧版本的记录没有新值，无法判断，按未完成处理
+            return false;
+        }
+        return modifiedSinceApplied(entry).isEmpty();
+    }
+
+    /**
+     * 找出注册表中与切换写入值不同的变量
+     * @return 作用域和变量名，例如“用户 PATH”
+     */
+    private List<String> modifiedSinceApplied(SwitchJournal.Entry entry) throws EnvironmentVariableException {
+        List<String> modified = new ArrayList<>();
+        for (Map.Entry<EnvVariableScope, Map<String, String>> scope : entry.getApplied().entrySet()) {
+            Map<String, String> current = reader.read(scope.getKey());
+            for (Map.Entry<String, String> variable : scope.getValue().entrySet()) {
+                if (!Objects.equals(variable.getValue(), current.get(variable.getKey()))) {
+                    modified.add(scope.getKey().getDisplayName() + " " + variable.getKey());
+                }
+            }
+        }
+        return modified;
+    }
+
+    private static Map<EnvVariableScope, Map<String, String>> appliedValues(List<RegistryBatch> batches) {
+        Map<EnvVariableScope, Map<String, String>> applied = new EnumMap<>(EnvVariableScope.class);
+        for (RegistryBatch batch : batches) {
+            applied.computeIfAbsent(batch.getScope(), scope -> new LinkedHashMap<>()).putAll(batch.getChanges());
+        }
+        return applied;
+    }
+
+    private static List<RegistryBatch> restoreBatches(Map<EnvVariableScope, Map<String, String>> previous) {
+        List<RegistryBatch> batches = new ArrayList<>();
+        for (Map.Entry<EnvVariableScope, Map<String, String>> scope : previous.entrySet()) {
+            RegistryBatch batch = new RegistryBatch(scope.getKey());
+            for (Map.Entry<String, String> variable : scope.getValue().entrySet()) {
+                if (variable.getValue() == null) {
+                    batch.delete(variable.getKey());
+                } else {
+                    batch.set(variable.getKey(), variable.getValue());
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(batch);
+            }
+        }
+        return batches;
+    }
+
+    private static Optional<SwitchJournal.Entry> readJournal(JournalRead read) throws EnvironmentVariableException {
+        try {
+            return read.read();
+        } catch (IOException e) {
+            throw new EnvironmentVariableException("读取切换日志失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写入结束标记，失败时只记录日志：注册表已经是正确的状态
+     */
+    private static void markQuietly(JournalMark mark) {
+        try {
+            mark.mark();
+        } catch (IOException e) {
+            System.err.println("写入切换日志失败: " + e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface JournalRead {
+        Optional<SwitchJournal.Entry> read() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface JournalMark {
+        void mark() throws IOException;
+    }
+}
@@ -0,0 +1,102 @@
+package com.jdkmanager.env;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * JDK切换结果验证器
+ * 以指数退避的方式轮询环境变量存储，直到所有作用域的JAVA_HOME都指向目标JDK，
+ * 取代切换后固定等待再全量重新扫描的做法
+ */
+public class SwitchVerifier {
+    private static final long INITIAL_DELAY_MILLIS = 10;
+    private static final long MAX_DELAY_MILLIS = 200;
+
+    // 默认超时时间
+    public static final long DEFAULT_TIMEOUT_MILLIS = 1500;
+
+    private final Function<EnvVariableScope, Optional<String>> javaHomeReader;
+
+    /**
+     * 构造函数
+     * @param environmentManager 环境变量管理器
+     */
+    public SwitchVerifier(EnvironmentManager environmentManager) {
+        this(environmentManager::getJavaHome);
+    }
+
+    /**
+     * 构造函数
+     * @param javaHomeReader 按作用域读取JAVA_HOME的函数
+     */
+    public SwitchVerifier(Function<EnvVariableScope, Optional<String>> javaHomeReader) {
+        if (javaHomeReader == null) {
+            throw new IllegalArgumentException("JAVA_HOME读取函数不能为空");
+        }
+        this.javaHomeReader = javaHomeReader;
+    }
+
+    /**
+     * 等待所有作用域的JAVA_HOME指向目标JDK
+     * @param expectedJdk 目标JDK路径
+     * @param scopes 需要验证的作用域
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 如果在超时前验证成功返回true
+     * @throws InterruptedException 如果等待被中断
+     */
+    public boolean awaitJavaHome(Path expectedJdk, List<EnvVariableScope> scopes, long timeoutMillis)
+            throws InterruptedException {
+        if (expectedJdk == null || scopes == null || scopes.isEmpty()) {
+            return false;
+        }
+
+        Path expected = expectedJdk.toAbsolutePath().normalize();
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        long delay = INITIAL_DELAY_MILLIS;
+        int attempts = 0;
+
+        while (true) {
+            attempts++;
+            if (allScopesMatch(expected, scopes)) {
+                System.out.println("✓ JAVA_HOME验证成功（第" + attempts + "次检查）");
+                return true;
+            }
+
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000L;
+            if (remainingMillis <= 0) {
+                System.out.println("✗ JAVA_HOME验证超时（共检查" + attempts + "次）");
+                return false;
+            }
+
+            Thread.sleep(Math.min(delay, remainingMillis));
+            delay = Math.min(delay * 2, MAX_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * 检查所有作用域的JAVA_HOME是否都指向目标JDK
+     * @param expected 规范化后的目标路径
+     * @param scopes 作用域列表
+     * @return 如果全部匹配返回true
+     */
+    private boolean allScopesMatch(Path expected, List<EnvVariableScope> scopes) {
+        for (EnvVariableScope scope : scopes) {
+            Optional<String> javaHome = javaHomeReader.apply(scope);
+            if (javaHome.isEmpty() || !pointsTo(javaHome.get(), expected)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean pointsTo(String value, Path expected) {
+        try {
+            return Path.of(value.trim()).toAbsolutePath().normalize().equals(expected);
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.jdkmanager.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDK切换耗时统计
+ * 在内存环形缓冲区中保存最近的切换追踪，并按阶段计算p50/p95
+ */
+public class SwitchMetrics {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final SwitchTrace[] buffer;
+    private int nextIndex = 0;
+    private int size = 0;
+
+    /**
+     * 构造函数
+     */
+    public SwitchMetrics() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造函数
+     * @param capacity 保留的最近切换数量
+     */
+    public SwitchMetrics(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量必须大于0");
+        }
+        this.buffer = new SwitchTrace[capacity];
+    }
+
+    /**
+     * 记录一次已结束的切换，并输出结构化日志
+     * @param trace 切换追踪
+     */
+    public void record(SwitchTrace trace) {
+        if (trace == null || trace == SwitchTrace.disabled()) {
+            return;
+        }
+        if (!trace.isFinished()) {
+            trace.finish(false);
+        }
+
+        synchronized (buffer) {
+            buffer[nextIndex] = trace;
+            nextIndex = (nextIndex + 1) % buffer.length;
+            size = Math.min(size + 1, buffer.length);
+        }
+
+        System.out.println(trace.toLogLine());
+        System.out.println(formatSummary());
+    }
+
+    /**
+     * 获取最近的切换追踪，按时间从旧到新排列
+     * @return 切换追踪列表
+     */
+    public List<SwitchTrace> getRecentTraces() {
+        synchronized (buffer) {
+            List<SwitchTrace> traces = new ArrayList<>(size);
+            int start = (nextIndex - size + buffer.length) % buffer.length;
+            for (int i = 0; i < size; i++) {
+                traces.add(buffer[(start + i) % buffer.length]);
+            }
+            return traces;
+        }
+    }
+
+    /**
+     * 按阶段计算最近切换的耗时分位数
+     * @return 阶段名称到统计结果的映射，"total"为整体耗时
+     */
+    public Map<String, StageSummary> getStageSummaries() {
+        Map<String, List<Long>> samples = new LinkedHashMap<>();
+        for (SwitchTrace trace : getRecentTraces()) {
+            samples.computeIfAbsent("total", key -> new ArrayList<>()).add(trace.getTotalNanos());
+            for (Map.Entry<String, Long> entry : trace.getStageNanos().entrySet()) {
+                samples.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(entry.getValue());
+            }
+        }
+
+        Map<String, StageSummary> summaries = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Long>> entry : samples.entrySet()) {
+            long[] values = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(values);
+            summaries.put(entry.getKey(), new StageSummary(values.length, percentile(values, 50), percentile(values, 95)));
+        }
+        return Collections.unmodifiableMap(summaries);
+    }
+
+    /**
+     * 生成分位数统计日志行
+     * @return key=value格式的统计行
+     */
+    public String formatSummary() {
+        StringBuilder sb = new StringBuilder("switch-metrics");
+        for (Map.Entry<String, StageSummary> entry : getStageSummaries().entrySet()) {
+            StageSummary summary = entry.getValue();
+            sb.append(' ').append(entry.getKey())
+                .append("_p50_ms=").append(SwitchTrace.formatMillis(summary.getP50Nanos()))
+                .append(' ').append(entry.getKey())
+                .append("_p95_ms=").append(SwitchTrace.formatMillis(summary.getP95Nanos()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 最近邻秩法计算分位数
+     * @param sorted 已排序的样本
+     * @param percentile 分位数(0-100)
+     * @return 分位数值
+     */
+    static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * 单个阶段的统计结果
+     */
+    public static final class StageSummary {
+        private final int count;
+        private final long p50Nanos;
+        private final long p95Nanos;
+
+        StageSummary(int count, long p50Nanos, long p95Nanos) {
+            this.count = count;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP95Nanos() {
+            return p95Nanos;
+        }
+    }
+}
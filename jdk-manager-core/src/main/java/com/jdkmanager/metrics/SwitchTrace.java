@@ -0,0 +1,170 @@
+package com.jdkmanager.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单次JDK切换的耗时追踪
+ * 从用户确认切换开始，到新的当前JDK被确认为止，按阶段记录单调时钟耗时。
+ * 同一阶段多次执行（例如同时切换用户级和系统级）时耗时累加。
+ * 确认阶段发生在追踪开始之前，只作为单独的阶段记录，不计入总耗时
+ */
+public class SwitchTrace {
+
+    // 切换流水线各阶段名称；STAGE_CONFIRM是用户查看确认对话框的时间，不计入总耗时
+    public static final String STAGE_CONFIRM = "confirm";
+    public static final String STAGE_DISPATCH = "dispatch";
+    public static final String STAGE_JAVA_HOME_WRITE = "java_home_write";
+    public static final String STAGE_PATH_READ = "path_read";
+    public static final String STAGE_PATH_WRITE = "path_write";
+    public static final String STAGE_BATCH_WRITE = "batch_write";
+    public static final String STAGE_BROADCAST = "broadcast";
+    public static final String STAGE_VERIFY_READ = "verify_read";
+    public static final String STAGE_VERIFY_POLL = "verify_poll";
+    public static final String STAGE_RESCAN = "rescan";
+    public static final String STAGE_UI_UPDATE = "ui_update";
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+    private static final SwitchTrace DISABLED = new SwitchTrace(0, "", "");
+
+    private final long id;
+    private final String target;
+    private final String scopes;
+    private final long startNanos;
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private volatile long totalNanos = -1;
+    private volatile boolean success;
+
+    /**
+     * 构造函数，开始计时
+     * @param target 目标JDK
+     * @param scopes 作用域描述
+     */
+    public SwitchTrace(String target, String scopes) {
+        this(NEXT_ID.getAndIncrement(), target, scopes);
+    }
+
+    private SwitchTrace(long id, String target, String scopes) {
+        this.id = id;
+        this.target = target;
+        this.scopes = scopes;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取不记录任何数据的追踪对象，用于不需要统计的调用方
+     * @return 空追踪对象
+     */
+    public static SwitchTrace disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * 开始一个阶段，配合try-with-resources使用
+     * @param stage 阶段名称
+     * @return 阶段计时器，关闭时记录耗时
+     */
+    public Stage stage(String stage) {
+        return new Stage(stage, System.nanoTime());
+    }
+
+    /**
+     * 记录从指定起点到现在的阶段耗时
+     * @param stage 阶段名称
+     * @param stageStartNanos 阶段开始时间（System.nanoTime）
+     */
+    public void record(String stage, long stageStartNanos) {
+        if (this == DISABLED) {
+            return;
+        }
+        long elapsed = System.nanoTime() - stageStartNanos;
+        synchronized (stageNanos) {
+            stageNanos.merge(stage, elapsed, Long::sum);
+        }
+    }
+
+    /**
+     * 结束追踪
+     * @param success 切换是否成功
+     */
+    public void finish(boolean success) {
+        this.success = success;
+        this.totalNanos = System.nanoTime() - startNanos;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public String getScopes() {
+        return scopes;
+    }
+
+    public boolean isFinished() {
+        return totalNanos >= 0;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * 获取各阶段耗时快照
+     * @return 阶段名称到纳秒耗时的映射，按首次记录顺序排列
+     */
+    public Map<String, Long> getStageNanos() {
+        synchronized (stageNanos) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(stageNanos));
+        }
+    }
+
+    /**
+     * 生成结构化日志行
+     * @return key=value格式的日志行
+     */
+    public String toLogLine() {
+        StringBuilder sb = new StringBuilder("switch-trace");
+        sb.append(" id=").append(id);
+        sb.append(" target=\"").append(target).append('"');
+        sb.append(" scopes=").append(scopes);
+        sb.append(" outcome=").append(success ? "success" : "failure");
+        sb.append(" total_ms=").append(formatMillis(totalNanos));
+        for (Map.Entry<String, Long> entry : getStageNanos().entrySet()) {
+            sb.append(' ').append(entry.getKey()).append("_ms=").append(formatMillis(entry.getValue()));
+        }
+        return sb.toString();
+    }
+
+    static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 阶段计时器
+     */
+    public final class Stage implements AutoCloseable {
+        private final String name;
+        private final long stageStartNanos;
+
+        private Stage(String name, long stageStartNanos) {
+            this.name = name;
+            this.stageStartNanos = stageStartNanos;
+        }
+
+        @Override
+        public void close() {
+            record(name, stageStartNanos);
+        }
+    }
+}
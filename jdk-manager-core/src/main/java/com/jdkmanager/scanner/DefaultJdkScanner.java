@@ -1,19 +1,27 @@
 package com.jdkmanager.scanner;
 
+import com.jdkmanager.concurrent.TaskLane;
+import com.jdkmanager.concurrent.TaskScheduler;
+
 import java.io.IOException;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -35,15 +43,11 @@ public class DefaultJdkScanner implements JdkScanner {
     // 自定义扫描路径列表
     private final List<Path> customPaths;
     
-    // 单线程执行器用于异步操作
-    private final ExecutorService executorService;
-    
     /**
      * 构造函数
      */
     public DefaultJdkScanner() {
         this.customPaths = new ArrayList<>();
-        this.executorService = Executors.newSingleThreadExecutor();
     }
     
     /**
@@ -52,7 +56,6 @@ public class DefaultJdkScanner implements JdkScanner {
      */
     public DefaultJdkScanner(List<Path> initialCustomPaths) {
         this.customPaths = new ArrayList<>();
-        this.executorService = Executors.newSingleThreadExecutor();
         
         // 初始化自定义路径
         if (initialCustomPaths != null) {
@@ -92,35 +95,140 @@ public class DefaultJdkScanner implements JdkScanner {
     
     @Override
     public List<JdkInfo> scanForJdks() {
+        return scanInventory().getInstallations();
+    }
+    
+    @Override
+    public InventorySnapshot scanInventory() {
+        return scanInventory(ScanListener.NONE);
+    }
+    
+    @Override
+    public InventorySnapshot scanInventory(ScanListener listener) {
+        long startNanos = System.nanoTime();
+        
+        // 快速路径：与目录扫描并行解析当前JDK，作为第一个结果通知监听器
+        CompletableFuture<ActiveJdk> activeJdk = resolveActiveJdkAsync();
+        activeJdk.thenAccept(active -> active.jdk.ifPresent(listener::onCurrentJdkResolved));
+        
         List<JdkInfo> allJdks = new ArrayList<>();
         
         // 扫描默认路径
         for (String defaultPath : DEFAULT_PATHS) {
             Path path = Path.of(defaultPath);
             if (Files.exists(path)) {
-                allJdks.addAll(scanDirectory(path));
+                allJdks.addAll(scanDirectory(path, listener));
             }
         }
         
         // 扫描自定义路径
         for (Path customPath : customPaths) {
             if (Files.exists(customPath)) {
-                allJdks.addAll(scanDirectory(customPath));
+                allJdks.addAll(scanDirectory(customPath, listener));
             }
         }
         
         // 去重处理：相同路径和版本的JDK只保留一个
-        allJdks = removeDuplicateJdks(allJdks);
+        List<JdkInfo> uniqueJdks = removeDuplicateJdks(allJdks);
+        
+        // 检测当前JDK，当前标记只体现在新生成的快照中，不修改扫描得到的对象
+        // 快速路径的结果在完整列表中能找到时直接确认，否则回退到完整检测
+        Path currentPath = confirmActiveJdk(uniqueJdks, activeJdk)
+            .or(() -> detectCurrentJdk(uniqueJdks))
+            .map(JdkInfo::getPath)
+            .orElse(null);
         
-        // 检测当前JDK
-        detectCurrentJdk(allJdks);
+        return InventorySnapshot.of(uniqueJdks, currentPath, Instant.now(),
+            Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+    
+    @Override
+    public Optional<JdkInfo> resolveActiveJdk() {
+        return resolveActiveJdk(locateJavaHome());
+    }
+    
+    /**
+     * 根据JAVA_HOME值解析当前JDK
+     * @param javaHome JAVA_HOME值
+     * @return 标记为当前的JDK，如果该路径不是有效JDK则返回空
+     */
+    static Optional<JdkInfo> resolveActiveJdk(String javaHome) {
+        if (javaHome == null || javaHome.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            Path path = Path.of(javaHome.trim()).normalize().toAbsolutePath();
+            return Optional.ofNullable(JdkInfo.fromPath(path)).map(jdk -> jdk.withCurrent(true));
+        } catch (InvalidPathException e) {
+            System.err.println("JAVA_HOME路径无效: " + javaHome);
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * 在交互通道中异步解析当前JDK，同时记录JAVA_HOME是否来自注册表
+     * @return 解析结果
+     */
+    private CompletableFuture<ActiveJdk> resolveActiveJdkAsync() {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                String registryHome = getJavaHomeFromRegistry();
+                if (registryHome != null && !registryHome.trim().isEmpty()) {
+                    return new ActiveJdk(resolveActiveJdk(registryHome), true);
+                }
+                return new ActiveJdk(resolveActiveJdk(System.getenv("JAVA_HOME")), false);
+            }, TaskScheduler.getDefault().executor(TaskLane.INTERACTIVE));
+        } catch (RejectedExecutionException e) {
+            // 交互通道已满时不走快速路径，由完整检测兜底
+            return CompletableFuture.completedFuture(new ActiveJdk(Optional.empty(), false));
+        }
+    }
+    
+    /**
+     * 在完整列表中确认快速路径解析到的当前JDK
+     * 只有从注册表读回的JAVA_HOME才能确认；进程环境变量是启动时继承的，可能是切换之前的值，
+     * 只用于快速显示，确认交给完整检测
+     * @param jdks 完整JDK列表
+     * @param activeJdk 快速路径结果
+     * @return 列表中对应的JDK，未经注册表验证时返回Optional.empty()
+     */
+    private Optional<JdkInfo> confirmActiveJdk(List<JdkInfo> jdks, CompletableFuture<ActiveJdk> activeJdk) {
+        ActiveJdk active;
+        try {
+            active = activeJdk.join();
+        } catch (CompletionException | CancellationException e) {
+            System.err.println("快速解析当前JDK失败: " + e.getMessage());
+            return Optional.empty();
+        }
+        if (!active.fromRegistry) {
+            if (active.jdk.isPresent()) {
+                System.out.println("快速路径的JAVA_HOME来自进程环境变量，未验证，回退到完整检测");
+            }
+            return Optional.empty();
+        }
         
-        return allJdks;
+        return active.jdk.flatMap(current -> jdks.stream()
+            .filter(jdk -> jdk.getPath().normalize().toAbsolutePath().equals(current.getPath()))
+            .findFirst());
+    }
+    
+    /**
+     * 定位JAVA_HOME，优先读取注册表，其次读取进程环境变量
+     * @return JAVA_HOME值，如果不存在返回null
+     */
+    private String locateJavaHome() {
+        String javaHome = getJavaHomeFromRegistry();
+        if (javaHome == null || javaHome.trim().isEmpty()) {
+            javaHome = System.getenv("JAVA_HOME");
+        }
+        return javaHome;
     }
     
     @Override
     public CompletableFuture<List<JdkInfo>> scanForJdksAsync() {
-        return CompletableFuture.supplyAsync(this::scanForJdks, executorService);
+        // 扫描属于后台任务，使用应用程序共享调度器的后台通道
+        return CompletableFuture.supplyAsync(this::scanForJdks,
+            TaskScheduler.getDefault().executor(TaskLane.BACKGROUND));
     }
     
     @Override
@@ -156,6 +264,23 @@ public class DefaultJdkScanner implements JdkScanner {
         return new ArrayList<>(customPaths);
     }
     
+    @Override
+    public List<Path> getScanRoots() {
+        List<Path> roots = new ArrayList<>();
+        for (String defaultPath : DEFAULT_PATHS) {
+            Path path = Path.of(defaultPath);
+            if (Files.isDirectory(path)) {
+                roots.add(path);
+            }
+        }
+        for (Path customPath : customPaths) {
+            if (Files.isDirectory(customPath)) {
+                roots.add(customPath);
+            }
+        }
+        return roots;
+    }
+    
     @Override
     public boolean validateJdk(Path path) {
         return JdkInfo.isValidJdk(path);
@@ -163,6 +288,16 @@ public class DefaultJdkScanner implements JdkScanner {
     
     @Override
     public List<JdkInfo> scanDirectory(Path directory) {
+        return scanDirectory(directory, ScanListener.NONE);
+    }
+    
+    /**
+     * 扫描单个目录中的JDK，每发现一个JDK立即通知监听器
+     * @param directory 要扫描的目录
+     * @param listener 扫描进度监听器
+     * @return 发现的JDK列表
+     */
+    private List<JdkInfo> scanDirectory(Path directory, ScanListener listener) {
         List<JdkInfo> jdks = new ArrayList<>();
         
         if (!Files.exists(directory) || !Files.isDirectory(directory)) {
@@ -175,6 +310,7 @@ public class DefaultJdkScanner implements JdkScanner {
                 JdkInfo jdkInfo = JdkInfo.fromPath(directory);
                 if (jdkInfo != null) {
                     jdks.add(jdkInfo);
+                    listener.onJdkFound(jdkInfo);
                     // 只添加一次，不再继续扫描子目录
                     return jdks;
                 }
@@ -191,6 +327,7 @@ public class DefaultJdkScanner implements JdkScanner {
                     JdkInfo jdkInfo = JdkInfo.fromPath(subdirectory);
                     if (jdkInfo != null) {
                         jdks.add(jdkInfo);
+                        listener.onJdkFound(jdkInfo);
                     }
                 }
             }
@@ -202,19 +339,13 @@ public class DefaultJdkScanner implements JdkScanner {
     }
     
     @Override
-    public void detectCurrentJdk(List<JdkInfo> jdks) {
+    public Optional<JdkInfo> detectCurrentJdk(List<JdkInfo> jdks) {
         if (jdks == null || jdks.isEmpty()) {
-            return;
+            return Optional.empty();
         }
         
         System.out.println("=== 开始检测当前JDK ===");
         
-        // 首先重置所有JDK的当前状态
-        jdks.forEach(jdk -> {
-            jdk.setCurrent(false);
-            System.out.println("重置JDK状态: " + jdk.getVersion() + " at " + jdk.getPath());
-        });
-        
         // 优先从注册表读取环境变量，这是最可靠的方法
         // 因为它不受Java应用程序缓存的影响
         try {
@@ -225,24 +356,17 @@ public class DefaultJdkScanner implements JdkScanner {
                 Path currentJdkPath = Path.of(javaHome).normalize().toAbsolutePath();
                 System.out.println("尝试通过注册表路径匹配: " + currentJdkPath);
                 
-                boolean foundByRegistry = false;
                 for (JdkInfo jdk : jdks) {
                     Path jdkPath = jdk.getPath().normalize().toAbsolutePath();
                     System.out.println("比较路径: " + jdkPath + " vs " + currentJdkPath);
                     if (jdkPath.equals(currentJdkPath)) {
-                        jdk.setCurrent(true);
-                        foundByRegistry = true;
                         System.out.println("✓ 通过注册表找到当前JDK: " + jdk.getVersion());
-                        break;
+                        System.out.println("=== 当前JDK检测完成（通过注册表） ===");
+                        return Optional.of(jdk);
                     }
                 }
                 
-                if (foundByRegistry) {
-                    System.out.println("=== 当前JDK检测完成（通过注册表） ===");
-                    return;
-                } else {
-                    System.out.println("✗ 注册表方法未找到对应的JDK");
-                }
+                System.out.println("✗ 注册表方法未找到对应的JDK");
             } else {
                 System.out.println("注册表中的JAVA_HOME为空");
             }
@@ -262,7 +386,6 @@ public class DefaultJdkScanner implements JdkScanner {
                 System.out.println("  Java路径: " + actualJavaInfo.javaPath);
                 
                 // 首先尝试通过路径精确匹配
-                boolean foundByPath = false;
                 if (actualJavaInfo.javaHome != null && !actualJavaInfo.javaHome.isEmpty()) {
                     try {
                         Path currentJdkPath = Path.of(actualJavaInfo.javaHome).normalize().toAbsolutePath();
@@ -272,45 +395,31 @@ public class DefaultJdkScanner implements JdkScanner {
                             Path jdkPath = jdk.getPath().normalize().toAbsolutePath();
                             System.out.println("比较路径: " + jdkPath + " vs " + currentJdkPath);
                             if (jdkPath.equals(currentJdkPath)) {
-                                jdk.setCurrent(true);
-                                foundByPath = true;
                                 System.out.println("✓ 通过路径匹配找到当前JDK: " + jdk.getVersion() + " at " + jdkPath);
-                                break;
+                                System.out.println("=== 当前JDK检测完成（通过外部命令） ===");
+                                return Optional.of(jdk);
                             }
                         }
                         
-                        if (!foundByPath) {
-                            System.out.println("✗ 路径匹配未找到对应的JDK");
-                        }
+                        System.out.println("✗ 路径匹配未找到对应的JDK");
                     } catch (Exception e) {
                         System.err.println("通过路径匹配JDK失败: " + e.getMessage());
                     }
                 }
                 
                 // 如果路径匹配失败，则通过版本匹配
-                if (!foundByPath && actualJavaInfo.version != null && !actualJavaInfo.version.isEmpty()) {
+                if (actualJavaInfo.version != null && !actualJavaInfo.version.isEmpty()) {
                     System.out.println("尝试通过版本匹配: " + actualJavaInfo.version);
                     for (JdkInfo jdk : jdks) {
                         System.out.println("比较版本: " + jdk.getVersion() + " vs " + actualJavaInfo.version);
                         if (matchesVersion(jdk.getVersion(), actualJavaInfo.version)) {
-                            jdk.setCurrent(true);
                             System.out.println("✓ 通过版本匹配找到当前JDK: " + jdk.getVersion() + " (实际版本: " + actualJavaInfo.version + ")");
-                            break;
+                            System.out.println("=== 当前JDK检测完成（通过外部命令） ===");
+                            return Optional.of(jdk);
                         }
                     }
                     
-                    // 检查是否有JDK被标记为当前
-                    boolean anyCurrent = jdks.stream().anyMatch(JdkInfo::isCurrent);
-                    if (!anyCurrent) {
-                        System.out.println("✗ 版本匹配也未找到对应的JDK");
-                    }
-                }
-                
-                // 检查是否找到了JDK
-                boolean anyCurrent = jdks.stream().anyMatch(JdkInfo::isCurrent);
-                if (anyCurrent) {
-                    System.out.println("=== 当前JDK检测完成（通过外部命令） ===");
-                    return;
+                    System.out.println("✗ 版本匹配也未找到对应的JDK");
                 }
             }
         } catch (Exception e) {
@@ -318,6 +427,7 @@ public class DefaultJdkScanner implements JdkScanner {
         }
         
         System.out.println("=== 当前JDK检测完成（未找到匹配） ===");
+        return Optional.empty();
     }
     
     /**
@@ -443,6 +553,20 @@ public class DefaultJdkScanner implements JdkScanner {
         String javaPath;
     }
     
+    /**
+     * 快速路径解析到的当前JDK及其JAVA_HOME来源
+     */
+    private static final class ActiveJdk {
+        final Optional<JdkInfo> jdk;
+        // JAVA_HOME是否从注册表读回，只有这种结果才能确认当前JDK
+        final boolean fromRegistry;
+        
+        ActiveJdk(Optional<JdkInfo> jdk, boolean fromRegistry) {
+            this.jdk = jdk;
+            this.fromRegistry = fromRegistry;
+        }
+    }
+    
     /**
      * 比较两个JDK版本号是否匹配（宽松比较，只比较主要部分）
      * @param jdkVersion JdkInfo中的版本号
@@ -687,10 +811,10 @@ public class DefaultJdkScanner implements JdkScanner {
     
     /**
      * 关闭扫描器，释放资源
+     * 扫描线程由应用程序共享的{@link TaskScheduler}管理，在应用退出时统一关闭，
+     * 保留此方法以兼容现有调用方
      */
     public void shutdown() {
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdown();
-        }
+        // 扫描器不再持有独立的线程池
     }
 }
\ No newline at end of file
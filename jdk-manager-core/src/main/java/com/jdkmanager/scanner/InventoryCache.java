@@ -0,0 +1,221 @@
+package com.jdkmanager.scanner;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDK清单磁盘缓存
+ * 以紧凑的带版本号二进制格式保存最近一次扫描的清单，启动时在第一帧就能显示，
+ * 之后再由后台扫描重新验证
+ *
+ * 文件格式（大端序）：
+ * <pre>
+ * int    魔数 "JDKM"
+ * short  格式版本
+ * long   扫描完成时间（毫秒）
+ * long   扫描耗时（纳秒）
+ * int    当前JDK下标，-1表示没有
+ * int    条目数量
+ * 条目:  字符串 版本号, 字符串 路径, byte 是否64位
+ * 字符串: short 字节长度 + UTF-8字节
+ * </pre>
+ */
+public class InventoryCache {
+    private static final int MAGIC = 0x4A444B4D; // "JDKM"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 8 + 4 + 4;
+    // 缓存文件大小上限，超过视为损坏
+    private static final long MAX_FILE_SIZE = 4L * 1024 * 1024;
+
+    private final Path file;
+
+    /**
+     * 构造函数，使用默认缓存位置
+     */
+    public InventoryCache() {
+        this(defaultLocation());
+    }
+
+    /**
+     * 构造函数
+     * @param file 缓存文件路径
+     */
+    public InventoryCache(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("缓存文件路径不能为空");
+        }
+        this.file = file;
+    }
+
+    /**
+     * 获取默认缓存文件位置
+     * @return 用户目录下的缓存文件路径
+     */
+    public static Path defaultLocation() {
+        return Path.of(System.getProperty("user.home"), ".jdk-manager", "inventory.bin");
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 读取缓存的清单
+     * @return 标记为过期的快照；缓存不存在、版本不符或已损坏时返回空
+     */
+    public Optional<InventorySnapshot> load() {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > MAX_FILE_SIZE) {
+                System.err.println("清单缓存大小异常，忽略: " + file);
+                return Optional.empty();
+            }
+
+            // 文件很小，读入堆缓冲区；保持映射会导致Windows上无法替换该文件
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 继续读取直到填满
+            }
+            buffer.flip();
+            return decode(buffer);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            System.err.println("读取清单缓存失败: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 保存清单，先写入临时文件再原子替换，读者不会看到写了一半的内容
+     * @param snapshot 清单快照
+     * @throws IOException 写入失败
+     */
+    public void save(InventorySnapshot snapshot) throws IOException {
+        ByteBuffer buffer = encode(snapshot);
+
+        Files.createDirectories(file.getParent());
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp-" + Thread.currentThread().getId() + "-" + System.nanoTime());
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 将快照编码为缓存格式
+     * @param snapshot 清单快照
+     * @return 可直接写入文件的缓冲区
+     */
+    static ByteBuffer encode(InventorySnapshot snapshot) {
+        List<JdkInfo> installations = snapshot.getInstallations();
+        List<byte[]> strings = new ArrayList<>(installations.size() * 2);
+        int size = HEADER_SIZE;
+        int currentIndex = -1;
+        for (int i = 0; i < installations.size(); i++) {
+            JdkInfo jdk = installations.get(i);
+            byte[] version = jdk.getVersion().getBytes(StandardCharsets.UTF_8);
+            byte[] path = jdk.getPath().toString().getBytes(StandardCharsets.UTF_8);
+            if (version.length > Short.MAX_VALUE || path.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("JDK信息过长，无法缓存: " + jdk.getPath());
+            }
+            strings.add(version);
+            strings.add(path);
+            size += 2 + version.length + 2 + path.length + 1;
+            if (jdk.isCurrent()) {
+                currentIndex = i;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putLong(snapshot.getScanTimestamp().toEpochMilli());
+        buffer.putLong(snapshot.getScanDuration().toNanos());
+        buffer.putInt(currentIndex);
+        buffer.putInt(installations.size());
+        for (int i = 0; i < installations.size(); i++) {
+            putString(buffer, strings.get(i * 2));
+            putString(buffer, strings.get(i * 2 + 1));
+            buffer.put((byte) (installations.get(i).is64Bit() ? 1 : 0));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 从缓存格式解码快照
+     * @param buffer 缓存内容
+     * @return 标记为过期的快照；格式不符时返回空
+     */
+    static Optional<InventorySnapshot> decode(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                System.err.println("清单缓存格式不正确，忽略");
+                return Optional.empty();
+            }
+            short formatVersion = buffer.getShort();
+            if (formatVersion != FORMAT_VERSION) {
+                System.out.println("清单缓存版本不匹配（" + formatVersion + "），忽略");
+                return Optional.empty();
+            }
+
+            Instant scanTimestamp = Instant.ofEpochMilli(buffer.getLong());
+            Duration scanDuration = Duration.ofNanos(buffer.getLong());
+            int currentIndex = buffer.getInt();
+            int count = buffer.getInt();
+            if (count < 0 || currentIndex >= count) {
+                return Optional.empty();
+            }
+
+            List<JdkInfo> installations = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                String version = getString(buffer);
+                Path path = Path.of(getString(buffer));
+                boolean is64Bit = buffer.get() != 0;
+                installations.add(new JdkInfo(version, path, is64Bit));
+            }
+
+            Path currentPath = currentIndex >= 0 ? installations.get(currentIndex).getPath() : null;
+            return Optional.of(InventorySnapshot.of(installations, currentPath, scanTimestamp, scanDuration).asStale());
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("清单缓存已损坏，忽略: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("字符串长度无效: " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,190 @@
+package com.jdkmanager.scanner;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDK清单快照
+ * 不可变地保存一次扫描得到的JDK列表、当前JDK标记以及扫描元数据。
+ * 增量更新会生成新的快照，未发生变化的JdkInfo对象在新旧快照之间共享
+ */
+public final class InventorySnapshot {
+    private static final InventorySnapshot EMPTY =
+        new InventorySnapshot(Collections.emptyList(), null, Instant.EPOCH, Duration.ZERO, false);
+
+    private final List<JdkInfo> installations;
+    private final JdkInfo current;
+    private final Instant scanTimestamp;
+    private final Duration scanDuration;
+    // 快照来自磁盘缓存，尚未经过本次运行的扫描验证
+    private final boolean stale;
+
+    private InventorySnapshot(List<JdkInfo> installations, JdkInfo current,
+                              Instant scanTimestamp, Duration scanDuration, boolean stale) {
+        this.installations = installations;
+        this.current = current;
+        this.scanTimestamp = scanTimestamp;
+        this.scanDuration = scanDuration;
+        this.stale = stale;
+    }
+
+    /**
+     * 获取空快照
+     * @return 不包含任何JDK的快照
+     */
+    public static InventorySnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 创建快照
+     * @param installations 扫描得到的JDK列表
+     * @param currentPath 当前JDK路径，未检测到时为null
+     * @param scanTimestamp 扫描完成时间
+     * @param scanDuration 扫描耗时
+     * @return 新快照，列表中与currentPath匹配的JDK被标记为当前
+     */
+    public static InventorySnapshot of(List<JdkInfo> installations, Path currentPath,
+                                       Instant scanTimestamp, Duration scanDuration) {
+        return EMPTY.withInstallations(installations, currentPath, scanTimestamp, scanDuration);
+    }
+
+    /**
+     * 以新的当前JDK生成快照
+     * 只有当前状态发生变化的条目会被替换，其余条目与原快照共享
+     * @param currentPath 新的当前JDK路径，为null时表示没有当前JDK
+     * @return 新快照；当前JDK未变化时返回自身
+     */
+    public InventorySnapshot withCurrent(Path currentPath) {
+        Path normalized = normalize(currentPath);
+        if (current == null ? normalized == null : normalize(current.getPath()).equals(normalized)) {
+            return this;
+        }
+
+        List<JdkInfo> updated = new ArrayList<>(installations.size());
+        JdkInfo newCurrent = null;
+        for (JdkInfo jdk : installations) {
+            JdkInfo marked = jdk.withCurrent(normalize(jdk.getPath()).equals(normalized));
+            if (marked.isCurrent()) {
+                newCurrent = marked;
+            }
+            updated.add(marked);
+        }
+        return new InventorySnapshot(Collections.unmodifiableList(updated), newCurrent, scanTimestamp, scanDuration, stale);
+    }
+
+    /**
+     * 获取标记为过期的副本，用于表示从缓存恢复、等待重新验证的清单
+     * @return 过期快照
+     */
+    public InventorySnapshot asStale() {
+        return stale ? this : new InventorySnapshot(installations, current, scanTimestamp, scanDuration, true);
+    }
+
+    /**
+     * 以重新扫描的结果生成快照，保留当前JDK标记
+     * 与原快照中版本和架构相同的条目会复用原对象
+     * @param scanned 重新扫描得到的JDK列表
+     * @param scanTimestamp 扫描完成时间
+     * @param scanDuration 扫描耗时
+     * @return 新快照
+     */
+    public InventorySnapshot withInstallations(List<JdkInfo> scanned, Instant scanTimestamp, Duration scanDuration) {
+        return withInstallations(scanned, current == null ? null : current.getPath(), scanTimestamp, scanDuration);
+    }
+
+    /**
+     * 将一次完整扫描的结果合并到本快照
+     * 采用扫描结果的当前JDK和元数据，同时复用本快照中未变化的条目
+     * @param scanned 完整扫描得到的快照
+     * @return 新快照
+     */
+    public InventorySnapshot reconcile(InventorySnapshot scanned) {
+        return withInstallations(scanned.installations,
+            scanned.current == null ? null : scanned.current.getPath(),
+            scanned.scanTimestamp, scanned.scanDuration);
+    }
+
+    private InventorySnapshot withInstallations(List<JdkInfo> scanned, Path currentPath,
+                                                Instant scanTimestamp, Duration scanDuration) {
+        Map<Path, JdkInfo> previous = new HashMap<>();
+        for (JdkInfo jdk : installations) {
+            previous.put(normalize(jdk.getPath()), jdk);
+        }
+
+        Path normalizedCurrent = normalize(currentPath);
+        List<JdkInfo> updated = new ArrayList<>(scanned.size());
+        JdkInfo newCurrent = null;
+        for (JdkInfo jdk : scanned) {
+            Path key = normalize(jdk.getPath());
+            boolean isCurrent = key.equals(normalizedCurrent);
+            JdkInfo existing = previous.get(key);
+            JdkInfo entry = existing != null && sameInstallation(existing, jdk)
+                ? existing.withCurrent(isCurrent)
+                : jdk.withCurrent(isCurrent);
+            if (isCurrent && newCurrent == null) {
+                newCurrent = entry;
+            }
+            updated.add(entry);
+        }
+        return new InventorySnapshot(Collections.unmodifiableList(updated), newCurrent,
+            scanTimestamp, scanDuration, false);
+    }
+
+    /**
+     * 按路径查找JDK
+     * @param path JDK路径
+     * @return 匹配的JDK
+     */
+    public Optional<JdkInfo> find(Path path) {
+        Path normalized = normalize(path);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+        return installations.stream()
+            .filter(jdk -> normalize(jdk.getPath()).equals(normalized))
+            .findFirst();
+    }
+
+    public List<JdkInfo> getInstallations() {
+        return installations;
+    }
+
+    public Optional<JdkInfo> getCurrent() {
+        return Optional.ofNullable(current);
+    }
+
+    public Instant getScanTimestamp() {
+        return scanTimestamp;
+    }
+
+    public Duration getScanDuration() {
+        return scanDuration;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    private static boolean sameInstallation(JdkInfo a, JdkInfo b) {
+        return a.getVersion().equals(b.getVersion()) && a.is64Bit() == b.is64Bit();
+    }
+
+    private static Path normalize(Path path) {
+        return path == null ? null : path.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InventorySnapshot{jdks=%d, current=%s, scannedAt=%s, duration=%dms, stale=%s}",
+                installations.size(), current == null ? "无" : current.getVersion(),
+                scanTimestamp, scanDuration.toMillis(), stale);
+    }
+}
@@ -0,0 +1,43 @@
+package com.jdkmanager.scanner;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * JDK清单存储
+ * 通过AtomicReference发布不可变的{@link InventorySnapshot}，
+ * 任意线程都可以无锁地读取到一致的清单视图
+ */
+public class InventoryStore {
+    private final AtomicReference<InventorySnapshot> snapshot =
+        new AtomicReference<>(InventorySnapshot.empty());
+
+    /**
+     * 获取当前快照
+     * @return 最近发布的快照
+     */
+    public InventorySnapshot get() {
+        return snapshot.get();
+    }
+
+    /**
+     * 发布新快照
+     * @param newSnapshot 新快照
+     */
+    public void publish(InventorySnapshot newSnapshot) {
+        if (newSnapshot == null) {
+            throw new IllegalArgumentException("快照不能为空");
+        }
+        snapshot.set(newSnapshot);
+    }
+
+    /**
+     * 基于当前快照原子地生成并发布新快照
+     * 更新函数可能因并发冲突被重复调用，因此不应有副作用
+     * @param updater 由旧快照生成新快照的函数
+     * @return 发布后的快照
+     */
+    public InventorySnapshot update(UnaryOperator<InventorySnapshot> updater) {
+        return snapshot.updateAndGet(updater);
+    }
+}
@@ -0,0 +1,107 @@
+package com.jdkmanager.scanner;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDK清单监听器
+ * 监听扫描根目录下子目录的创建、删除和修改，安装或卸载JDK后触发一次刷新。
+ * 安装程序会在短时间内产生大量事件，事件停止一段时间后才回调，避免重复扫描
+ */
+public class InventoryWatcher implements AutoCloseable {
+    private final List<Path> roots;
+    private final Duration debounce;
+    private final Runnable onChange;
+
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * 构造函数
+     * @param roots 扫描根目录
+     * @param debounce 最后一个事件之后等待的时间
+     * @param onChange 目录变化时在监听线程上执行的回调
+     */
+    public InventoryWatcher(List<Path> roots, Duration debounce, Runnable onChange) {
+        if (roots == null || debounce == null || onChange == null) {
+            throw new IllegalArgumentException("监听参数不能为空");
+        }
+        this.roots = new ArrayList<>(roots);
+        this.debounce = debounce;
+        this.onChange = onChange;
+    }
+
+    /**
+     * 注册根目录并启动监听线程
+     * 无法注册的目录会被跳过
+     * @throws IOException 如果无法创建WatchService
+     */
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            throw new IllegalStateException("监听器已启动");
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path root : roots) {
+            try {
+                root.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException e) {
+                System.err.println("无法监听目录 " + root + ": " + e.getMessage());
+            }
+        }
+
+        thread = new Thread(this::watch, "jdk-manager-inventory-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                drain(watchService.take());
+                WatchKey key;
+                while ((key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    drain(key);
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    System.err.println("刷新JDK清单失败: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 已关闭
+        }
+    }
+
+    private static void drain(WatchKey key) {
+        key.pollEvents();
+        if (!key.reset()) {
+            System.err.println("监听目录已失效: " + key.watchable());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("关闭目录监听失败: " + e.getMessage());
+            }
+        }
+    }
+}
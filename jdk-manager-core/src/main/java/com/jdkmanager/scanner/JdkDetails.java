@@ -0,0 +1,82 @@
+package com.jdkmanager.scanner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDK详细信息
+ * 包含发行商、release文件元数据、磁盘占用、模块列表等需要额外IO才能得到的属性，
+ * 由{@link JdkDetailsLoader}按需加载
+ */
+public final class JdkDetails {
+    private final Map<String, String> releaseProperties;
+    private final List<String> modules;
+    private final long diskSizeBytes;
+    private final int securityPatchLevel;
+
+    /**
+     * 构造函数
+     * @param releaseProperties release文件中的属性
+     * @param modules 模块列表
+     * @param diskSizeBytes 磁盘占用（字节）
+     * @param securityPatchLevel 安全补丁级别（更新号），未知时为-1
+     */
+    public JdkDetails(Map<String, String> releaseProperties, List<String> modules,
+                      long diskSizeBytes, int securityPatchLevel) {
+        this.releaseProperties = Collections.unmodifiableMap(releaseProperties);
+        this.modules = Collections.unmodifiableList(modules);
+        this.diskSizeBytes = diskSizeBytes;
+        this.securityPatchLevel = securityPatchLevel;
+    }
+
+    /**
+     * 获取发行商
+     * @return IMPLEMENTOR属性的值
+     */
+    public Optional<String> getVendor() {
+        return getReleaseProperty("IMPLEMENTOR");
+    }
+
+    /**
+     * 获取完整的运行时版本
+     * @return JAVA_RUNTIME_VERSION属性的值，不存在时使用JAVA_VERSION
+     */
+    public Optional<String> getRuntimeVersion() {
+        return getReleaseProperty("JAVA_RUNTIME_VERSION").or(() -> getReleaseProperty("JAVA_VERSION"));
+    }
+
+    /**
+     * 获取发布日期
+     * @return JAVA_VERSION_DATE属性的值
+     */
+    public Optional<String> getVersionDate() {
+        return getReleaseProperty("JAVA_VERSION_DATE");
+    }
+
+    /**
+     * 获取release文件中的属性
+     * @param key 属性名
+     * @return 属性值
+     */
+    public Optional<String> getReleaseProperty(String key) {
+        return Optional.ofNullable(releaseProperties.get(key));
+    }
+
+    public Map<String, String> getReleaseProperties() {
+        return releaseProperties;
+    }
+
+    public List<String> getModules() {
+        return modules;
+    }
+
+    public long getDiskSizeBytes() {
+        return diskSizeBytes;
+    }
+
+    public int getSecurityPatchLevel() {
+        return securityPatchLevel;
+    }
+}
@@ -0,0 +1,149 @@
+package com.jdkmanager.scanner;
+
+import com.jdkmanager.concurrent.CancellationToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JDK详细信息加载器
+ * 按需读取release文件并统计磁盘占用，结果按安装（路径+版本）缓存，
+ * 加载过程中定期检查取消令牌，选择变化后可以尽快放弃
+ */
+public class JdkDetailsLoader {
+    private final Map<String, JdkDetails> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 加载JDK详细信息，命中缓存时直接返回
+     * @param jdk JDK信息
+     * @param token 取消令牌
+     * @return 详细信息
+     * @throws java.util.concurrent.CancellationException 如果加载被取消
+     */
+    public JdkDetails load(JdkInfo jdk, CancellationToken token) {
+        String key = cacheKey(jdk);
+        JdkDetails cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        token.throwIfCancelled();
+        Map<String, String> release = readReleaseFile(jdk.getPath().resolve("release"));
+        List<String> modules = parseModules(release.get("MODULES"));
+
+        token.throwIfCancelled();
+        long size = computeDiskSize(jdk.getPath(), token);
+
+        JdkDetails details = new JdkDetails(release, modules, size, securityPatchLevel(jdk.getVersion()));
+        cache.put(key, details);
+        return details;
+    }
+
+    /**
+     * 获取已缓存的详细信息
+     * @param jdk JDK信息
+     * @return 已缓存的详细信息
+     */
+    public Optional<JdkDetails> getCached(JdkInfo jdk) {
+        return Optional.ofNullable(cache.get(cacheKey(jdk)));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * 读取release文件
+     * @param releaseFile release文件路径
+     * @return 属性表，文件不存在时为空
+     */
+    static Map<String, String> readReleaseFile(Path releaseFile) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        if (!Files.isRegularFile(releaseFile)) {
+            return properties;
+        }
+
+        try {
+            for (String line : Files.readAllLines(releaseFile, StandardCharsets.UTF_8)) {
+                int separator = line.indexOf('=');
+                if (separator <= 0) {
+                    continue;
+                }
+                String key = line.substring(0, separator).trim();
+                String value = line.substring(separator + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                properties.put(key, value);
+            }
+        } catch (IOException e) {
+            System.err.println("读取release文件失败: " + releaseFile + " - " + e.getMessage());
+        }
+        return properties;
+    }
+
+    /**
+     * 根据版本号计算安全补丁级别
+     * @param version 版本号，例如17.0.8或1.8.0_381
+     * @return 更新号，无法识别时返回-1
+     */
+    static int securityPatchLevel(String version) {
+        List<Integer> components = VersionSpec.parseComponents(version);
+        if (components.isEmpty()) {
+            return -1;
+        }
+        return components.size() >= 3 ? components.get(2) : 0;
+    }
+
+    private static List<String> parseModules(String modules) {
+        if (modules == null || modules.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(Arrays.asList(modules.trim().split("\\s+")));
+    }
+
+    private static long computeDiskSize(Path root, CancellationToken token) {
+        long[] total = new long[1];
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    token.throwIfCancelled();
+                    total[0] += attrs.size();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    // 无权限访问的文件不计入
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("统计JDK磁盘占用失败: " + root + " - " + e.getMessage());
+            return -1;
+        }
+        return total[0];
+    }
+
+    private static String cacheKey(JdkInfo jdk) {
+        // 当前状态变化不影响详细信息，只按安装路径和版本区分
+        return jdk.getPath().toAbsolutePath().normalize() + "|" + jdk.getVersion();
+    }
+}
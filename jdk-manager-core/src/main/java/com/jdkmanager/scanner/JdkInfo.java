@@ -9,12 +9,13 @@ import java.util.regex.Pattern;
 /**
  * JDK信息数据模型
  * 表示一个检测到的JDK安装，包含版本、路径、架构等信息
+ * 该类是不可变的，可以在扫描线程和JavaFX线程之间安全共享
  */
 public class JdkInfo {
     private final String version;
     private final Path path;
     private final boolean is64Bit;
-    private boolean isCurrent;
+    private final boolean isCurrent;
     
     /**
      * 构造函数
@@ -23,10 +24,21 @@ public class JdkInfo {
      * @param is64Bit 是否为64位JDK
      */
     public JdkInfo(String version, Path path, boolean is64Bit) {
+        this(version, path, is64Bit, false);
+    }
+    
+    /**
+     * 构造函数
+     * @param version JDK版本号
+     * @param path JDK安装路径
+     * @param is64Bit 是否为64位JDK
+     * @param isCurrent 是否为当前使用的JDK
+     */
+    public JdkInfo(String version, Path path, boolean is64Bit, boolean isCurrent) {
         this.version = Objects.requireNonNull(version, "版本号不能为空");
         this.path = Objects.requireNonNull(path, "路径不能为空");
         this.is64Bit = is64Bit;
-        this.isCurrent = false;
+        this.isCurrent = isCurrent;
     }
     
     /**
@@ -197,8 +209,13 @@ public class JdkInfo {
         return isCurrent; 
     }
     
-    public void setCurrent(boolean current) { 
-        this.isCurrent = current; 
+    /**
+     * 获取指定当前状态的副本
+     * @param current 是否为当前使用的JDK
+     * @return 状态相同时返回自身，否则返回新对象
+     */
+    public JdkInfo withCurrent(boolean current) {
+        return current == isCurrent ? this : new JdkInfo(version, path, is64Bit, current);
     }
     
     @Override
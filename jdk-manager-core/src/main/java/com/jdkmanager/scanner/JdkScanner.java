@@ -2,6 +2,7 @@ package com.jdkmanager.scanner;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -16,6 +17,25 @@ public interface JdkScanner {
      */
     List<JdkInfo> scanForJdks();
     
+    /**
+     * 扫描所有已知路径并生成清单快照
+     * @return 包含JDK列表、当前JDK和扫描元数据的不可变快照
+     */
+    InventorySnapshot scanInventory();
+    
+    /**
+     * 扫描所有已知路径并生成清单快照，扫描过程中逐个报告发现的JDK
+     * @param listener 扫描进度监听器
+     * @return 包含JDK列表、当前JDK和扫描元数据的不可变快照
+     */
+    InventorySnapshot scanInventory(ScanListener listener);
+    
+    /**
+     * 只根据JAVA_HOME快速解析当前激活的JDK，不扫描其他目录
+     * @return 当前JDK，如果JAVA_HOME未设置或无效则返回空
+     */
+    Optional<JdkInfo> resolveActiveJdk();
+    
     /**
      * 异步扫描JDK
      * @return CompletableFuture包含发现的JDK列表
@@ -42,6 +62,13 @@ public interface JdkScanner {
      */
     List<Path> getCustomPaths();
     
+    /**
+     * 获取扫描根目录，即默认路径和自定义路径中实际存在的目录
+     * 监听这些目录即可发现JDK的安装和卸载
+     * @return 扫描根目录列表
+     */
+    List<Path> getScanRoots();
+    
     /**
      * 验证给定路径是否为有效JDK
      * @param path 要验证的路径
@@ -58,7 +85,9 @@ public interface JdkScanner {
     
     /**
      * 检测当前激活的JDK
+     * 不修改列表中的对象，当前标记由调用方写入新的快照
      * @param jdks JDK列表
+     * @return 列表中当前激活的JDK
      */
-    void detectCurrentJdk(List<JdkInfo> jdks);
+    Optional<JdkInfo> detectCurrentJdk(List<JdkInfo> jdks);
 }
\ No newline at end of file
@@ -0,0 +1,335 @@
+package com.jdkmanager.scanner;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * JDK搜索索引
+ * 对版本号分量、路径片段（通常包含发行商名称）和架构建立前缀树和三元组索引，
+ * 随清单变化增量维护，查询时只访问候选条目而不是线性扫描所有字符串
+ * 该类不是线程安全的，应只在JavaFX应用线程中使用
+ */
+public class JdkSearchIndex {
+    private static final int GRAM = 3;
+
+    private final TrieNode root = new TrieNode();
+    private final Map<String, BitSet> trigrams = new HashMap<>();
+    private final Map<Path, Entry> entries = new HashMap<>();
+    // 条目按编号存放，索引中的集合都用位图表示，求交集时不需要哈希
+    private final List<Entry> entriesById = new ArrayList<>();
+    private final BitSet freeIds = new BitSet();
+    // 过滤条件按对象查找条目，避免每次求值都规范化路径
+    private final Map<JdkInfo, Entry> entriesByInstance = new IdentityHashMap<>();
+
+    /**
+     * 添加或更新一个JDK
+     * @param jdk JDK信息
+     */
+    public void add(JdkInfo jdk) {
+        Path key = keyOf(jdk.getPath());
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            if (existing.jdk == jdk || sameIndexedContent(existing.jdk, jdk)) {
+                entriesByInstance.remove(existing.jdk);
+                existing.jdk = jdk;
+                entriesByInstance.put(jdk, existing);
+                return;
+            }
+            remove(key);
+        }
+
+        int id = allocateId();
+        Entry entry = new Entry(id, key, jdk, tokenize(jdk));
+        entries.put(key, entry);
+        entriesById.set(id, entry);
+        entriesByInstance.put(jdk, entry);
+        for (String token : entry.tokens) {
+            root.insert(token, id);
+        }
+        for (String gram : grams(entry.text)) {
+            trigrams.computeIfAbsent(gram, g -> new BitSet()).set(id);
+        }
+    }
+
+    /**
+     * 移除一个JDK
+     * @param path JDK路径
+     */
+    public void remove(Path path) {
+        Entry entry = entries.remove(keyOf(path));
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens) {
+            root.delete(token, entry.id);
+        }
+        for (String gram : grams(entry.text)) {
+            BitSet ids = trigrams.get(gram);
+            if (ids != null) {
+                ids.clear(entry.id);
+                if (ids.isEmpty()) {
+                    trigrams.remove(gram);
+                }
+            }
+        }
+        entriesById.set(entry.id, null);
+        entriesByInstance.remove(entry.jdk);
+        freeIds.set(entry.id);
+    }
+
+    /**
+     * 将索引同步为给定的清单，只处理新增、变化和删除的条目
+     * @param jdks 最新的JDK列表
+     */
+    public void update(List<JdkInfo> jdks) {
+        Set<Path> keep = new HashSet<>();
+        for (JdkInfo jdk : jdks) {
+            keep.add(keyOf(jdk.getPath()));
+            add(jdk);
+        }
+        for (Path key : new ArrayList<>(entries.keySet())) {
+            if (!keep.contains(key)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * 搜索JDK
+     * 查询按空白分为多个词，每个词须匹配某个片段的前缀，
+     * 长度不少于3的词也可以匹配任意位置的子串
+     * @param query 查询文本
+     * @return 匹配的JDK路径，查询为空时返回null表示不过滤
+     */
+    public Set<Path> search(String query) {
+        BitSet ids = match(query);
+        if (ids == null) {
+            return null;
+        }
+        Set<Path> result = new HashSet<>();
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            result.add(entriesById.get(id).key);
+        }
+        return result;
+    }
+
+    /**
+     * 生成供FilteredList使用的过滤条件
+     * @param query 查询文本
+     * @return 过滤条件，查询为空时为null表示显示全部
+     */
+    public Predicate<JdkInfo> matcher(String query) {
+        BitSet ids = match(query);
+        if (ids == null) {
+            return null;
+        }
+        return jdk -> {
+            Entry entry = entriesByInstance.get(jdk);
+            if (entry == null) {
+                entry = entries.get(keyOf(jdk.getPath()));
+            }
+            return entry != null && ids.get(entry.id);
+        };
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private BitSet match(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return null;
+        }
+
+        BitSet result = null;
+        for (String term : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            BitSet matches = matchTerm(term);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private BitSet matchTerm(String term) {
+        BitSet result = root.find(term);
+        if (term.length() < GRAM) {
+            return result;
+        }
+
+        // 用三元组求出候选集合，只在前缀没有命中的候选条目上确认子串
+        BitSet candidates = null;
+        for (String gram : grams(term)) {
+            BitSet ids = trigrams.get(gram);
+            if (ids == null) {
+                return result;
+            }
+            if (candidates == null) {
+                candidates = (BitSet) ids.clone();
+                candidates.andNot(result);
+            } else {
+                candidates.and(ids);
+            }
+            if (candidates.isEmpty()) {
+                return result;
+            }
+        }
+
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (entriesById.get(id).text.contains(term)) {
+                result.set(id);
+            }
+        }
+        return result;
+    }
+
+    private int allocateId() {
+        int id = freeIds.nextSetBit(0);
+        if (id >= 0) {
+            freeIds.clear(id);
+            return id;
+        }
+        entriesById.add(null);
+        return entriesById.size() - 1;
+    }
+
+    /**
+     * 提取JDK的索引片段
+     * @param jdk JDK信息
+     * @return 小写片段集合
+     */
+    static Set<String> tokenize(JdkInfo jdk) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String version = jdk.getVersion().toLowerCase(Locale.ROOT);
+        tokens.add(version);
+        for (String part : version.split("[^a-z0-9\\u4e00-\\u9fa5]+")) {
+            if (!part.isEmpty()) {
+                tokens.add(part);
+            }
+        }
+        for (Integer component : VersionSpec.parseComponents(jdk.getVersion())) {
+            tokens.add(String.valueOf(component));
+        }
+
+        for (Path segment : jdk.getPath()) {
+            String name = segment.toString().toLowerCase(Locale.ROOT);
+            tokens.add(name);
+            for (String part : name.split("[^a-z0-9\\u4e00-\\u9fa5]+")) {
+                if (!part.isEmpty()) {
+                    tokens.add(part);
+                }
+            }
+        }
+
+        if (jdk.is64Bit()) {
+            tokens.add("x64");
+            tokens.add("64位");
+        } else {
+            tokens.add("x86");
+            tokens.add("32位");
+        }
+        return tokens;
+    }
+
+    private static Set<String> grams(String text) {
+        if (text.length() < GRAM) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private static boolean sameIndexedContent(JdkInfo a, JdkInfo b) {
+        return a.getVersion().equals(b.getVersion()) && a.is64Bit() == b.is64Bit();
+    }
+
+    private static Path keyOf(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * 索引条目
+     */
+    private static final class Entry {
+        private final int id;
+        private final Path key;
+        private JdkInfo jdk;
+        private final Set<String> tokens;
+        // 用于子串匹配的全文，片段之间以空格分隔
+        private final String text;
+
+        Entry(int id, Path key, JdkInfo jdk, Set<String> tokens) {
+            this.id = id;
+            this.key = key;
+            this.jdk = jdk;
+            this.tokens = tokens;
+            this.text = String.join(" ", tokens);
+        }
+    }
+
+    /**
+     * 前缀树节点，每个节点用位图记录经过它的所有条目，前缀查询只需走到对应节点
+     */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final BitSet ids = new BitSet();
+
+        void insert(String token, int id) {
+            TrieNode node = this;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.children.computeIfAbsent(token.charAt(i), c -> new TrieNode());
+                node.ids.set(id);
+            }
+        }
+
+        /**
+         * 删除条目经过的节点标记，调用方须对条目的所有片段都调用一次，
+         * 共享前缀的片段因此不需要引用计数
+         */
+        void delete(String token, int id) {
+            TrieNode node = this;
+            for (int i = 0; i < token.length(); i++) {
+                TrieNode child = node.children.get(token.charAt(i));
+                if (child == null) {
+                    return;
+                }
+                child.ids.clear(id);
+                if (child.ids.isEmpty()) {
+                    node.children.remove(token.charAt(i));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        BitSet find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.get(prefix.charAt(i));
+                if (node == null) {
+                    return new BitSet();
+                }
+            }
+            return (BitSet) node.ids.clone();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.jdkmanager.scanner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 项目级JDK解析器
+ * 从工作目录向上查找.java-version、.sdkmanrc或.tool-versions文件，
+ * 并将其中的版本规格映射到扫描器清单中的JDK。
+ *
+ * 结果按目录缓存：命中缓存时只检查从工作目录到版本文件所在目录（没有找到时到根目录）
+ * 沿途每个目录和版本文件的修改时间，不再读取任何文件。
+ * 任何一级目录中新建或删除了版本文件都会改变该目录的修改时间，使缓存失效。
+ * 常驻进程会收到任意目录的查询，缓存按最近使用淘汰，不会无限增长
+ */
+public class ProjectJdkResolver {
+
+    // 按优先级排列的版本文件名
+    public static final List<String> VERSION_FILES = Arrays.asList(
+        ".java-version", ".sdkmanrc", ".tool-versions"
+    );
+
+    // 默认最多缓存的目录数
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final Supplier<List<JdkInfo>> inventory;
+    private final Map<Path, CacheEntry> cache;
+
+    /**
+     * 构造函数，最多缓存{@link #DEFAULT_MAX_ENTRIES}个目录
+     * @param inventory JDK清单提供者，应返回已缓存的扫描结果而不是每次重新扫描
+     */
+    public ProjectJdkResolver(Supplier<List<JdkInfo>> inventory) {
+        this(inventory, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * 构造函数
+     * @param inventory JDK清单提供者，应返回已缓存的扫描结果而不是每次重新扫描
+     * @param maxEntries 最多缓存的目录数，超出时淘汰最久未使用的目录
+     */
+    public ProjectJdkResolver(Supplier<List<JdkInfo>> inventory, int maxEntries) {
+        if (inventory == null) {
+            throw new IllegalArgumentException("JDK清单提供者不能为空");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于0");
+        }
+        this.inventory = inventory;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<Path, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 解析工作目录对应的项目JDK
+     * @param workingDirectory 工作目录
+     * @return 解析结果，如果目录及其上级目录中都没有版本文件返回Optional.empty()
+     */
+    public Optional<Resolution> resolve(Path workingDirectory) {
+        if (workingDirectory == null) {
+            return Optional.empty();
+        }
+
+        Path directory = workingDirectory.toAbsolutePath().normalize();
+        List<JdkInfo> jdks = inventory.get();
+        CacheEntry entry = lookup(directory);
+        if (entry.resolution == null) {
+            return Optional.empty();
+        }
+
+        // 清单发生变化时只需重新匹配版本，不需要重新遍历目录
+        if (entry.inventory != jdks) {
+            Resolution resolution = match(entry.resolution.versionFile, entry.resolution.spec, jdks);
+            entry = new CacheEntry(entry.directories, entry.directoryModified, entry.sourceModified, resolution, jdks);
+            cache.put(directory, entry);
+        }
+        return Optional.of(entry.resolution);
+    }
+
+    /**
+     * 清除所有缓存
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * 获取缓存的目录数量
+     * @return 缓存条目数
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * 查找目录的缓存条目，缓存失效时向上遍历并缓存沿途的每个目录
+     * @param directory 规范化后的目录
+     * @return 缓存条目
+     */
+    private CacheEntry lookup(Path directory) {
+        List<Path> directories = new ArrayList<>();
+        List<Long> modified = new ArrayList<>();
+        Path versionFile = null;
+        long sourceModified = -1;
+        Resolution resolution = null;
+        List<JdkInfo> jdks = null;
+        // 需要新建缓存条目的目录数，之后的目录来自上级目录的缓存
+        int visited = -1;
+
+        Path current = directory;
+        while (current != null) {
+            CacheEntry cached = cache.get(current);
+            if (cached != null && isValid(cached)) {
+                if (current.equals(directory)) {
+                    return cached;
+                }
+                // 上级目录的结果仍然有效，接上它检查过的目录链
+                visited = directories.size();
+                directories.addAll(cached.directories);
+                modified.addAll(cached.directoryModified);
+                sourceModified = cached.sourceModified;
+                resolution = cached.resolution;
+                jdks = cached.inventory;
+                break;
+            }
+
+            directories.add(current);
+            modified.add(lastModified(current));
+
+            versionFile = findVersionFile(current);
+            if (versionFile != null) {
+                sourceModified = lastModified(versionFile);
+                jdks = inventory.get();
+                VersionSpec spec = readSpec(versionFile).orElse(null);
+                resolution = spec == null ? null : match(versionFile, spec, jdks);
+                break;
+            }
+            current = current.getParent();
+        }
+
+        // 每个沿途目录保存从自身到链尾的目录链，链尾之上的目录与结果无关
+        if (visited < 0) {
+            visited = directories.size();
+        }
+        CacheEntry found = null;
+        for (int i = visited - 1; i >= 0; i--) {
+            CacheEntry entry = new CacheEntry(directories.subList(i, directories.size()),
+                modified.subList(i, modified.size()), sourceModified, resolution, jdks);
+            cache.put(directories.get(i), entry);
+            found = entry;
+        }
+        return found;
+    }
+
+    /**
+     * 检查缓存条目是否仍然有效
+     * @param entry 缓存条目
+     * @return 如果目录链上没有目录变化且版本文件没有修改返回true
+     */
+    private boolean isValid(CacheEntry entry) {
+        for (int i = 0; i < entry.directories.size(); i++) {
+            if (lastModified(entry.directories.get(i)) != entry.directoryModified.get(i)) {
+                // 目录中新建或删除了文件
+                return false;
+            }
+        }
+        if (entry.resolution == null) {
+            return true;
+        }
+        return lastModified(entry.resolution.versionFile) == entry.sourceModified;
+    }
+
+    /**
+     * 在目录中按优先级查找版本文件
+     * @param directory 目录
+     * @return 包含有效版本规格的文件，不存在时返回null
+     */
+    private Path findVersionFile(Path directory) {
+        for (String fileName : VERSION_FILES) {
+            Path candidate = directory.resolve(fileName);
+            if (Files.isRegularFile(candidate) && readSpec(candidate).isPresent()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Resolution match(Path versionFile, VersionSpec spec, List<JdkInfo> jdks) {
+        return new Resolution(versionFile, spec, spec.selectBest(jdks).orElse(null));
+    }
+
+    /**
+     * 从版本文件中读取版本规格
+     * @param versionFile 版本文件
+     * @return 版本规格
+     */
+    static Optional<VersionSpec> readSpec(Path versionFile) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(versionFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("读取版本文件失败: " + versionFile + " - " + e.getMessage());
+            return Optional.empty();
+        }
+
+        String fileName = versionFile.getFileName().toString();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            String spec = null;
+            if (fileName.equals(".sdkmanrc")) {
+                // 格式: java=17.0.2-tem
+                if (trimmed.startsWith("java=")) {
+                    spec = trimmed.substring("java=".length());
+                }
+            } else if (fileName.equals(".tool-versions")) {
+                // 格式: java temurin-17.0.2+8 [备选版本...]
+                String[] parts = trimmed.split("\\s+");
+                if (parts.length >= 2 && parts[0].equals("java")) {
+                    spec = parts[1];
+                }
+            } else {
+                spec = trimmed;
+            }
+
+            if (spec != null) {
+                return VersionSpec.parse(spec);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 项目JDK解析结果
+     */
+    public static final class Resolution {
+        private final Path versionFile;
+        private final VersionSpec spec;
+        private final JdkInfo jdk;
+
+        Resolution(Path versionFile, VersionSpec spec, JdkInfo jdk) {
+            this.versionFile = versionFile;
+            this.spec = spec;
+            this.jdk = jdk;
+        }
+
+        /**
+         * 获取声明版本的文件
+         * @return 版本文件路径
+         */
+        public Path getVersionFile() {
+            return versionFile;
+        }
+
+        /**
+         * 获取请求的版本规格
+         * @return 版本规格
+         */
+        public VersionSpec getSpec() {
+            return spec;
+        }
+
+        /**
+         * 获取匹配的JDK
+         * @return 匹配的JDK，如果清单中没有满足规格的JDK返回Optional.empty()
+         */
+        public Optional<JdkInfo> getJdk() {
+            return Optional.ofNullable(jdk);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Resolution{file='%s', spec='%s', jdk=%s}", versionFile, spec, jdk);
+        }
+    }
+
+    /**
+     * 目录缓存条目
+     */
+    private static final class CacheEntry {
+        // 从本目录到版本文件所在目录（没有找到时到根目录）的目录链及各自的修改时间
+        final List<Path> directories;
+        final List<Long> directoryModified;
+        final long sourceModified;
+        final Resolution resolution;
+        final List<JdkInfo> inventory;
+
+        CacheEntry(List<Path> directories, List<Long> directoryModified, long sourceModified,
+                   Resolution resolution, List<JdkInfo> inventory) {
+            this.directories = directories;
+            this.directoryModified = directoryModified;
+            this.sourceModified = sourceModified;
+            this.resolution = resolution;
+            this.inventory = inventory;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.jdkmanager.scanner;
+
+/**
+ * 扫描进度监听器
+ * 在扫描线程中回调，实现方不应执行耗时操作
+ */
+public interface ScanListener {
+
+    /**
+     * 不做任何处理的监听器
+     */
+    ScanListener NONE = jdk -> { };
+
+    /**
+     * 发现一个JDK时调用
+     * 此时尚未去重，最终结果以扫描返回的快照为准
+     * @param jdk 发现的JDK
+     */
+    void onJdkFound(JdkInfo jdk);
+
+    /**
+     * 快速路径解析到当前JDK时调用，通常早于目录扫描完成
+     * 最终的当前JDK以扫描返回的快照为准
+     * @param jdk 根据JAVA_HOME解析到的当前JDK
+     */
+    default void onCurrentJdkResolved(JdkInfo jdk) {
+    }
+}
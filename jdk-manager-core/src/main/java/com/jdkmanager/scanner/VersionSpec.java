@@ -0,0 +1,186 @@
+package com.jdkmanager.scanner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDK版本规格
+ * 表示用户请求的版本，例如"17"、"17.0.2"、"1.8"、"temurin-17.0.2"、"17.0.2-tem"，
+ * 可以与扫描到的JdkInfo进行前缀匹配
+ */
+public final class VersionSpec {
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+(?:[._]\\d+)*)");
+    private static final Pattern VENDOR_PATTERN = Pattern.compile("[a-z][a-z]+");
+
+    private final String raw;
+    private final List<Integer> components;
+    private final String vendor;
+
+    private VersionSpec(String raw, List<Integer> components, String vendor) {
+        this.raw = raw;
+        this.components = components;
+        this.vendor = vendor;
+    }
+
+    /**
+     * 解析版本规格
+     * @param spec 版本规格字符串
+     * @return 版本规格，如果字符串中不包含版本号返回Optional.empty()
+     */
+    public static Optional<VersionSpec> parse(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            return Optional.empty();
+        }
+
+        String trimmed = spec.trim();
+        List<Integer> components = parseComponents(trimmed);
+        if (components.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // 版本号以外的字母部分视为发行商提示，例如temurin、tem、zulu
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        Matcher matcher = VENDOR_PATTERN.matcher(lower);
+        String vendor = null;
+        while (matcher.find()) {
+            String token = matcher.group();
+            if (!token.equals("jdk") && !token.equals("java") && !token.equals("lts")) {
+                vendor = token;
+                break;
+            }
+        }
+
+        return Optional.of(new VersionSpec(trimmed, components, vendor));
+    }
+
+    /**
+     * 将版本字符串解析为数字分量
+     * 1.8.0_462这样的旧格式会被规范化为8.0.462
+     * @param version 版本字符串
+     * @return 数字分量列表，无法解析时返回空列表
+     */
+    public static List<Integer> parseComponents(String version) {
+        if (version == null) {
+            return Collections.emptyList();
+        }
+
+        Matcher matcher = VERSION_PATTERN.matcher(version);
+        if (!matcher.find()) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> components = new ArrayList<>();
+        for (String part : matcher.group(1).split("[._]")) {
+            try {
+                components.add(Integer.parseInt(part));
+            } catch (NumberFormatException e) {
+                break;
+            }
+        }
+
+        if (components.size() > 1 && components.get(0) == 1) {
+            components.remove(0);
+        }
+        return Collections.unmodifiableList(components);
+    }
+
+    /**
+     * 检查JDK是否满足此版本规格（分量前缀匹配）
+     * @param jdk JDK信息
+     * @return 如果匹配返回true
+     */
+    public boolean matches(JdkInfo jdk) {
+        List<Integer> jdkComponents = parseComponents(jdk.getVersion());
+        if (jdkComponents.size() < components.size()) {
+            return false;
+        }
+        return jdkComponents.subList(0, components.size()).equals(components);
+    }
+
+    /**
+     * 从候选列表中选择最佳匹配：优先匹配发行商提示，其次选择最高版本
+     * @param jdks 候选JDK列表
+     * @return 最佳匹配的JDK
+     */
+    public Optional<JdkInfo> selectBest(List<JdkInfo> jdks) {
+        if (jdks == null || jdks.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<JdkInfo> candidates = new ArrayList<>();
+        for (JdkInfo jdk : jdks) {
+            if (matches(jdk)) {
+                candidates.add(jdk);
+            }
+        }
+
+        if (vendor != null) {
+            List<JdkInfo> vendorMatches = new ArrayList<>();
+            for (JdkInfo jdk : candidates) {
+                if (jdk.getPath().toString().toLowerCase(Locale.ROOT).contains(vendor)) {
+                    vendorMatches.add(jdk);
+                }
+            }
+            if (!vendorMatches.isEmpty()) {
+                candidates = vendorMatches;
+            }
+        }
+
+        return candidates.stream().max(Comparator.comparing(
+            jdk -> parseComponents(jdk.getVersion()), VersionSpec::compareComponents));
+    }
+
+    /**
+     * 比较两个版本分量列表
+     * @param a 版本分量
+     * @param b 版本分量
+     * @return 比较结果
+     */
+    public static int compareComponents(List<Integer> a, List<Integer> b) {
+        int length = Math.min(a.size(), b.size());
+        for (int i = 0; i < length; i++) {
+            int result = Integer.compare(a.get(i), b.get(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    public List<Integer> getComponents() {
+        return components;
+    }
+
+    public Optional<String> getVendor() {
+        return Optional.ofNullable(vendor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VersionSpec that = (VersionSpec) o;
+        return components.equals(that.components) && Objects.equals(vendor, that.vendor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(components, vendor);
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
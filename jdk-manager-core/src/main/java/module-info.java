@@ -0,0 +1,13 @@
+module com.jdkmanager.core {
+    // 供命令行工具、图形界面和自动化脚本使用的包
+    exports com.jdkmanager.scanner;
+    exports com.jdkmanager.env;
+    exports com.jdkmanager.config;
+    exports com.jdkmanager.exception;
+    exports com.jdkmanager.concurrent;
+    exports com.jdkmanager.metrics;
+
+    // 依赖的其他模块，不依赖JavaFX和java.desktop
+    requires java.base;
+    requires transitive java.prefs;
+}
@@ -0,0 +1,127 @@
+package com.jdkmanager.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 刷新请求合并器测试类
+ */
+class RefreshCoordinatorTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("测试去抖窗口内的请求共享一次扫描")
+    void testDebounceCoalescesRequests() throws Exception {
+        AtomicInteger scans = new AtomicInteger();
+        RefreshCoordinator<Integer> coordinator = new RefreshCoordinator<>(scans::incrementAndGet, executor, 50);
+
+        CompletableFuture<Integer> first = coordinator.requestRefresh();
+        CompletableFuture<Integer> second = coordinator.requestRefresh();
+        CompletableFuture<Integer> third = coordinator.requestRefresh();
+
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, coordinator.getScanCount());
+        assertEquals(3, coordinator.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("测试扫描期间的请求合并为一次后续扫描")
+    void testSingleFollowUpScan() throws Exception {
+        CountDownLatch scanStarted = new CountDownLatch(1);
+        CountDownLatch releaseScan = new CountDownLatch(1);
+        AtomicInteger scans = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+
+        RefreshCoordinator<Integer> coordinator = new RefreshCoordinator<>(() -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            int scan = scans.incrementAndGet();
+            if (scan == 1) {
+                scanStarted.countDown();
+                releaseScan.await(5, TimeUnit.SECONDS);
+            }
+            concurrent.decrementAndGet();
+            return scan;
+        }, executor, 0);
+
+        CompletableFuture<Integer> initial = coordinator.requestRefresh();
+        assertTrue(scanStarted.await(5, TimeUnit.SECONDS));
+
+        // 扫描进行中到达的请求不能拿到已经开始的扫描结果
+        CompletableFuture<Integer> late1 = coordinator.requestRefresh();
+        CompletableFuture<Integer> late2 = coordinator.requestRefresh();
+        assertSame(late1, late2);
+        assertFalse(late1.isDone());
+
+        releaseScan.countDown();
+        assertEquals(1, initial.get(5, TimeUnit.SECONDS));
+        assertEquals(2, late1.get(5, TimeUnit.SECONDS));
+        assertEquals(2, coordinator.getScanCount());
+        assertEquals(1, maxConcurrent.get(), "不应并发扫描");
+
+        // 等待后续扫描的收尾完成
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!coordinator.isIdle() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(coordinator.isIdle());
+    }
+
+    @Test
+    @DisplayName("测试扫描失败传递给所有调用方")
+    void testFailurePropagates() throws Exception {
+        RefreshCoordinator<Integer> coordinator = new RefreshCoordinator<>(() -> {
+            throw new IllegalStateException("扫描失败");
+        }, executor, 0);
+
+        CompletableFuture<Integer> result = coordinator.requestRefresh();
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+
+        // 失败后仍可以继续刷新
+        CompletableFuture<Integer> retry = coordinator.requestRefresh();
+        assertNotSame(result, retry);
+    }
+
+    @Test
+    @DisplayName("测试去抖后执行器拒绝扫描时调用方不会一直等待")
+    void testDelayedRejection() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        RefreshCoordinator<Integer> coordinator = new RefreshCoordinator<>(() -> 1, command -> {
+            attempts.incrementAndGet();
+            throw new RejectedExecutionException("队列已满");
+        }, 20);
+
+        CompletableFuture<Integer> result = coordinator.requestRefresh();
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof RejectedExecutionException);
+        assertTrue(coordinator.isIdle());
+
+        // 之后的请求重新调度，而不是加入已经失败的请求
+        CompletableFuture<Integer> retry = coordinator.requestRefresh();
+        assertNotSame(result, retry);
+        assertThrows(ExecutionException.class, () -> retry.get(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+    }
+}
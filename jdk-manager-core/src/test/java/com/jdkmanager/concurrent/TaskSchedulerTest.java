@@ -0,0 +1,173 @@
+package com.jdkmanager.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 任务调度器测试类
+ */
+class TaskSchedulerTest {
+
+    private final TaskScheduler scheduler = new TaskScheduler();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("测试任务在命名的守护线程中执行")
+    void testNamedDaemonThreads() throws Exception {
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.execute(TaskLane.INTERACTIVE, () -> {
+            worker.set(Thread.currentThread());
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(worker.get().getName().startsWith("jdk-manager-interactive-"));
+        assertTrue(worker.get().isDaemon());
+        assertEquals(TaskLane.INTERACTIVE.getThreadPriority(), worker.get().getPriority());
+    }
+
+    @Test
+    @DisplayName("测试后台通道占满时不影响交互通道")
+    void testLanesAreIsolated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < TaskLane.BACKGROUND.getThreads(); i++) {
+            scheduler.execute(TaskLane.BACKGROUND, () -> awaitQuietly(release));
+        }
+
+        CountDownLatch interactiveDone = new CountDownLatch(1);
+        scheduler.execute(TaskLane.INTERACTIVE, interactiveDone::countDown);
+
+        assertTrue(interactiveDone.await(5, TimeUnit.SECONDS), "交互任务不应等待后台任务");
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("测试队列满时拒绝任务并计数")
+    void testBoundedQueueRejects() {
+        CountDownLatch release = new CountDownLatch(1);
+        int capacity = TaskLane.INTERACTIVE.getThreads() + TaskLane.INTERACTIVE.getQueueCapacity();
+        for (int i = 0; i < capacity; i++) {
+            scheduler.execute(TaskLane.INTERACTIVE, () -> awaitQuietly(release));
+        }
+
+        assertThrows(RejectedExecutionException.class,
+            () -> scheduler.execute(TaskLane.INTERACTIVE, () -> { }));
+        assertEquals(1, scheduler.getMetrics(TaskLane.INTERACTIVE).getRejectedCount());
+        assertTrue(scheduler.getMetrics(TaskLane.INTERACTIVE).getQueueDepth() > 0);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("测试取消令牌中断正在执行的任务")
+    void testCancellationInterruptsTask() throws Exception {
+        CancellationToken token = new CancellationToken();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        Future<String> future = scheduler.submit(TaskLane.BACKGROUND, token, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return "done";
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        token.cancel();
+
+        assertTrue(future.isCancelled());
+        assertThrows(CancellationException.class, future::get);
+        scheduler.shutdown();
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    @DisplayName("测试已取消的令牌使任务不再执行")
+    void testCancelledBeforeStart() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Future<Void> future = scheduler.submit(TaskLane.BACKGROUND, token, () -> {
+            ran.set(true);
+            return null;
+        });
+
+        assertTrue(future.isCancelled());
+        scheduler.shutdown();
+        assertFalse(ran.get());
+    }
+
+    @Test
+    @DisplayName("测试取消的任务移出队列，不再占用队列位置")
+    void testCancelledTasksLeaveQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.execute(TaskLane.DETAIL, () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // 模拟快速滚动：每次选择变化都取消上一次加载
+        AtomicBoolean ran = new AtomicBoolean();
+        for (int i = 0; i < TaskLane.DETAIL.getQueueCapacity() * 10; i++) {
+            CancellationToken token = new CancellationToken();
+            scheduler.submit(TaskLane.DETAIL, token, () -> ran.getAndSet(true));
+            token.cancel();
+        }
+
+        assertEquals(0, scheduler.getMetrics(TaskLane.DETAIL).getQueueDepth());
+        assertEquals(0, scheduler.getMetrics(TaskLane.DETAIL).getRejectedCount());
+        release.countDown();
+        scheduler.shutdown();
+        assertFalse(ran.get());
+    }
+
+    @Test
+    @DisplayName("测试等待时间指标和关闭")
+    void testMetricsAndShutdown() throws Exception {
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            scheduler.execute(TaskLane.BACKGROUND, done::countDown);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        String line = scheduler.formatMetrics();
+        assertTrue(line.startsWith("scheduler-metrics"));
+        assertTrue(line.contains("background_queue_depth="));
+        assertTrue(line.contains("interactive_max_wait_ms="));
+
+        scheduler.shutdown();
+        assertTrue(scheduler.isShutdown());
+        assertEquals(3, scheduler.getMetrics(TaskLane.BACKGROUND).getCompletedCount());
+        assertThrows(RejectedExecutionException.class,
+            () -> scheduler.execute(TaskLane.BACKGROUND, () -> { }));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.jdkmanager.env;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 终端切换脚本测试类
+ */
+class ShellEnvScriptTest {
+
+    private final Path jdk = Path.of("jdks", "jdk-21").toAbsolutePath();
+
+    @Test
+    @DisplayName("测试新JDK放在PATH最前并移除旧JAVA_HOME")
+    void testBuildPath() {
+        String currentPath = "C:\\Windows;C:\\Java\\jdk-11\\bin\\;" + jdk.resolve("bin") + ";;C:\\tools";
+
+        assertEquals(Arrays.asList(jdk.resolve("bin").toString(), "C:\\Windows", "C:\\tools"),
+            ShellEnvScript.buildPath(jdk, "c:/java/jdk-11", currentPath, ';'));
+        assertEquals(Collections.singletonList(jdk.resolve("bin").toString()),
+            ShellEnvScript.buildPath(jdk, null, null, ';'));
+    }
+
+    @Test
+    @DisplayName("测试三种shell的赋值和删除语法")
+    void testRender() {
+        Map<String, String> variables = new LinkedHashMap<>();
+        variables.put("JAVA_TOOL_OPTIONS", "");
+        variables.put("MAVEN_OPTS", "-Dname='x' & more");
+        SwitchProfile profile = new SwitchProfile("tools", variables, false);
+        Map<String, String> environment = new HashMap<>();
+
+        String cmd = ShellEnvScript.render(ShellEnvScript.Shell.CMD, jdk, profile, environment, ';');
+        assertTrue(cmd.contains("set \"JAVA_HOME=" + jdk + "\"\r\n"), cmd);
+        assertTrue(cmd.contains("set \"JAVA_TOOL_OPTIONS=\"\r\n"), cmd);
+        assertTrue(cmd.contains("set \"MAVEN_OPTS=-Dname='x' & more\"\r\n"), cmd);
+        assertFalse(cmd.contains("PATH"), "配置不修改PATH时不输出PATH");
+
+        String ps = ShellEnvScript.render(ShellEnvScript.Shell.POWERSHELL, jdk, profile, environment, ';');
+        assertTrue(ps.contains("Remove-Item Env:JAVA_TOOL_OPTIONS -ErrorAction SilentlyContinue\r\n"), ps);
+        assertTrue(ps.contains("$env:MAVEN_OPTS = '-Dname=''x'' & more'\r\n"), ps);
+
+        String sh = ShellEnvScript.render(ShellEnvScript.Shell.POSIX, jdk, profile, environment, ':');
+        assertTrue(sh.contains("unset JAVA_TOOL_OPTIONS\n"), sh);
+        assertTrue(sh.contains("export MAVEN_OPTS='-Dname='\\''x'\\'' & more'\n"), sh);
+        assertFalse(sh.contains("\r"));
+    }
+
+    @Test
+    @DisplayName("测试Git Bash中PATH改写为冒号分隔")
+    void testPosixPathOnWindows() {
+        Map<String, String> environment = new HashMap<>();
+        environment.put("Path", "C:\\Windows\\system32;D:\\Program Files\\Git\\cmd");
+
+        String sh = ShellEnvScript.render(ShellEnvScript.Shell.POSIX, jdk, SwitchProfile.defaultProfile(),
+            environment, ';');
+        assertTrue(sh.endsWith(":/c/Windows/system32:/d/Program Files/Git/cmd'\n"), sh);
+        assertEquals("/c/Java/jdk-21/bin", ShellEnvScript.toPosixPath("C:\\Java\\jdk-21\\bin"));
+    }
+
+    @Test
+    @DisplayName("测试按名称和环境识别shell")
+    void testShellNames() {
+        assertEquals(Optional.of(ShellEnvScript.Shell.POWERSHELL), ShellEnvScript.Shell.parse("pwsh"));
+        assertEquals(Optional.of(ShellEnvScript.Shell.POSIX), ShellEnvScript.Shell.parse("Bash"));
+        assertTrue(ShellEnvScript.Shell.parse("fish").isEmpty());
+        assertEquals(ShellEnvScript.Shell.POSIX,
+            ShellEnvScript.Shell.detect(Collections.singletonMap("SHELL", "/usr/bin/bash")));
+    }
+}
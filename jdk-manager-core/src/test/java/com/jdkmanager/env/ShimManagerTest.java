@@ -0,0 +1,105 @@
+package com.jdkmanager.env;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ShimManager类的单元测试
+ */
+class ShimManagerTest {
+
+    @Test
+    @DisplayName("测试通过符号链接切换JDK")
+    void testSwitchReplacesSymbolicLink(@TempDir Path tempDir) throws Exception {
+        Path jdk11 = createJdk(tempDir.resolve("jdk-11"));
+        Path jdk17 = createJdk(tempDir.resolve("jdk-17"));
+        ShimManager shimManager = new ShimManager(tempDir.resolve("shim"));
+
+        assertEquals(ShimManager.ShimMode.DIRECTORY_LINK, shimManager.switchTo(jdk11));
+        assertTrue(Files.isSymbolicLink(shimManager.getCurrentLink()));
+        assertEquals(Optional.of(jdk11), shimManager.getCurrentTarget());
+
+        assertEquals(ShimManager.ShimMode.DIRECTORY_LINK, shimManager.switchTo(jdk17));
+        assertEquals(Optional.of(jdk17), shimManager.getCurrentTarget());
+        assertTrue(Files.exists(shimManager.getCurrentLink().resolve("bin").resolve("java.exe")));
+
+        // 切换过程不应残留临时链接
+        try (var entries = Files.list(shimManager.getShimHome())) {
+            assertTrue(entries.noneMatch(p -> p.getFileName().toString().contains(".tmp-")));
+        }
+    }
+
+    @Test
+    @DisplayName("测试current为真实目录时使用指针文件")
+    void testFallbackToPointerFile(@TempDir Path tempDir) throws Exception {
+        Path jdk = createJdk(tempDir.resolve("jdk-21"));
+        ShimManager shimManager = new ShimManager(tempDir.resolve("shim"));
+        Files.createDirectories(shimManager.getCurrentLink());
+
+        assertEquals(ShimManager.ShimMode.POINTER_FILE, shimManager.switchTo(jdk));
+        assertEquals(jdk.toString(), Files.readString(shimManager.getShimHome().resolve("current.txt")));
+    }
+
+    @Test
+    @DisplayName("测试无法创建链接时移除指向旧JDK的current")
+    void testLinkFailureRemovesStaleLink(@TempDir Path tempDir) throws Exception {
+        Path jdk11 = createJdk(tempDir.resolve("jdk-11"));
+        Path jdk17 = createJdk(tempDir.resolve("jdk-17"));
+        AtomicBoolean linksAllowed = new AtomicBoolean(true);
+        ShimManager shimManager = new ShimManager(tempDir.resolve("shim")) {
+            @Override
+            protected void createLink(Path link, Path target) throws IOException {
+                if (!linksAllowed.get()) {
+                    throw new IOException("需要管理员权限");
+                }
+                super.createLink(link, target);
+            }
+        };
+        assertEquals(ShimManager.ShimMode.DIRECTORY_LINK, shimManager.switchTo(jdk11));
+
+        linksAllowed.set(false);
+        assertEquals(ShimManager.ShimMode.POINTER_FILE, shimManager.switchTo(jdk17));
+        assertFalse(Files.exists(shimManager.getCurrentLink(), LinkOption.NOFOLLOW_LINKS),
+            "current仍指向旧JDK时PATH会先找到旧的java");
+        assertEquals(Optional.of(jdk17), shimManager.getCurrentTarget());
+        assertEquals(List.of(shimManager.getLauncherDirectory()),
+            shimManager.getPathEntries(ShimManager.ShimMode.POINTER_FILE));
+    }
+
+    @Test
+    @DisplayName("测试生成启动脚本")
+    void testPrepareCreatesLaunchers(@TempDir Path tempDir) throws Exception {
+        ShimManager shimManager = new ShimManager(tempDir.resolve("shim"));
+        shimManager.prepare();
+
+        Path javaLauncher = shimManager.getLauncherDirectory().resolve("java.cmd");
+        assertTrue(Files.exists(javaLauncher));
+        assertTrue(Files.readString(javaLauncher).contains("current.txt"));
+    }
+
+    @Test
+    @DisplayName("测试拒绝无效JDK")
+    void testSwitchRejectsInvalidJdk(@TempDir Path tempDir) {
+        ShimManager shimManager = new ShimManager(tempDir.resolve("shim"));
+        assertThrows(IOException.class, () -> shimManager.switchTo(tempDir));
+        assertEquals(Optional.empty(), shimManager.getCurrentTarget());
+    }
+
+    private Path createJdk(Path jdkPath) throws IOException {
+        Path binDir = jdkPath.resolve("bin");
+        Files.createDirectories(binDir);
+        Files.createFile(binDir.resolve("java.exe"));
+        Files.createFile(binDir.resolve("javac.exe"));
+        return jdkPath;
+    }
+}
@@ -0,0 +1,109 @@
+package com.jdkmanager.env;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 切换配置和注册表批量写入测试类
+ */
+class SwitchProfileTest {
+
+    private final Path jdk = Path.of("jdks", "graalvm-21").toAbsolutePath();
+
+    private SwitchProfile graalProfile() {
+        Map<String, String> variables = new LinkedHashMap<>();
+        variables.put("GRAALVM_HOME", "${jdk}");
+        variables.put("JRE_HOME", "${jdk}");
+        variables.put("JAVA_TOOL_OPTIONS", "");
+        return new SwitchProfile("graal", variables, true);
+    }
+
+    @Test
+    @DisplayName("测试占位符替换并自动加入JAVA_HOME")
+    void testResolve() {
+        Map<String, String> resolved = graalProfile().resolve(jdk);
+
+        assertEquals(Arrays.asList("JAVA_HOME", "GRAALVM_HOME", "JRE_HOME", "JAVA_TOOL_OPTIONS"),
+            Arrays.asList(resolved.keySet().toArray()));
+        assertEquals(jdk.toString(), resolved.get("JAVA_HOME"));
+        assertEquals(jdk.toString(), resolved.get("GRAALVM_HOME"));
+        assertEquals("", resolved.get("JAVA_TOOL_OPTIONS"));
+
+        assertEquals(Collections.singletonMap("JAVA_HOME", jdk.toString()), SwitchProfile.defaultProfile().resolve(jdk));
+    }
+
+    @Test
+    @DisplayName("测试拒绝无效的配置名和变量名")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new SwitchProfile("a/b", Collections.emptyMap(), true));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SwitchProfile("p", Collections.singletonMap("PATH", "x"), true));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SwitchProfile("p", Collections.singletonMap("1BAD", "x"), true));
+    }
+
+    @Test
+    @DisplayName("测试一个作用域的全部变量合并为一个批次")
+    void testBuildBatch() {
+        RegistryBatch batch = EnvironmentManager.buildBatch(jdk, graalProfile(), EnvVariableScope.USER,
+            Optional.of("C:\\Windows;C:\\Program Files\\Java\\jdk-11\\bin"));
+
+        Map<String, String> changes = batch.getChanges();
+        assertEquals(5, changes.size());
+        assertNull(changes.get("JAVA_TOOL_OPTIONS"));
+        assertTrue(changes.containsKey("JAVA_TOOL_OPTIONS"));
+        // 旧的JDK bin目录被替换
+        assertEquals("C:\\Windows;" + jdk.resolve("bin"), changes.get("PATH"));
+
+        SwitchProfile noPath = new SwitchProfile("no-path", Collections.emptyMap(), false);
+        assertFalse(EnvironmentManager.buildBatch(jdk, noPath, EnvVariableScope.USER, Optional.empty())
+            .getChanges().containsKey("PATH"));
+    }
+
+    @Test
+    @DisplayName("测试解析reg query输出")
+    void testParseRegQuery() {
+        String output = "\r\nHKEY_CURRENT_USER\\Environment\r\n"
+            + "    Path    REG_EXPAND_SZ    %USERPROFILE%\\bin;C:\\Program Files\\Java\\jdk-11\\bin\r\n"
+            + "    JAVA_HOME    REG_SZ    C:\\Program Files\\Java\\jdk-11\r\n"
+            + "    EMPTY    REG_SZ    \r\n"
+            + "    NOVALUE    REG_SZ\r\n\r\n";
+
+        Map<String, String> variables = EnvironmentManager.parseRegQuery(output);
+        assertEquals("%USERPROFILE%\\bin;C:\\Program Files\\Java\\jdk-11\\bin", variables.get("PATH"));
+        assertEquals("C:\\Program Files\\Java\\jdk-11", variables.get("java_home"));
+        assertEquals("", variables.get("EMPTY"));
+        assertTrue(variables.containsKey("NOVALUE"));
+        assertEquals(4, variables.size());
+    }
+
+    @Test
+    @DisplayName("测试生成reg import使用的文件内容")
+    void testRender() {
+        RegistryBatch batch = new RegistryBatch(EnvVariableScope.USER)
+            .set("JAVA_HOME", "C:\\J")
+            .delete("JAVA_TOOL_OPTIONS");
+
+        String text = batch.render();
+        assertTrue(text.startsWith("Windows Registry Editor Version 5.00\r\n\r\n["
+            + EnvVariableScope.USER.getRegistryPath() + "]\r\n"), text);
+        // REG_EXPAND_SZ以UTF-16LE字节加结束符表示
+        assertTrue(text.contains("\"JAVA_HOME\"=hex(2):43,00,3a,00,5c,00,4a,00,00,00\r\n"), text);
+        assertTrue(text.contains("\"JAVA_TOOL_OPTIONS\"=-\r\n"), text);
+
+        byte[] encoded = batch.encode();
+        assertEquals((byte) 0xFF, encoded[0]);
+        assertEquals((byte) 0xFE, encoded[1]);
+        assertEquals(text, new String(encoded, 2, encoded.length - 2, StandardCharsets.UTF_16LE));
+    }
+}
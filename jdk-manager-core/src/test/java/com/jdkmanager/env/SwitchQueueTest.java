@@ -0,0 +1,155 @@
+package com.jdkmanager.env;
+
+import com.jdkmanager.exception.EnvironmentVariableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JDK切换请求队列测试类
+ */
+class SwitchQueueTest {
+
+    private static final List<EnvVariableScope> USER = Collections.singletonList(EnvVariableScope.USER);
+    private static final List<EnvVariableScope> BOTH = Arrays.asList(EnvVariableScope.USER, EnvVariableScope.SYSTEM);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final SwitchProfile profile = SwitchProfile.defaultProfile();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static Path jdk(int version) {
+        return Path.of("jdks", "jdk-" + version).toAbsolutePath();
+    }
+
+    @Test
+    @DisplayName("测试连续切换只执行第一次和最后一次")
+    void testBurstCollapsesToNewest() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+
+        SwitchQueue queue = new SwitchQueue((path, p, scopes, trace) -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            applied.add(path.getFileName() + scopes.toString());
+            if (applied.size() == 1) {
+                firstStarted.countDown();
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            }
+            concurrent.decrementAndGet();
+            return true;
+        }, executor);
+
+        CompletableFuture<SwitchQueue.Outcome> first = queue.submit(jdk(8), profile, USER, null);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        // 第一次切换进行期间连续点击
+        List<CompletableFuture<SwitchQueue.Outcome>> burst = new ArrayList<>();
+        for (int version = 11; version <= 21; version++) {
+            burst.add(queue.submit(jdk(version), profile, USER, null));
+        }
+        releaseFirst.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).isSuperseded());
+        SwitchQueue.Outcome last = burst.get(burst.size() - 1).get(5, TimeUnit.SECONDS);
+        assertFalse(last.isSuperseded());
+        for (CompletableFuture<SwitchQueue.Outcome> earlier : burst.subList(0, burst.size() - 1)) {
+            SwitchQueue.Outcome outcome = earlier.get(5, TimeUnit.SECONDS);
+            assertTrue(outcome.isSuperseded());
+            // 每个请求由紧随其后的请求取代
+            assertEquals(outcome.getRequestId() + 1, outcome.getSupersededBy());
+        }
+
+        assertEquals(Arrays.asList("jdk-8[用户级]", "jdk-21[用户级]"), applied);
+        assertEquals(1, maxConcurrent.get(), "切换不能并发执行");
+        assertEquals(12, queue.getRequestCount());
+        assertEquals(2, queue.getExecutedCount());
+        assertEquals(10, queue.getSupersededCount());
+        // 结果在工作线程释放队列之前完成，等待队列回到空闲
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!queue.isIdle() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    @DisplayName("测试只合并被覆盖的作用域")
+    void testPartialCoalescing() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+        SwitchQueue queue = new SwitchQueue((path, p, scopes, trace) -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            applied.add(path.getFileName() + scopes.toString());
+            return true;
+        }, executor);
+
+        CompletableFuture<SwitchQueue.Outcome> blocker = queue.submit(jdk(8), profile, USER, null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<SwitchQueue.Outcome> both = queue.submit(jdk(17), profile, BOTH, null);
+        CompletableFuture<SwitchQueue.Outcome> user = queue.submit(jdk(21), profile, USER, null);
+        release.countDown();
+
+        blocker.get(5, TimeUnit.SECONDS);
+        // 用户级被更新的请求覆盖，系统级仍然切换到17
+        assertEquals(Collections.singletonList(EnvVariableScope.SYSTEM),
+            both.get(5, TimeUnit.SECONDS).getAppliedScopes());
+        assertEquals(USER, user.get(5, TimeUnit.SECONDS).getAppliedScopes());
+        assertEquals(Arrays.asList("jdk-8[用户级]", "jdk-17[系统级]", "jdk-21[用户级]"), applied);
+    }
+
+    @Test
+    @DisplayName("测试失败和串行任务不影响后续切换")
+    void testFailureAndTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        SwitchQueue queue = new SwitchQueue((path, p, scopes, trace) -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            order.add(path.getFileName().toString());
+            if (path.equals(jdk(8))) {
+                throw new EnvironmentVariableException("写入失败");
+            }
+            return true;
+        }, executor);
+
+        CompletableFuture<SwitchQueue.Outcome> failing = queue.submit(jdk(8), profile, USER, null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<SwitchQueue.Outcome> beforeUndo = queue.submit(jdk(11), profile, USER, null);
+        CompletableFuture<String> undo = queue.submitTask(() -> {
+            order.add("undo");
+            return "undone";
+        });
+        // 不能越过撤销任务合并更早的切换
+        CompletableFuture<SwitchQueue.Outcome> afterUndo = queue.submit(jdk(17), profile, USER, null);
+        release.countDown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof EnvironmentVariableException);
+        assertFalse(beforeUndo.get(5, TimeUnit.SECONDS).isSuperseded());
+        assertEquals("undone", undo.get(5, TimeUnit.SECONDS));
+        assertFalse(afterUndo.get(5, TimeUnit.SECONDS).isSuperseded());
+        assertEquals(Arrays.asList("jdk-8", "jdk-11", "undo", "jdk-17"), order);
+    }
+}
@@ -0,0 +1,279 @@
+package com.jdkmanager.env;
+
+import com.jdkmanager.exception.EnvironmentVariableException;
+import com.jdkmanager.exception.InsufficientPrivilegeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多作用域切换事务和切换日志测试类
+ */
+class SwitchTransactionTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 内存中的注册表，可以模拟系统级没有写入权限
+     */
+    private static final class FakeRegistry implements SwitchTransaction.RegistryWriter, SwitchTransaction.RegistryReader {
+        private final Map<EnvVariableScope, Map<String, String>> values = new EnumMap<>(EnvVariableScope.class);
+        private boolean systemDenied;
+        private int writes;
+
+        FakeRegistry() {
+            values.put(EnvVariableScope.USER, new HashMap<>());
+            values.put(EnvVariableScope.SYSTEM, new HashMap<>());
+        }
+
+        @Override
+        public void write(List<RegistryBatch> batches) throws EnvironmentVariableException {
+            writes++;
+            // 与reg import一样按顺序写入，遇到错误时停止，之前的修改保留
+            for (RegistryBatch batch : batches) {
+                if (batch.getScope() == EnvVariableScope.SYSTEM && systemDenied) {
+                    throw new InsufficientPrivilegeException("权限不足");
+                }
+                for (Map.Entry<String, String> change : batch.getChanges().entrySet()) {
+                    if (change.getValue() == null) {
+                        values.get(batch.getScope()).remove(change.getKey());
+                    } else {
+                        values.get(batch.getScope()).put(change.getKey(), change.getValue());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Map<String, String> read(EnvVariableScope scope) {
+            return new HashMap<>(values.get(scope));
+        }
+
+        Map<String, String> get(EnvVariableScope scope) {
+            return values.get(scope);
+        }
+    }
+
+    private SwitchJournal journal() {
+        return new SwitchJournal(tempDir.resolve("switch-journal.log"));
+    }
+
+    /**
+     * 把日志中的进程号改成一个已经退出的进程，模拟写日志的进程中途退出
+     */
+    private void orphanJournal() throws Exception {
+        Process process = new ProcessBuilder("sh", "-c", "exit 0").start();
+        process.waitFor();
+        Path file = tempDir.resolve("switch-journal.log");
+        String text = Files.readString(file);
+        Files.writeString(file, text.replace("\t" + ProcessHandle.current().pid() + "\t", "\t" + process.pid() + "\t"));
+    }
+
+    /**
+     * 模拟EnvironmentManager：先记录旧值，再把所有作用域合并为一次写入
+     */
+    private void switchTo(SwitchTransaction transaction, FakeRegistry registry, String jdk,
+                          EnvVariableScope... scopes) throws EnvironmentVariableException {
+        List<RegistryBatch> batches = new ArrayList<>();
+        Map<EnvVariableScope, Map<String, String>> previous = new EnumMap<>(EnvVariableScope.class);
+        for (EnvVariableScope scope : scopes) {
+            RegistryBatch batch = new RegistryBatch(scope).set("JAVA_HOME", jdk).delete("JAVA_TOOL_OPTIONS");
+            Map<String, String> before = new LinkedHashMap<>();
+            for (String name : batch.getChanges().keySet()) {
+                before.put(name, registry.get(scope).get(name));
+            }
+            previous.put(scope, before);
+            batches.add(batch);
+        }
+        transaction.apply(jdk, batches, previous);
+    }
+
+    @Test
+    @DisplayName("测试系统级失败时用户级一起回滚")
+    void testRollbackOnPartialFailure() throws Exception {
+        FakeRegistry registry = new FakeRegistry();
+        registry.get(EnvVariableScope.USER).put("JAVA_HOME", "C:\\jdk-11");
+        registry.get(EnvVariableScope.USER).put("JAVA_TOOL_OPTIONS", "-Dfile.encoding=UTF-8");
+        registry.get(EnvVariableScope.SYSTEM).put("JAVA_HOME", "C:\\jdk-11");
+        registry.systemDenied = true;
+        SwitchTransaction transaction = new SwitchTransaction(journal(), registry, registry);
+
+        assertThrows(InsufficientPrivilegeException.class, () -> switchTo(transaction, registry, "C:\\jdk-17",
+            EnvVariableScope.USER, EnvVariableScope.SYSTEM));
+
+        assertEquals("C:\\jdk-11", registry.get(EnvVariableScope.USER).get("JAVA_HOME"));
+        assertEquals("-Dfile.encoding=UTF-8", registry.get(EnvVariableScope.USER).get("JAVA_TOOL_OPTIONS"));
+        List<SwitchJournal.Entry> entries = journal().read();
+        assertEquals(1, entries.size());
+        assertEquals(SwitchJournal.State.ROLLED_BACK, entries.get(0).getState());
+        assertTrue(journal().lastUndoable().isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试撤销上次切换")
+    void testUndoLast() throws Exception {
+        FakeRegistry registry = new FakeRegistry();
+        registry.get(EnvVariableScope.USER).put("JAVA_HOME", "C:\\jdk-8");
+        SwitchTransaction transaction = new SwitchTransaction(journal(), registry, registry);
+
+        switchTo(transaction, registry, "C:\\jdk-11", EnvVariableScope.USER, EnvVariableScope.SYSTEM);
+        switchTo(transaction, registry, "C:\\jdk-17", EnvVariableScope.USER, EnvVariableScope.SYSTEM);
+        assertEquals(2, registry.writes);
+
+        int writes = registry.writes;
+        assertEquals("C:\\jdk-17", transaction.undoLast().orElseThrow().getTarget());
+        // 两个作用域一次写回
+        assertEquals(writes + 1, registry.writes);
+        assertEquals("C:\\jdk-11", registry.get(EnvVariableScope.USER).get("JAVA_HOME"));
+        assertEquals("C:\\jdk-11", registry.get(EnvVariableScope.SYSTEM).get("JAVA_HOME"));
+
+        // 再次撤销回到第一次切换之前：系统级原本没有JAVA_HOME
+        assertEquals("C:\\jdk-11", transaction.undoLast().orElseThrow().getTarget());
+        assertEquals("C:\\jdk-8", registry.get(EnvVariableScope.USER).get("JAVA_HOME"));
+        assertFalse(registry.get(EnvVariableScope.SYSTEM).containsKey("JAVA_HOME"));
+        assertTrue(transaction.undoLast().isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试切换后变量被修改时拒绝撤销")
+    void testUndoRefusedAfterExternalChange() throws Exception {
+        FakeRegistry registry = new FakeRegistry();
+        registry.get(EnvVariableScope.USER).put("JAVA_HOME", "C:\\jdk-11");
+        SwitchTransaction transaction = new SwitchTransaction(journal(), registry, registry);
+        switchTo(transaction, registry, "C:\\jdk-17", EnvVariableScope.USER);
+
+        // 切换之后安装程序设置了JAVA_TOOL_OPTIONS
+        registry.get(EnvVariableScope.USER).put("JAVA_TOOL_OPTIONS", "-Dinstaller=1");
+        int writes = registry.writes;
+        EnvironmentVariableException e = assertThrows(EnvironmentVariableException.class, transaction::undoLast);
+        assertTrue(e.getMessage().contains("JAVA_TOOL_OPTIONS"), e.getMessage());
+        assertEquals(writes, registry.writes);
+        assertEquals("C:\\jdk-17", registry.get(EnvVariableScope.USER).get("JAVA_HOME"));
+        assertEquals(SwitchJournal.State.COMMITTED, journal().read().get(0).getState());
+
+        // 改回切换写入的值后可以撤销
+        registry.get(EnvVariableScope.USER).remove("JAVA_TOOL_OPTIONS");
+        assertEquals("C:\\jdk-17", transaction.undoLast().orElseThrow().getTarget());
+        assertEquals("C:\\jdk-11", registry.get(EnvVariableScope.USER).get("JAVA_HOME"));
+    }
+
+    @Test
+    @DisplayName("测试进程号被复用时仍能恢复未完成的切换")
+    void testRecoverWhenPidReused() throws Exception {
+        FakeRegistry registry = new FakeRegistry();
+        registry.get(EnvVariableScope.USER).put("JAVA_HOME", "C:\\jdk-11");
+        Map<EnvVariableScope, Map<String, String>> previous = new EnumMap<>(EnvVariableScope.class);
+        previous.put(EnvVariableScope.USER, new LinkedHashMap<>(Map.of("JAVA_HOME", "C:\\jdk-11")));
+        Map<EnvVariableScope, Map<String, String>> applied = new EnumMap<>(EnvVariableScope.class);
+        applied.put(EnvVariableScope.USER, new LinkedHashMap<>(Map.of("JAVA_HOME", "C:\\jdk-17")));
+        journal().begin("C:\\jdk-17", previous, applied);
+        assertTrue(journal().incomplete().isEmpty());
+
+        // 同一进程号现在属于另一个更晚启动的进程
+        Path file = tempDir.resolve("switch-journal.log");
+        long started = journal().read().get(0).getOwnerStartMillis();
+        assertTrue(started > 0);
+        Files.writeString(file, Files.readString(file).replace("\t" + started + "\n", "\t" + (started - 60_000) + "\n"));
+
+        SwitchTransaction transaction = new SwitchTransaction(journal(), registry, registry);
+        assertEquals("C:\\jdk-17", transaction.recover().orElseThrow().getTarget());
+        assertEquals(SwitchJournal.State.ROLLED_BACK, journal().read().get(0).getState());
+    }
+
+    @Test
+    @DisplayName("测试恢复进程中途退出时未完成的切换")
+    void testRecoverIncomplete() throws Exception {
+        FakeRegistry registry = new FakeRegistry();
+        registry.get(EnvVariableScope.USER).put("JAVA_HOME", "C:\\jdk-11");
+        registry.get(EnvVariableScope.SYSTEM).put("JAVA_HOME", "C:\\jdk-11");
+        Map<EnvVariableScope, Map<String, String>> previous = new EnumMap<>(EnvVariableScope.class);
+        previous.put(EnvVariableScope.USER, new LinkedHashMap<>(Map.of("JAVA_HOME", "C:\\jdk-11")));
+        previous.put(EnvVariableScope.SYSTEM, new LinkedHashMap<>(Map.of("JAVA_HOME", "C:\\jdk-11")));
+        Map<EnvVariableScope, Map<String, String>> applied = new EnumMap<>(EnvVariableScope.class);
+        applied.put(EnvVariableScope.USER, new LinkedHashMap<>(Map.of("JAVA_HOME", "C:\\jdk-17")));
+        applied.put(EnvVariableScope.SYSTEM, new LinkedHashMap<>(Map.of("JAVA_HOME", "C:\\jdk-17")));
+        // 只写了日志和部分注册表就退出
+        journal().begin("C:\\jdk-17", previous, applied);
+        registry.get(EnvVariableScope.USER).put("JAVA_HOME", "C:\\jdk-17");
+
+        SwitchTransaction transaction = new SwitchTransaction(journal(), registry, registry);
+        assertTrue(transaction.recover().isEmpty(), "写日志的进程仍在运行时切换还在进行中");
+        assertEquals("C:\\jdk-17", registry.get(EnvVariableScope.USER).get("JAVA_HOME"));
+
+        orphanJournal();
+        assertTrue(transaction.undoLast().isEmpty(), "未完成的切换恢复之前不能撤销");
+        assertEquals("C:\\jdk-17", transaction.recover().orElseThrow().getTarget());
+        assertEquals("C:\\jdk-11", registry.get(EnvVariableScope.USER).get("JAVA_HOME"));
+        assertTrue(transaction.recover().isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试已完整写入但未提交的切换不回滚")
+    void testRecoverFullyApplied() throws Exception {
+        FakeRegistry registry = new FakeRegistry();
+        registry.get(EnvVariableScope.USER).put("JAVA_HOME", "C:\\jdk-11");
+        registry.get(EnvVariableScope.USER).put("JAVA_TOOL_OPTIONS", "-Xmx1g");
+        Map<EnvVariableScope, Map<String, String>> previous = new EnumMap<>(EnvVariableScope.class);
+        Map<String, String> before = new LinkedHashMap<>();
+        before.put("JAVA_HOME", "C:\\jdk-11");
+        before.put("JAVA_TOOL_OPTIONS", "-Xmx1g");
+        previous.put(EnvVariableScope.USER, before);
+        Map<EnvVariableScope, Map<String, String>> applied = new EnumMap<>(EnvVariableScope.class);
+        Map<String, String> after = new LinkedHashMap<>();
+        after.put("JAVA_HOME", "C:\\jdk-17");
+        after.put("JAVA_TOOL_OPTIONS", null);
+        applied.put(EnvVariableScope.USER, after);
+        // reg import成功之后、写入提交标记之前退出
+        journal().begin("C:\\jdk-17", previous, applied);
+        registry.get(EnvVariableScope.USER).put("JAVA_HOME", "C:\\jdk-17");
+        registry.get(EnvVariableScope.USER).remove("JAVA_TOOL_OPTIONS");
+        orphanJournal();
+
+        SwitchTransaction transaction = new SwitchTransaction(journal(), registry, registry);
+        assertTrue(transaction.recover().isEmpty());
+        assertEquals("C:\\jdk-17", registry.get(EnvVariableScope.USER).get("JAVA_HOME"));
+        assertEquals(SwitchJournal.State.COMMITTED, journal().read().get(0).getState());
+        // 补记提交后可以正常撤销
+        assertEquals("C:\\jdk-17", transaction.undoLast().orElseThrow().getTarget());
+        assertEquals("-Xmx1g", registry.get(EnvVariableScope.USER).get("JAVA_TOOL_OPTIONS"));
+    }
+
+    @Test
+    @DisplayName("测试日志转义和损坏行")
+    void testJournalEncoding() throws Exception {
+        SwitchJournal journal = journal();
+        Map<EnvVariableScope, Map<String, String>> previous = new EnumMap<>(EnvVariableScope.class);
+        Map<String, String> user = new LinkedHashMap<>();
+        user.put("JAVA_TOOL_OPTIONS", "-Da=1\t-Db=\\x");
+        user.put("GRAALVM_HOME", null);
+        user.put("JRE_HOME", "");
+        previous.put(EnvVariableScope.USER, user);
+        long id = journal.begin("C:\\Program Files\\Java\\jdk-17", previous);
+        journal.committed(id);
+        // 断电时写到一半的记录
+        Files.writeString(tempDir.resolve("switch-journal.log"), "B\t2\tbroken\n", StandardOpenOption.APPEND);
+
+        List<SwitchJournal.Entry> entries = journal.read();
+        assertEquals(1, entries.size());
+        SwitchJournal.Entry entry = entries.get(0);
+        assertEquals(SwitchJournal.State.COMMITTED, entry.getState());
+        assertEquals("C:\\Program Files\\Java\\jdk-17", entry.getTarget());
+        assertEquals(Arrays.asList("JAVA_TOOL_OPTIONS", "GRAALVM_HOME", "JRE_HOME"),
+            new ArrayList<>(entry.getPrevious().get(EnvVariableScope.USER).keySet()));
+        assertEquals(user, entry.getPrevious().get(EnvVariableScope.USER));
+        assertEquals(ProcessHandle.current().pid(), entry.getOwnerPid());
+    }
+}
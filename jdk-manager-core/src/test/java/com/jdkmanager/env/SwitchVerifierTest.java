@@ -0,0 +1,58 @@
+package com.jdkmanager.env;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JDK切换结果验证器测试类
+ */
+class SwitchVerifierTest {
+
+    private final Path target = Path.of("jdks", "jdk-17").toAbsolutePath();
+    private final Path previous = Path.of("jdks", "jdk-11").toAbsolutePath();
+
+    @Test
+    @DisplayName("测试写入已生效时立即确认")
+    void testImmediateConfirmation() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        SwitchVerifier verifier = new SwitchVerifier(scope -> {
+            reads.incrementAndGet();
+            return Optional.of(target.toString());
+        });
+
+        assertTrue(verifier.awaitJavaHome(target, Arrays.asList(EnvVariableScope.USER, EnvVariableScope.SYSTEM), 1000));
+        // 只检查一轮，每个作用域读取一次，不进入退避等待
+        assertEquals(2, reads.get(), "已生效时不应等待");
+    }
+
+    @Test
+    @DisplayName("测试退避轮询直到所有作用域生效")
+    void testPollsUntilAllScopesMatch() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        SwitchVerifier verifier = new SwitchVerifier(scope -> {
+            // 系统级在第三轮检查时才生效
+            if (scope == EnvVariableScope.SYSTEM && reads.incrementAndGet() < 3) {
+                return Optional.of(previous.toString());
+            }
+            return Optional.of(target.toString());
+        });
+
+        assertTrue(verifier.awaitJavaHome(target, Arrays.asList(EnvVariableScope.USER, EnvVariableScope.SYSTEM), 1000));
+        assertEquals(3, reads.get());
+    }
+
+    @Test
+    @DisplayName("测试超时未生效")
+    void testTimeout() throws Exception {
+        SwitchVerifier verifier = new SwitchVerifier(scope -> Optional.empty());
+        assertFalse(verifier.awaitJavaHome(target, Collections.singletonList(EnvVariableScope.USER), 50));
+        assertFalse(verifier.awaitJavaHome(target, Collections.emptyList(), 50));
+    }
+}
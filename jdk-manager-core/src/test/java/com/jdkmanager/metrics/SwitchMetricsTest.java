@@ -0,0 +1,88 @@
+package com.jdkmanager.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 切换耗时统计测试类
+ */
+class SwitchMetricsTest {
+
+    @Test
+    @DisplayName("测试阶段耗时累加和结构化日志")
+    void testTraceAccumulatesStages() {
+        SwitchTrace trace = new SwitchTrace("C:\\Java\\jdk-17", "用户级, 系统级");
+        long start = System.nanoTime() - 2_000_000L;
+        trace.record(SwitchTrace.STAGE_JAVA_HOME_WRITE, start);
+        trace.record(SwitchTrace.STAGE_JAVA_HOME_WRITE, start);
+        try (SwitchTrace.Stage stage = trace.stage(SwitchTrace.STAGE_BROADCAST)) {
+            // 空阶段
+        }
+        trace.finish(true);
+
+        Map<String, Long> stages = trace.getStageNanos();
+        assertTrue(stages.get(SwitchTrace.STAGE_JAVA_HOME_WRITE) >= 4_000_000L, "同名阶段应累加");
+        assertTrue(stages.containsKey(SwitchTrace.STAGE_BROADCAST));
+
+        String logLine = trace.toLogLine();
+        assertTrue(logLine.startsWith("switch-trace id="));
+        assertTrue(logLine.contains("outcome=success"));
+        assertTrue(logLine.contains("java_home_write_ms="));
+    }
+
+    @Test
+    @DisplayName("测试确认对话框的时间不计入总耗时")
+    void testConfirmExcludedFromTotal() {
+        // 用户在对话框上停留了10秒，对话框关闭后才创建追踪
+        long clickTime = System.nanoTime() - 10_000_000_000L;
+        SwitchTrace trace = new SwitchTrace("C:\\Java\\jdk-17", "用户级");
+        trace.record(SwitchTrace.STAGE_CONFIRM, clickTime);
+        trace.finish(true);
+
+        assertTrue(trace.getStageNanos().get(SwitchTrace.STAGE_CONFIRM) >= 10_000_000_000L);
+        assertTrue(trace.getTotalNanos() < 10_000_000_000L, "总耗时不应包含确认时间");
+    }
+
+    @Test
+    @DisplayName("测试环形缓冲区只保留最近的切换")
+    void testRingBufferKeepsRecent() {
+        SwitchMetrics metrics = new SwitchMetrics(3);
+        for (int i = 0; i < 5; i++) {
+            SwitchTrace trace = new SwitchTrace("jdk-" + i, "用户级");
+            trace.finish(true);
+            metrics.record(trace);
+        }
+
+        List<SwitchTrace> recent = metrics.getRecentTraces();
+        assertEquals(3, recent.size());
+        assertEquals("jdk-2", recent.get(0).getTarget());
+        assertEquals("jdk-4", recent.get(2).getTarget());
+    }
+
+    @Test
+    @DisplayName("测试分位数计算")
+    void testPercentiles() {
+        long[] samples = new long[100];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = i + 1;
+        }
+        assertEquals(50, SwitchMetrics.percentile(samples, 50));
+        assertEquals(95, SwitchMetrics.percentile(samples, 95));
+        assertEquals(0, SwitchMetrics.percentile(new long[0], 95));
+
+        SwitchMetrics metrics = new SwitchMetrics();
+        SwitchTrace trace = new SwitchTrace("jdk", "用户级");
+        trace.record(SwitchTrace.STAGE_PATH_WRITE, System.nanoTime());
+        trace.finish(true);
+        metrics.record(trace);
+
+        Map<String, SwitchMetrics.StageSummary> summaries = metrics.getStageSummaries();
+        assertEquals(1, summaries.get("total").getCount());
+        assertEquals(1, summaries.get(SwitchTrace.STAGE_PATH_WRITE).getCount());
+        assertTrue(metrics.formatSummary().contains("path_write_p95_ms="));
+    }
+}
@@ -0,0 +1,119 @@
+package com.jdkmanager.scanner;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDK清单磁盘缓存测试类
+ */
+class InventoryCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private InventorySnapshot sampleSnapshot() {
+        List<JdkInfo> jdks = Arrays.asList(
+            new JdkInfo("1.8.0_381", tempDir.resolve("jdk1.8.0_381"), false),
+            new JdkInfo("17.0.8", tempDir.resolve("Eclipse Adoptium").resolve("jdk-17.0.8.7-hotspot"), true),
+            new JdkInfo("未知版本", tempDir.resolve("custom jdk"), true));
+        return InventorySnapshot.of(jdks, jdks.get(1).getPath(),
+            Instant.ofEpochMilli(1_700_000_000_000L), Duration.ofMillis(842));
+    }
+
+    @Test
+    @DisplayName("测试保存后读取得到相同清单并标记为过期")
+    void testRoundTrip() throws Exception {
+        InventoryCache cache = new InventoryCache(tempDir.resolve("cache").resolve("inventory.bin"));
+        InventorySnapshot original = sampleSnapshot();
+
+        cache.save(original);
+        Optional<InventorySnapshot> loaded = cache.load();
+
+        assertTrue(loaded.isPresent());
+        InventorySnapshot snapshot = loaded.get();
+        assertTrue(snapshot.isStale());
+        assertFalse(original.isStale());
+        assertEquals(original.getScanTimestamp(), snapshot.getScanTimestamp());
+        assertEquals(original.getScanDuration(), snapshot.getScanDuration());
+        assertEquals(original.getInstallations().size(), snapshot.getInstallations().size());
+        for (int i = 0; i < original.getInstallations().size(); i++) {
+            JdkInfo expected = original.getInstallations().get(i);
+            JdkInfo actual = snapshot.getInstallations().get(i);
+            assertEquals(expected.getVersion(), actual.getVersion());
+            assertEquals(expected.getPath(), actual.getPath());
+            assertEquals(expected.is64Bit(), actual.is64Bit());
+            assertEquals(expected.isCurrent(), actual.isCurrent());
+        }
+        assertEquals("17.0.8", snapshot.getCurrent().orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("测试重新扫描后的快照不再过期")
+    void testReconcileClearsStale() throws Exception {
+        InventoryCache cache = new InventoryCache(tempDir.resolve("inventory.bin"));
+        InventorySnapshot original = sampleSnapshot();
+        cache.save(original);
+
+        InventorySnapshot cached = cache.load().orElseThrow();
+        InventorySnapshot fresh = cached.reconcile(original);
+
+        assertFalse(fresh.isStale());
+        // 未变化的条目沿用缓存中的对象，界面不会重建单元格
+        assertSame(cached.getInstallations().get(0), fresh.getInstallations().get(0));
+        assertTrue(cached.withCurrent(null).isStale(), "切换当前JDK不改变过期状态");
+    }
+
+    @Test
+    @DisplayName("测试缓存不存在或损坏时返回空")
+    void testMissingOrCorrupt() throws Exception {
+        Path file = tempDir.resolve("inventory.bin");
+        InventoryCache cache = new InventoryCache(file);
+        assertFalse(cache.load().isPresent());
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertFalse(cache.load().isPresent());
+
+        // 魔数正确但内容被截断
+        ByteBuffer encoded = InventoryCache.encode(sampleSnapshot());
+        byte[] truncated = new byte[encoded.remaining() - 5];
+        encoded.get(truncated);
+        Files.write(file, truncated);
+        assertFalse(cache.load().isPresent());
+
+        // 格式版本不匹配
+        ByteBuffer otherVersion = InventoryCache.encode(sampleSnapshot());
+        otherVersion.putShort(4, (short) 99);
+        assertFalse(InventoryCache.decode(otherVersion).isPresent());
+    }
+
+    @Test
+    @DisplayName("测试大量JDK的读取耗时")
+    void testLargeInventoryLoadsQuickly() throws Exception {
+        List<JdkInfo> jdks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            jdks.add(new JdkInfo("17.0." + i, tempDir.resolve("jdks").resolve("jdk-" + i), true));
+        }
+        InventoryCache cache = new InventoryCache(tempDir.resolve("inventory.bin"));
+        cache.save(InventorySnapshot.of(jdks, jdks.get(42).getPath(), Instant.now(), Duration.ZERO));
+
+        long start = System.nanoTime();
+        InventorySnapshot loaded = cache.load().orElseThrow();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(500, loaded.getInstallations().size());
+        assertEquals(jdks.get(42).getPath(), loaded.getCurrent().orElseThrow().getPath());
+        assertTrue(elapsedMillis < 100, "读取缓存耗时过长: " + elapsedMillis + "ms");
+    }
+}
@@ -0,0 +1,94 @@
+package com.jdkmanager.scanner;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JDK清单快照测试类
+ */
+class InventorySnapshotTest {
+
+    private final Path jdk8Path = Path.of("jdks", "jdk1.8.0_381").toAbsolutePath();
+    private final Path jdk11Path = Path.of("jdks", "jdk-11").toAbsolutePath();
+    private final Path jdk17Path = Path.of("jdks", "jdk-17").toAbsolutePath();
+
+    private List<JdkInfo> scanned() {
+        return Arrays.asList(
+            new JdkInfo("1.8.0_381", jdk8Path, true),
+            new JdkInfo("11.0.20", jdk11Path, true),
+            new JdkInfo("17.0.8", jdk17Path, true));
+    }
+
+    @Test
+    @DisplayName("测试创建快照时标记当前JDK且不修改输入")
+    void testOfMarksCurrent() {
+        List<JdkInfo> input = scanned();
+        InventorySnapshot snapshot = InventorySnapshot.of(input, jdk11Path, Instant.now(), Duration.ofMillis(5));
+
+        assertEquals(3, snapshot.getInstallations().size());
+        assertEquals(jdk11Path, snapshot.getCurrent().orElseThrow().getPath());
+        assertTrue(snapshot.getInstallations().get(1).isCurrent());
+        assertFalse(input.get(1).isCurrent(), "输入列表中的对象不应被修改");
+        assertThrows(UnsupportedOperationException.class,
+            () -> snapshot.getInstallations().add(new JdkInfo("21", jdk17Path, true)));
+    }
+
+    @Test
+    @DisplayName("测试切换当前JDK时共享未变化的条目")
+    void testWithCurrentSharesUnchangedEntries() {
+        InventorySnapshot before = InventorySnapshot.of(scanned(), jdk11Path, Instant.now(), Duration.ZERO);
+        InventorySnapshot after = before.withCurrent(jdk17Path);
+
+        assertNotSame(before, after);
+        assertSame(before.getInstallations().get(0), after.getInstallations().get(0));
+        assertFalse(after.getInstallations().get(1).isCurrent());
+        assertTrue(after.getInstallations().get(2).isCurrent());
+        assertEquals(jdk17Path, after.getCurrent().orElseThrow().getPath());
+
+        // 旧快照保持不变
+        assertTrue(before.getInstallations().get(1).isCurrent());
+        assertSame(after, after.withCurrent(jdk17Path));
+        assertFalse(after.withCurrent(null).getCurrent().isPresent());
+    }
+
+    @Test
+    @DisplayName("测试合并扫描结果时复用未变化的条目")
+    void testReconcileReusesEntries() {
+        InventorySnapshot previous = InventorySnapshot.of(scanned(), jdk11Path, Instant.EPOCH, Duration.ZERO);
+
+        List<JdkInfo> rescanned = Arrays.asList(
+            new JdkInfo("1.8.0_381", jdk8Path, true),
+            new JdkInfo("11.0.21", jdk11Path, true));
+        Instant now = Instant.now();
+        InventorySnapshot scanned = InventorySnapshot.of(rescanned, jdk11Path, now, Duration.ofMillis(12));
+        InventorySnapshot merged = previous.reconcile(scanned);
+
+        assertSame(previous.getInstallations().get(0), merged.getInstallations().get(0));
+        assertEquals("11.0.21", merged.getCurrent().orElseThrow().getVersion(), "版本变化的条目应使用新对象");
+        assertEquals(2, merged.getInstallations().size());
+        assertEquals(now, merged.getScanTimestamp());
+        assertEquals(Duration.ofMillis(12), merged.getScanDuration());
+        assertFalse(merged.find(jdk17Path).isPresent());
+    }
+
+    @Test
+    @DisplayName("测试存储原子地发布快照")
+    void testStoreUpdate() {
+        InventoryStore store = new InventoryStore();
+        assertSame(InventorySnapshot.empty(), store.get());
+
+        store.publish(InventorySnapshot.of(scanned(), null, Instant.now(), Duration.ZERO));
+        InventorySnapshot updated = store.update(snapshot -> snapshot.withCurrent(jdk8Path));
+
+        assertSame(updated, store.get());
+        assertEquals(jdk8Path, store.get().getCurrent().orElseThrow().getPath());
+        assertThrows(IllegalArgumentException.class, () -> store.publish(null));
+    }
+}
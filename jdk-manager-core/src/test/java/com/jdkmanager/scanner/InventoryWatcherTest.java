@@ -0,0 +1,52 @@
+package com.jdkmanager.scanner;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDK清单监听器测试类
+ */
+class InventoryWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("测试安装目录出现时触发一次刷新")
+    void testRefreshOnDirectoryChange() throws Exception {
+        Semaphore refreshed = new Semaphore(0);
+        try (InventoryWatcher watcher = new InventoryWatcher(List.of(tempDir), Duration.ofMillis(200),
+                refreshed::release)) {
+            watcher.start();
+
+            // 模拟安装程序：短时间内创建多个目录，只应刷新一次
+            Files.createDirectories(tempDir.resolve("jdk-21").resolve("bin"));
+            Files.createDirectories(tempDir.resolve("jdk-21-docs"));
+            Files.delete(tempDir.resolve("jdk-21-docs"));
+
+            assertTrue(refreshed.tryAcquire(10, TimeUnit.SECONDS), "目录变化后没有刷新");
+            assertFalse(refreshed.tryAcquire(500, TimeUnit.MILLISECONDS), "一批变化触发了多次刷新");
+        }
+    }
+
+    @Test
+    @DisplayName("测试扫描根目录只包含存在的目录")
+    void testScanRoots() throws Exception {
+        DefaultJdkScanner scanner = new DefaultJdkScanner();
+        Path custom = Files.createDirectories(tempDir.resolve("custom"));
+        scanner.addCustomPath(custom);
+
+        assertTrue(scanner.getScanRoots().contains(custom.toAbsolutePath().normalize()));
+        Files.delete(custom);
+        assertFalse(scanner.getScanRoots().contains(custom.toAbsolutePath().normalize()));
+    }
+}
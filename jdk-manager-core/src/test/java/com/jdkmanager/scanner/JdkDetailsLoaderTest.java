@@ -0,0 +1,96 @@
+package com.jdkmanager.scanner;
+
+import com.jdkmanager.concurrent.CancellationToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * JDK详细信息加载器测试类
+ */
+class JdkDetailsLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JdkInfo createJdk(String name, String version) throws Exception {
+        Path home = tempDir.resolve(name);
+        Files.createDirectories(home.resolve("bin"));
+        Files.write(home.resolve("bin").resolve("java.exe"), new byte[1000]);
+        Files.write(home.resolve("bin").resolve("javac.exe"), new byte[500]);
+        Files.write(home.resolve("release"), Arrays.asList(
+            "IMPLEMENTOR=\"Eclipse Adoptium\"",
+            "JAVA_RUNTIME_VERSION=\"" + version + "+7\"",
+            "JAVA_VERSION=\"" + version + "\"",
+            "JAVA_VERSION_DATE=\"2023-07-18\"",
+            "MODULES=\"java.base java.logging  java.sql\""));
+        return new JdkInfo(version, home, true);
+    }
+
+    @Test
+    @DisplayName("测试读取release元数据和磁盘占用")
+    void testLoadDetails() throws Exception {
+        JdkInfo jdk = createJdk("jdk-17", "17.0.8");
+        JdkDetails details = new JdkDetailsLoader().load(jdk, new CancellationToken());
+
+        assertEquals("Eclipse Adoptium", details.getVendor().orElseThrow());
+        assertEquals("17.0.8+7", details.getRuntimeVersion().orElseThrow());
+        assertEquals("2023-07-18", details.getVersionDate().orElseThrow());
+        assertEquals(Arrays.asList("java.base", "java.logging", "java.sql"), details.getModules());
+        assertEquals(8, details.getSecurityPatchLevel());
+        long releaseSize = Files.size(jdk.getPath().resolve("release"));
+        assertEquals(1500 + releaseSize, details.getDiskSizeBytes());
+    }
+
+    @Test
+    @DisplayName("测试缓存按安装区分，不受当前状态影响")
+    void testCacheByInstallation() throws Exception {
+        JdkInfo jdk = createJdk("jdk-11", "11.0.20");
+        JdkDetailsLoader loader = new JdkDetailsLoader();
+        assertFalse(loader.getCached(jdk).isPresent());
+
+        JdkDetails first = loader.load(jdk, new CancellationToken());
+        assertSame(first, loader.load(jdk.withCurrent(true), new CancellationToken()));
+        assertSame(first, loader.getCached(jdk).orElseThrow());
+
+        // 同一路径升级后版本号变化，需要重新加载
+        JdkInfo upgraded = new JdkInfo("11.0.21", jdk.getPath(), true);
+        assertFalse(loader.getCached(upgraded).isPresent());
+
+        loader.invalidateAll();
+        assertFalse(loader.getCached(jdk).isPresent());
+    }
+
+    @Test
+    @DisplayName("测试已取消的加载不写入缓存")
+    void testCancelledLoad() throws Exception {
+        JdkInfo jdk = createJdk("jdk-21", "21.0.1");
+        JdkDetailsLoader loader = new JdkDetailsLoader();
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        assertThrows(CancellationException.class, () -> loader.load(jdk, token));
+        assertFalse(loader.getCached(jdk).isPresent());
+    }
+
+    @Test
+    @DisplayName("测试安全补丁级别解析")
+    void testSecurityPatchLevel() {
+        assertEquals(381, JdkDetailsLoader.securityPatchLevel("1.8.0_381"));
+        assertEquals(8, JdkDetailsLoader.securityPatchLevel("17.0.8"));
+        assertEquals(0, JdkDetailsLoader.securityPatchLevel("21"));
+        assertEquals(-1, JdkDetailsLoader.securityPatchLevel("未知版本"));
+    }
+
+    @Test
+    @DisplayName("测试缺少release文件")
+    void testMissingReleaseFile() {
+        assertTrue(JdkDetailsLoader.readReleaseFile(tempDir.resolve("missing")).isEmpty());
+    }
+}
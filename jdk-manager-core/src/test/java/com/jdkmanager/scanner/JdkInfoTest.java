@@ -28,14 +28,19 @@ class JdkInfoTest {
     }
     
     @Test
-    void testSetCurrent() {
+    void testWithCurrent() {
         JdkInfo jdkInfo = new JdkInfo("17.0.5", Path.of("C:\\java\\jdk-17"), true);
         
         assertFalse(jdkInfo.isCurrent());
-        jdkInfo.setCurrent(true);
-        assertTrue(jdkInfo.isCurrent());
-        jdkInfo.setCurrent(false);
-        assertFalse(jdkInfo.isCurrent());
+        JdkInfo current = jdkInfo.withCurrent(true);
+        assertTrue(current.isCurrent());
+        assertFalse(jdkInfo.isCurrent(), "原对象不应被修改");
+        assertEquals(jdkInfo, current);
+        assertEquals(jdkInfo.getVersion(), current.getVersion());
+        assertEquals(jdkInfo.is64Bit(), current.is64Bit());
+        
+        assertSame(current, current.withCurrent(true));
+        assertFalse(current.withCurrent(false).isCurrent());
     }
     
     @Test
@@ -137,8 +142,7 @@ class JdkInfoTest {
         boolean is64Bit = true;
         boolean isCurrent = false;
         
-        JdkInfo jdkInfo = new JdkInfo(version, path, is64Bit);
-        jdkInfo.setCurrent(isCurrent);
+        JdkInfo jdkInfo = new JdkInfo(version, path, is64Bit, isCurrent);
         
         String toString = jdkInfo.toString();
         assertTrue(toString.contains(version));
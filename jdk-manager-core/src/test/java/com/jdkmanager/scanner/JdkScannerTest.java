@@ -6,11 +6,14 @@ import com.jdkmanager.scanner.DefaultJdkScanner;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JDK扫描器测试类
@@ -47,6 +50,25 @@ public class JdkScannerTest {
         }
     }
     
+    @Test
+    @DisplayName("测试根据JAVA_HOME快速解析当前JDK")
+    void testResolveActiveJdk(@TempDir Path tempDir) throws Exception {
+        Path jdkHome = tempDir.resolve("jdk-21");
+        Files.createDirectories(jdkHome.resolve("bin"));
+        Files.createFile(jdkHome.resolve("bin").resolve("java.exe"));
+        Files.createFile(jdkHome.resolve("bin").resolve("javac.exe"));
+        Files.writeString(jdkHome.resolve("release"), "JAVA_VERSION=\"21.0.1\"\n");
+        
+        Optional<JdkInfo> active = DefaultJdkScanner.resolveActiveJdk(" " + jdkHome + " ");
+        assertTrue(active.isPresent());
+        assertEquals("21.0.1", active.get().getVersion());
+        assertTrue(active.get().isCurrent());
+        
+        assertFalse(DefaultJdkScanner.resolveActiveJdk(null).isPresent());
+        assertFalse(DefaultJdkScanner.resolveActiveJdk("  ").isPresent());
+        assertFalse(DefaultJdkScanner.resolveActiveJdk(tempDir.resolve("missing").toString()).isPresent());
+    }
+    
     @Test
     @DisplayName("测试扫描默认路径")
     void testScanDefaultPaths() {
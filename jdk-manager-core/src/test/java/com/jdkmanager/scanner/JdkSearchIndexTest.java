@@ -0,0 +1,135 @@
+package com.jdkmanager.scanner;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * JDK搜索索引测试类
+ */
+class JdkSearchIndexTest {
+
+    private static final Path TEMURIN_17 = Paths.get("/opt/java/Eclipse Adoptium/jdk-17.0.8.7-hotspot");
+    private static final Path ZULU_11 = Paths.get("/opt/java/Zulu/zulu-11");
+    private static final Path ORACLE_8 = Paths.get("/opt/java/Java/jdk1.8.0_381");
+
+    private JdkSearchIndex createIndex() {
+        JdkSearchIndex index = new JdkSearchIndex();
+        index.update(Arrays.asList(
+            new JdkInfo("17.0.8", TEMURIN_17, true),
+            new JdkInfo("11.0.20", ZULU_11, true),
+            new JdkInfo("1.8.0_381", ORACLE_8, false)));
+        return index;
+    }
+
+    private static Set<Path> paths(Path... paths) {
+        Set<Path> result = new HashSet<>();
+        for (Path path : paths) {
+            result.add(path.toAbsolutePath().normalize());
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("测试按版本分量、发行商和架构前缀搜索")
+    void testPrefixSearch() {
+        JdkSearchIndex index = createIndex();
+
+        assertEquals(paths(TEMURIN_17), index.search("17"));
+        assertEquals(paths(TEMURIN_17), index.search("adopt"));
+        assertEquals(paths(ZULU_11), index.search("ZULU"));
+        assertEquals(paths(ORACLE_8), index.search("x86"));
+        assertEquals(paths(ORACLE_8), index.search("381"));
+        assertEquals(paths(TEMURIN_17, ZULU_11), index.search("64位"));
+        assertNull(index.search("  "));
+    }
+
+    @Test
+    @DisplayName("测试多个词取交集以及子串匹配")
+    void testMultiTermAndSubstring() {
+        JdkSearchIndex index = createIndex();
+
+        assertEquals(paths(ZULU_11), index.search("11 x64"));
+        assertTrue(index.search("17 x86").isEmpty());
+        // 片段中间的子串通过三元组匹配
+        assertEquals(paths(TEMURIN_17), index.search("tspo"));
+        assertEquals(paths(ORACLE_8), index.search("8.0_3"));
+        assertTrue(index.search("graal").isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试增量更新和删除")
+    void testIncrementalUpdate() {
+        JdkSearchIndex index = createIndex();
+
+        // 同一路径升级后旧版本号不再命中
+        index.add(new JdkInfo("11.0.21", ZULU_11, true));
+        assertEquals(paths(ZULU_11), index.search("11.0.21"));
+        assertTrue(index.search("11.0.20").isEmpty());
+
+        index.update(Collections.singletonList(new JdkInfo("17.0.8", TEMURIN_17, true)));
+        assertEquals(1, index.size());
+        assertTrue(index.search("zulu").isEmpty());
+        assertTrue(index.search("jdk1").isEmpty());
+
+        index.remove(TEMURIN_17);
+        assertEquals(0, index.size());
+        assertTrue(index.search("17").isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试过滤条件只读取索引结果")
+    void testMatcher() {
+        JdkSearchIndex index = createIndex();
+
+        assertNull(index.matcher(""));
+        assertTrue(index.matcher("zulu").test(new JdkInfo("11.0.20", ZULU_11, true)));
+        assertFalse(index.matcher("zulu").test(new JdkInfo("17.0.8", TEMURIN_17, true)));
+    }
+
+    @Test
+    @DisplayName("测试一万个条目时逐字符过滤")
+    void testIncrementalFilterAtScale() {
+        String[] vendors = {"Eclipse Adoptium", "Zulu", "Microsoft", "Amazon Corretto", "BellSoft"};
+        List<JdkInfo> jdks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int major = 8 + i % 14;
+            String version = major + ".0." + (i % 50);
+            Path path = Paths.get("/ci/cache", vendors[i % vendors.length], "build-" + i, "jdk-" + version);
+            jdks.add(new JdkInfo(version, path, i % 7 != 0));
+        }
+        JdkSearchIndex index = new JdkSearchIndex();
+        index.update(jdks);
+
+        // 逐字符模拟输入，每次按键都像FilteredList一样对全部条目求值
+        int matched = filter(index, jdks, "corretto 17 x64");
+
+        assertEquals(10_000, index.size());
+        assertTrue(matched > 0);
+        assertTrue(matched < jdks.size());
+    }
+
+    private static int filter(JdkSearchIndex index, List<JdkInfo> jdks, String query) {
+        int matched = 0;
+        for (int i = 1; i <= query.length(); i++) {
+            Predicate<JdkInfo> predicate = index.matcher(query.substring(0, i));
+            matched = 0;
+            for (JdkInfo jdk : jdks) {
+                if (predicate.test(jdk)) {
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,152 @@
+package com.jdkmanager.scanner;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 项目级JDK解析器测试类
+ */
+class ProjectJdkResolverTest {
+
+    private final JdkInfo jdk8 = new JdkInfo("1.8.0_462", Path.of("C:\\Java\\jdk1.8.0_462"), true);
+    private final JdkInfo jdk11 = new JdkInfo("11.0.15", Path.of("C:\\Java\\jdk-11.0.15"), true);
+    private final JdkInfo jdk17 = new JdkInfo("17.0.5", Path.of("C:\\Java\\zulu-17.0.5"), true);
+    private final JdkInfo jdk17Temurin = new JdkInfo("17.0.2", Path.of("C:\\Java\\temurin-17.0.2"), true);
+    private final List<JdkInfo> inventory = Arrays.asList(jdk8, jdk11, jdk17, jdk17Temurin);
+
+    @Test
+    @DisplayName("测试从子目录向上查找.java-version")
+    void testResolveFromNestedDirectory(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve(".java-version"), "11\n");
+        Path nested = Files.createDirectories(tempDir.resolve("module-a").resolve("src").resolve("main"));
+
+        ProjectJdkResolver resolver = new ProjectJdkResolver(() -> inventory);
+        Optional<ProjectJdkResolver.Resolution> resolution = resolver.resolve(nested);
+
+        assertTrue(resolution.isPresent());
+        assertEquals(tempDir.resolve(".java-version"), resolution.get().getVersionFile());
+        assertEquals(Optional.of(jdk11), resolution.get().getJdk());
+        // 沿途目录都应被缓存
+        assertEquals(4, resolver.getCacheSize());
+    }
+
+    @Test
+    @DisplayName("测试缓存超出容量时淘汰最久未使用的目录")
+    void testCacheBounded(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve(".java-version"), "11\n");
+        Path nested = Files.createDirectories(tempDir.resolve("module-a").resolve("src").resolve("main"));
+        Path other = Files.createDirectories(tempDir.resolve("module-b"));
+
+        ProjectJdkResolver resolver = new ProjectJdkResolver(() -> inventory, 3);
+        assertEquals(Optional.of(jdk11), resolver.resolve(nested).flatMap(ProjectJdkResolver.Resolution::getJdk));
+        assertEquals(3, resolver.getCacheSize());
+        assertEquals(Optional.of(jdk11), resolver.resolve(other).flatMap(ProjectJdkResolver.Resolution::getJdk));
+        assertEquals(3, resolver.getCacheSize());
+        assertEquals(Optional.of(jdk11), resolver.resolve(nested).flatMap(ProjectJdkResolver.Resolution::getJdk));
+        assertThrows(IllegalArgumentException.class, () -> new ProjectJdkResolver(() -> inventory, 0));
+    }
+
+    @Test
+    @DisplayName("测试选择最高版本并优先匹配发行商")
+    void testSelectsHighestAndVendor(@TempDir Path tempDir) throws Exception {
+        ProjectJdkResolver resolver = new ProjectJdkResolver(() -> inventory);
+
+        Files.writeString(tempDir.resolve(".java-version"), "17");
+        assertEquals(Optional.of(jdk17), resolver.resolve(tempDir).flatMap(ProjectJdkResolver.Resolution::getJdk));
+
+        Path sdkman = Files.createDirectories(tempDir.resolve("sdkman"));
+        Files.writeString(sdkman.resolve(".sdkmanrc"), "# comment\njava=17.0.2-tem\n");
+        assertEquals(Optional.of(jdk17Temurin), resolver.resolve(sdkman).flatMap(ProjectJdkResolver.Resolution::getJdk));
+
+        Path asdf = Files.createDirectories(tempDir.resolve("asdf"));
+        Files.writeString(asdf.resolve(".tool-versions"), "nodejs 18.0.0\njava 1.8\n");
+        assertEquals(Optional.of(jdk8), resolver.resolve(asdf).flatMap(ProjectJdkResolver.Resolution::getJdk));
+    }
+
+    @Test
+    @DisplayName("测试版本文件修改后缓存失效")
+    void testInvalidatedByModificationTime(@TempDir Path tempDir) throws Exception {
+        Path versionFile = tempDir.resolve(".java-version");
+        Files.writeString(versionFile, "11");
+        Files.setLastModifiedTime(versionFile, FileTime.fromMillis(1_000_000L));
+
+        ProjectJdkResolver resolver = new ProjectJdkResolver(() -> inventory);
+        ProjectJdkResolver.Resolution first = resolver.resolve(tempDir).orElseThrow();
+        assertSame(first, resolver.resolve(tempDir).orElseThrow(), "未修改时应命中缓存");
+
+        Files.writeString(versionFile, "17.0.2");
+        Files.setLastModifiedTime(versionFile, FileTime.fromMillis(2_000_000L));
+        assertEquals(Optional.of(jdk17Temurin), resolver.resolve(tempDir).flatMap(ProjectJdkResolver.Resolution::getJdk));
+    }
+
+    @Test
+    @DisplayName("测试中间目录新建版本文件后缓存失效")
+    void testInvalidatedByIntermediateVersionFile(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve(".java-version"), "11");
+        Path middle = Files.createDirectories(tempDir.resolve("b"));
+        Path leaf = Files.createDirectories(middle.resolve("c"));
+        // 固定旧的修改时间，保证之后新建文件一定会改变它
+        Files.setLastModifiedTime(middle, FileTime.fromMillis(1_000_000L));
+
+        ProjectJdkResolver resolver = new ProjectJdkResolver(() -> inventory);
+        assertEquals(Optional.of(jdk11), resolver.resolve(leaf).flatMap(ProjectJdkResolver.Resolution::getJdk));
+
+        Files.writeString(middle.resolve(".java-version"), "1.8");
+        assertEquals(Optional.of(jdk8), resolver.resolve(leaf).flatMap(ProjectJdkResolver.Resolution::getJdk));
+    }
+
+    @Test
+    @DisplayName("测试没有版本文件的结果在新建版本文件后失效")
+    void testNegativeResultInvalidated(@TempDir Path tempDir) throws Exception {
+        Path leaf = Files.createDirectories(tempDir.resolve("a").resolve("b"));
+        Files.setLastModifiedTime(tempDir, FileTime.fromMillis(1_000_000L));
+
+        ProjectJdkResolver resolver = new ProjectJdkResolver(() -> inventory);
+        assertFalse(resolver.resolve(leaf).isPresent());
+
+        Files.writeString(tempDir.resolve(".java-version"), "1.8");
+        assertEquals(Optional.of(jdk8), resolver.resolve(leaf).flatMap(ProjectJdkResolver.Resolution::getJdk));
+    }
+
+    @Test
+    @DisplayName("测试清单变化后重新匹配")
+    void testRematchWhenInventoryChanges(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve(".java-version"), "21");
+        AtomicReference<List<JdkInfo>> current = new AtomicReference<>(inventory);
+        ProjectJdkResolver resolver = new ProjectJdkResolver(current::get);
+
+        ProjectJdkResolver.Resolution resolution = resolver.resolve(tempDir).orElseThrow();
+        assertFalse(resolution.getJdk().isPresent());
+
+        JdkInfo jdk21 = new JdkInfo("21.0.1", Path.of("C:\\Java\\jdk-21"), true);
+        current.set(Arrays.asList(jdk11, jdk21));
+        assertEquals(Optional.of(jdk21), resolver.resolve(tempDir).flatMap(ProjectJdkResolver.Resolution::getJdk));
+    }
+
+    @Test
+    @DisplayName("测试没有版本文件")
+    void testNoVersionFile(@TempDir Path tempDir) {
+        ProjectJdkResolver resolver = new ProjectJdkResolver(() -> inventory);
+        assertFalse(resolver.resolve(tempDir).isPresent());
+    }
+
+    @Test
+    @DisplayName("测试版本规格解析")
+    void testVersionSpecParsing() {
+        assertEquals(Arrays.asList(8, 0, 462), VersionSpec.parseComponents("1.8.0_462"));
+        assertEquals(Arrays.asList(17, 0, 2), VersionSpec.parse("temurin-17.0.2+8").orElseThrow().getComponents());
+        assertEquals(Optional.of("temurin"), VersionSpec.parse("temurin-17.0.2+8").orElseThrow().getVendor());
+        assertEquals(Optional.empty(), VersionSpec.parse("17").orElseThrow().getVendor());
+        assertFalse(VersionSpec.parse("latest").isPresent());
+    }
+}
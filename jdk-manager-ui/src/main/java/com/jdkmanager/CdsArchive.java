@@ -0,0 +1,106 @@
+package com.jdkmanager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 应用类数据共享（AppCDS）归档管理
+ * 归档只能在JVM启动时通过参数指定，由启动脚本负责：归档存在时使用
+ * -XX:SharedArchiveFile，不存在时用 -XX:ArchiveClassesAtExit 在本次运行退出时生成。
+ * 启动器在此基础上记录生成归档时的JAR和JVM，发现不一致时删除旧归档，下次启动自动重新生成
+ */
+public class CdsArchive {
+
+    public static final String PROPERTY_ARCHIVE = "jdkmanager.cds.archive";
+    public static final String PROPERTY_TRAINING = "jdkmanager.cds.training";
+
+    private static final String STAMP_SUFFIX = ".stamp";
+
+    private final Path archive;
+    private final Path stamp;
+
+    /**
+     * 构造函数
+     * @param archive 归档文件路径
+     */
+    public CdsArchive(Path archive) {
+        this.archive = archive;
+        this.stamp = archive.resolveSibling(archive.getFileName() + STAMP_SUFFIX);
+    }
+
+    /**
+     * 根据启动脚本传入的系统属性创建
+     * @return 归档管理，未通过启动脚本启动时为空
+     */
+    public static Optional<CdsArchive> fromSystemProperties() {
+        String archive = System.getProperty(PROPERTY_ARCHIVE);
+        if (archive == null || archive.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new CdsArchive(Paths.get(archive.trim())));
+    }
+
+    /**
+     * 是否为训练运行，训练运行在启动完成后自动退出以生成归档
+     * @return 是否为训练运行
+     */
+    public static boolean isTrainingRun() {
+        return Boolean.getBoolean(PROPERTY_TRAINING);
+    }
+
+    public Path getArchive() {
+        return archive;
+    }
+
+    /**
+     * 检查归档是否与当前JAR和JVM一致
+     * 归档不存在时本次运行正在生成归档，写入生成条件；
+     * 归档已存在但条件不一致时删除归档，由下次启动重新生成
+     * @param appJar 应用JAR
+     * @return 归档是否可以继续使用
+     */
+    public boolean prepare(Path appJar) {
+        try {
+            List<String> expected = describe(appJar);
+            if (!Files.exists(archive)) {
+                Files.createDirectories(archive.getParent());
+                Files.write(stamp, expected, StandardCharsets.UTF_8);
+                System.out.println("将在退出时生成AppCDS归档: " + archive);
+                return false;
+            }
+
+            if (Files.exists(stamp) && Files.readAllLines(stamp, StandardCharsets.UTF_8).equals(expected)) {
+                return true;
+            }
+
+            // JVM在JAR或自身版本变化时会拒绝映射归档，因此这里可以安全删除
+            Files.deleteIfExists(archive);
+            Files.deleteIfExists(stamp);
+            System.out.println("AppCDS归档已过期，下次启动时重新生成: " + archive);
+            return false;
+        } catch (IOException e) {
+            System.err.println("检查AppCDS归档失败: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 描述归档的生成条件
+     * @param appJar 应用JAR
+     * @return JAR大小、修改时间和JVM版本
+     */
+    static List<String> describe(Path appJar) throws IOException {
+        return Arrays.asList(
+            "jar=" + appJar.toAbsolutePath().normalize(),
+            "jar.size=" + Files.size(appJar),
+            "jar.modified=" + Files.getLastModifiedTime(appJar).toMillis(),
+            "java.vm.vendor=" + System.getProperty("java.vm.vendor"),
+            "java.vm.version=" + System.getProperty("java.vm.version"));
+    }
+}
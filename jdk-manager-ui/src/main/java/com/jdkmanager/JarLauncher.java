@@ -0,0 +1,430 @@
+package com.jdkmanager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.module.Configuration;
+import java.lang.module.ModuleFinder;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * JAR启动器类
+ * JavaFX已在类路径或模块路径上时直接启动；否则在内嵌或构建输出的JavaFX JAR之上
+ * 创建模块层，并由能看到该模块层的类加载器加载应用类
+ */
+public class JarLauncher {
+    
+    private static final String MAIN_CLASS = "com.jdkmanager.JdkManagerApp";
+    private static final String JAVAFX_PROBE_CLASS = "javafx.application.Application";
+    private static final String EMBEDDED_LIB_DIR = "lib/";
+    private static final String[] JAVAFX_JARS = {
+        "javafx-base.jar", "javafx-controls.jar", 
+        "javafx-fxml.jar", "javafx-graphics.jar"
+    };
+    private static final String[] JAVAFX_MODULES = {
+        "javafx.base", "javafx.controls", "javafx.fxml", "javafx.graphics"
+    };
+    
+    // 通过 -Djdkmanager.launcher.debug=true 打开启动诊断输出
+    private static final boolean DEBUG = Boolean.getBoolean("jdkmanager.launcher.debug");
+    
+    public static void main(String[] args) {
+        try {
+            // 设置系统编码为UTF-8
+            System.setProperty("file.encoding", "UTF-8");
+            System.setProperty("sun.jnu.encoding", "UTF-8");
+            
+            // 已有实例在运行时把参数交给它后立即退出，不再检查权限或加载JavaFX
+            if (!CdsArchive.isTrainingRun() && !claimSingleInstance(args)) {
+                return;
+            }
+            
+            StartupProfiler profiler = StartupProfiler.get();
+            
+            // 检查管理员权限，训练运行无人值守，不弹出提示
+            if (!CdsArchive.isTrainingRun()) {
+                try (StartupProfiler.Phase phase = profiler.phase(StartupProfiler.PHASE_ADMIN_CHECK)) {
+                    checkAdminRights();
+                }
+            }
+            
+            // 检查启动脚本使用的AppCDS归档是否与当前JAR和JVM一致
+            prepareCdsArchive();
+            
+            // 准备JavaFX并启动主应用程序
+            ClassLoader loader;
+            try (StartupProfiler.Phase phase = profiler.phase(StartupProfiler.PHASE_JAVAFX_BOOTSTRAP)) {
+                loader = createApplicationLoader();
+            }
+            profiler.attribute("javafx", loader == JarLauncher.class.getClassLoader() ? "direct" : "layer");
+            launchMainApplication(loader, args);
+            
+        } catch (Exception e) {
+            System.err.println("启动应用程序失败: " + e.getMessage());
+            e.printStackTrace();
+            
+            // 显示错误对话框
+            try {
+                Class<?> alertClass = Class.forName("javafx.scene.control.Alert");
+                Class<?> alertTypeClass = Class.forName("javafx.scene.control.Alert$AlertType");
+                Object alertType = alertTypeClass.getField("ERROR").get(null);
+                Object alert = alertClass.getConstructor(alertTypeClass).newInstance(alertType);
+                Method setTitle = alertClass.getMethod("setTitle", String.class);
+                Method setHeaderText = alertClass.getMethod("setHeaderText", String.class);
+                Method setContentText = alertClass.getMethod("setContentText", String.class);
+                Method showAndWait = alertClass.getMethod("showAndWait");
+                
+                setTitle.invoke(alert, "启动错误");
+                setHeaderText.invoke(alert, "无法启动应用程序");
+                setContentText.invoke(alert, "启动Java版本管理器时发生错误:\n" + e.getMessage());
+                showAndWait.invoke(alert);
+            } catch (Exception ex) {
+                // 如果JavaFX不可用，使用控制台输出
+                System.err.println("无法显示错误对话框: " + ex.getMessage());
+            }
+            
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * 创建加载应用类的类加载器
+     * @return JavaFX可直接加载时返回当前类加载器，否则返回建立在JavaFX模块层之上的加载器
+     */
+    static ClassLoader createApplicationLoader() throws IOException {
+        ClassLoader current = JarLauncher.class.getClassLoader();
+        if (isJavaFxAvailable(current)) {
+            debug("JavaFX已可用，直接启动");
+            return current;
+        }
+        
+        Path appLocation = applicationLocation();
+        debug("应用位置: " + appLocation);
+        List<Path> javafxJars = locateJavaFxJars(appLocation);
+        
+        ModuleLayer layer = createJavaFxLayer(javafxJars, current);
+        ClassLoader layerLoader = layer.findLoader(JAVAFX_MODULES[0]);
+        debug("已创建JavaFX模块层: " + layer);
+        return new ChildFirstClassLoader(new URL[] {appLocation.toUri().toURL()}, layerLoader);
+    }
+    
+    /**
+     * 成为主实例，或把参数交给已运行的实例
+     * @param args 命令行参数
+     * @return 本进程应继续启动时返回true
+     */
+    private static boolean claimSingleInstance(String[] args) {
+        try {
+            if (SingleInstance.acquireOrHandOff(SingleInstance.defaultDirectory(), args).isEmpty()) {
+                System.out.println("Java版本管理器已在运行，已激活现有窗口");
+                return false;
+            }
+        } catch (IOException e) {
+            // 无法确认时照常启动，避免因为残留状态导致程序打不开
+            System.err.println("单实例检查失败，继续启动: " + e.getMessage());
+        }
+        return true;
+    }
+    
+    private static void prepareCdsArchive() {
+        Optional<CdsArchive> archive = CdsArchive.fromSystemProperties();
+        if (archive.isEmpty()) {
+            return;
+        }
+        try {
+            Path appLocation = applicationLocation();
+            if (Files.isRegularFile(appLocation)) {
+                boolean usable = archive.get().prepare(appLocation);
+                StartupProfiler.get().attribute("cds", usable ? "archive" : "dump");
+            }
+        } catch (IOException e) {
+            System.err.println("检查AppCDS归档失败: " + e.getMessage());
+        }
+    }
+    
+    private static boolean isJavaFxAvailable(ClassLoader loader) {
+        try {
+            Class.forName(JAVAFX_PROBE_CLASS, false, loader);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+    
+    private static Path applicationLocation() throws IOException {
+        CodeSource codeSource = JarLauncher.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            throw new IOException("无法确定应用程序位置");
+        }
+        try {
+            return Paths.get(codeSource.getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("无法解析应用程序位置: " + codeSource.getLocation(), e);
+        }
+    }
+    
+    /**
+     * 查找JavaFX JAR：优先使用应用JAR中内嵌的lib目录，其次使用构建输出目录
+     * @param appLocation 应用JAR或类目录
+     * @return JavaFX JAR路径列表
+     */
+    private static List<Path> locateJavaFxJars(Path appLocation) throws IOException {
+        if (Files.isRegularFile(appLocation)) {
+            try (JarFile jarFile = new JarFile(appLocation.toFile())) {
+                // 只按名称查找需要的条目，不枚举整个JAR
+                if (jarFile.getJarEntry(EMBEDDED_LIB_DIR + JAVAFX_JARS[0]) != null) {
+                    return extractEmbeddedJars(jarFile, defaultCacheRoot());
+                }
+            }
+        }
+        
+        // 从项目根目录或图形界面模块目录运行时使用构建输出
+        Path modulesDir = Paths.get("jdk-manager-ui", "target", "modules-win");
+        if (!Files.isDirectory(modulesDir)) {
+            modulesDir = Paths.get("target", "modules-win");
+        }
+        List<Path> jars = new ArrayList<>();
+        for (String jarName : JAVAFX_JARS) {
+            Path jarPath = modulesDir.resolve(jarName);
+            if (!Files.isRegularFile(jarPath)) {
+                throw new IOException("JavaFX模块不存在: " + jarPath);
+            }
+            jars.add(jarPath);
+        }
+        return jars;
+    }
+    
+    /**
+     * 在JavaFX JAR之上创建模块层
+     * @param javafxJars JavaFX JAR路径
+     * @param parent 父类加载器
+     * @return 模块层
+     */
+    static ModuleLayer createJavaFxLayer(List<Path> javafxJars, ClassLoader parent) {
+        ModuleLayer boot = ModuleLayer.boot();
+        Configuration configuration = boot.configuration().resolve(
+            ModuleFinder.of(javafxJars.toArray(new Path[0])), ModuleFinder.of(), Arrays.asList(JAVAFX_MODULES));
+        return boot.defineModulesWithOneLoader(configuration, parent);
+    }
+    
+    /**
+     * 默认的JavaFX解压缓存根目录
+     * @return 用户目录下的.jdk-manager/javafx
+     */
+    static Path defaultCacheRoot() {
+        return Paths.get(System.getProperty("user.home"), ".jdk-manager", "javafx");
+    }
+    
+    /**
+     * 将内嵌的JavaFX JAR解压到以内容校验和命名的缓存目录，已存在且校验通过时直接复用
+     * 模块系统无法直接读取嵌套JAR，这是唯一需要复制文件的情况
+     * @param jarFile 应用JAR
+     * @param cacheRoot 缓存根目录
+     * @return 解压后的JAR路径列表
+     */
+    static List<Path> extractEmbeddedJars(JarFile jarFile, Path cacheRoot) throws IOException {
+        List<JarEntry> entries = new ArrayList<>();
+        CRC32 fingerprint = new CRC32();
+        for (String jarName : JAVAFX_JARS) {
+            JarEntry entry = jarFile.getJarEntry(EMBEDDED_LIB_DIR + jarName);
+            if (entry == null) {
+                throw new IOException("应用JAR中缺少JavaFX模块: " + EMBEDDED_LIB_DIR + jarName);
+            }
+            entries.add(entry);
+            // 中央目录中已记录每个条目的CRC，不需要读取内容就能确定缓存目录
+            fingerprint.update((jarName + ":" + entry.getCrc() + ":" + entry.getSize() + ";")
+                .getBytes(StandardCharsets.UTF_8));
+        }
+        
+        Path cacheDir = cacheRoot.resolve(String.format(Locale.ROOT, "%08x", fingerprint.getValue()));
+        Files.createDirectories(cacheDir);
+        
+        List<Path> jars = new ArrayList<>();
+        for (JarEntry entry : entries) {
+            Path target = cacheDir.resolve(entry.getName().substring(EMBEDDED_LIB_DIR.length()));
+            if (Files.isRegularFile(target) && Files.size(target) == entry.getSize() && crcMatches(target, entry)) {
+                debug("复用已解压的JavaFX模块: " + target);
+            } else {
+                extractEntry(jarFile, entry, target);
+            }
+            jars.add(target);
+        }
+        return jars;
+    }
+    
+    /**
+     * 检查已解压文件的CRC是否与应用JAR中记录的一致
+     * 大小相同但内容被截断后填充或被篡改的文件不能加载进模块层，读取几MB的CRC只需几毫秒
+     * @param file 已解压的文件
+     * @param entry 应用JAR中的条目
+     * @return 一致时返回true，条目没有记录CRC时返回false
+     */
+    private static boolean crcMatches(Path file, JarEntry entry) throws IOException {
+        if (entry.getCrc() == -1) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        try (InputStream in = new CheckedInputStream(Files.newInputStream(file), crc)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return crc.getValue() == entry.getCrc();
+    }
+    
+    private static void extractEntry(JarFile jarFile, JarEntry entry, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (InputStream in = new CheckedInputStream(jarFile.getInputStream(entry), crc);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            if (entry.getCrc() != -1 && crc.getValue() != entry.getCrc()) {
+                throw new IOException("JavaFX模块校验失败: " + entry.getName());
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            debug("已解压JavaFX模块: " + target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * 检查管理员权限
+     */
+    private static void checkAdminRights() throws Exception {
+        try {
+            // 在Windows上检查管理员权限
+            String osName = System.getProperty("os.name").toLowerCase();
+            if (osName.contains("win")) {
+                ProcessBuilder pb = new ProcessBuilder("net", "session");
+                Process process = pb.start();
+                int exitCode = process.waitFor();
+                
+                if (exitCode != 0) {
+                    // 没有管理员权限，显示提示
+                    showAdminRightsWarning();
+                }
+            }
+        } catch (Exception e) {
+            // 无法检测权限，继续运行
+            System.err.println("无法检测管理员权限: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 显示管理员权限警告
+     */
+    private static void showAdminRightsWarning() {
+        try {
+            // 尝试使用JavaFX显示警告
+            Class<?> alertClass = Class.forName("javafx.scene.control.Alert");
+            Class<?> alertTypeClass = Class.forName("javafx.scene.control.Alert$AlertType");
+            Object alertType = alertTypeClass.getField("WARNING").get(null);
+            Object alert = alertClass.getConstructor(alertTypeClass).newInstance(alertType);
+            
+            Method setTitle = alertClass.getMethod("setTitle", String.class);
+            Method setHeaderText = alertClass.getMethod("setHeaderText", String.class);
+            Method setContentText = alertClass.getMethod("setContentText", String.class);
+            Method showAndWait = alertClass.getMethod("showAndWait");
+            
+            setTitle.invoke(alert, "权限提示");
+            setHeaderText.invoke(alert, "未以管理员身份运行");
+            setContentText.invoke(alert, "Java版本管理器需要管理员权限来修改系统环境变量。\n\n" +
+                    "某些功能可能无法正常工作。\n\n" +
+                    "建议右键点击应用程序并选择'以管理员身份运行'。");
+            showAndWait.invoke(alert);
+        } catch (Exception e) {
+            // 如果JavaFX不可用，使用控制台输出
+            System.out.println("警告: 未以管理员身份运行");
+            System.out.println("Java版本管理器需要管理员权限来修改系统环境变量。");
+            System.out.println("某些功能可能无法正常工作。");
+            System.out.println("建议右键点击应用程序并选择'以管理员身份运行'。");
+        }
+    }
+    
+    /**
+     * 启动主应用程序
+     * @param loader 加载应用类的类加载器
+     * @param args 命令行参数
+     */
+    private static void launchMainApplication(ClassLoader loader, String[] args) throws Exception {
+        Thread.currentThread().setContextClassLoader(loader);
+        Class<?> mainClass = Class.forName(MAIN_CLASS, true, loader);
+        Method mainMethod = mainClass.getMethod("main", String[].class);
+        mainMethod.invoke(null, (Object) args);
+    }
+    
+    private static void debug(String message) {
+        if (DEBUG) {
+            System.out.println("DEBUG: " + message);
+        }
+    }
+    
+    /**
+     * 应用类优先的类加载器
+     * 本程序的类必须由能看到JavaFX模块层的加载器定义，其余类仍按双亲委派加载
+     */
+    static final class ChildFirstClassLoader extends URLClassLoader {
+        private static final String APP_PACKAGE = "com.jdkmanager.";
+        // 启动追踪和单实例状态需要在启动器和应用之间共享，仍由父加载器加载
+        private static final String[] SHARED_PREFIXES = {
+            "com.jdkmanager.Startup", "com.jdkmanager.SingleInstance"
+        };
+        
+        static {
+            ClassLoader.registerAsParallelCapable();
+        }
+        
+        ChildFirstClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+        
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(APP_PACKAGE) || isShared(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    try {
+                        loaded = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        loaded = super.loadClass(name, false);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+        
+        private static boolean isShared(String name) {
+            for (String prefix : SHARED_PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
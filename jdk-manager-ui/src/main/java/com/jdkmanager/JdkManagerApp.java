@@ -0,0 +1,214 @@
+package com.jdkmanager;
+
+import com.jdkmanager.concurrent.TaskScheduler;
+import com.jdkmanager.ui.MainController;
+import com.jdkmanager.ui.TrayController;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * Java版本管理器应用程序主入口
+ * 负责启动JavaFX应用程序和初始化主窗口
+ */
+public class JdkManagerApp extends Application {
+    
+    private static final String APP_TITLE = "Java版本管理器";
+    private static final String FXML_PATH = "/fxml/main.fxml";
+    private static final String CSS_PATH = "/css/styles.css";
+    // 以托盘常驻模式启动，窗口先不显示
+    private static final String TRAY_ARG = "--tray";
+    
+    // 从调用launch到start被回调，即JavaFX工具包的启动耗时
+    private static StartupProfiler.Phase toolkitStartPhase;
+    
+    private Stage primaryStage;
+    private MainController controller;
+    private TrayController tray;
+    
+    @Override
+    public void start(Stage primaryStage) {
+        StartupProfiler profiler = StartupProfiler.get();
+        if (toolkitStartPhase != null) {
+            toolkitStartPhase.close();
+            toolkitStartPhase = null;
+        }
+        
+        try {
+            // 在模块化环境中加载FXML
+            // 使用Class.getResourceAsStream确保在模块路径中正确查找资源
+            FXMLLoader loader = new FXMLLoader();
+            
+            // 在模块化环境中，我们需要确保资源加载路径是正确的
+            // 尝试多种方式加载资源，提高兼容性
+            URL fxmlUrl = getClass().getResource(FXML_PATH);
+            if (fxmlUrl == null) {
+                // 尝试使用当前类的ClassLoader
+                fxmlUrl = getClass().getClassLoader().getResource("fxml/main.fxml");
+                if (fxmlUrl == null) {
+                    throw new IOException("无法找到FXML文件: " + FXML_PATH);
+                }
+            }
+            
+            loader.setLocation(fxmlUrl);
+            
+            Parent root;
+            try (StartupProfiler.Phase phase = profiler.phase(StartupProfiler.PHASE_FXML_LOAD)) {
+                root = loader.load();
+            }
+            
+            // 获取控制器
+            this.primaryStage = primaryStage;
+            controller = loader.getController();
+            controller.setPrimaryStage(primaryStage);
+            
+            // 加载CSS样式
+            StartupProfiler.Phase cssPhase = profiler.phase(StartupProfiler.PHASE_CSS_LOAD);
+            URL cssUrl = getClass().getResource(CSS_PATH);
+            if (cssUrl == null) {
+                // 尝试使用当前类的ClassLoader作为备用加载方式
+                cssUrl = getClass().getClassLoader().getResource("css/styles.css");
+            }
+            
+            if (cssUrl != null) {
+                root.getStylesheets().add(cssUrl.toExternalForm());
+            } else {
+                System.out.println("警告: 无法加载CSS样式文件: " + CSS_PATH);
+            }
+            
+            // 创建场景，样式表在此时才真正解析
+            Scene scene = new Scene(root, 800, 600);
+            root.applyCss();
+            cssPhase.close();
+            
+            // 设置窗口属性
+            primaryStage.setTitle(APP_TITLE);
+            primaryStage.setScene(scene);
+            primaryStage.setMinWidth(600);
+            primaryStage.setMinHeight(500);
+            
+            // 后启动的实例把参数转交过来时激活窗口
+            SingleInstance.current().ifPresent(instance ->
+                instance.setHandler(args -> Platform.runLater(() -> activate(args))));
+            
+            // 托盘模式下窗口隐藏启动，扫描照常在后台进行
+            if (getParameters().getRaw().contains(TRAY_ARG) && installTray()) {
+                return;
+            }
+            
+            // 显示窗口
+            try (StartupProfiler.Phase phase = profiler.phase(StartupProfiler.PHASE_STAGE_SHOW)) {
+                primaryStage.show();
+            }
+            markFirstPaint(scene, profiler);
+            
+            // AppCDS训练运行在首帧和首次扫描完成后退出，退出时JVM写入归档
+            if (CdsArchive.isTrainingRun()) {
+                profiler.onComplete(() -> Platform.runLater(Platform::exit));
+            }
+            
+        } catch (IOException e) {
+            System.err.println("启动应用程序失败: " + e.getMessage());
+            e.printStackTrace();
+            
+            // 显示错误对话框
+            javafx.scene.control.Alert alert = new javafx.scene.control.Alert(
+                javafx.scene.control.Alert.AlertType.ERROR);
+            alert.setTitle("启动错误");
+            alert.setHeaderText("无法启动应用程序");
+            alert.setContentText("启动Java版本管理器时发生错误:\n" + e.getMessage());
+            alert.showAndWait();
+            
+            // 退出应用程序
+            Platform.exit();
+        }
+    }
+    
+    /**
+     * 处理后启动实例转交的参数，必须在JavaFX应用线程中调用
+     * 带--tray时只确保托盘图标存在，否则显示并激活主窗口
+     * @param args 后启动实例的命令行参数
+     */
+    private void activate(List<String> args) {
+        if (args.contains(TRAY_ARG) && installTray()) {
+            return;
+        }
+        if (tray != null) {
+            tray.showWindow();
+        } else {
+            primaryStage.show();
+            primaryStage.setIconified(false);
+            primaryStage.toFront();
+        }
+    }
+    
+    /**
+     * 安装托盘图标，已安装时直接返回
+     * @return 托盘可用时返回true
+     */
+    private boolean installTray() {
+        if (tray != null) {
+            return true;
+        }
+        if (!TrayController.isSupported()) {
+            System.out.println("当前桌面不支持系统托盘，以普通窗口模式运行");
+            return false;
+        }
+        TrayController created = new TrayController(primaryStage, controller);
+        if (!created.install()) {
+            return false;
+        }
+        tray = created;
+        return true;
+    }
+    
+    /**
+     * 在第一个布局脉冲之后记录首帧，渲染在同一脉冲中紧随其后
+     * @param scene 主场景
+     * @param profiler 启动追踪
+     */
+    private static void markFirstPaint(Scene scene, StartupProfiler profiler) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            Platform.runLater(() -> profiler.mark(StartupProfiler.MILESTONE_FIRST_PAINT));
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+    
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+        SingleInstance.current().ifPresent(SingleInstance::close);
+        // 停止后台任务线程池，等待正在执行的切换完成
+        TaskScheduler.getDefault().shutdown();
+    }
+    
+    /**
+     * 应用程序主方法
+     * @param args 命令行参数
+     */
+    public static void main(String[] args) {
+        // 设置系统编码为UTF-8
+        System.setProperty("file.encoding", "UTF-8");
+        System.setProperty("sun.jnu.encoding", "UTF-8");
+        
+        // 添加模块路径检查
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath == null || modulePath.isEmpty()) {
+            System.err.println("警告: 未设置JavaFX模块路径，尝试使用默认配置");
+        }
+        
+        toolkitStartPhase = StartupProfiler.get().phase(StartupProfiler.PHASE_TOOLKIT_START);
+        launch(args);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,271 @@
+package com.jdkmanager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 单实例控制
+ * 第一个启动的进程持有锁文件并在回环地址上监听；之后启动的进程把参数交给它后立即退出，
+ * 不再创建JavaFX运行时，也不重复扫描
+ */
+public final class SingleInstance implements AutoCloseable {
+
+    private static final String LOCK_FILE = "gui.lock";
+    private static final String PORT_FILE = "gui.port";
+    private static final String ACTIVATE = "ACTIVATE";
+    // 主实例刚拿到锁、还没写出端口文件时的等待上限
+    private static final long HAND_OFF_TIMEOUT_MILLIS = 3000;
+    private static final int SOCKET_TIMEOUT_MILLIS = 2000;
+
+    private static volatile SingleInstance current;
+
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ServerSocket serverSocket;
+    private final Path portFile;
+    private final String token;
+    private final List<List<String>> pending = new ArrayList<>();
+    private Consumer<List<String>> handler;
+
+    private SingleInstance(FileChannel lockChannel, FileLock lock, ServerSocket serverSocket,
+                           Path portFile, String token) {
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.serverSocket = serverSocket;
+        this.portFile = portFile;
+        this.token = token;
+    }
+
+    /**
+     * 获取默认状态目录
+     * @return 用户目录下的.jdk-manager目录
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".jdk-manager");
+    }
+
+    /**
+     * 获取当前进程持有的单实例
+     * @return 单实例，未通过启动器启动时返回Optional.empty()
+     */
+    public static Optional<SingleInstance> current() {
+        return Optional.ofNullable(current);
+    }
+
+    /**
+     * 成为主实例，或把参数交给已运行的主实例
+     * @param directory 锁文件和端口文件所在目录
+     * @param args 命令行参数
+     * @return 成为主实例时返回该实例；参数已交给其他实例时返回Optional.empty()，调用方应退出
+     * @throws IOException 如果既无法成为主实例，也无法联系到已运行的实例
+     */
+    public static Optional<SingleInstance> acquireOrHandOff(Path directory, String[] args) throws IOException {
+        Files.createDirectories(directory);
+        long deadline = System.currentTimeMillis() + HAND_OFF_TIMEOUT_MILLIS;
+        IOException lastFailure = null;
+        while (true) {
+            SingleInstance instance = tryAcquire(directory);
+            if (instance != null) {
+                current = instance;
+                return Optional.of(instance);
+            }
+            try {
+                handOff(directory.resolve(PORT_FILE), Arrays.asList(args));
+                return Optional.empty();
+            } catch (IOException e) {
+                lastFailure = e;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IOException("无法联系已运行的实例: " + lastFailure.getMessage(), lastFailure);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("等待已运行的实例时被中断", e);
+            }
+        }
+    }
+
+    /**
+     * 尝试获取锁文件，成功后开始监听并写出端口文件
+     * @param directory 状态目录
+     * @return 主实例，锁已被其他实例持有时返回null
+     */
+    private static SingleInstance tryAcquire(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // 同一个JVM中已经持有该锁
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            return null;
+        }
+
+        ServerSocket serverSocket = null;
+        try {
+            serverSocket = new ServerSocket(0, 8, InetAddress.getLoopbackAddress());
+            byte[] random = new byte[16];
+            new SecureRandom().nextBytes(random);
+            StringBuilder token = new StringBuilder();
+            for (byte b : random) {
+                token.append(String.format("%02x", b & 0xff));
+            }
+
+            // 先写临时文件再替换，其他实例不会读到半个端口文件
+            Path portFile = directory.resolve(PORT_FILE);
+            Path temp = directory.resolve(PORT_FILE + ".tmp");
+            Files.writeString(temp, serverSocket.getLocalPort() + " " + token);
+            Files.move(temp, portFile, StandardCopyOption.REPLACE_EXISTING);
+
+            SingleInstance instance = new SingleInstance(channel, lock, serverSocket, portFile, token.toString());
+            Thread thread = new Thread(instance::acceptLoop, "jdk-manager-single-instance");
+            thread.setDaemon(true);
+            thread.start();
+            return instance;
+        } catch (IOException e) {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+            lock.release();
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 把参数发送给主实例
+     * @param portFile 主实例的端口文件
+     * @param args 命令行参数
+     * @throws IOException 如果端口文件不存在或通信失败
+     */
+    private static void handOff(Path portFile, List<String> args) throws IOException {
+        String[] parts;
+        try {
+            parts = Files.readString(portFile).trim().split(" ");
+        } catch (NoSuchFileException e) {
+            throw new IOException("端口文件尚未创建");
+        }
+        if (parts.length != 2) {
+            throw new IOException("端口文件格式错误");
+        }
+
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                Integer.parseInt(parts[0])), SOCKET_TIMEOUT_MILLIS);
+            socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+
+            StringBuilder request = new StringBuilder(ACTIVATE).append(' ').append(parts[1]).append('\n');
+            // 空行表示参数结束，空参数不传递
+            for (String arg : args) {
+                if (!arg.isEmpty()) {
+                    request.append(arg.replace('\n', ' ')).append('\n');
+                }
+            }
+            request.append('\n');
+            OutputStream output = socket.getOutputStream();
+            output.write(request.toString().getBytes(StandardCharsets.UTF_8));
+            output.flush();
+
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            if (!"OK".equals(reader.readLine())) {
+                throw new IOException("已运行的实例拒绝了请求");
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("端口文件格式错误");
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+                BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                if (!(ACTIVATE + " " + token).equals(reader.readLine())) {
+                    continue;
+                }
+                List<String> args = new ArrayList<>();
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    args.add(line);
+                }
+                socket.getOutputStream().write("OK\n".getBytes(StandardCharsets.UTF_8));
+                dispatch(args);
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("处理激活请求失败: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void dispatch(List<String> args) {
+        Consumer<List<String>> target;
+        synchronized (pending) {
+            target = handler;
+            if (target == null) {
+                pending.add(args);
+                return;
+            }
+        }
+        target.accept(args);
+    }
+
+    /**
+     * 设置激活请求的处理器，在监听线程上调用
+     * 处理器设置之前收到的请求会立即补发
+     * @param handler 处理器，参数为后启动实例的命令行参数
+     */
+    public void setHandler(Consumer<List<String>> handler) {
+        List<List<String>> queued;
+        synchronized (pending) {
+            this.handler = handler;
+            queued = new ArrayList<>(pending);
+            pending.clear();
+        }
+        queued.forEach(handler);
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+            Files.deleteIfExists(portFile);
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            System.err.println("释放单实例锁失败: " + e.getMessage());
+        }
+        if (current == this) {
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.jdkmanager;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 启动阶段JFR事件
+ * 事件的开始和结束时间即阶段的起止时间，可在JDK Mission Control中与GC、类加载等事件对照查看
+ */
+@Name("com.jdkmanager.StartupPhase")
+@Label("启动阶段")
+@Category({"Java版本管理器", "启动"})
+@Description("Java版本管理器启动过程中的一个阶段")
+@StackTrace(false)
+public class StartupPhaseEvent extends Event {
+
+    @Label("阶段")
+    public String phase;
+
+    @Label("距启动开始的毫秒数")
+    public double offsetMillis;
+}
@@ -0,0 +1,273 @@
+package com.jdkmanager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 启动阶段追踪
+ * 通过 -Djdkmanager.startup.profile=true 开启，按单调时钟记录启动器、FXML加载、
+ * 首次扫描和首帧等阶段，同时提交JFR事件。所有里程碑到齐后输出一行报告，
+ * 并追加到用户目录下的启动记录文件，便于比较冷启动和热启动以及不同版本之间的差异
+ * 里程碑在未开启时也会跟踪，供AppCDS训练运行等需要知道启动何时结束的调用方使用
+ * 启动器和应用类可能由不同的类加载器加载，该类由启动器的加载器共享
+ */
+public final class StartupProfiler {
+
+    // 启动阶段名称
+    public static final String PHASE_ADMIN_CHECK = "admin_check";
+    public static final String PHASE_JAVAFX_BOOTSTRAP = "javafx_bootstrap";
+    public static final String PHASE_TOOLKIT_START = "toolkit_start";
+    public static final String PHASE_FXML_LOAD = "fxml_load";
+    public static final String PHASE_CONTROLLER_INIT = "controller_init";
+    public static final String PHASE_CACHE_RESTORE = "cache_restore";
+    public static final String PHASE_CSS_LOAD = "css_load";
+    public static final String PHASE_STAGE_SHOW = "stage_show";
+
+    // 启动里程碑名称，全部到达后启动结束
+    public static final String MILESTONE_FIRST_PAINT = "first_paint";
+    public static final String MILESTONE_FIRST_SCAN = "first_scan";
+
+    public static final String PROPERTY_ENABLED = "jdkmanager.startup.profile";
+
+    private static final StartupProfiler INSTANCE = new StartupProfiler(
+        Boolean.getBoolean(PROPERTY_ENABLED), System.nanoTime(), defaultReportFile());
+
+    private static final Phase DISABLED_PHASE = new Phase(null, "", 0, null);
+
+    private final boolean enabled;
+    private final long originNanos;
+    private final Path reportFile;
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    private final Map<String, Long> milestoneNanos = new LinkedHashMap<>();
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private final Set<String> pendingMilestones = new LinkedHashSet<>(
+        Arrays.asList(MILESTONE_FIRST_PAINT, MILESTONE_FIRST_SCAN));
+    private final List<Runnable> completionCallbacks = new ArrayList<>();
+    private boolean complete;
+    private String report;
+
+    /**
+     * 构造函数
+     * @param enabled 是否记录
+     * @param originNanos 启动开始时间（System.nanoTime）
+     * @param reportFile 报告追加写入的文件，为null时只输出到控制台
+     */
+    StartupProfiler(boolean enabled, long originNanos, Path reportFile) {
+        this.enabled = enabled;
+        this.originNanos = originNanos;
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * 获取进程内共享的启动追踪
+     * @return 启动追踪
+     */
+    public static StartupProfiler get() {
+        return INSTANCE;
+    }
+
+    /**
+     * 默认的报告文件
+     * @return 用户目录下的.jdk-manager/startup-profile.log
+     */
+    static Path defaultReportFile() {
+        return Paths.get(System.getProperty("user.home"), ".jdk-manager", "startup-profile.log");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始一个阶段，配合try-with-resources使用，也可以在其他线程中关闭
+     * @param phase 阶段名称
+     * @return 阶段计时器，关闭时记录耗时
+     */
+    public Phase phase(String phase) {
+        if (!enabled) {
+            return DISABLED_PHASE;
+        }
+        StartupPhaseEvent event = new StartupPhaseEvent();
+        event.begin();
+        return new Phase(this, phase, System.nanoTime(), event);
+    }
+
+    /**
+     * 记录一个已经到达的里程碑，全部里程碑到齐时输出报告
+     * @param milestone 里程碑名称
+     */
+    public void mark(String milestone) {
+        long now = System.nanoTime();
+        if (enabled) {
+            StartupPhaseEvent event = new StartupPhaseEvent();
+            event.phase = milestone;
+            event.offsetMillis = (now - originNanos) / 1_000_000.0;
+            event.commit();
+        }
+
+        String finished = null;
+        List<Runnable> callbacks;
+        synchronized (this) {
+            if (milestoneNanos.containsKey(milestone)) {
+                return;
+            }
+            milestoneNanos.put(milestone, now - originNanos);
+            pendingMilestones.remove(milestone);
+            if (!pendingMilestones.isEmpty() || complete) {
+                return;
+            }
+            complete = true;
+            if (enabled) {
+                report = buildReport(now);
+                finished = report;
+            }
+            callbacks = new ArrayList<>(completionCallbacks);
+            completionCallbacks.clear();
+        }
+        if (finished != null) {
+            publish(finished);
+        }
+        callbacks.forEach(Runnable::run);
+    }
+
+    /**
+     * 注册启动结束回调，所有里程碑到齐时在最后一个里程碑的线程中执行，已结束时立即执行
+     * @param callback 回调
+     */
+    public void onComplete(Runnable callback) {
+        synchronized (this) {
+            if (!complete) {
+                completionCallbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * 记录报告中的附加信息，例如JavaFX的加载方式或是否命中清单缓存
+     * @param name 名称
+     * @param value 值
+     */
+    public void attribute(String name, String value) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            attributes.put(name, value);
+        }
+    }
+
+    /**
+     * 获取各阶段耗时快照
+     * @return 阶段名称到纳秒耗时的映射，按首次记录顺序排列
+     */
+    public synchronized Map<String, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(phaseNanos));
+    }
+
+    /**
+     * 获取启动报告
+     * @return 报告行，启动尚未结束时为null
+     */
+    public synchronized String getReport() {
+        return report;
+    }
+
+    private void record(String phase, long startNanos, StartupPhaseEvent event) {
+        long now = System.nanoTime();
+        event.phase = phase;
+        event.offsetMillis = (startNanos - originNanos) / 1_000_000.0;
+        event.end();
+        event.commit();
+        synchronized (this) {
+            phaseNanos.merge(phase, now - startNanos, Long::sum);
+        }
+    }
+
+    private String buildReport(long endNanos) {
+        StringBuilder sb = new StringBuilder("startup-profile");
+        sb.append(" at=").append(Instant.now());
+        sb.append(" java=").append(System.getProperty("java.version"));
+        sb.append(" total_ms=").append(formatMillis(endNanos - originNanos));
+        jvmStartToOrigin().ifPresent(nanos ->
+            sb.append(" jvm_to_main_ms=").append(formatMillis(nanos)));
+        for (Map.Entry<String, Long> entry : phaseNanos.entrySet()) {
+            sb.append(' ').append(entry.getKey()).append("_ms=").append(formatMillis(entry.getValue()));
+        }
+        for (Map.Entry<String, Long> entry : milestoneNanos.entrySet()) {
+            sb.append(' ').append(entry.getKey()).append("_at_ms=")
+                .append(formatMillis(entry.getValue()));
+        }
+        for (Map.Entry<String, String> entry : attributes.entrySet()) {
+            sb.append(' ').append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private Optional<Long> jvmStartToOrigin() {
+        // 进程启动时间只有墙上时钟，换算为距离启动追踪开始的近似耗时
+        return ProcessHandle.current().info().startInstant().map(start -> {
+            long sinceStart = Duration.between(start, Instant.now()).toNanos();
+            return Math.max(0, sinceStart - (System.nanoTime() - originNanos));
+        });
+    }
+
+    private void publish(String line) {
+        System.out.println(line);
+        if (reportFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.write(reportFile, Collections.singletonList(line), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("写入启动记录失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 阶段计时器
+     */
+    public static final class Phase implements AutoCloseable {
+        private final StartupProfiler profiler;
+        private final String name;
+        private final long startNanos;
+        private final StartupPhaseEvent event;
+
+        private Phase(StartupProfiler profiler, String name, long startNanos, StartupPhaseEvent event) {
+            this.profiler = profiler;
+            this.name = name;
+            this.startNanos = startNanos;
+            this.event = event;
+        }
+
+        @Override
+        public void close() {
+            if (profiler != null) {
+                profiler.record(name, startNanos, event);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.jdkmanager.ui;
+
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 支持批量变更的ObservableList
+ * 在{@link #applyBatch(Runnable)}中执行的所有修改合并为一次变更通知，
+ * ListView只需处理一次布局
+ * @param <T> 元素类型
+ */
+public class BatchedObservableList<T> extends ModifiableObservableListBase<T> {
+    private final List<T> delegate = new ArrayList<>();
+
+    /**
+     * 在一次变更通知中执行一组修改
+     * @param modifications 修改操作
+     */
+    public void applyBatch(Runnable modifications) {
+        beginChange();
+        try {
+            modifications.run();
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        return delegate.get(index);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    protected void doAdd(int index, T element) {
+        delegate.add(index, element);
+    }
+
+    @Override
+    protected T doSet(int index, T element) {
+        return delegate.set(index, element);
+    }
+
+    @Override
+    protected T doRemove(int index) {
+        return delegate.remove(index);
+    }
+}
@@ -0,0 +1,144 @@
+package com.jdkmanager.ui;
+
+import com.jdkmanager.concurrent.CancellationToken;
+import com.jdkmanager.concurrent.TaskLane;
+import com.jdkmanager.concurrent.TaskScheduler;
+import com.jdkmanager.scanner.JdkDetails;
+import com.jdkmanager.scanner.JdkDetailsLoader;
+import com.jdkmanager.scanner.JdkInfo;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.GridPane;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * JDK详细信息面板
+ * 跟随列表选择按需加载详细信息；选择变化时取消上一次尚未完成的加载，
+ * 已加载过的安装直接从缓存显示
+ */
+public class JdkDetailPane extends GridPane {
+    private static final String LOADING = "加载中…";
+    private static final String UNKNOWN = "未知";
+
+    private final JdkDetailsLoader loader = new JdkDetailsLoader();
+
+    private final Label vendorValue = new Label();
+    private final Label runtimeValue = new Label();
+    private final Label patchValue = new Label();
+    private final Label sizeValue = new Label();
+    private final Label modulesValue = new Label();
+
+    private CancellationToken currentLoad;
+    private JdkInfo shownJdk;
+
+    /**
+     * 构造函数
+     */
+    public JdkDetailPane() {
+        getStyleClass().add("jdk-detail-pane");
+        setHgap(10);
+        setVgap(4);
+
+        addRow(0, "发行商:", vendorValue);
+        addRow(1, "运行时版本:", runtimeValue);
+        addRow(2, "安全补丁级别:", patchValue);
+        addRow(3, "磁盘占用:", sizeValue);
+        addRow(4, "模块数量:", modulesValue);
+
+        show(null);
+    }
+
+    private void addRow(int row, String title, Label value) {
+        Label titleLabel = new Label(title);
+        titleLabel.getStyleClass().add("jdk-detail-title");
+        value.getStyleClass().add("jdk-detail-value");
+        addRow(row, titleLabel, value);
+    }
+
+    /**
+     * 显示指定JDK的详细信息，必须在JavaFX应用线程中调用
+     * @param jdk 选中的JDK，为null时清空面板
+     */
+    public void show(JdkInfo jdk) {
+        if (currentLoad != null) {
+            currentLoad.cancel();
+            currentLoad = null;
+        }
+        shownJdk = jdk;
+
+        if (jdk == null) {
+            setVisible(false);
+            setManaged(false);
+            return;
+        }
+        setVisible(true);
+        setManaged(true);
+
+        Optional<JdkDetails> cached = loader.getCached(jdk);
+        if (cached.isPresent()) {
+            display(cached.get());
+            return;
+        }
+
+        setAllValues(LOADING);
+        CancellationToken token = new CancellationToken();
+        currentLoad = token;
+        try {
+            TaskScheduler.getDefault().submit(TaskLane.DETAIL, token, () -> {
+                try {
+                    JdkDetails details = loader.load(jdk, token);
+                    Platform.runLater(() -> {
+                        if (!token.isCancelled() && shownJdk == jdk) {
+                            display(details);
+                        }
+                    });
+                    return details;
+                } catch (CancellationException e) {
+                    // 选择已变化，放弃本次加载
+                    return null;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            setAllValues(UNKNOWN);
+        }
+    }
+
+    /**
+     * 清空详细信息缓存，当前显示的内容保留，必须在JavaFX应用线程中调用
+     */
+    public void releaseCache() {
+        loader.invalidateAll();
+    }
+
+    private void display(JdkDetails details) {
+        vendorValue.setText(details.getVendor().orElse(UNKNOWN));
+        runtimeValue.setText(details.getRuntimeVersion().orElse(UNKNOWN));
+        patchValue.setText(details.getSecurityPatchLevel() >= 0
+            ? String.valueOf(details.getSecurityPatchLevel()) : UNKNOWN);
+        sizeValue.setText(details.getDiskSizeBytes() >= 0 ? formatSize(details.getDiskSizeBytes()) : UNKNOWN);
+        modulesValue.setText(details.getModules().isEmpty() ? UNKNOWN : String.valueOf(details.getModules().size()));
+        modulesValue.setTooltip(details.getModules().isEmpty() ? null
+            : new Tooltip(String.join("\n", details.getModules())));
+    }
+
+    private void setAllValues(String text) {
+        vendorValue.setText(text);
+        runtimeValue.setText(text);
+        patchValue.setText(text);
+        sizeValue.setText(text);
+        modulesValue.setText(text);
+        modulesValue.setTooltip(null);
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
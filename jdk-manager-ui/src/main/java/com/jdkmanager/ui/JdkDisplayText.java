@@ -0,0 +1,86 @@
+package com.jdkmanager.ui;
+
+import com.jdkmanager.scanner.JdkInfo;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * JDK列表项的显示文本
+ * 每个JdkInfo对象只计算一次显示字符串，单元格滚动复用时直接读取缓存，
+ * 工具提示文本在第一次显示时才生成
+ * 仅在JavaFX应用线程中使用
+ */
+public final class JdkDisplayText {
+    // JdkInfo按路径判等，缓存命中后还需校验是否为同一对象。
+    // 值只弱引用来源对象，否则键永远可达，重新扫描后旧条目无法回收
+    private static final Map<JdkInfo, JdkDisplayText> CACHE = new WeakHashMap<>();
+
+    private final WeakReference<JdkInfo> source;
+    private final String version;
+    private final boolean current;
+    private final String title;
+    private final String path;
+    private final String architecture;
+    private String tooltipText;
+
+    private JdkDisplayText(JdkInfo source) {
+        this.source = new WeakReference<>(source);
+        this.version = source.getVersion();
+        this.current = source.isCurrent();
+        this.title = source.isCurrent() ? source.getVersion() + " (当前)" : source.getVersion();
+        this.path = source.getPath().toString();
+        this.architecture = source.is64Bit() ? "64位" : "32位";
+    }
+
+    /**
+     * 获取JDK的显示文本
+     * @param jdkInfo JDK信息
+     * @return 显示文本，同一对象多次调用返回同一实例
+     */
+    public static JdkDisplayText of(JdkInfo jdkInfo) {
+        JdkDisplayText cached = CACHE.get(jdkInfo);
+        if (cached != null && cached.source.get() == jdkInfo) {
+            return cached;
+        }
+        JdkDisplayText created = new JdkDisplayText(jdkInfo);
+        // 先删除再放入，让键换成新对象；直接put会保留路径相同的旧对象作为键
+        CACHE.remove(jdkInfo);
+        CACHE.put(jdkInfo, created);
+        return created;
+    }
+
+    /**
+     * 清空显示文本缓存，窗口隐藏时释放内存
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getArchitecture() {
+        return architecture;
+    }
+
+    /**
+     * 获取工具提示文本，第一次调用时生成
+     * @return 工具提示文本
+     */
+    public String getTooltipText() {
+        if (tooltipText == null) {
+            tooltipText = "版本: " + version + "\n"
+                + "路径: " + path + "\n"
+                + "架构: " + architecture + "\n"
+                + (current ? "状态: 当前使用的JDK" : "状态: 可切换到此版本");
+        }
+        return tooltipText;
+    }
+}
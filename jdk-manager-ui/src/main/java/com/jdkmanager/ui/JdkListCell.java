@@ -0,0 +1,89 @@
+package com.jdkmanager.ui;
+
+import com.jdkmanager.scanner.JdkInfo;
+import javafx.css.PseudoClass;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Circle;
+
+/**
+ * JDK列表项自定义组件
+ * 负责在ListView中显示JDK信息的自定义单元格
+ * 当前状态和架构通过伪类切换，样式定义在css/styles.css中
+ */
+public class JdkListCell extends ListCell<JdkInfo> {
+    private static final PseudoClass CURRENT = PseudoClass.getPseudoClass("current");
+    private static final PseudoClass X64 = PseudoClass.getPseudoClass("x64");
+
+    private final HBox content;
+    private final Label versionLabel;
+    private final Label pathLabel;
+    private final Label archLabel;
+    private final Circle statusIndicator;
+    // 每个单元格复用一个工具提示，文本在显示前才设置
+    private final Tooltip tooltip;
+
+    /**
+     * 构造函数
+     */
+    public JdkListCell() {
+        super();
+        getStyleClass().add("jdk-list-cell");
+
+        // 状态指示器
+        statusIndicator = new Circle(6);
+        statusIndicator.getStyleClass().add("jdk-status-indicator");
+
+        // 文本内容
+        versionLabel = new Label();
+        versionLabel.getStyleClass().add("jdk-version-label");
+
+        pathLabel = new Label();
+        pathLabel.getStyleClass().add("jdk-path-label");
+
+        archLabel = new Label();
+        archLabel.getStyleClass().add("jdk-arch-label");
+
+        // 布局
+        VBox textBox = new VBox(2, versionLabel, pathLabel, archLabel);
+        content = new HBox(10, statusIndicator, textBox);
+        content.setAlignment(Pos.CENTER_LEFT);
+
+        tooltip = new Tooltip();
+        tooltip.setOnShowing(event -> {
+            JdkInfo item = getItem();
+            if (item != null) {
+                tooltip.setText(JdkDisplayText.of(item).getTooltipText());
+            }
+        });
+    }
+
+    @Override
+    protected void updateItem(JdkInfo jdkInfo, boolean empty) {
+        super.updateItem(jdkInfo, empty);
+
+        if (empty || jdkInfo == null) {
+            setGraphic(null);
+            setTooltip(null);
+            pseudoClassStateChanged(CURRENT, false);
+            pseudoClassStateChanged(X64, false);
+        } else {
+            JdkDisplayText text = JdkDisplayText.of(jdkInfo);
+            versionLabel.setText(text.getTitle());
+            pathLabel.setText(text.getPath());
+            archLabel.setText(text.getArchitecture());
+
+            pseudoClassStateChanged(CURRENT, jdkInfo.isCurrent());
+            pseudoClassStateChanged(X64, jdkInfo.is64Bit());
+
+            if (getTooltip() != tooltip) {
+                setTooltip(tooltip);
+            }
+            setGraphic(content);
+        }
+    }
+}
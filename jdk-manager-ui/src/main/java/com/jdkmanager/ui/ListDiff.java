@@ -0,0 +1,157 @@
+package com.jdkmanager.ui;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 基于键的列表差异更新
+ * 比较新旧列表，只对新增、删除、移动和内容变化的元素执行最少的修改，
+ * 并合并为一次变更通知
+ */
+public final class ListDiff {
+
+    private ListDiff() {
+    }
+
+    /**
+     * 将目标列表更新为新列表的内容
+     * 键相同且为同一对象的元素保持不动；键相同但对象不同的元素原位替换
+     * 原有元素中按新顺序排列的最长递增子序列保持不动，其余保留的元素移动到新位置
+     * @param target 目标列表
+     * @param next 新列表
+     * @param keyFunction 元素键函数，键在列表中必须唯一
+     * @return 差异统计
+     */
+    public static <T, K> Result apply(BatchedObservableList<T> target, List<T> next, Function<T, K> keyFunction) {
+        // 目标列表的键和下标只建立一次，后续按键直接查找
+        Map<K, Integer> targetIndex = new HashMap<>();
+        for (int i = 0; i < target.size(); i++) {
+            targetIndex.put(keyFunction.apply(target.get(i)), i);
+        }
+
+        int[] oldIndices = new int[next.size()];
+        int retained = 0;
+        for (T item : next) {
+            Integer old = targetIndex.get(keyFunction.apply(item));
+            if (old != null) {
+                oldIndices[retained++] = old;
+            }
+        }
+        boolean[] stable = stablePositions(oldIndices, retained, target.size());
+
+        int[] counts = new int[4];
+        counts[Result.REMOVED] = target.size() - retained;
+        target.applyBatch(() -> {
+            // 删除新列表中不存在的元素，需要移动的元素也先取出，剩余元素已是新列表中的相对顺序
+            for (int i = target.size() - 1; i >= 0; i--) {
+                if (!stable[i]) {
+                    target.remove(i);
+                }
+            }
+
+            // 按新列表顺序逐个对齐，移动和新增的元素插入到当前位置
+            for (int i = 0; i < next.size(); i++) {
+                T item = next.get(i);
+                Integer old = targetIndex.get(keyFunction.apply(item));
+
+                if (old != null && stable[old]) {
+                    if (target.get(i) != item) {
+                        target.set(i, item);
+                        counts[Result.CHANGED]++;
+                    }
+                } else {
+                    target.add(i, item);
+                    counts[old != null ? Result.MOVED : Result.ADDED]++;
+                }
+            }
+        });
+
+        return new Result(counts);
+    }
+
+    /**
+     * 标记保持不动的原有元素
+     * 按新列表顺序排列的原下标中取最长递增子序列，这些元素相对顺序不变，移动次数最少
+     * @param oldIndices 保留元素按新列表顺序排列的原下标
+     * @param count oldIndices中的有效个数
+     * @param size 目标列表长度
+     * @return 按原下标标记元素是否保持不动
+     */
+    private static boolean[] stablePositions(int[] oldIndices, int count, int size) {
+        // tails[k]为长度k+1的递增子序列末尾元素在oldIndices中的位置
+        int[] tails = new int[count];
+        int[] previous = new int[count];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (oldIndices[tails[mid]] < oldIndices[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        boolean[] stable = new boolean[size];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            stable[oldIndices[i]] = true;
+        }
+        return stable;
+    }
+
+    /**
+     * 差异统计
+     */
+    public static final class Result {
+        private static final int ADDED = 0;
+        private static final int REMOVED = 1;
+        private static final int MOVED = 2;
+        private static final int CHANGED = 3;
+
+        private final int[] counts;
+
+        private Result(int[] counts) {
+            this.counts = counts;
+        }
+
+        public int getAdded() {
+            return counts[ADDED];
+        }
+
+        public int getRemoved() {
+            return counts[REMOVED];
+        }
+
+        public int getMoved() {
+            return counts[MOVED];
+        }
+
+        public int getChanged() {
+            return counts[CHANGED];
+        }
+
+        /**
+         * 检查是否没有任何变化
+         * @return 如果新旧列表完全一致返回true
+         */
+        public boolean isEmpty() {
+            return getAdded() + getRemoved() + getMoved() + getChanged() == 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("新增=%d, 删除=%d, 移动=%d, 变化=%d",
+                    getAdded(), getRemoved(), getMoved(), getChanged());
+        }
+    }
+}
@@ -0,0 +1,1002 @@
+package com.jdkmanager.ui;
+
+import com.jdkmanager.StartupProfiler;
+import com.jdkmanager.concurrent.RefreshCoordinator;
+import com.jdkmanager.concurrent.TaskLane;
+import com.jdkmanager.concurrent.TaskScheduler;
+import com.jdkmanager.config.AppConfig;
+import com.jdkmanager.env.EnvironmentManager;
+import com.jdkmanager.env.EnvVariableScope;
+import com.jdkmanager.env.SwitchJournal;
+import com.jdkmanager.env.SwitchProfile;
+import com.jdkmanager.env.SwitchQueue;
+import com.jdkmanager.env.SwitchVerifier;
+import com.jdkmanager.exception.EnvironmentVariableException;
+import com.jdkmanager.exception.InsufficientPrivilegeException;
+import com.jdkmanager.metrics.SwitchMetrics;
+import com.jdkmanager.metrics.SwitchTrace;
+import com.jdkmanager.scanner.DefaultJdkScanner;
+import com.jdkmanager.scanner.InventoryCache;
+import com.jdkmanager.scanner.InventorySnapshot;
+import com.jdkmanager.scanner.InventoryStore;
+import com.jdkmanager.scanner.InventoryWatcher;
+import com.jdkmanager.scanner.JdkInfo;
+import com.jdkmanager.scanner.JdkScanner;
+import com.jdkmanager.scanner.JdkSearchIndex;
+import com.jdkmanager.scanner.ScanListener;
+import javafx.application.Platform;
+import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 主窗口控制器
+ * 负责处理用户界面的交互逻辑
+ */
+public class MainController {
+    
+    // 刷新请求的去抖窗口
+    private static final long REFRESH_DEBOUNCE_MILLIS = 100;
+    // JDK目录变化停止这段时间后重新扫描
+    private static final Duration INVENTORY_WATCH_DEBOUNCE = Duration.ofSeconds(2);
+    
+    // UI组件
+    @FXML private TextField searchField;
+    @FXML private ListView<JdkInfo> jdkListView;
+    @FXML private JdkDetailPane jdkDetailPane;
+    @FXML private Label currentJdkLabel;
+    @FXML private Button refreshButton;
+    @FXML private Button addPathButton;
+    @FXML private Button switchButton;
+    @FXML private Button undoButton;
+    @FXML private CheckBox userScopeCheck;
+    @FXML private CheckBox systemScopeCheck;
+    @FXML private Label permissionWarning;
+    @FXML private ChoiceBox<SwitchProfile> profileChoice;
+    
+    // 业务组件
+    private JdkScanner jdkScanner;
+    private EnvironmentManager environmentManager;
+    private SwitchVerifier switchVerifier;
+    private SwitchQueue switchQueue;
+    private AppConfig appConfig;
+    private Stage primaryStage;
+    private final SwitchMetrics switchMetrics = new SwitchMetrics();
+    private final TaskScheduler taskScheduler = TaskScheduler.getDefault();
+    
+    // 状态变量
+    private RefreshCoordinator<InventorySnapshot> refreshCoordinator;
+    private final InventoryStore inventoryStore = new InventoryStore();
+    private final InventoryCache inventoryCache = new InventoryCache();
+    private final BatchedObservableList<JdkInfo> jdkItems = new BatchedObservableList<>();
+    private final FilteredList<JdkInfo> filteredJdkItems = new FilteredList<>(jdkItems);
+    private final JdkSearchIndex searchIndex = new JdkSearchIndex();
+    private final UiUpdatePump<JdkInfo> scanResultPump = new UiUpdatePump<>(this::appendScannedJdks);
+    private InventorySnapshot lastAppliedSnapshot;
+    private int outstandingRefreshes = 0;
+    private int outstandingSwitches = 0;
+    
+    // 托盘模式
+    private final List<Consumer<InventorySnapshot>> inventoryListeners = new ArrayList<>();
+    private BackgroundNotifier backgroundNotifier;
+    private InventoryWatcher inventoryWatcher;
+    
+    /**
+     * 初始化方法
+     */
+    @FXML
+    public void initialize() {
+        try (StartupProfiler.Phase phase = StartupProfiler.get().phase(StartupProfiler.PHASE_CONTROLLER_INIT)) {
+            initializeComponents();
+        }
+        
+        // 先显示上次保存的清单，再在后台扫描重新验证
+        try (StartupProfiler.Phase phase = StartupProfiler.get().phase(StartupProfiler.PHASE_CACHE_RESTORE)) {
+            showCachedInventory();
+        }
+        refreshJdkListAsync();
+        recoverIncompleteSwitchAsync();
+    }
+    
+    /**
+     * 初始化业务组件、列表和监听器
+     */
+    private void initializeComponents() {
+        // 初始化业务组件
+        jdkScanner = new DefaultJdkScanner();
+        environmentManager = new EnvironmentManager();
+        switchVerifier = new SwitchVerifier(environmentManager);
+        // 切换和撤销串行执行，连续点击时尚未开始的切换被最新的请求取代
+        switchQueue = new SwitchQueue(environmentManager, taskScheduler.executor(TaskLane.INTERACTIVE));
+        appConfig = new AppConfig();
+        refreshCoordinator = new RefreshCoordinator<>(this::scanInstalledJdks,
+            taskScheduler.executor(TaskLane.BACKGROUND), REFRESH_DEBOUNCE_MILLIS);
+        
+        // 初始化扫描器的自定义路径
+        List<Path> customPaths = appConfig.loadCustomPaths();
+        if (jdkScanner instanceof DefaultJdkScanner) {
+            ((DefaultJdkScanner) jdkScanner).initializeCustomPaths(customPaths);
+        }
+        
+        // 列表内容通过差异更新，避免每次刷新重建所有单元格；显示经过搜索过滤的视图
+        jdkListView.setItems(filteredJdkItems);
+        
+        // 搜索框每次输入都从索引计算过滤结果
+        searchField.textProperty().addListener(
+            (observable, oldValue, newValue) -> applySearchFilter());
+        
+        // 设置列表单元格工厂
+        jdkListView.setCellFactory(listView -> new JdkListCell());
+        
+        // 设置列表选择监听器
+        jdkListView.getSelectionModel().selectedItemProperty().addListener(
+            (observable, oldValue, newValue) -> onJdkSelected(newValue));
+        
+        // 详细信息按需加载，选择变化时取消上一次加载
+        jdkListView.getSelectionModel().selectedItemProperty().addListener(
+            (observable, oldValue, newValue) -> jdkDetailPane.show(newValue));
+        
+        // 设置复选框监听器
+        userScopeCheck.selectedProperty().addListener(
+            (observable, oldValue, newValue) -> onScopeChanged());
+        
+        systemScopeCheck.selectedProperty().addListener(
+            (observable, oldValue, newValue) -> onScopeChanged());
+        
+        // 加载配置
+        loadConfiguration();
+    }
+    
+    /**
+     * 显示磁盘缓存中的清单，标记为待验证
+     */
+    private void showCachedInventory() {
+        long start = System.nanoTime();
+        Optional<InventorySnapshot> loaded = inventoryCache.load();
+        StartupProfiler.get().attribute("inventory_cache", loaded.isPresent() ? "hit" : "miss");
+        loaded.ifPresent(cached -> {
+            inventoryStore.publish(cached);
+            applySnapshot(cached);
+            System.out.println("从缓存恢复JDK清单: " + cached.getInstallations().size() + "个JDK，耗时"
+                + (System.nanoTime() - start) / 1000 + "μs");
+        });
+    }
+    
+    /**
+     * 设置主窗口
+     * @param primaryStage 主窗口
+     */
+    public void setPrimaryStage(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+        
+        // 设置窗口大小和位置
+        if (appConfig.hasConfiguration()) {
+            double width = appConfig.loadWindowWidth();
+            double height = appConfig.loadWindowHeight();
+            double x = appConfig.loadWindowX();
+            double y = appConfig.loadWindowY();
+            
+            primaryStage.setWidth(width);
+            primaryStage.setHeight(height);
+            
+            if (x >= 0 && y >= 0) {
+                primaryStage.setX(x);
+                primaryStage.setY(y);
+            }
+        }
+        
+        // 窗口关闭时保存配置
+        primaryStage.setOnHidden(event -> saveConfiguration());
+    }
+    
+    /**
+     * 刷新JDK列表
+     */
+    @FXML
+    private void refreshJdkList() {
+        refreshJdkListAsync();
+    }
+    
+    /**
+     * 异步刷新JDK列表
+     */
+    private void refreshJdkListAsync() {
+        refreshJdkListAsync(SwitchTrace.disabled());
+    }
+    
+    /**
+     * 异步刷新JDK列表，刷新完成后结束切换耗时追踪
+     * 并发的刷新请求由刷新合并器合并，每个请求都会得到在其之后开始的扫描结果
+     * @param trace 触发本次刷新的切换追踪
+     */
+    private void refreshJdkListAsync(SwitchTrace trace) {
+        outstandingRefreshes++;
+        refreshButton.setDisable(true);
+        refreshButton.setText("刷新中...");
+        
+        long rescanStart = System.nanoTime();
+        refreshCoordinator.requestRefresh().whenComplete((snapshot, exception) -> Platform.runLater(() -> {
+            trace.record(SwitchTrace.STAGE_RESCAN, rescanStart);
+            outstandingRefreshes--;
+            if (outstandingRefreshes == 0) {
+                refreshButton.setDisable(false);
+                refreshButton.setText("刷新");
+            }
+            
+            if (exception != null) {
+                finishSwitchTrace(trace, false);
+                StartupProfiler.get().attribute("first_scan", "failed");
+                StartupProfiler.get().mark(StartupProfiler.MILESTONE_FIRST_SCAN);
+                Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                    ? exception.getCause() : exception;
+                showError("刷新失败", "扫描JDK时发生错误: " + cause.getMessage());
+                return;
+            }
+            
+            long uiUpdateStart = System.nanoTime();
+            // 合并后的多个请求共享同一个结果，只需应用一次；
+            // 扫描期间流式加入的条目在这里与最终结果对齐
+            if (snapshot != lastAppliedSnapshot) {
+                applySnapshot(snapshot);
+            }
+            trace.record(SwitchTrace.STAGE_UI_UPDATE, uiUpdateStart);
+            finishSwitchTrace(trace, true);
+            StartupProfiler.get().mark(StartupProfiler.MILESTONE_FIRST_SCAN);
+        }));
+    }
+    
+    /**
+     * 扫描已安装的JDK并发布新的清单快照，在后台线程中执行
+     * @return 发布后的快照
+     */
+    private InventorySnapshot scanInstalledJdks() {
+        // 加载自定义路径并初始化扫描器
+        List<Path> customPaths = appConfig.loadCustomPaths();
+        if (jdkScanner instanceof DefaultJdkScanner) {
+            ((DefaultJdkScanner) jdkScanner).initializeCustomPaths(customPaths);
+        } else {
+            // 兼容性处理
+            for (Path customPath : customPaths) {
+                jdkScanner.addCustomPath(customPath);
+            }
+        }
+        
+        // 扫描JDK，发现的JDK经更新泵批量显示；最终结果与上一份快照合并以复用未变化的条目
+        InventorySnapshot scanned = jdkScanner.scanInventory(new ScanListener() {
+            @Override
+            public void onJdkFound(JdkInfo jdk) {
+                scanResultPump.submit(jdk);
+            }
+            
+            @Override
+            public void onCurrentJdkResolved(JdkInfo jdk) {
+                Instant resolvedAt = Instant.now();
+                Platform.runLater(() -> showResolvedCurrentJdk(jdk, resolvedAt));
+            }
+        });
+        InventorySnapshot published = inventoryStore.update(previous -> previous.reconcile(scanned));
+        saveInventoryCache(published);
+        return published;
+    }
+    
+    /**
+     * 显示快速路径解析到的当前JDK，完整扫描结果到达后会再次确认
+     * @param jdk 根据JAVA_HOME解析到的当前JDK
+     * @param resolvedAt 解析完成时间
+     */
+    private void showResolvedCurrentJdk(JdkInfo jdk, Instant resolvedAt) {
+        InventorySnapshot snapshot = inventoryStore.get();
+        if (!snapshot.isStale() && snapshot.getScanTimestamp().isAfter(resolvedAt)) {
+            // 完整扫描的结果已经先一步显示
+            return;
+        }
+        
+        if (snapshot.find(jdk.getPath()).isPresent()) {
+            InventorySnapshot marked = inventoryStore.update(previous -> previous.withCurrent(jdk.getPath()));
+            lastAppliedSnapshot = marked;
+            updateJdkList(marked.getInstallations());
+        }
+        currentJdkLabel.setText("当前JDK: " + jdk.getVersion() + "（验证中…）");
+        System.out.println("快速路径 - 当前JDK: " + jdk.getVersion() + " at " + jdk.getPath());
+    }
+    
+    /**
+     * 保存清单缓存，供下次启动时立即显示
+     * @param snapshot 清单快照
+     */
+    private void saveInventoryCache(InventorySnapshot snapshot) {
+        try {
+            inventoryCache.save(snapshot);
+        } catch (IOException e) {
+            System.err.println("保存清单缓存失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 添加自定义路径
+     */
+    @FXML
+    private void addCustomPath() {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("选择JDK安装目录");
+        
+        // 设置初始目录
+        File initialDir = new File("C:\\");
+        if (initialDir.exists()) {
+            directoryChooser.setInitialDirectory(initialDir);
+        }
+        
+        File selectedDirectory = directoryChooser.showDialog(primaryStage);
+        if (selectedDirectory != null) {
+            Path selectedPath = selectedDirectory.toPath();
+            
+            // 验证是否为有效JDK
+            if (!jdkScanner.validateJdk(selectedPath)) {
+                showWarning("无效路径", "选择的目录不是有效的JDK安装目录");
+                return;
+            }
+            
+            // 添加到扫描器
+            if (jdkScanner.addCustomPath(selectedPath)) {
+                // 保存配置
+                List<Path> customPaths = appConfig.loadCustomPaths();
+                customPaths.add(selectedPath);
+                appConfig.saveCustomPaths(customPaths);
+                
+                // 刷新列表
+                refreshJdkListAsync();
+                
+                showInfo("添加成功", "已添加自定义路径: " + selectedPath);
+            } else {
+                showWarning("添加失败", "该路径已经存在于扫描列表中");
+            }
+        }
+    }
+    
+    /**
+     * 切换JDK
+     */
+    @FXML
+    private void switchJdk() {
+        JdkInfo selectedJdk = jdkListView.getSelectionModel().getSelectedItem();
+        if (selectedJdk == null) {
+            return;
+        }
+        long clickTime = System.nanoTime();
+        
+        // 如果已经是当前JDK，不需要切换
+        if (selectedJdk.isCurrent()) {
+            showInfo("无需切换", "当前已经是此JDK版本");
+            return;
+        }
+        
+        // 获取选择的作用域
+        List<EnvVariableScope> selectedScopes = getSelectedScopes();
+        if (selectedScopes.isEmpty()) {
+            showError("选择错误", "请至少选择一个环境变量作用域");
+            return;
+        }
+        
+        // 确认对话框
+        Alert confirmDialog = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmDialog.setTitle("确认切换");
+        confirmDialog.setHeaderText("切换JDK版本");
+        
+        StringBuilder scopeText = new StringBuilder();
+        for (EnvVariableScope scope : selectedScopes) {
+            if (scopeText.length() > 0) {
+                scopeText.append(", ");
+            }
+            scopeText.append(scope.getDisplayName());
+        }
+        
+        confirmDialog.setContentText(String.format(
+            "确定要将默认JDK切换到 %s 吗？\n\n路径: %s\n作用域: %s\n切换配置: %s",
+            selectedJdk.getVersion(),
+            selectedJdk.getPath(),
+            scopeText.toString(),
+            currentProfile().getName()
+        ));
+        
+        Optional<ButtonType> result = confirmDialog.showAndWait();
+        // 对话框关闭后才开始计时，用户阅读对话框的时间单独记录，不计入总耗时
+        SwitchTrace trace = new SwitchTrace(selectedJdk.getPath().toString(), scopeText.toString());
+        trace.record(SwitchTrace.STAGE_CONFIRM, clickTime);
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            switchJdkAsync(selectedJdk, selectedScopes, trace);
+        }
+    }
+    
+    /**
+     * 异步切换JDK
+     * @param jdkInfo 要切换到的JDK
+     * @param scopes 作用域列表
+     * @param trace 切换耗时追踪
+     */
+    private void switchJdkAsync(JdkInfo jdkInfo, List<EnvVariableScope> scopes, SwitchTrace trace) {
+        outstandingSwitches++;
+        switchButton.setText("切换中...");
+        
+        switchQueue.submit(jdkInfo.getPath(), currentProfile(), scopes, trace)
+            .whenComplete((outcome, exception) -> Platform.runLater(() -> {
+                outstandingSwitches--;
+                if (outstandingSwitches == 0) {
+                    onJdkSelected(jdkListView.getSelectionModel().getSelectedItem());
+                }
+                
+                if (exception != null) {
+                    finishSwitchTrace(trace, false);
+                    Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                        ? exception.getCause() : exception;
+                    if (cause instanceof InsufficientPrivilegeException) {
+                        showError("权限不足", cause.getMessage() + "\n\n请以管理员身份运行程序或选择用户级环境变量。");
+                    } else {
+                        showError("切换失败", "切换JDK时发生错误: " + cause.getMessage());
+                    }
+                    return;
+                }
+                if (outcome.isSuperseded()) {
+                    // 被之后的切换取代，没有写入注册表，也不计入切换耗时
+                    return;
+                }
+                
+                undoButton.setDisable(false);
+                showInfo("切换成功", "JDK版本已成功切换到 " + jdkInfo.getVersion());
+                // 验证环境变量已生效并更新列表中的当前JDK
+                verifySwitchAsync(jdkInfo, outcome.getAppliedScopes(), trace);
+            }));
+    }
+    
+    /**
+     * 撤销上次切换，按切换日志一次性恢复所有作用域
+     */
+    @FXML
+    public void undoLastSwitch() {
+        undoButton.setDisable(true);
+        // 排在已提交的切换之后执行，撤销的是它们中最后完成的一次
+        switchQueue.submitTask(() -> new JournalResult(environmentManager.undoLastSwitch(),
+                environmentManager.canUndoLastSwitch()))
+            .whenComplete((result, exception) -> Platform.runLater(() -> {
+                if (exception != null) {
+                    undoButton.setDisable(false);
+                    Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                        ? exception.getCause() : exception;
+                    if (cause instanceof InsufficientPrivilegeException) {
+                        showError("权限不足", cause.getMessage() + "\n\n请以管理员身份运行程序后再撤销。");
+                    } else {
+                        showError("撤销失败", "撤销切换时发生错误: " + cause.getMessage());
+                    }
+                    return;
+                }
+                undoButton.setDisable(!result.canUndo);
+                if (result.entry.isPresent()) {
+                    showInfo("撤销成功", "已恢复切换到 " + result.entry.get().getTarget() + " 之前的环境变量");
+                    refreshJdkListAsync();
+                } else {
+                    showInfo("无法撤销", "没有可以撤销的切换");
+                }
+            }));
+    }
+    
+    /**
+     * 回滚上次进程中途退出时未完成的切换，并更新撤销按钮状态
+     */
+    private void recoverIncompleteSwitchAsync() {
+        switchQueue.submitTask(() -> new JournalResult(environmentManager.recoverIncompleteSwitch(),
+                environmentManager.canUndoLastSwitch()))
+            .whenComplete((result, exception) -> Platform.runLater(() -> {
+                if (exception != null) {
+                    undoButton.setDisable(true);
+                    System.err.println("恢复未完成的切换失败: " + exception.getMessage());
+                    return;
+                }
+                undoButton.setDisable(!result.canUndo);
+                if (result.entry.isPresent()) {
+                    showWarning("已恢复环境变量", "上次切换到 " + result.entry.get().getTarget() + " 时程序意外退出，已恢复为切换前的值");
+                    refreshJdkListAsync();
+                }
+            }));
+    }
+    
+    /**
+     * JDK选择事件处理
+     * @param selectedJdk 选中的JDK
+     */
+    private void onJdkSelected(JdkInfo selectedJdk) {
+        boolean enabled = selectedJdk != null && !selectedJdk.isCurrent();
+        switchButton.setDisable(!enabled);
+        
+        if (selectedJdk != null) {
+            switchButton.setText(selectedJdk.isCurrent() ? "当前JDK" : "切换到此JDK");
+        } else {
+            switchButton.setText("切换到此JDK");
+        }
+    }
+    
+    /**
+     * 作用域改变事件处理
+     */
+    private void onScopeChanged() {
+        boolean userSelected = userScopeCheck.isSelected();
+        boolean systemSelected = systemScopeCheck.isSelected();
+        
+        System.out.println("作用域变更 - 用户级: " + userSelected + ", 系统级: " + systemSelected);
+        
+        if (systemSelected) {
+            // 检查管理员权限
+            if (!environmentManager.hasAdminRights()) {
+                permissionWarning.setVisible(true);
+                switchButton.setDisable(true);
+                System.out.println("系统级被选中但缺少管理员权限");
+            } else {
+                permissionWarning.setVisible(false);
+                // 重新检查按钮状态
+                JdkInfo selectedJdk = jdkListView.getSelectionModel().getSelectedItem();
+                onJdkSelected(selectedJdk);
+                System.out.println("系统级被选中且有管理员权限");
+            }
+        } else {
+            permissionWarning.setVisible(false);
+            // 重新检查按钮状态
+            JdkInfo selectedJdk = jdkListView.getSelectionModel().getSelectedItem();
+            onJdkSelected(selectedJdk);
+            System.out.println("系统级未选中");
+        }
+    }
+    
+    /**
+     * 获取选择的切换配置
+     * @return 切换配置，未选择时返回默认配置
+     */
+    private SwitchProfile currentProfile() {
+        SwitchProfile profile = profileChoice.getValue();
+        return profile != null ? profile : SwitchProfile.defaultProfile();
+    }
+    
+    /**
+     * 获取选择的作用域列表
+     * @return 选择的作用域列表
+     */
+    private List<EnvVariableScope> getSelectedScopes() {
+        List<EnvVariableScope> scopes = new ArrayList<>();
+        if (userScopeCheck.isSelected()) {
+            scopes.add(EnvVariableScope.USER);
+        }
+        if (systemScopeCheck.isSelected()) {
+            scopes.add(EnvVariableScope.SYSTEM);
+        }
+        
+        System.out.println("选中的作用域: " + scopes.stream()
+            .map(EnvVariableScope::getDisplayName)
+            .collect(java.util.stream.Collectors.joining(", ")));
+        
+        return scopes;
+    }
+    
+    /**
+     * 将扫描过程中发现的JDK追加到列表，由更新泵在JavaFX线程中批量调用
+     * @param found 自上次处理以来发现的JDK
+     */
+    private void appendScannedJdks(List<JdkInfo> found) {
+        Set<Path> keys = new HashSet<>();
+        for (JdkInfo jdk : jdkItems) {
+            keys.add(listKey(jdk));
+        }
+        List<JdkInfo> added = new ArrayList<>();
+        for (JdkInfo jdk : found) {
+            if (keys.add(listKey(jdk))) {
+                searchIndex.add(jdk);
+                added.add(jdk);
+            }
+        }
+        // 先更新索引和过滤条件，新条目加入列表时才能被正确过滤
+        applySearchFilter();
+        jdkItems.applyBatch(() -> jdkItems.addAll(added));
+    }
+    
+    /**
+     * 根据搜索框内容更新列表过滤条件，必须在JavaFX应用线程中调用
+     */
+    private void applySearchFilter() {
+        String query = searchField.getText();
+        if (query == null || query.trim().isEmpty()) {
+            if (filteredJdkItems.getPredicate() != null) {
+                filteredJdkItems.setPredicate(null);
+            }
+            return;
+        }
+        filteredJdkItems.setPredicate(searchIndex.matcher(query));
+    }
+    
+    /**
+     * 更新JDK列表，必须在JavaFX应用线程中调用
+     * 按路径对比新旧列表，只应用实际发生的变化，保留选中项和滚动位置
+     * @param jdks JDK列表
+     */
+    private void updateJdkList(List<JdkInfo> jdks) {
+        MultipleSelectionModel<JdkInfo> selectionModel = jdkListView.getSelectionModel();
+        JdkInfo selected = selectionModel.getSelectedItem();
+        
+        searchIndex.update(jdks);
+        applySearchFilter();
+        ListDiff.Result diff = ListDiff.apply(jdkItems, jdks, MainController::listKey);
+        if (!diff.isEmpty()) {
+            System.out.println("JDK列表更新: " + diff);
+        }
+        
+        if (selected != null) {
+            // 按路径恢复选中项，条目被替换为新对象时也能保持选中
+            Path selectedKey = listKey(selected);
+            jdkItems.stream()
+                .filter(jdk -> listKey(jdk).equals(selectedKey))
+                .findFirst()
+                .ifPresentOrElse(jdk -> {
+                    if (selectionModel.getSelectedItem() != jdk) {
+                        selectionModel.select(jdk);
+                    }
+                }, () -> selectCurrentJdk(jdks));
+        } else {
+            // 没有选中项时选中当前JDK
+            selectCurrentJdk(jdks);
+        }
+        
+        // JdkInfo按路径判等，替换同一路径的条目不会触发选择监听器，需要手动刷新按钮状态
+        onJdkSelected(selectionModel.getSelectedItem());
+    }
+    
+    private void selectCurrentJdk(List<JdkInfo> jdks) {
+        jdks.stream()
+            .filter(JdkInfo::isCurrent)
+            .findFirst()
+            .ifPresent(currentJdk -> 
+                jdkListView.getSelectionModel().select(currentJdk));
+    }
+    
+    private static Path listKey(JdkInfo jdk) {
+        return jdk.getPath().toAbsolutePath().normalize();
+    }
+    
+    /**
+     * 把清单快照应用到列表和当前JDK标签，并通知清单监听器，必须在JavaFX应用线程中调用
+     * @param snapshot JDK清单快照
+     */
+    private void applySnapshot(InventorySnapshot snapshot) {
+        lastAppliedSnapshot = snapshot;
+        updateJdkList(snapshot.getInstallations());
+        updateCurrentJdkLabel(snapshot);
+        for (Consumer<InventorySnapshot> listener : inventoryListeners) {
+            listener.accept(snapshot);
+        }
+    }
+    
+    /**
+     * 更新当前JDK标签，必须在JavaFX应用线程中调用
+     * @param snapshot JDK清单快照
+     */
+    private void updateCurrentJdkLabel(InventorySnapshot snapshot) {
+        Optional<JdkInfo> currentJdk = snapshot.getCurrent();
+        
+        if (currentJdk.isPresent()) {
+            String version = currentJdk.get().getVersion();
+            String path = currentJdk.get().getPath().toString();
+            // 缓存中的清单在后台验证完成前标注出来
+            currentJdkLabel.setText("当前JDK: " + version + (snapshot.isStale() ? "（验证中…）" : ""));
+            System.out.println("UI更新 - 当前JDK: " + version + " at " + path);
+        } else {
+            currentJdkLabel.setText("当前JDK: 未检测到");
+            System.out.println("UI更新 - 未检测到当前JDK");
+        }
+    }
+    
+    /**
+     * 加载配置
+     */
+    private void loadConfiguration() {
+        // 加载作用域选择
+        EnvVariableScope lastScope = appConfig.loadLastSelectedScope();
+        // 默认选择用户级，如果上次选择的是系统级，则同时选择用户级和系统级
+        userScopeCheck.setSelected(true);
+        systemScopeCheck.setSelected(lastScope == EnvVariableScope.SYSTEM);
+        
+        // 初始化作用域状态
+        onScopeChanged();
+        
+        // 加载切换配置，选择变化时保存为当前配置
+        profileChoice.getItems().setAll(appConfig.loadSwitchProfiles());
+        String activeProfile = appConfig.loadActiveSwitchProfile().getName();
+        profileChoice.getItems().stream()
+            .filter(profile -> profile.getName().equals(activeProfile))
+            .findFirst()
+            .ifPresent(profileChoice::setValue);
+        profileChoice.valueProperty().addListener((obs, oldProfile, newProfile) -> {
+            if (newProfile != null) {
+                appConfig.saveActiveSwitchProfile(newProfile.getName());
+            }
+        });
+    }
+    
+    /**
+     * 保存配置
+     */
+    private void saveConfiguration() {
+        // 保存窗口状态
+        if (primaryStage != null) {
+            appConfig.saveWindowState(
+                primaryStage.getWidth(),
+                primaryStage.getHeight(),
+                primaryStage.getX(),
+                primaryStage.getY()
+            );
+        }
+        
+        // 保存作用域选择 - 优先保存系统级选择，如果系统级被选中则保存系统级，否则保存用户级
+        if (systemScopeCheck.isSelected()) {
+            appConfig.saveLastSelectedScope(EnvVariableScope.SYSTEM);
+        } else if (userScopeCheck.isSelected()) {
+            appConfig.saveLastSelectedScope(EnvVariableScope.USER);
+        }
+        
+        // 保存自定义路径（已经在添加时保存）
+    }
+    
+    /**
+     * 显示错误对话框
+     * @param title 标题
+     * @param message 消息
+     */
+    private void showError(String title, String message) {
+        showAlert(Alert.AlertType.ERROR, title, message);
+    }
+    
+    /**
+     * 显示警告对话框
+     * @param title 标题
+     * @param message 消息
+     */
+    private void showWarning(String title, String message) {
+        showAlert(Alert.AlertType.WARNING, title, message);
+    }
+    
+    /**
+     * 显示信息对话框
+     * @param title 标题
+     * @param message 消息
+     */
+    private void showInfo(String title, String message) {
+        showAlert(Alert.AlertType.INFORMATION, title, message);
+    }
+    
+    /**
+     * 显示对话框；窗口隐藏在托盘中时改用托盘通知，不弹出没有父窗口的对话框
+     * @param type 对话框类型
+     * @param title 标题
+     * @param message 消息
+     */
+    private void showAlert(Alert.AlertType type, String title, String message) {
+        Platform.runLater(() -> {
+            if (backgroundNotifier != null && primaryStage != null && !primaryStage.isShowing()) {
+                backgroundNotifier.notify(type, title, message);
+                return;
+            }
+            Alert alert = new Alert(type);
+            alert.setTitle(title);
+            alert.setHeaderText(null);
+            alert.setContentText(message);
+            alert.showAndWait();
+        });
+    }
+    
+    /**
+     * 结束切换耗时追踪并记录到统计中
+     * @param trace 切换追踪
+     * @param success 切换是否成功
+     */
+    private void finishSwitchTrace(SwitchTrace trace, boolean success) {
+        if (trace == SwitchTrace.disabled() || trace.isFinished()) {
+            return;
+        }
+        trace.finish(success);
+        switchMetrics.record(trace);
+        String summary = switchMetrics.formatSummary();
+        Platform.runLater(() -> currentJdkLabel.setTooltip(new Tooltip("切换耗时统计:\n" + summary)));
+    }
+    
+    /**
+     * 验证JDK切换结果
+     * 以指数退避轮询环境变量存储，确认后直接在内存列表中标记新的当前JDK，
+     * 不再重新扫描文件系统；只有在超时未能确认时才回退到全量刷新
+     * @param jdkInfo 切换到的JDK
+     * @param scopes 切换的作用域
+     * @param trace 切换耗时追踪
+     */
+    private void verifySwitchAsync(JdkInfo jdkInfo, List<EnvVariableScope> scopes, SwitchTrace trace) {
+        Task<Boolean> verifyTask = new Task<>() {
+            @Override
+            protected Boolean call() throws Exception {
+                try (SwitchTrace.Stage stage = trace.stage(SwitchTrace.STAGE_VERIFY_POLL)) {
+                    return switchVerifier.awaitJavaHome(jdkInfo.getPath(), scopes, SwitchVerifier.DEFAULT_TIMEOUT_MILLIS);
+                }
+            }
+            
+            @Override
+            protected void succeeded() {
+                if (getValue()) {
+                    long uiUpdateStart = System.nanoTime();
+                    markCurrentJdk(jdkInfo.getPath());
+                    trace.record(SwitchTrace.STAGE_UI_UPDATE, uiUpdateStart);
+                    finishSwitchTrace(trace, true);
+                } else {
+                    System.out.println("未能确认环境变量更改，回退到全量刷新");
+                    refreshJdkListAsync(trace);
+                }
+            }
+            
+            @Override
+            protected void failed() {
+                System.err.println("验证JDK切换失败: " + getException().getMessage());
+                refreshJdkListAsync(trace);
+            }
+        };
+        
+        // 无法验证时与超时一样回退到全量刷新，由刷新恢复当前JDK的显示
+        runTask(TaskLane.INTERACTIVE, verifyTask, () -> refreshJdkListAsync(trace));
+    }
+    
+    /**
+     * 在调度器的指定通道中运行任务
+     * @param lane 任务通道
+     * @param task 任务
+     * @param onRejected 任务被拒绝时在JavaFX应用线程中调用，用于恢复界面状态
+     */
+    private void runTask(TaskLane lane, Task<?> task, Runnable onRejected) {
+        try {
+            taskScheduler.execute(lane, task);
+        } catch (RejectedExecutionException e) {
+            System.err.println("任务队列已满或调度器已关闭，无法执行任务: " + lane.getLaneName());
+            System.err.println(taskScheduler.formatMetrics());
+            task.cancel();
+            onRejected.run();
+        }
+    }
+    
+    /**
+     * 添加清单监听器，每次应用新的清单快照后在JavaFX应用线程中调用
+     * @param listener 监听器
+     */
+    public void addInventoryListener(Consumer<InventorySnapshot> listener) {
+        inventoryListeners.add(listener);
+        if (lastAppliedSnapshot != null) {
+            listener.accept(lastAppliedSnapshot);
+        }
+    }
+    
+    /**
+     * 设置窗口隐藏时的通知方式
+     * @param notifier 通知方式，为null时始终弹出对话框
+     */
+    public void setBackgroundNotifier(BackgroundNotifier notifier) {
+        this.backgroundNotifier = notifier;
+    }
+    
+    /**
+     * 不经确认直接切换到指定JDK，使用当前选择的作用域，必须在JavaFX应用线程中调用
+     * 供托盘菜单一键切换使用，结果通过对话框或托盘通知反馈
+     * @param jdkPath JDK路径
+     */
+    public void switchTo(Path jdkPath) {
+        Optional<JdkInfo> target = inventoryStore.get().find(jdkPath);
+        if (target.isEmpty()) {
+            showError("切换失败", "JDK已不存在: " + jdkPath);
+            return;
+        }
+        if (target.get().isCurrent()) {
+            return;
+        }
+        List<EnvVariableScope> scopes = getSelectedScopes();
+        if (scopes.isEmpty()) {
+            showError("选择错误", "请至少选择一个环境变量作用域");
+            return;
+        }
+        String scopeText = scopes.stream().map(EnvVariableScope::getDisplayName).collect(Collectors.joining(", "));
+        switchJdkAsync(target.get(), scopes, new SwitchTrace(jdkPath.toString(), scopeText));
+    }
+    
+    /**
+     * 刷新JDK列表，可从托盘菜单调用
+     */
+    public void refresh() {
+        refreshJdkListAsync();
+    }
+    
+    /**
+     * 开始监听扫描根目录，窗口隐藏时也能在JDK安装或卸载后保持清单最新
+     */
+    public void watchInventory() {
+        if (inventoryWatcher != null) {
+            return;
+        }
+        inventoryWatcher = new InventoryWatcher(jdkScanner.getScanRoots(), INVENTORY_WATCH_DEBOUNCE,
+            () -> Platform.runLater(this::refreshJdkListAsync));
+        try {
+            inventoryWatcher.start();
+        } catch (IOException e) {
+            System.err.println("无法监听JDK目录: " + e.getMessage());
+            inventoryWatcher = null;
+        }
+    }
+    
+    /**
+     * 释放窗口隐藏期间用不到的缓存，必须在JavaFX应用线程中调用
+     * 清单和扫描器保留，重新显示窗口时无需重新扫描
+     */
+    public void releaseTransientCaches() {
+        searchField.clear();
+        jdkDetailPane.releaseCache();
+        JdkDisplayText.clearCache();
+    }
+    
+    /**
+     * 停止后台监听
+     */
+    public void shutdown() {
+        if (inventoryWatcher != null) {
+            inventoryWatcher.close();
+            inventoryWatcher = null;
+        }
+    }
+    
+    /**
+     * 在现有列表中标记当前JDK，不重新扫描
+     * @param currentPath 当前JDK路径
+     */
+    private void markCurrentJdk(Path currentPath) {
+        // 只有新旧当前JDK两个条目被替换，其余条目沿用原对象
+        applySnapshot(inventoryStore.update(previous -> previous.withCurrent(currentPath)));
+    }
+    
+    /**
+     * 窗口隐藏时的通知方式
+     */
+    @FunctionalInterface
+    public interface BackgroundNotifier {
+        /**
+         * 显示通知
+         * @param type 消息类型
+         * @param title 标题
+         * @param message 消息
+         */
+        void notify(Alert.AlertType type, String title, String message);
+    }
+
+    /**
+     * 撤销或恢复的结果，撤销按钮状态在后台线程读取切换日志后一并返回
+     */
+    private static final class JournalResult {
+        private final Optional<SwitchJournal.Entry> entry;
+        private final boolean canUndo;
+
+        JournalResult(Optional<SwitchJournal.Entry> entry, boolean canUndo) {
+            this.entry = entry;
+            this.canUndo = canUndo;
+        }
+    }
+}
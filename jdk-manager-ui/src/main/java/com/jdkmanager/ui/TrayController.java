@@ -0,0 +1,202 @@
+package com.jdkmanager.ui;
+
+import com.jdkmanager.concurrent.TaskLane;
+import com.jdkmanager.concurrent.TaskScheduler;
+import com.jdkmanager.scanner.InventorySnapshot;
+import com.jdkmanager.scanner.JdkInfo;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+import javafx.stage.Stage;
+
+import java.awt.AWTException;
+import java.awt.Color;
+import java.awt.EventQueue;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Menu;
+import java.awt.MenuItem;
+import java.awt.PopupMenu;
+import java.awt.RenderingHints;
+import java.awt.SystemTray;
+import java.awt.TrayIcon;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 系统托盘常驻模式
+ * 关闭窗口时隐藏到托盘，扫描器和清单保留在内存中；托盘菜单可以一键切换JDK。
+ * 隐藏期间释放界面缓存并触发一次垃圾回收，让堆收缩回空闲水平
+ */
+public class TrayController {
+    private static final String TOOLTIP = "Java版本管理器";
+    private static final int ICON_SIZE = 16;
+
+    private final Stage stage;
+    private final MainController controller;
+    private TrayIcon trayIcon;
+    private Menu switchMenu;
+
+    /**
+     * 构造函数
+     * @param stage 主窗口
+     * @param controller 主窗口控制器
+     */
+    public TrayController(Stage stage, MainController controller) {
+        this.stage = stage;
+        this.controller = controller;
+    }
+
+    /**
+     * 检查当前桌面是否支持系统托盘
+     * @return 支持时返回true
+     */
+    public static boolean isSupported() {
+        try {
+            return SystemTray.isSupported();
+        } catch (RuntimeException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 安装托盘图标，必须在JavaFX应用线程中调用
+     * @return 安装成功返回true
+     */
+    public boolean install() {
+        if (trayIcon != null) {
+            return true;
+        }
+        PopupMenu menu = new PopupMenu();
+        MenuItem showItem = new MenuItem("显示主窗口");
+        showItem.addActionListener(event -> Platform.runLater(this::showWindow));
+        switchMenu = new Menu("切换到");
+        MenuItem undoItem = new MenuItem("撤销上次切换");
+        undoItem.addActionListener(event -> Platform.runLater(controller::undoLastSwitch));
+        MenuItem refreshItem = new MenuItem("刷新");
+        refreshItem.addActionListener(event -> Platform.runLater(controller::refresh));
+        MenuItem exitItem = new MenuItem("退出");
+        exitItem.addActionListener(event -> Platform.runLater(this::exit));
+        menu.add(showItem);
+        menu.add(switchMenu);
+        menu.add(undoItem);
+        menu.add(refreshItem);
+        menu.addSeparator();
+        menu.add(exitItem);
+
+        TrayIcon icon = new TrayIcon(createIconImage(), TOOLTIP, menu);
+        icon.setImageAutoSize(true);
+        // 双击托盘图标打开主窗口
+        icon.addActionListener(event -> Platform.runLater(this::showWindow));
+        try {
+            SystemTray.getSystemTray().add(icon);
+        } catch (AWTException e) {
+            System.err.println("无法添加托盘图标: " + e.getMessage());
+            return false;
+        }
+        trayIcon = icon;
+
+        // 关闭窗口只隐藏到托盘，进程继续运行
+        Platform.setImplicitExit(false);
+        stage.setOnCloseRequest(event -> {
+            event.consume();
+            hideToTray();
+        });
+        controller.setBackgroundNotifier(this::notify);
+        controller.addInventoryListener(snapshot -> EventQueue.invokeLater(() -> rebuildSwitchMenu(snapshot)));
+        controller.watchInventory();
+        return true;
+    }
+
+    /**
+     * 显示并激活主窗口，必须在JavaFX应用线程中调用
+     */
+    public void showWindow() {
+        stage.show();
+        stage.setIconified(false);
+        stage.toFront();
+        stage.requestFocus();
+    }
+
+    /**
+     * 隐藏主窗口，释放界面缓存并收缩堆，必须在JavaFX应用线程中调用
+     */
+    public void hideToTray() {
+        stage.hide();
+        controller.releaseTransientCaches();
+        // 配合启动脚本的 -XX:MaxHeapFreeRatio，完整回收后把空闲的堆内存归还给系统
+        try {
+            TaskScheduler.getDefault().execute(TaskLane.BACKGROUND, System::gc);
+        } catch (RejectedExecutionException e) {
+            // 后台通道繁忙时跳过，不影响功能
+        }
+    }
+
+    private void exit() {
+        if (trayIcon != null) {
+            TrayIcon icon = trayIcon;
+            trayIcon = null;
+            EventQueue.invokeLater(() -> SystemTray.getSystemTray().remove(icon));
+        }
+        Platform.exit();
+    }
+
+    /**
+     * 按清单重建切换菜单，在AWT事件线程中调用
+     * @param snapshot 清单快照
+     */
+    private void rebuildSwitchMenu(InventorySnapshot snapshot) {
+        switchMenu.removeAll();
+        for (JdkInfo jdk : snapshot.getInstallations()) {
+            String label = (jdk.isCurrent() ? "● " : "    ") + jdk.getVersion()
+                + (jdk.is64Bit() ? "" : " (32位)") + "  " + jdk.getPath();
+            MenuItem item = new MenuItem(label);
+            item.setEnabled(!jdk.isCurrent());
+            Path path = jdk.getPath();
+            item.addActionListener(event -> Platform.runLater(() -> controller.switchTo(path)));
+            switchMenu.add(item);
+        }
+        switchMenu.setEnabled(!snapshot.getInstallations().isEmpty());
+        if (trayIcon != null) {
+            trayIcon.setToolTip(snapshot.getCurrent()
+                .map(jdk -> TOOLTIP + " - " + jdk.getVersion())
+                .orElse(TOOLTIP));
+        }
+    }
+
+    private void notify(Alert.AlertType type, String title, String message) {
+        TrayIcon.MessageType messageType;
+        switch (type) {
+            case ERROR:
+                messageType = TrayIcon.MessageType.ERROR;
+                break;
+            case WARNING:
+                messageType = TrayIcon.MessageType.WARNING;
+                break;
+            default:
+                messageType = TrayIcon.MessageType.INFO;
+        }
+        EventQueue.invokeLater(() -> {
+            if (trayIcon != null) {
+                trayIcon.displayMessage(title, message, messageType);
+            }
+        });
+    }
+
+    /**
+     * 绘制托盘图标，避免依赖AWT无法读取的ico资源
+     * @return 图标图像
+     */
+    private static BufferedImage createIconImage() {
+        BufferedImage image = new BufferedImage(ICON_SIZE, ICON_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setColor(new Color(0x2E, 0x6D, 0xB4));
+        graphics.fillRoundRect(0, 0, ICON_SIZE, ICON_SIZE, 4, 4);
+        graphics.setColor(Color.WHITE);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 12));
+        graphics.drawString("J", 5, 13);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,96 @@
+package com.jdkmanager.ui;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 界面更新泵
+ * 后台线程提交的更新先进入无锁队列，同一时间最多只有一个排队中的runLater，
+ * 在JavaFX线程中一次性取出所有积压的更新交给处理函数，
+ * 避免流式结果逐条调用runLater淹没事件队列
+ * @param <T> 更新类型
+ */
+public class UiUpdatePump<T> {
+    private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Consumer<List<T>> handler;
+    private final Executor uiExecutor;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong drainCount = new AtomicLong();
+
+    /**
+     * 构造函数，在JavaFX应用线程中处理更新
+     * @param handler 批量处理函数
+     */
+    public UiUpdatePump(Consumer<List<T>> handler) {
+        this(handler, Platform::runLater);
+    }
+
+    /**
+     * 构造函数
+     * @param handler 批量处理函数
+     * @param uiExecutor 执行处理函数的界面线程执行器
+     */
+    public UiUpdatePump(Consumer<List<T>> handler, Executor uiExecutor) {
+        if (handler == null || uiExecutor == null) {
+            throw new IllegalArgumentException("处理函数和执行器不能为空");
+        }
+        this.handler = handler;
+        this.uiExecutor = uiExecutor;
+    }
+
+    /**
+     * 提交一个更新，可以在任意线程调用
+     * @param update 更新
+     */
+    public void submit(T update) {
+        pending.add(update);
+        submittedCount.incrementAndGet();
+        if (drainScheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(this::drain);
+        }
+    }
+
+    /**
+     * 丢弃尚未处理的更新
+     */
+    public void clear() {
+        pending.clear();
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    /**
+     * 获取实际批量处理的次数
+     * @return 处理次数
+     */
+    public long getDrainCount() {
+        return drainCount.get();
+    }
+
+    private void drain() {
+        // 先清除标记，处理期间到达的更新会安排下一次处理
+        drainScheduled.set(false);
+
+        List<T> batch = new ArrayList<>();
+        T update;
+        while ((update = pending.poll()) != null) {
+            batch.add(update);
+        }
+        if (!batch.isEmpty()) {
+            drainCount.incrementAndGet();
+            handler.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jdkmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * AppCDS归档管理测试类
+ */
+class CdsArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path createJar() throws Exception {
+        Path jar = tempDir.resolve("jdk-manager.jar");
+        Files.write(jar, new byte[128]);
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1_000_000L));
+        return jar;
+    }
+
+    @Test
+    @DisplayName("测试首次启动记录生成条件，归档生成后可以复用")
+    void testStampThenReuse() throws Exception {
+        Path jar = createJar();
+        CdsArchive archive = new CdsArchive(tempDir.resolve("cds").resolve("jdk-manager.jsa"));
+
+        // 归档尚不存在，本次运行负责生成
+        assertFalse(archive.prepare(jar));
+        assertTrue(Files.exists(tempDir.resolve("cds").resolve("jdk-manager.jsa.stamp")));
+
+        // 模拟JVM退出时写入的归档
+        Files.write(archive.getArchive(), new byte[16]);
+        assertTrue(archive.prepare(jar));
+        assertTrue(Files.exists(archive.getArchive()));
+    }
+
+    @Test
+    @DisplayName("测试JAR变化后删除旧归档")
+    void testInvalidateWhenJarChanges() throws Exception {
+        Path jar = createJar();
+        CdsArchive archive = new CdsArchive(tempDir.resolve("jdk-manager.jsa"));
+        archive.prepare(jar);
+        Files.write(archive.getArchive(), new byte[16]);
+
+        Files.write(jar, new byte[256]);
+        assertFalse(archive.prepare(jar));
+        assertFalse(Files.exists(archive.getArchive()));
+        assertFalse(Files.exists(tempDir.resolve("jdk-manager.jsa.stamp")));
+    }
+
+    @Test
+    @DisplayName("测试缺少生成条件的归档视为过期")
+    void testArchiveWithoutStamp() throws Exception {
+        Path jar = createJar();
+        CdsArchive archive = new CdsArchive(tempDir.resolve("jdk-manager.jsa"));
+        Files.write(archive.getArchive(), new byte[16]);
+
+        assertFalse(archive.prepare(jar));
+        assertFalse(Files.exists(archive.getArchive()));
+    }
+}
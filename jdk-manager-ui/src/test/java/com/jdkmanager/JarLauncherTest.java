@@ -0,0 +1,109 @@
+package com.jdkmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * JAR启动器测试类
+ */
+class JarLauncherTest {
+
+    private static final String[] JAVAFX_JARS = {
+        "javafx-base.jar", "javafx-controls.jar", "javafx-fxml.jar", "javafx-graphics.jar"
+    };
+
+    @TempDir
+    Path tempDir;
+
+    private Path createAppJar(String name, String content) throws Exception {
+        Path jar = tempDir.resolve(name);
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = new JarOutputStream(out)) {
+            for (String jarName : JAVAFX_JARS) {
+                jarOut.putNextEntry(new ZipEntry("lib/" + jarName));
+                jarOut.write((jarName + content).getBytes(StandardCharsets.UTF_8));
+                jarOut.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    @Test
+    @DisplayName("测试内嵌JavaFX只解压一次并在之后复用")
+    void testExtractOnceAndReuse() throws Exception {
+        Path appJar = createAppJar("app.jar", "-17.0.2");
+        Path cacheRoot = tempDir.resolve("cache");
+
+        List<Path> first;
+        try (JarFile jarFile = new JarFile(appJar.toFile())) {
+            first = JarLauncher.extractEmbeddedJars(jarFile, cacheRoot);
+        }
+        assertEquals(JAVAFX_JARS.length, first.size());
+        assertEquals("javafx-base.jar-17.0.2", Files.readString(first.get(0)));
+
+        FileTime marker = FileTime.fromMillis(1_000_000L);
+        for (Path jar : first) {
+            Files.setLastModifiedTime(jar, marker);
+        }
+
+        List<Path> second;
+        try (JarFile jarFile = new JarFile(appJar.toFile())) {
+            second = JarLauncher.extractEmbeddedJars(jarFile, cacheRoot);
+        }
+        assertEquals(first, second);
+        for (Path jar : second) {
+            assertEquals(marker, Files.getLastModifiedTime(jar));
+        }
+    }
+
+    @Test
+    @DisplayName("测试损坏的缓存文件会被重新解压")
+    void testReextractCorruptedFile() throws Exception {
+        Path appJar = createAppJar("app.jar", "-17.0.2");
+        Path cacheRoot = tempDir.resolve("cache");
+
+        List<Path> jars;
+        try (JarFile jarFile = new JarFile(appJar.toFile())) {
+            jars = JarLauncher.extractEmbeddedJars(jarFile, cacheRoot);
+        }
+        Files.writeString(jars.get(1), "x");
+        // 大小不变但内容被改过
+        String original = Files.readString(jars.get(2));
+        Files.writeString(jars.get(2), "X" + original.substring(1));
+
+        try (JarFile jarFile = new JarFile(appJar.toFile())) {
+            JarLauncher.extractEmbeddedJars(jarFile, cacheRoot);
+        }
+        assertEquals("javafx-controls.jar-17.0.2", Files.readString(jars.get(1)));
+        assertEquals(original, Files.readString(jars.get(2)));
+    }
+
+    @Test
+    @DisplayName("测试内容不同的JavaFX使用不同的缓存目录")
+    void testCacheDirectoryByContent() throws Exception {
+        Path cacheRoot = tempDir.resolve("cache");
+
+        Path oldDir;
+        try (JarFile jarFile = new JarFile(createAppJar("old.jar", "-17.0.2").toFile())) {
+            oldDir = JarLauncher.extractEmbeddedJars(jarFile, cacheRoot).get(0).getParent();
+        }
+        Path newDir;
+        try (JarFile jarFile = new JarFile(createAppJar("new.jar", "-17.0.10").toFile())) {
+            newDir = JarLauncher.extractEmbeddedJars(jarFile, cacheRoot).get(0).getParent();
+        }
+        assertNotEquals(oldDir, newDir);
+        assertEquals(cacheRoot, oldDir.getParent());
+    }
+}
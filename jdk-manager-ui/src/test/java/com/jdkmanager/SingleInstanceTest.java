@@ -0,0 +1,60 @@
+package com.jdkmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单实例控制测试类
+ */
+class SingleInstanceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("测试第二次启动把参数交给主实例")
+    void testSecondLaunchHandsOffArguments() throws Exception {
+        Optional<SingleInstance> primary = SingleInstance.acquireOrHandOff(tempDir, new String[0]);
+        assertTrue(primary.isPresent());
+        try (SingleInstance instance = primary.get()) {
+            assertSame(instance, SingleInstance.current().orElseThrow());
+
+            // 处理器设置之前到达的请求会被保留
+            assertTrue(SingleInstance.acquireOrHandOff(tempDir, new String[] {"--tray"}).isEmpty());
+
+            BlockingQueue<List<String>> received = new ArrayBlockingQueue<>(4);
+            instance.setHandler(received::add);
+            assertEquals(List.of("--tray"), received.poll(5, TimeUnit.SECONDS));
+
+            assertTrue(SingleInstance.acquireOrHandOff(tempDir, new String[] {"a b", ""}).isEmpty());
+            assertEquals(List.of("a b"), received.poll(5, TimeUnit.SECONDS));
+        }
+
+        assertTrue(SingleInstance.current().isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("gui.port")));
+    }
+
+    @Test
+    @DisplayName("测试主实例退出后可以重新获取")
+    void testReacquireAfterClose() throws Exception {
+        SingleInstance first = SingleInstance.acquireOrHandOff(tempDir, new String[0]).orElseThrow();
+        first.close();
+
+        // 残留的端口文件不影响新的主实例
+        Files.writeString(tempDir.resolve("gui.port"), "1 stale");
+        try (SingleInstance second = SingleInstance.acquireOrHandOff(tempDir, new String[0]).orElseThrow()) {
+            assertNotSame(first, second);
+            assertNotEquals("1 stale", Files.readString(tempDir.resolve("gui.port")));
+        }
+    }
+}
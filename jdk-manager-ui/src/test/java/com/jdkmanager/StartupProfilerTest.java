@@ -0,0 +1,113 @@
+package com.jdkmanager;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 启动阶段追踪测试类
+ */
+class StartupProfilerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("测试所有里程碑到齐后输出一次报告")
+    void testReportAfterAllMilestones() throws Exception {
+        Path reportFile = tempDir.resolve("startup-profile.log");
+        StartupProfiler profiler = new StartupProfiler(true, System.nanoTime(), reportFile);
+
+        try (StartupProfiler.Phase phase = profiler.phase(StartupProfiler.PHASE_FXML_LOAD)) {
+            Thread.sleep(5);
+        }
+        profiler.attribute("inventory_cache", "hit");
+        profiler.mark(StartupProfiler.MILESTONE_FIRST_PAINT);
+        assertNull(profiler.getReport());
+
+        profiler.mark(StartupProfiler.MILESTONE_FIRST_SCAN);
+        profiler.mark(StartupProfiler.MILESTONE_FIRST_SCAN);
+
+        String report = profiler.getReport();
+        assertNotNull(report);
+        assertTrue(report.startsWith("startup-profile "));
+        assertTrue(report.contains(" fxml_load_ms="));
+        assertTrue(report.contains(" first_paint_at_ms="));
+        assertTrue(report.contains(" first_scan_at_ms="));
+        assertTrue(report.endsWith(" inventory_cache=hit"));
+        assertTrue(profiler.getPhaseNanos().get(StartupProfiler.PHASE_FXML_LOAD) >= 5_000_000L);
+
+        // 重复的里程碑不会再次写入报告
+        assertEquals(List.of(report), Files.readAllLines(reportFile));
+    }
+
+    @Test
+    @DisplayName("测试未开启时不记录")
+    void testDisabled() {
+        StartupProfiler profiler = new StartupProfiler(false, System.nanoTime(), tempDir.resolve("report.log"));
+
+        try (StartupProfiler.Phase phase = profiler.phase(StartupProfiler.PHASE_CSS_LOAD)) {
+            // 空阶段
+        }
+        profiler.mark(StartupProfiler.MILESTONE_FIRST_PAINT);
+        profiler.mark(StartupProfiler.MILESTONE_FIRST_SCAN);
+
+        assertTrue(profiler.getPhaseNanos().isEmpty());
+        assertNull(profiler.getReport());
+        assertFalse(Files.exists(tempDir.resolve("report.log")));
+    }
+
+    @Test
+    @DisplayName("测试未开启时仍然通知启动结束")
+    void testCompletionCallbackWhenDisabled() {
+        StartupProfiler profiler = new StartupProfiler(false, System.nanoTime(), null);
+        int[] calls = new int[1];
+        profiler.onComplete(() -> calls[0]++);
+
+        profiler.mark(StartupProfiler.MILESTONE_FIRST_SCAN);
+        assertEquals(0, calls[0]);
+        profiler.mark(StartupProfiler.MILESTONE_FIRST_PAINT);
+        assertEquals(1, calls[0]);
+
+        // 已结束后注册的回调立即执行
+        profiler.onComplete(() -> calls[0]++);
+        assertEquals(2, calls[0]);
+        assertNull(profiler.getReport());
+    }
+
+    @Test
+    @DisplayName("测试阶段和里程碑提交JFR事件")
+    void testJfrEvents() throws Exception {
+        StartupProfiler profiler = new StartupProfiler(true, System.nanoTime(), null);
+        Path dump = tempDir.resolve("startup.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(StartupPhaseEvent.class);
+            recording.start();
+            try (StartupProfiler.Phase phase = profiler.phase(StartupProfiler.PHASE_STAGE_SHOW)) {
+                Thread.sleep(2);
+            }
+            profiler.mark(StartupProfiler.MILESTONE_FIRST_PAINT);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+            .filter(event -> event.getEventType().getName().equals("com.jdkmanager.StartupPhase"))
+            .collect(Collectors.toList());
+        List<String> phases = events.stream()
+            .map(event -> event.getString("phase"))
+            .collect(Collectors.toList());
+        assertEquals(List.of(StartupProfiler.PHASE_STAGE_SHOW, StartupProfiler.MILESTONE_FIRST_PAINT), phases);
+        assertTrue(events.get(0).getDuration().toMillis() >= 2);
+    }
+}
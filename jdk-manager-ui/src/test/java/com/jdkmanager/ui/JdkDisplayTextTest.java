@@ -0,0 +1,69 @@
+package com.jdkmanager.ui;
+
+import com.jdkmanager.scanner.JdkInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDK列表项显示文本测试类
+ */
+class JdkDisplayTextTest {
+
+    @Test
+    @DisplayName("测试显示文本内容")
+    void testText() {
+        JdkInfo jdk = new JdkInfo("17.0.8", Path.of("jdks", "jdk-17"), true, true);
+        JdkDisplayText text = JdkDisplayText.of(jdk);
+
+        assertEquals("17.0.8 (当前)", text.getTitle());
+        assertEquals(jdk.getPath().toString(), text.getPath());
+        assertEquals("64位", text.getArchitecture());
+        assertTrue(text.getTooltipText().contains("状态: 当前使用的JDK"));
+        assertSame(text.getTooltipText(), text.getTooltipText(), "工具提示文本应只生成一次");
+    }
+
+    @Test
+    @DisplayName("测试同一对象复用缓存，新对象重新计算")
+    void testCacheValidatedByIdentity() {
+        JdkInfo jdk = new JdkInfo("11.0.20", Path.of("jdks", "jdk-11"), false);
+        JdkDisplayText first = JdkDisplayText.of(jdk);
+        assertSame(first, JdkDisplayText.of(jdk));
+
+        // 路径相同但当前状态不同的新对象不能命中旧文本
+        JdkInfo current = jdk.withCurrent(true);
+        JdkDisplayText updated = JdkDisplayText.of(current);
+        assertNotSame(first, updated);
+        assertEquals("11.0.20 (当前)", updated.getTitle());
+        assertEquals("32位", updated.getArchitecture());
+    }
+
+    @Test
+    @DisplayName("测试模拟滚动时复用已计算的显示文本")
+    void testScrollReusesText() {
+        List<JdkInfo> inventory = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            inventory.add(new JdkInfo("17.0." + i, Path.of("jdks", "jdk-" + i), true));
+        }
+
+        // 可见窗口约20个单元格，每帧向下滚动一行
+        int visibleCells = 20;
+        int frames = 1_000;
+        List<JdkDisplayText> firstPass = new ArrayList<>();
+        for (JdkInfo jdk : inventory) {
+            firstPass.add(JdkDisplayText.of(jdk));
+        }
+
+        for (int frame = 0; frame < frames; frame++) {
+            int top = frame % (inventory.size() - visibleCells);
+            for (int row = 0; row < visibleCells; row++) {
+                int index = top + row;
+                assertSame(firstPass.get(index), JdkDisplayText.of(inventory.get(index)));
+            }
+        }
+    }
+}
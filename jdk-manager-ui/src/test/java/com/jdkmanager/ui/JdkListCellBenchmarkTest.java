@@ -0,0 +1,99 @@
+package com.jdkmanager.ui;
+
+import com.jdkmanager.scanner.JdkInfo;
+import javafx.application.Platform;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * JDK列表单元格滚动基准测试
+ * 默认构建不运行，使用 mvn -Pbenchmark test 单独运行；需要能够启动JavaFX工具包的环境
+ */
+@Tag("benchmark")
+class JdkListCellBenchmarkTest {
+
+    private static final int INVENTORY_SIZE = 500;
+    // 可见窗口约20个单元格，每帧向下滚动一行
+    private static final int VISIBLE_CELLS = 20;
+    private static final int WARMUP_FRAMES = 5_000;
+    private static final int FRAMES = 20_000;
+
+    @BeforeAll
+    static void startToolkit() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+        } catch (IllegalStateException e) {
+            // 工具包已由其他测试启动
+            started.countDown();
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS), "JavaFX工具包启动超时");
+    }
+
+    @Test
+    @DisplayName("基准测试：滚动时单元格的更新开销")
+    void benchmarkScrollUpdates() throws Exception {
+        List<JdkInfo> inventory = new ArrayList<>();
+        for (int i = 0; i < INVENTORY_SIZE; i++) {
+            inventory.add(new JdkInfo("17.0." + i, Path.of("jdks", "jdk-" + i), i % 2 == 0, i == 0));
+        }
+
+        AtomicReference<String> report = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        // 单元格与ListView中一样在JavaFX应用线程中更新
+        Platform.runLater(() -> {
+            try {
+                List<JdkListCell> cells = new ArrayList<>();
+                for (int i = 0; i < VISIBLE_CELLS; i++) {
+                    cells.add(new JdkListCell());
+                }
+                scroll(cells, inventory, WARMUP_FRAMES);
+
+                long start = System.nanoTime();
+                scroll(cells, inventory, FRAMES);
+                long elapsed = System.nanoTime() - start;
+
+                JdkListCell first = cells.get(0);
+                assertNotNull(first.getGraphic());
+                assertNotNull(first.getTooltip());
+                report.set(String.format(Locale.ROOT,
+                    "jdk-list-cell-benchmark frames=%d cells_per_frame=%d ns_per_update=%.1f",
+                    FRAMES, VISIBLE_CELLS, (double) elapsed / (FRAMES * VISIBLE_CELLS)));
+            } catch (Throwable t) {
+                failure.set(t);
+            } finally {
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(2, TimeUnit.MINUTES), "基准测试超时");
+        if (failure.get() != null) {
+            fail(failure.get());
+        }
+        System.out.println(report.get());
+    }
+
+    /**
+     * 模拟滚动：每帧所有可见单元格换成下移一行后的数据
+     */
+    private static void scroll(List<JdkListCell> cells, List<JdkInfo> inventory, int frames) {
+        for (int frame = 0; frame < frames; frame++) {
+            int top = frame % (inventory.size() - cells.size());
+            for (int row = 0; row < cells.size(); row++) {
+                cells.get(row).updateItem(inventory.get(top + row), false);
+            }
+        }
+    }
+}
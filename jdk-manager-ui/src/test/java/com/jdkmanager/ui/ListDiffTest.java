@@ -0,0 +1,113 @@
+package com.jdkmanager.ui;
+
+import com.jdkmanager.scanner.JdkInfo;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 列表差异更新测试类
+ */
+class ListDiffTest {
+
+    private final JdkInfo jdk8 = new JdkInfo("1.8.0_381", Path.of("jdks", "jdk8"), true);
+    private final JdkInfo jdk11 = new JdkInfo("11.0.20", Path.of("jdks", "jdk11"), true);
+    private final JdkInfo jdk17 = new JdkInfo("17.0.8", Path.of("jdks", "jdk17"), true);
+    private final JdkInfo jdk21 = new JdkInfo("21.0.1", Path.of("jdks", "jdk21"), true);
+
+    private BatchedObservableList<JdkInfo> items;
+    private AtomicInteger changeEvents;
+
+    @BeforeEach
+    void setUp() {
+        items = new BatchedObservableList<>();
+        items.addAll(jdk8, jdk11, jdk17);
+        changeEvents = new AtomicInteger();
+        items.addListener((ListChangeListener<JdkInfo>) change -> changeEvents.incrementAndGet());
+    }
+
+    @Test
+    @DisplayName("测试相同列表不产生任何变更")
+    void testNoChanges() {
+        ListDiff.Result result = ListDiff.apply(items, Arrays.asList(jdk8, jdk11, jdk17), JdkInfo::getPath);
+
+        assertTrue(result.isEmpty());
+        assertEquals(0, changeEvents.get());
+    }
+
+    @Test
+    @DisplayName("测试新增、删除和变化合并为一次变更通知")
+    void testMixedChangesInSingleEvent() {
+        JdkInfo jdk11Current = jdk11.withCurrent(true);
+        ListDiff.Result result = ListDiff.apply(items, Arrays.asList(jdk11Current, jdk17, jdk21), JdkInfo::getPath);
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getRemoved());
+        assertEquals(1, result.getChanged());
+        assertEquals(0, result.getMoved());
+        assertEquals(1, changeEvents.get(), "所有修改应合并为一次通知");
+
+        assertEquals(Arrays.asList(jdk11Current, jdk17, jdk21), new ArrayList<>(items));
+        assertSame(jdk11Current, items.get(0));
+        assertSame(jdk17, items.get(1), "未变化的条目应保持原对象");
+    }
+
+    @Test
+    @DisplayName("测试顺序变化时移动条目")
+    void testMove() {
+        ListDiff.Result result = ListDiff.apply(items, Arrays.asList(jdk17, jdk8, jdk11), JdkInfo::getPath);
+
+        assertEquals(1, result.getMoved());
+        assertEquals(0, result.getAdded() + result.getRemoved() + result.getChanged());
+        assertEquals(Arrays.asList(jdk17, jdk8, jdk11), new ArrayList<>(items));
+        assertEquals(1, changeEvents.get());
+    }
+
+    @Test
+    @DisplayName("测试大列表重排时只移动必要的条目")
+    void testLargeReorder() {
+        List<JdkInfo> inventory = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            inventory.add(new JdkInfo("17.0." + i, Path.of("jdks", "jdk-" + i), true));
+        }
+        BatchedObservableList<JdkInfo> large = new BatchedObservableList<>();
+        large.addAll(inventory);
+
+        // 末尾条目移到最前，其余条目保持不动
+        List<JdkInfo> rotated = new ArrayList<>(inventory);
+        rotated.add(0, rotated.remove(rotated.size() - 1));
+        ListDiff.Result result = ListDiff.apply(large, rotated, JdkInfo::getPath);
+        assertEquals(1, result.getMoved());
+        assertEquals(0, result.getAdded() + result.getRemoved() + result.getChanged());
+        assertEquals(rotated, new ArrayList<>(large));
+
+        List<JdkInfo> reversed = new ArrayList<>(rotated);
+        Collections.reverse(reversed);
+        result = ListDiff.apply(large, reversed, JdkInfo::getPath);
+        assertEquals(499, result.getMoved());
+        assertEquals(reversed, new ArrayList<>(large));
+    }
+
+    @Test
+    @DisplayName("测试从空列表填充和清空")
+    void testFillAndClear() {
+        ListDiff.Result cleared = ListDiff.apply(items, Collections.emptyList(), JdkInfo::getPath);
+        assertEquals(3, cleared.getRemoved());
+        assertTrue(items.isEmpty());
+
+        List<JdkInfo> next = Arrays.asList(jdk21, jdk8);
+        ListDiff.Result filled = ListDiff.apply(items, next, JdkInfo::getPath);
+        assertEquals(2, filled.getAdded());
+        assertEquals(next, new ArrayList<>(items));
+        assertEquals(2, changeEvents.get());
+    }
+}
@@ -0,0 +1,126 @@
+package com.jdkmanager.ui;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 界面更新泵测试类
+ */
+class UiUpdatePumpTest {
+
+    /**
+     * 模拟JavaFX事件队列，手动执行排队的任务
+     */
+    private static final class ManualUiQueue {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        synchronized void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        synchronized int size() {
+            return tasks.size();
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = poll()) != null) {
+                task.run();
+            }
+        }
+
+        private synchronized Runnable poll() {
+            return tasks.poll();
+        }
+    }
+
+    @Test
+    @DisplayName("测试多次提交只排队一次并批量处理")
+    void testCoalescesIntoSingleDrain() {
+        ManualUiQueue uiQueue = new ManualUiQueue();
+        List<List<Integer>> batches = new ArrayList<>();
+        UiUpdatePump<Integer> pump = new UiUpdatePump<>(batches::add, uiQueue::execute);
+
+        for (int i = 0; i < 1000; i++) {
+            pump.submit(i);
+        }
+        assertEquals(1, uiQueue.size(), "积压期间只应排队一次");
+
+        uiQueue.runAll();
+        assertEquals(1, batches.size());
+        assertEquals(1000, batches.get(0).size());
+        assertEquals(0, batches.get(0).get(0));
+        assertEquals(999, batches.get(0).get(999));
+        assertEquals(1, pump.getDrainCount());
+        assertEquals(1000, pump.getSubmittedCount());
+    }
+
+    @Test
+    @DisplayName("测试处理后提交的更新安排新的批次")
+    void testSubmitAfterDrainSchedulesAgain() {
+        ManualUiQueue uiQueue = new ManualUiQueue();
+        List<List<String>> batches = new ArrayList<>();
+        UiUpdatePump<String> pump = new UiUpdatePump<>(batches::add, uiQueue::execute);
+
+        pump.submit("a");
+        uiQueue.runAll();
+        pump.submit("b");
+        pump.submit("c");
+        uiQueue.runAll();
+
+        assertEquals(Arrays.asList(Collections.singletonList("a"), Arrays.asList("b", "c")), batches);
+    }
+
+    @Test
+    @DisplayName("测试清空后不再处理积压的更新")
+    void testClear() {
+        ManualUiQueue uiQueue = new ManualUiQueue();
+        List<List<String>> batches = new ArrayList<>();
+        UiUpdatePump<String> pump = new UiUpdatePump<>(batches::add, uiQueue::execute);
+
+        pump.submit("stale");
+        pump.clear();
+        uiQueue.runAll();
+
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试多线程并发提交不丢失更新")
+    void testConcurrentProducers() throws Exception {
+        ManualUiQueue uiQueue = new ManualUiQueue();
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        UiUpdatePump<Integer> pump = new UiUpdatePump<>(received::addAll, uiQueue::execute);
+
+        int producers = 4;
+        int perProducer = 2500;
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    pump.submit(base + i);
+                }
+                done.countDown();
+            }).start();
+        }
+
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            uiQueue.runAll();
+        }
+        uiQueue.runAll();
+
+        assertEquals(producers * perProducer, received.size());
+        assertTrue(pump.getDrainCount() < producers * perProducer, "更新应被批量处理");
+    }
+}
@@ -9,8 +9,8 @@ echo ==================================================
 echo          恢复modules-win目录中的win.jar文件
 echo ==================================================
 
-set MODULES_WIN_DIR=%~dp0target\modules-win
-set MODULES_DIR=%~dp0target\modules
+set MODULES_WIN_DIR=%~dp0jdk-manager-ui\target\modules-win
+set MODULES_DIR=%~dp0jdk-manager-ui\target\modules
 
 echo [调试] 检查modules-win目录: %MODULES_WIN_DIR%
 echo [调试] 检查modules目录: %MODULES_DIR%
@@ -1,6 +1,9 @@
 @echo off
 rem Java Version Manager - Run as Administrator
 rem This batch file requests admin privileges and starts the JAR application
+rem Usage: start-jdk-manager.bat [--train-cds | --tray]
+rem   --train-cds  regenerate the AppCDS archive with an unattended training run
+rem   --tray       stay resident in the system tray; closing the window hides it
 
 rem Set console encoding to UTF-8
 chcp 65001 >nul
@@ -16,7 +19,11 @@ rem Request Administrator privileges
 echo Requesting Administrator privileges...
 echo.
 rem Use PowerShell to request admin privileges and rerun this batch
-powershell -Command "Start-Process '%~f0' -Verb RunAs"
+if "%~1"=="" (
+    powershell -Command "Start-Process '%~f0' -Verb RunAs"
+) else (
+    powershell -Command "Start-Process '%~f0' -ArgumentList '%*' -Verb RunAs"
+)
 exit /b
 
 :run_app
@@ -24,7 +31,7 @@ rem Get script directory
 set APP_DIR=%~dp0
 
 rem Verify JAR file exists
-if not exist "%APP_DIR%target\jdk-manager-1.0.0-executable.jar" (
+if not exist "%APP_DIR%jdk-manager-ui\target\jdk-manager-1.0.0-executable.jar" (
     echo [ERROR] Cannot find executable JAR file
     echo [DEBUG] Please ensure the project has been built successfully
     pause
@@ -44,9 +51,32 @@ if not defined JAVA_BIN (
     exit /b 1
 )
 
+rem AppCDS archive: reuse it when present, otherwise dump one when this run exits.
+rem JarLauncher deletes the archive when the JAR or the JVM has changed, so the next
+rem launch regenerates it. JDKs without dynamic archiving ignore these options.
+set CDS_ARCHIVE=%USERPROFILE%\.jdk-manager\cds\jdk-manager.jsa
+set CDS_TRAINING=false
+if /i "%~1"=="--train-cds" (
+    if exist "!CDS_ARCHIVE!" del "!CDS_ARCHIVE!"
+    set CDS_TRAINING=true
+)
+if exist "!CDS_ARCHIVE!" (
+    set CDS_OPTION=-XX:SharedArchiveFile=!CDS_ARCHIVE!
+) else (
+    if not exist "%USERPROFILE%\.jdk-manager\cds" mkdir "%USERPROFILE%\.jdk-manager\cds"
+    set CDS_OPTION=-XX:ArchiveClassesAtExit=!CDS_ARCHIVE!
+)
+
+rem Only one instance runs; a second launch activates the existing window and exits.
+set APP_ARGS=
+if /i "%~1"=="--tray" set APP_ARGS=--tray
+
+rem Let the heap shrink back after the window is hidden to the tray
+set HEAP_OPTIONS=-XX:MinHeapFreeRatio=10 -XX:MaxHeapFreeRatio=30
+
 echo Starting Java Version Manager as Administrator...
-echo [DEBUG] Starting command: !JAVA_BIN! -jar "%APP_DIR%target\jdk-manager-1.0.0-executable.jar"
-"!JAVA_BIN!" -jar "%APP_DIR%target\jdk-manager-1.0.0-executable.jar"
+echo [DEBUG] Starting command: !JAVA_BIN! !CDS_OPTION! !HEAP_OPTIONS! -jar "%APP_DIR%jdk-manager-ui\target\jdk-manager-1.0.0-executable.jar" !APP_ARGS!
+"!JAVA_BIN!" -XX:+IgnoreUnrecognizedVMOptions !HEAP_OPTIONS! "!CDS_OPTION!" "-Djdkmanager.cds.archive=!CDS_ARCHIVE!" "-Djdkmanager.cds.training=!CDS_TRAINING!" -jar "%APP_DIR%jdk-manager-ui\target\jdk-manager-1.0.0-executable.jar" !APP_ARGS!
 
 rem Show error message if application fails
 if errorlevel 1 (